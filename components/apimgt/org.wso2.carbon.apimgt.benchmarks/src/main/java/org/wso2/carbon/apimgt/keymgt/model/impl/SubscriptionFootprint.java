@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.util.SubscriptionDataStoreUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the retained heap per subscription of the subscription map of {@link SubscriptionDataStoreImpl}, keyed by
+ * the packed ids with shared attribute strings, against the string keyed map it replaces.
+ * Run with {@code java -cp benchmarks.jar org.wso2.carbon.apimgt.keymgt.model.impl.SubscriptionFootprint}.
+ */
+public class SubscriptionFootprint {
+
+    private static final int[] SUBSCRIPTION_COUNTS = {10000, 100000, 1000000};
+
+    public static void main(String[] args) {
+
+        for (int subscriptionCount : SUBSCRIPTION_COUNTS) {
+            long stringKeyedSize = GraphLayout.parseInstance(createStringKeyedMap(subscriptionCount)).totalSize();
+            long longKeyedSize = GraphLayout.parseInstance(createLongKeyedMap(subscriptionCount)).totalSize();
+            System.out.printf("%,d subscriptions: string keyed %d bytes per entity, long keyed %d bytes per entity%n",
+                    subscriptionCount, stringKeyedSize / subscriptionCount, longKeyedSize / subscriptionCount);
+        }
+    }
+
+    private static Map<String, Subscription> createStringKeyedMap(int subscriptionCount) {
+
+        Map<String, Subscription> subscriptionMap = new ConcurrentHashMap<>();
+        for (int i = 0; i < subscriptionCount; i++) {
+            Subscription subscription = SubscriptionLookupBenchmark.createSubscription(i);
+            // Each loaded subscription carries its own copies of the strings read from the event hub response
+            subscription.setPolicyId(new String(subscription.getPolicyId()));
+            subscription.setSubscriptionState(new String(subscription.getSubscriptionState()));
+            subscriptionMap.put(subscription.getCacheKey(), subscription);
+        }
+        return subscriptionMap;
+    }
+
+    private static LongKeyedMap<Subscription> createLongKeyedMap(int subscriptionCount) {
+
+        StringDictionary stringDictionary = new StringDictionary();
+        LongKeyedMap<Subscription> subscriptionMap = new LongKeyedMap<>();
+        for (int i = 0; i < subscriptionCount; i++) {
+            Subscription subscription = SubscriptionLookupBenchmark.createSubscription(i);
+            subscription.setPolicyId(stringDictionary.canonicalize(new String(subscription.getPolicyId())));
+            subscription.setSubscriptionState(
+                    stringDictionary.canonicalize(new String(subscription.getSubscriptionState())));
+            subscriptionMap.put(SubscriptionDataStoreUtil.getSubscriptionKey(subscription.getAppId(),
+                    subscription.getApiId()), subscription);
+        }
+        return subscriptionMap;
+    }
+}
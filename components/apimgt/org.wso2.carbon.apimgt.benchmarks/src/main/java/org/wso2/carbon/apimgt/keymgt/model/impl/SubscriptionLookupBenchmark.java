@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+import org.wso2.carbon.apimgt.keymgt.model.util.SubscriptionDataStoreUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the subscription lookups of {@link SubscriptionDataStoreImpl} by non key attributes through the secondary
+ * indexes against the scan of the whole subscription map which they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionLookupBenchmark {
+
+    private static final int API_COUNT = 1000;
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    private int subscriptionCount;
+
+    // Subscriptions keyed by the string cache key, as the store kept them before the indexes were added
+    private Map<String, Subscription> scannedSubscriptionMap;
+    private LongKeyedMap<Subscription> subscriptionMap;
+    private SecondaryIndex<String, Long, Subscription> subscriptionByUUIDIndex;
+    private SecondaryIndex<Integer, Long, Subscription> subscriptionsByAPIIdIndex;
+    private String[] subscriptionUUIDs;
+    private int[] apiIds;
+    private int lookup;
+
+    @Setup
+    public void setUp() {
+
+        scannedSubscriptionMap = new ConcurrentHashMap<>();
+        subscriptionMap = new LongKeyedMap<>();
+        for (int i = 0; i < subscriptionCount; i++) {
+            Subscription subscription = createSubscription(i);
+            scannedSubscriptionMap.put(subscription.getCacheKey(), subscription);
+            subscriptionMap.put(SubscriptionDataStoreUtil.getSubscriptionKey(subscription.getAppId(),
+                    subscription.getApiId()), subscription);
+        }
+        subscriptionByUUIDIndex = new SecondaryIndex<>(Subscription::getSubscriptionUUId);
+        subscriptionsByAPIIdIndex = new SecondaryIndex<>(Subscription::getApiId);
+        subscriptionByUUIDIndex.rebuild(subscriptionMap::forEach);
+        subscriptionsByAPIIdIndex.rebuild(subscriptionMap::forEach);
+
+        Random random = new Random(42);
+        subscriptionUUIDs = new String[LOOKUP_COUNT];
+        apiIds = new int[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            subscriptionUUIDs[i] = getSubscriptionUUID(random.nextInt(subscriptionCount));
+            apiIds[i] = random.nextInt(API_COUNT) + 1;
+        }
+    }
+
+    @Benchmark
+    public Subscription indexedSubscriptionByUUID() {
+
+        return subscriptionByUUIDIndex.getFirst(subscriptionUUIDs[nextLookup()], subscriptionMap::get);
+    }
+
+    @Benchmark
+    public Subscription scannedSubscriptionByUUID() {
+
+        String subscriptionUUID = subscriptionUUIDs[nextLookup()];
+        for (Subscription subscription : scannedSubscriptionMap.values()) {
+            if (subscriptionUUID.equals(subscription.getSubscriptionUUId())) {
+                return subscription;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public List<Subscription> indexedSubscriptionsByAPIId() {
+
+        return subscriptionsByAPIIdIndex.getAll(apiIds[nextLookup()], subscriptionMap::get);
+    }
+
+    @Benchmark
+    public List<Subscription> scannedSubscriptionsByAPIId() {
+
+        int apiId = apiIds[nextLookup()];
+        List<Subscription> subscriptionList = new ArrayList<>();
+        for (Subscription subscription : scannedSubscriptionMap.values()) {
+            if (subscription.getApiId() == apiId) {
+                subscriptionList.add(subscription);
+            }
+        }
+        return subscriptionList;
+    }
+
+    private int nextLookup() {
+
+        lookup = (lookup + 1) & (LOOKUP_COUNT - 1);
+        return lookup;
+    }
+
+    static Subscription createSubscription(int index) {
+
+        int apiId = index % API_COUNT + 1;
+        int appId = index / API_COUNT + 1;
+        Subscription subscription = new Subscription();
+        subscription.setSubscriptionId(String.valueOf(index + 1));
+        subscription.setSubscriptionUUId(getSubscriptionUUID(index));
+        subscription.setApiId(apiId);
+        subscription.setApiUUID("api-" + apiId);
+        subscription.setAppId(appId);
+        subscription.setApplicationUUID("app-" + appId);
+        subscription.setPolicyId("Unlimited");
+        subscription.setSubscriptionState("UNBLOCKED");
+        subscription.setTimeStamp(index);
+        return subscription;
+    }
+
+    private static String getSubscriptionUUID(int index) {
+
+        return "sub-" + index;
+    }
+}
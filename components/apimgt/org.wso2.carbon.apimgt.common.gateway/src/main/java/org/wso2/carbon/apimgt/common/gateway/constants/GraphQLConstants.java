@@ -47,6 +47,8 @@ public class GraphQLConstants {
     public static final String MAXIMUM_QUERY_DEPTH = "max_query_depth";
     public static final String GRAPHQL_MAX_DEPTH = "graphQLMaxDepth";
     public static final String GRAPHQL_MAX_COMPLEXITY = "graphQLMaxComplexity";
+    public static final String GRAPHQL_OPERATION_NAME = "operationName";
+    public static final String GRAPHQL_VARIABLES = "variables";
 
     /**
      * GraphQL Constants related to GraphQL Subscription operations
@@ -28,9 +28,10 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.apimgt.common.gateway.constants.GraphQLConstants;
 
-import java.math.BigInteger;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Implementation for GraphQL query field complexity calculator.
@@ -40,6 +41,8 @@ public class FieldComplexityCalculatorImpl implements FieldComplexityCalculator
     private static final Log log = LogFactory.getLog(FieldComplexityCalculatorImpl.class);
     protected JSONParser jsonParser = new JSONParser();
     protected JSONObject policyDefinition;
+    // Custom complexity values by parent type name and field name, read once from the policy definition
+    private final Map<String, Map<String, Integer>> customComplexityTable;
 
     public FieldComplexityCalculatorImpl(String accessControlPolicy) throws ParseException {
         if (accessControlPolicy == null) {
@@ -48,6 +51,29 @@ public class FieldComplexityCalculatorImpl implements FieldComplexityCalculator
             JSONObject jsonObject = (JSONObject) jsonParser.parse(accessControlPolicy);
             policyDefinition = (JSONObject) jsonObject.get(GraphQLConstants.QUERY_ANALYSIS_COMPLEXITY);
         }
+        customComplexityTable = buildCustomComplexityTable(policyDefinition);
+    }
+
+    private static Map<String, Map<String, Integer>> buildCustomComplexityTable(JSONObject policyDefinition) {
+
+        Map<String, Map<String, Integer>> complexityTable = new HashMap<>();
+        if (policyDefinition == null) {
+            return complexityTable;
+        }
+        for (Object typeEntry : policyDefinition.entrySet()) {
+            Map.Entry<?, ?> type = (Map.Entry<?, ?>) typeEntry;
+            if (type.getValue() instanceof JSONObject) {
+                Map<String, Integer> fieldComplexities = new HashMap<>();
+                for (Object fieldEntry : ((JSONObject) type.getValue()).entrySet()) {
+                    Map.Entry<?, ?> field = (Map.Entry<?, ?>) fieldEntry;
+                    if (field.getValue() instanceof Number) {
+                        fieldComplexities.put(String.valueOf(field.getKey()), ((Number) field.getValue()).intValue());
+                    }
+                }
+                complexityTable.put(String.valueOf(type.getKey()), fieldComplexities);
+            }
+        }
+        return complexityTable;
     }
 
     /**
@@ -63,16 +89,16 @@ public class FieldComplexityCalculatorImpl implements FieldComplexityCalculator
         String parentType = fieldComplexityEnvironment.getParentType().getName();
         List<Argument> argumentList = fieldComplexityEnvironment.getField().getArguments();
 
-        int argumentsValue = getArgumentsValue(argumentList);
-        int customFieldComplexity = getCustomComplexity(fieldName, parentType, policyDefinition);
+        int argumentsValue = getArgumentsValue(argumentList, fieldComplexityEnvironment.getArguments());
+        int customFieldComplexity = getCustomComplexity(fieldName, parentType);
         return (argumentsValue * (customFieldComplexity + childComplexity));
     }
 
-    private int getCustomComplexity(String fieldName, String parentType, JSONObject policyDefinition) {
+    private int getCustomComplexity(String fieldName, String parentType) {
 
-        JSONObject customComplexity = (JSONObject) policyDefinition.get(parentType);
+        Map<String, Integer> customComplexity = customComplexityTable.get(parentType);
         if (customComplexity != null && customComplexity.get(fieldName) != null) {
-            return ((Long) customComplexity.get(fieldName)).intValue(); // Returns custom complexity value
+            return customComplexity.get(fieldName); // Returns custom complexity value
         } else {
             if (log.isDebugEnabled()) {
                 log.debug("No custom complexity value was assigned for " + fieldName + " under type " + parentType);
@@ -81,7 +107,11 @@ public class FieldComplexityCalculatorImpl implements FieldComplexityCalculator
         }
     }
 
-    private int getArgumentsValue(List<Argument> argumentList) {
+    /**
+     * Returns the multiplier of the field complexity given by its arguments. The values of the slicing arguments are
+     * read from the resolved argument values of the field, so that the values given as variables are also counted.
+     */
+    private int getArgumentsValue(List<Argument> argumentList, Map<String, Object> argumentValues) {
 
         int argumentValue = 0;
         if (argumentList.size() > 0) {
@@ -91,13 +121,12 @@ public class FieldComplexityCalculatorImpl implements FieldComplexityCalculator
                 // given as the value of the argument.
                 List<String> slicingArguments = GraphQLConstants.QUERY_COMPLEXITY_SLICING_ARGS;
                 if (slicingArguments.contains(argumentName.toLowerCase(Locale.ROOT))) {
-                    BigInteger value = null;
-                    if (object.getValue() instanceof IntValue) {
-                        value = ((IntValue) object.getValue()).getValue();
-                    }
+                    Object resolvedValue = argumentValues != null ? argumentValues.get(argumentName) : null;
                     int val = 0;
-                    if (value != null) {
-                        val = value.intValue();
+                    if (resolvedValue instanceof Number) {
+                        val = ((Number) resolvedValue).intValue();
+                    } else if (object.getValue() instanceof IntValue) {
+                        val = ((IntValue) object.getValue()).getValue().intValue();
                     }
                     argumentValue = argumentValue + val;
                 } else {
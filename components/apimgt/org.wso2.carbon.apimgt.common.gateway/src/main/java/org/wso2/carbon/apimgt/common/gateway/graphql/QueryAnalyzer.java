@@ -18,26 +18,64 @@
  */
 package org.wso2.carbon.apimgt.common.gateway.graphql;
 
-import graphql.ExecutionResult;
-import graphql.GraphQL;
-import graphql.GraphQLError;
+import graphql.AssertException;
+import graphql.GraphQLException;
 import graphql.analysis.FieldComplexityCalculator;
-import graphql.analysis.MaxQueryComplexityInstrumentation;
-import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.execution.CoercedVariables;
+import graphql.execution.RawVariables;
+import graphql.execution.ValuesResolver;
+import graphql.introspection.Introspection;
+import graphql.language.BooleanValue;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLCompositeType;
+import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.apimgt.common.gateway.dto.QueryAnalyzerResponseDTO;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * This class contains methods using for Graphql query depth and complexity analysis.
+ * <p>
+ * The analysis walks the syntax tree of the query against the schema, the same way graphql-java's
+ * {@code MaxQueryDepthInstrumentation} and {@code MaxQueryComplexityInstrumentation} do, without executing the query.
+ * Fragments are inlined and fields excluded by a literal {@code @skip} or {@code @include} directive are not counted.
+ * Only the operation selected by the operation name of the request is analysed, and the complexity of each field is
+ * calculated with its argument values resolved against the variables of the request.
  */
 public class QueryAnalyzer {
 
     private static final Log log = LogFactory.getLog(QueryAnalyzer.class);
+    private static final String SKIP_DIRECTIVE = "skip";
+    private static final String INCLUDE_DIRECTIVE = "include";
+    private static final String DIRECTIVE_CONDITION = "if";
     private final GraphQLSchema schema;
+    private volatile ComplexityCalculatorHolder complexityCalculatorHolder;
 
     public QueryAnalyzer(GraphQLSchema schema) {
         this.schema = schema;
@@ -55,35 +93,58 @@ public class QueryAnalyzer {
         if (log.isDebugEnabled()) {
             log.debug("Analyzing query depth for " + payload + " and max query depth:" + maxQueryDepth);
         }
-        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
-
         // If maxQueryDepth is a positive value, perform the depth limitation check. Otherwise, bypass the check.
         if (maxQueryDepth > 0) {
-            MaxQueryDepthInstrumentation maxQueryDepthInstrumentation =
-                    new MaxQueryDepthInstrumentation(maxQueryDepth);
-            GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryDepthInstrumentation).build();
-
-            ExecutionResult executionResult = runtime.execute(payload);
-            List<GraphQLError> errors = executionResult.getErrors();
-            if (errors.size() > 0) {
-                for (GraphQLError error : errors) {
-                    queryAnalyzerResponseDTO.addErrorToList((error.getMessage()));
-                }
-                // TODO: https://github.com/wso2/carbon-apimgt/issues/8147
-                queryAnalyzerResponseDTO.getErrorList().removeIf(s -> s.contains("non-nullable"));
-                if (queryAnalyzerResponseDTO.getErrorList().size() == 0) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Maximum query depth of " + maxQueryDepth + " was not exceeded");
-                    }
-                    queryAnalyzerResponseDTO.setSuccess(true);
-                    return queryAnalyzerResponseDTO;
-                }
+            QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+            Document document = parseDocument(payload, queryAnalyzerResponseDTO);
+            if (document == null) {
+                return queryAnalyzerResponseDTO;
+            }
+            return analyseQueryDepth(maxQueryDepth, document);
+        }
+        return successResponse();
+    }
+
+    /**
+     * This method analyses the depth of an already parsed query.
+     *
+     * @param maxQueryDepth maximum query depth
+     * @param document      parsed payload of the request
+     * @return true, if the query depth does not exceed the maximum value or false, if query depth exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryDepth(int maxQueryDepth, Document document) {
+
+        return analyseQueryDepth(maxQueryDepth, document, null);
+    }
+
+    /**
+     * This method analyses the depth of the operation of an already parsed query selected by the operation name.
+     *
+     * @param maxQueryDepth maximum query depth
+     * @param document      parsed payload of the request
+     * @param operationName operation name of the request, or null if it is not given
+     * @return true, if the query depth does not exceed the maximum value or false, if query depth exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryDepth(int maxQueryDepth, Document document, String operationName) {
+
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+        if (maxQueryDepth > 0) {
+            Map<String, FragmentDefinition> fragments = getFragments(document);
+            int depth = 0;
+            for (OperationDefinition operation : getOperations(document, operationName)) {
+                depth = Math.max(depth, getDepth(operation.getSelectionSet(), 1, fragments, new HashSet<>()));
+            }
+            if (depth > maxQueryDepth) {
+                queryAnalyzerResponseDTO.addErrorToList("maximum query depth exceeded " + depth + " > "
+                        + maxQueryDepth);
                 log.error(queryAnalyzerResponseDTO.getErrorList().toString());
                 queryAnalyzerResponseDTO.setSuccess(false);
                 return queryAnalyzerResponseDTO;
             }
+            if (log.isDebugEnabled()) {
+                log.debug("Maximum query depth of " + maxQueryDepth + " was not exceeded");
+            }
         }
-
         queryAnalyzerResponseDTO.setSuccess(true);
         return queryAnalyzerResponseDTO;
     }
@@ -102,38 +163,70 @@ public class QueryAnalyzer {
         if (log.isDebugEnabled()) {
             log.debug("Analyzing query complexity for " + payload + " and max complexity: " + maxQueryComplexity);
         }
-        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
-
         // If maxQueryComplexity is a positive value, perform the complexity limitation check.
         // Otherwise, bypass the check.
         if (maxQueryComplexity > 0) {
-            MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation =
-                    new MaxQueryComplexityInstrumentation(maxQueryComplexity, fieldComplexityCalculator);
-            GraphQL runtime = GraphQL.newGraphQL(schema).instrumentation(maxQueryComplexityInstrumentation).build();
-
-            ExecutionResult executionResult = runtime.execute(payload);
-            List<GraphQLError> errors = executionResult.getErrors();
-            if (errors.size() > 0) {
-                for (GraphQLError error : errors) {
-                    queryAnalyzerResponseDTO.addErrorToList((error.getMessage()));
-                }
-                // TODO: https://github.com/wso2/carbon-apimgt/issues/8147
-                queryAnalyzerResponseDTO.getErrorList().removeIf(s -> s.contains("non-nullable"));
-                if (queryAnalyzerResponseDTO.getErrorList().size() == 0) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Maximum query complexity was not exceeded");
-                    }
-                    queryAnalyzerResponseDTO.setSuccess(true);
-                } else {
-                    log.error(queryAnalyzerResponseDTO.getErrorList());
-                    queryAnalyzerResponseDTO.getErrorList().clear();
-                    queryAnalyzerResponseDTO.addErrorToList("maximum query complexity exceeded");
+            QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+            Document document = parseDocument(payload, queryAnalyzerResponseDTO);
+            if (document == null) {
+                return queryAnalyzerResponseDTO;
+            }
+            return analyseQueryComplexity(maxQueryComplexity, document, fieldComplexityCalculator);
+        }
+        return successResponse();
+    }
+
+    /**
+     * This method analyses the complexity of an already parsed query.
+     *
+     * @param maxQueryComplexity        Maximum query complexity value
+     * @param document                  parsed payload of the request
+     * @param fieldComplexityCalculator Field Complexity Calculator
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryComplexity(int maxQueryComplexity, Document document,
+                                                           FieldComplexityCalculator fieldComplexityCalculator) {
+
+        return analyseQueryComplexity(maxQueryComplexity, document, null, null, fieldComplexityCalculator);
+    }
+
+    /**
+     * This method analyses the complexity of the operation of an already parsed query selected by the operation
+     * name.
+     *
+     * @param maxQueryComplexity        Maximum query complexity value
+     * @param document                  parsed payload of the request
+     * @param operationName             operation name of the request, or null if it is not given
+     * @param variables                 variables of the request, or null if they are not given
+     * @param fieldComplexityCalculator Field Complexity Calculator
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryComplexity(int maxQueryComplexity, Document document,
+                                                           String operationName, Map<String, Object> variables,
+                                                           FieldComplexityCalculator fieldComplexityCalculator) {
+
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+        if (maxQueryComplexity > 0) {
+            Map<String, FragmentDefinition> fragments = getFragments(document);
+            int complexity = 0;
+            for (OperationDefinition operation : getOperations(document, operationName)) {
+                GraphQLCompositeType rootType = getRootType(operation);
+                if (rootType != null) {
+                    CoercedVariables coercedVariables = getVariables(operation, variables);
+                    complexity = Math.max(complexity, getComplexity(operation.getSelectionSet(), rootType, null,
+                            coercedVariables, fieldComplexityCalculator, fragments, new HashSet<>()));
                 }
+            }
+            if (complexity > maxQueryComplexity) {
+                log.error("[maximum query complexity exceeded " + complexity + " > " + maxQueryComplexity + "]");
+                queryAnalyzerResponseDTO.addErrorToList("maximum query complexity exceeded");
                 queryAnalyzerResponseDTO.setSuccess(false);
                 return queryAnalyzerResponseDTO;
             }
+            if (log.isDebugEnabled()) {
+                log.debug("Maximum query complexity was not exceeded");
+            }
         }
-
         queryAnalyzerResponseDTO.setSuccess(true);
         return queryAnalyzerResponseDTO;
     }
@@ -147,11 +240,326 @@ public class QueryAnalyzer {
      */
     public QueryAnalyzerResponseDTO analyseQueryMutationComplexity(String payload, int maxQueryComplexity,
                                                                    String complexityInfoJson) throws ParseException {
-        FieldComplexityCalculator fieldComplexityCalculator = new FieldComplexityCalculatorImpl(complexityInfoJson);
-        return analyseQueryComplexity(maxQueryComplexity, payload, fieldComplexityCalculator);
+        if (maxQueryComplexity <= 0) {
+            return successResponse();
+        }
+        return analyseQueryComplexity(maxQueryComplexity, payload, getFieldComplexityCalculator(complexityInfoJson));
+    }
+
+    /**
+     * This method analyses the complexity of an already parsed query.
+     *
+     * @param document           parsed payload of the request
+     * @param complexityInfoJson gql complexity info in json string format
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryMutationComplexity(Document document, int maxQueryComplexity,
+                                                                   String complexityInfoJson) throws ParseException {
+        return analyseQueryMutationComplexity(document, null, null, maxQueryComplexity, complexityInfoJson);
+    }
+
+    /**
+     * This method analyses the complexity of the operation of an already parsed query selected by the operation
+     * name.
+     *
+     * @param document           parsed payload of the request
+     * @param operationName      operation name of the request, or null if it is not given
+     * @param variables          variables of the request, or null if they are not given
+     * @param complexityInfoJson gql complexity info in json string format
+     * @return true, if query complexity does not exceed the maximum or false, if query complexity exceeds the maximum
+     */
+    public QueryAnalyzerResponseDTO analyseQueryMutationComplexity(Document document, String operationName,
+                                                                   Map<String, Object> variables,
+                                                                   int maxQueryComplexity,
+                                                                   String complexityInfoJson) throws ParseException {
+        if (maxQueryComplexity <= 0) {
+            return successResponse();
+        }
+        return analyseQueryComplexity(maxQueryComplexity, document, operationName, variables,
+                getFieldComplexityCalculator(complexityInfoJson));
     }
 
     public GraphQLSchema getSchema() {
         return schema;
     }
+
+    /**
+     * Returns the field complexity calculator of the given complexity info. The complexity info of an API changes
+     * only when the API is redeployed, so the calculator built for the last seen complexity info is reused.
+     *
+     * @param complexityInfoJson gql complexity info in json string format
+     * @return field complexity calculator
+     * @throws ParseException if the complexity info is not valid json
+     */
+    private FieldComplexityCalculator getFieldComplexityCalculator(String complexityInfoJson) throws ParseException {
+
+        ComplexityCalculatorHolder holder = complexityCalculatorHolder;
+        if (holder == null || !Objects.equals(holder.complexityInfoJson, complexityInfoJson)) {
+            holder = new ComplexityCalculatorHolder(complexityInfoJson,
+                    new FieldComplexityCalculatorImpl(complexityInfoJson));
+            complexityCalculatorHolder = holder;
+        }
+        return holder.fieldComplexityCalculator;
+    }
+
+    private Document parseDocument(String payload, QueryAnalyzerResponseDTO queryAnalyzerResponseDTO) {
+
+        try {
+            return new Parser().parseDocument(payload);
+        } catch (InvalidSyntaxException e) {
+            queryAnalyzerResponseDTO.addErrorToList(e.getMessage());
+            log.error(queryAnalyzerResponseDTO.getErrorList().toString());
+            queryAnalyzerResponseDTO.setSuccess(false);
+            return null;
+        }
+    }
+
+    private static QueryAnalyzerResponseDTO successResponse() {
+
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = new QueryAnalyzerResponseDTO();
+        queryAnalyzerResponseDTO.setSuccess(true);
+        return queryAnalyzerResponseDTO;
+    }
+
+    private static Map<String, FragmentDefinition> getFragments(Document document) {
+
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof FragmentDefinition) {
+                FragmentDefinition fragmentDefinition = (FragmentDefinition) definition;
+                fragments.put(fragmentDefinition.getName(), fragmentDefinition);
+            }
+        }
+        return fragments;
+    }
+
+    /**
+     * Returns the operation of the document selected by the operation name, as done by graphql-java on execution.
+     * If no operation can be selected, the request is rejected on execution, so all the operations are returned to
+     * keep the analysis on the safe side.
+     */
+    private static List<OperationDefinition> getOperations(Document document, String operationName) {
+
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName == null || operationName.isEmpty() || operations.size() <= 1) {
+            return operations;
+        }
+        for (OperationDefinition operation : operations) {
+            if (operationName.equals(operation.getName())) {
+                return Collections.singletonList(operation);
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Coerces the variables of the request to the variable types of the operation. Variables which can not be
+     * coerced make the request fail on execution, so the analysis then continues without variables.
+     */
+    private CoercedVariables getVariables(OperationDefinition operation, Map<String, Object> variables) {
+
+        if (variables == null || variables.isEmpty()) {
+            return CoercedVariables.emptyVariables();
+        }
+        try {
+            return ValuesResolver.coerceVariableValues(schema, operation.getVariableDefinitions(),
+                    RawVariables.of(variables));
+        } catch (GraphQLException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Variables of the operation " + operation.getName() + " can not be coerced", e);
+            }
+            return CoercedVariables.emptyVariables();
+        }
+    }
+
+    private Map<String, Object> getArgumentValues(Field field, GraphQLFieldDefinition fieldDefinition,
+                                                  CoercedVariables variables) {
+
+        if (field.getArguments().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return ValuesResolver.getArgumentValues(schema.getCodeRegistry(), fieldDefinition.getArguments(),
+                    field.getArguments(), variables);
+        } catch (GraphQLException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Arguments of the field " + field.getName() + " can not be resolved", e);
+            }
+            return Collections.emptyMap();
+        }
+    }
+
+    private GraphQLCompositeType getRootType(OperationDefinition operation) {
+
+        if (operation.getOperation() == null) {
+            return schema.getQueryType();
+        }
+        switch (operation.getOperation()) {
+            case MUTATION:
+                return schema.getMutationType();
+            case SUBSCRIPTION:
+                return schema.getSubscriptionType();
+            default:
+                return schema.getQueryType();
+        }
+    }
+
+    /**
+     * Returns the depth of the deepest field of the selection set, counting the fields of the selection set as the
+     * given level.
+     */
+    private static int getDepth(SelectionSet selectionSet, int level, Map<String, FragmentDefinition> fragments,
+                                Set<String> visitedFragments) {
+
+        int depth = 0;
+        if (selectionSet == null) {
+            return depth;
+        }
+        for (Selection selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                Field field = (Field) selection;
+                if (isIncluded(field.getDirectives())) {
+                    depth = Math.max(depth, Math.max(level,
+                            getDepth(field.getSelectionSet(), level + 1, fragments, visitedFragments)));
+                }
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                if (isIncluded(inlineFragment.getDirectives())) {
+                    depth = Math.max(depth,
+                            getDepth(inlineFragment.getSelectionSet(), level, fragments, visitedFragments));
+                }
+            } else if (selection instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                FragmentDefinition fragmentDefinition = fragments.get(fragmentSpread.getName());
+                if (fragmentDefinition != null && isIncluded(fragmentSpread.getDirectives())
+                        && visitedFragments.add(fragmentSpread.getName())) {
+                    depth = Math.max(depth,
+                            getDepth(fragmentDefinition.getSelectionSet(), level, fragments, visitedFragments));
+                    visitedFragments.remove(fragmentSpread.getName());
+                }
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Returns the sum of the complexities of the fields of the selection set. The complexity of each field is
+     * calculated from the complexities of its own sub fields, as done by graphql-java.
+     */
+    private int getComplexity(SelectionSet selectionSet, GraphQLCompositeType parentType,
+                              FieldComplexityEnvironment parentEnvironment, CoercedVariables variables,
+                              FieldComplexityCalculator fieldComplexityCalculator,
+                              Map<String, FragmentDefinition> fragments, Set<String> visitedFragments) {
+
+        int complexity = 0;
+        if (selectionSet == null) {
+            return complexity;
+        }
+        for (Selection selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                Field field = (Field) selection;
+                if (isIncluded(field.getDirectives())) {
+                    complexity += getFieldComplexity(field, parentType, parentEnvironment, variables,
+                            fieldComplexityCalculator, fragments, visitedFragments);
+                }
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                if (isIncluded(inlineFragment.getDirectives())) {
+                    GraphQLCompositeType fragmentType = getFragmentType(inlineFragment.getTypeCondition(),
+                            parentType);
+                    complexity += getComplexity(inlineFragment.getSelectionSet(), fragmentType, parentEnvironment,
+                            variables, fieldComplexityCalculator, fragments, visitedFragments);
+                }
+            } else if (selection instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                FragmentDefinition fragmentDefinition = fragments.get(fragmentSpread.getName());
+                if (fragmentDefinition != null && isIncluded(fragmentSpread.getDirectives())
+                        && visitedFragments.add(fragmentSpread.getName())) {
+                    GraphQLCompositeType fragmentType = getFragmentType(fragmentDefinition.getTypeCondition(),
+                            parentType);
+                    complexity += getComplexity(fragmentDefinition.getSelectionSet(), fragmentType,
+                            parentEnvironment, variables, fieldComplexityCalculator, fragments, visitedFragments);
+                    visitedFragments.remove(fragmentSpread.getName());
+                }
+            }
+        }
+        return complexity;
+    }
+
+    private int getFieldComplexity(Field field, GraphQLCompositeType parentType,
+                                   FieldComplexityEnvironment parentEnvironment, CoercedVariables variables,
+                                   FieldComplexityCalculator fieldComplexityCalculator,
+                                   Map<String, FragmentDefinition> fragments, Set<String> visitedFragments) {
+
+        if (Introspection.TypeNameMetaFieldDef.getName().equals(field.getName())) {
+            return 0;
+        }
+        GraphQLFieldDefinition fieldDefinition = getFieldDefinition(parentType, field.getName());
+        if (fieldDefinition == null) {
+            // Unknown fields are rejected by the schema validation, so they do not add up to the complexity.
+            return 0;
+        }
+        FieldComplexityEnvironment environment = new FieldComplexityEnvironment(field, fieldDefinition, parentType,
+                getArgumentValues(field, fieldDefinition, variables), parentEnvironment);
+        int childComplexity = 0;
+        GraphQLType fieldType = GraphQLTypeUtil.unwrapAll(fieldDefinition.getType());
+        if (field.getSelectionSet() != null && fieldType instanceof GraphQLCompositeType) {
+            childComplexity = getComplexity(field.getSelectionSet(), (GraphQLCompositeType) fieldType, environment,
+                    variables, fieldComplexityCalculator, fragments, visitedFragments);
+        }
+        return fieldComplexityCalculator.calculate(environment, childComplexity);
+    }
+
+    private GraphQLFieldDefinition getFieldDefinition(GraphQLCompositeType parentType, String fieldName) {
+
+        try {
+            return Introspection.getFieldDef(schema, parentType, fieldName);
+        } catch (AssertException e) {
+            return null;
+        }
+    }
+
+    private GraphQLCompositeType getFragmentType(TypeName typeCondition, GraphQLCompositeType parentType) {
+
+        if (typeCondition != null) {
+            GraphQLType type = schema.getType(typeCondition.getName());
+            if (type instanceof GraphQLCompositeType) {
+                return (GraphQLCompositeType) type;
+            }
+        }
+        return parentType;
+    }
+
+    /**
+     * Checks the {@code @skip} and {@code @include} directives of a selection. Conditions given as variables can
+     * not be resolved without the request variables, so such selections are considered to be included.
+     */
+    private static boolean isIncluded(List<Directive> directives) {
+
+        for (Directive directive : directives) {
+            if (SKIP_DIRECTIVE.equals(directive.getName()) || INCLUDE_DIRECTIVE.equals(directive.getName())) {
+                if (directive.getArgument(DIRECTIVE_CONDITION) != null) {
+                    Value value = directive.getArgument(DIRECTIVE_CONDITION).getValue();
+                    if (value instanceof BooleanValue
+                            && ((BooleanValue) value).isValue() == SKIP_DIRECTIVE.equals(directive.getName())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static final class ComplexityCalculatorHolder {
+
+        private final String complexityInfoJson;
+        private final FieldComplexityCalculator fieldComplexityCalculator;
+
+        private ComplexityCalculatorHolder(String complexityInfoJson,
+                                           FieldComplexityCalculator fieldComplexityCalculator) {
+
+            this.complexityInfoJson = complexityInfoJson;
+            this.fieldComplexityCalculator = fieldComplexityCalculator;
+        }
+    }
 }
@@ -17,6 +17,8 @@
  */
 package org.wso2.carbon.apimgt.common.gateway.graphql;
 
+import graphql.language.Document;
+import graphql.parser.Parser;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
@@ -29,6 +31,7 @@ import org.wso2.carbon.apimgt.common.gateway.dto.QueryAnalyzerResponseDTO;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 
 /**
  * Test cases for {@link QueryAnalyzer}
@@ -120,4 +123,91 @@ public class QueryAnalyzerTestCase {
         Assert.assertTrue(queryAnalyzerResponseDTO.isSuccess());
         Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().isEmpty());
     }
+
+    @Test
+    public void testAnalyseQueryDepthWithFragments() {
+        String payload = "query {\n" +
+                "  allLifts {\n" +
+                "    ...liftInfo\n" +
+                "  }\n" +
+                "}\n" +
+                "fragment liftInfo on Lift {\n" +
+                "  trailAccess {\n" +
+                "    accessedByLifts {\n" +
+                "      id\n" +
+                "    }\n" +
+                "  }\n" +
+                "}\n";
+        Document document = new Parser().parseDocument(payload);
+        Assert.assertTrue(queryAnalyzer.analyseQueryDepth(4, document).isSuccess());
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryDepth(3, document);
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().toString()
+                .contains("maximum query depth exceeded 4 > 3"));
+    }
+
+    @Test
+    public void testAnalyseQueryComplexityWithSkippedField() throws Exception {
+        String payload = "query {\n" +
+                "  allLifts {\n" +
+                "    id\n" +
+                "    name @skip(if: true)\n" +
+                "  }\n" +
+                "}\n";
+        Document document = new Parser().parseDocument(payload);
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryComplexity(2, document,
+                fieldComplexityCalculator);
+        Assert.assertTrue(queryAnalyzerResponseDTO.isSuccess());
+        queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryMutationComplexity(document, 1,
+                "{\"complexity\":{\"Lift\":{\"id\":1}}}");
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().toString()
+                .contains("maximum query complexity exceeded"));
+    }
+
+    @Test
+    public void testAnalyseQueryDepthOfSelectedOperation() {
+        String payload = "query shallow {\n" +
+                "  liftCount\n" +
+                "}\n" +
+                "query deep {\n" +
+                "  allLifts {\n" +
+                "    trailAccess {\n" +
+                "      id\n" +
+                "    }\n" +
+                "  }\n" +
+                "}\n";
+        Document document = new Parser().parseDocument(payload);
+        Assert.assertTrue(queryAnalyzer.analyseQueryDepth(2, document, "shallow").isSuccess());
+        Assert.assertFalse(queryAnalyzer.analyseQueryDepth(2, document, "deep").isSuccess());
+        // Without an operation name, none of the operations of a multi operation query is left unchecked
+        Assert.assertFalse(queryAnalyzer.analyseQueryDepth(2, document, null).isSuccess());
+    }
+
+    @Test
+    public void testAnalyseQueryComplexityWithVariables() throws Exception {
+        TypeDefinitionRegistry registry = new SchemaParser().parse("type Query { lifts(first: Int): [Lift] }\n"
+                + "type Lift { id: ID }");
+        QueryAnalyzer analyzer = new QueryAnalyzer(UnExecutableSchemaGenerator.makeUnExecutableSchema(registry));
+        Document document = new Parser().parseDocument("query liftsQuery($count: Int) {\n" +
+                "  lifts(first: $count) {\n" +
+                "    id\n" +
+                "  }\n" +
+                "}\n");
+        // Complexity of the query is count * (1 + 1)
+        Assert.assertTrue(analyzer.analyseQueryMutationComplexity(document, "liftsQuery",
+                Collections.singletonMap("count", 2L), 4, null).isSuccess());
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = analyzer.analyseQueryMutationComplexity(document,
+                "liftsQuery", Collections.singletonMap("count", 10L), 4, null);
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertTrue(queryAnalyzerResponseDTO.getErrorList().toString()
+                .contains("maximum query complexity exceeded"));
+    }
+
+    @Test
+    public void testAnalyseQueryDepthWithInvalidSyntax() {
+        QueryAnalyzerResponseDTO queryAnalyzerResponseDTO = queryAnalyzer.analyseQueryDepth(3, "query { allLifts {");
+        Assert.assertFalse(queryAnalyzerResponseDTO.isSuccess());
+        Assert.assertFalse(queryAnalyzerResponseDTO.getErrorList().isEmpty());
+    }
 }
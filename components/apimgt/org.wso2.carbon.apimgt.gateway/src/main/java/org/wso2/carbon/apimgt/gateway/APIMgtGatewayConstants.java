@@ -63,6 +63,9 @@ public class APIMgtGatewayConstants {
     public static final String THROTTLING_LATENCY = "throttling_latency";
     public static final String REQUEST_MEDIATION_LATENCY = "request_mediation_latency";
     public static final String RESPONSE_MEDIATION_LATENCY = "response_mediation_latency";
+    public static final String LATENCY_STATS_API_UUID = "api.latency.stats.apiUUID";
+    public static final String LATENCY_STATS_START_TIME = "api.latency.stats.startTime";
+    public static final String LATENCY_STATS_BACKEND_START_TIME = "api.latency.stats.backendStartTime";
     public static final String AM_CORRELATION_ID = "am.correlationID";
 
     /**
@@ -37,8 +37,10 @@ import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
 import org.wso2.carbon.apimgt.api.model.API;
 import org.wso2.carbon.apimgt.api.model.APIIdentifier;
 import org.wso2.carbon.apimgt.api.model.APIProductIdentifier;
+import org.wso2.carbon.apimgt.gateway.handlers.graphQL.GraphQLQueryCache;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.gateway.service.APIGatewayAdmin;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
@@ -57,9 +59,18 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * This class contains the methods used to retrieve artifacts from a storage and deploy and undeploy the API in gateway.
@@ -67,6 +78,8 @@ import java.util.UUID;
 public class InMemoryAPIDeployer {
 
     private static final Log log = LogFactory.getLog(InMemoryAPIDeployer.class);
+    // number of streamed artifacts held in memory and deployed together at gateway startup
+    private static final int STARTUP_DEPLOYMENT_BATCH_SIZE = 100;
     ArtifactRetriever artifactRetriever;
     GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties;
 
@@ -93,13 +106,18 @@ public class InMemoryAPIDeployer {
                 APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
                 MessageContext.setCurrentMessageContext(
                         org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
-                unDeployAPI(apiGatewayAdmin, gatewayEvent);
-                apiGatewayAdmin.deployAPI(gatewayAPIDTO);
-                addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
-                addDeployedGraphqlQLToAPI(gatewayAPIDTO);
-                DataHolder.getInstance().addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
-                DataHolder.getInstance().addAPIMetaData(gatewayEvent);
-                DataHolder.getInstance().markAPIAsDeployed(gatewayAPIDTO);
+                DataHolder dataHolder = DataHolder.getInstance();
+                // Deployment events of different APIs can be applied concurrently, while the synapse configuration
+                // and the data holder maps are not safe for concurrent updates
+                synchronized (dataHolder) {
+                    unDeployAPI(apiGatewayAdmin, gatewayEvent);
+                    apiGatewayAdmin.deployAPI(gatewayAPIDTO);
+                    addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
+                    addDeployedGraphqlQLToAPI(gatewayAPIDTO);
+                    dataHolder.addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
+                    dataHolder.addAPIMetaData(gatewayEvent);
+                    dataHolder.markAPIAsDeployed(gatewayAPIDTO);
+                }
                 if (log.isDebugEnabled()) {
                     log.debug("API with " + apiId + " is deployed in gateway with the labels " + String.join(",",
                             gatewayLabels));
@@ -131,11 +149,14 @@ public class InMemoryAPIDeployer {
                 APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
                 MessageContext.setCurrentMessageContext(
                         org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
-                apiGatewayAdmin.deployAPI(gatewayAPIDTO);
-                addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
-                addDeployedGraphqlQLToAPI(gatewayAPIDTO);
-                DataHolder.getInstance().addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
-                DataHolder.getInstance().markAPIAsDeployed(gatewayAPIDTO);
+                DataHolder dataHolder = DataHolder.getInstance();
+                synchronized (dataHolder) {
+                    apiGatewayAdmin.deployAPI(gatewayAPIDTO);
+                    addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
+                    addDeployedGraphqlQLToAPI(gatewayAPIDTO);
+                    dataHolder.addKeyManagerToAPIMapping(apiId, gatewayAPIDTO.getKeyManagers());
+                    dataHolder.markAPIAsDeployed(gatewayAPIDTO);
+                }
                 if (log.isDebugEnabled()) {
                     log.debug("API with " + apiId + " is deployed in gateway with the labels " + String.join(",",
                             gatewayLabels));
@@ -184,6 +205,10 @@ public class InMemoryAPIDeployer {
 
     /**
      * Deploy an API in the gateway using the deployAPI method in gateway admin.
+     * <p>
+     * The artifacts are deployed in batches of {@value #STARTUP_DEPLOYMENT_BATCH_SIZE} as they are streamed from the
+     * storage, so that only one batch is held in memory. The artifacts of a batch are parsed concurrently and then
+     * deployed one after the other, as synapse configuration updates are not safe under concurrency.
      *
      * @param assignedGatewayLabels - The labels which the gateway subscribed to
      * @param tenantDomain          tenantDomain of API.
@@ -198,45 +223,38 @@ public class InMemoryAPIDeployer {
         if (gatewayArtifactSynchronizerProperties.isRetrieveFromStorageEnabled()) {
             if (artifactRetriever != null) {
                 try {
-                    int errorCount = 0;
                     String labelString = String.join("|", assignedGatewayLabels);
                     String encodedString = Base64.encodeBase64URLSafeString(labelString.getBytes());
-                    APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
                     MessageContext.setCurrentMessageContext(org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
                     PrivilegedCarbonContext.startTenantFlow();
                     PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
-                    List<String> gatewayRuntimeArtifacts = ServiceReferenceHolder.getInstance().getArtifactRetriever()
-                            .retrieveAllArtifacts(encodedString, tenantDomain);
-                    if (gatewayRuntimeArtifacts.size() == 0) {
+                    long startTime = System.currentTimeMillis();
+                    StartupArtifactDeployer startupArtifactDeployer = new StartupArtifactDeployer(tenantDomain);
+                    int artifactCount = ServiceReferenceHolder.getInstance().getArtifactRetriever()
+                            .retrieveAllArtifacts(encodedString, tenantDomain, startupArtifactDeployer);
+                    startupArtifactDeployer.complete();
+                    if (artifactCount == 0) {
                         return true;
                     }
-                    for (String runtimeArtifact : gatewayRuntimeArtifacts) {
-                        GatewayAPIDTO gatewayAPIDTO = null;
-                        try {
-                            if (StringUtils.isNotEmpty(runtimeArtifact)) {
-                                gatewayAPIDTO = new Gson().fromJson(runtimeArtifact, GatewayAPIDTO.class);
-                                log.info("Deploying synapse artifacts of " + gatewayAPIDTO.getName());
-                                apiGatewayAdmin.deployAPI(gatewayAPIDTO);
-                                addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
-                                addDeployedGraphqlQLToAPI(gatewayAPIDTO);
-                                DataHolder.getInstance().addKeyManagerToAPIMapping(gatewayAPIDTO.getApiId(),
-                                        gatewayAPIDTO.getKeyManagers());
-                                DataHolder.getInstance().markAPIAsDeployed(gatewayAPIDTO);
-                            }
-                        } catch (AxisFault axisFault) {
-                            log.error("Error in deploying " + gatewayAPIDTO.getName() + " to the Gateway ", axisFault);
-                            errorCount++;
-                        }
-                    }
+                    long deployedTime = System.currentTimeMillis();
                     // reload dynamic profiles to avoid delays in loading certs in mutual ssl enabled APIs upon
                     // server restart
                     DynamicProfileReloaderHolder.getInstance().reloadAllHandlers();
+                    long endTime = System.currentTimeMillis();
+                    int errorCount = startupArtifactDeployer.errorCount.get();
+                    log.info("Deployed " + (artifactCount - errorCount) + " of " + artifactCount
+                            + " API artifacts of tenant " + tenantDomain + " in " + (endTime - startTime)
+                            + " ms (retrieval: " + (deployedTime - startTime - startupArtifactDeployer.parsingTime
+                            - startupArtifactDeployer.deploymentTime) + " ms, parsing: "
+                            + startupArtifactDeployer.parsingTime + " ms, deployment: "
+                            + startupArtifactDeployer.deploymentTime + " ms, profile reload: "
+                            + (endTime - deployedTime) + " ms)");
                     if (log.isDebugEnabled()) {
                         log.debug("APIs deployed in gateway with the labels of " + labelString);
                     }
                     result = true;
                     //Setting the result to false only if all the API deployments are failed
-                    if (gatewayRuntimeArtifacts.size() == errorCount) {
+                    if (artifactCount == errorCount) {
                         return false;
                     }
                 } catch (ArtifactSynchronizerException | AxisFault e) {
@@ -256,6 +274,171 @@ public class InMemoryAPIDeployer {
         return result;
     }
 
+    /**
+     * Deploys the artifacts retrieved at gateway startup in batches, as they are read. Retrievers keep reading the
+     * response of the control plane while a batch is deployed, buffering a bounded number of artifacts.
+     */
+    private final class StartupArtifactDeployer implements Consumer<String> {
+
+        private final String tenantDomain;
+        private final List<String> batch = new ArrayList<>(STARTUP_DEPLOYMENT_BATCH_SIZE);
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private int processedCount;
+        private long parsingTime;
+        private long deploymentTime;
+        private ArtifactSynchronizerException failure;
+
+        StartupArtifactDeployer(String tenantDomain) {
+
+            this.tenantDomain = tenantDomain;
+        }
+
+        @Override
+        public void accept(String runtimeArtifact) {
+
+            batch.add(runtimeArtifact);
+            if (batch.size() == STARTUP_DEPLOYMENT_BATCH_SIZE) {
+                deployBatch();
+            }
+        }
+
+        /**
+         * Deploys the remaining artifacts once all the artifacts are retrieved.
+         *
+         * @throws ArtifactSynchronizerException if the deployment of a batch was interrupted
+         */
+        void complete() throws ArtifactSynchronizerException {
+
+            deployBatch();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void deployBatch() {
+
+            if (batch.isEmpty() || failure != null) {
+                // artifacts retrieved after an interruption are drained without being deployed
+                batch.clear();
+                return;
+            }
+            try {
+                long startTime = System.currentTimeMillis();
+                Map<String, GraphQLSchemaDTO> graphQLSchemaDTOMap = new ConcurrentHashMap<>();
+                List<GatewayAPIDTO> gatewayAPIDTOs = parseArtifacts(batch, graphQLSchemaDTOMap, errorCount);
+                long parsedTime = System.currentTimeMillis();
+                deployArtifacts(gatewayAPIDTOs, graphQLSchemaDTOMap, errorCount);
+                parsingTime += parsedTime - startTime;
+                deploymentTime += System.currentTimeMillis() - parsedTime;
+                processedCount += batch.size();
+                log.info("Processed " + processedCount + " API artifacts of tenant " + tenantDomain + " ("
+                        + errorCount.get() + " failed)");
+            } catch (ArtifactSynchronizerException e) {
+                failure = e;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Parses the runtime artifacts retrieved at startup and builds the GraphQL schemas of GraphQL APIs, using one
+     * thread per available processor. Artifacts which cannot be parsed are counted as failed deployments.
+     *
+     * @param gatewayRuntimeArtifacts runtime artifacts in JSON format
+     * @param graphQLSchemaDTOMap     map to which the built GraphQL schemas are added against the API uuid
+     * @param errorCount              count of failed deployments
+     * @return parsed artifacts, in the order they were retrieved
+     * @throws ArtifactSynchronizerException if interrupted while waiting for the parsing to complete
+     */
+    private List<GatewayAPIDTO> parseArtifacts(List<String> gatewayRuntimeArtifacts,
+                                               Map<String, GraphQLSchemaDTO> graphQLSchemaDTOMap,
+                                               AtomicInteger errorCount) throws ArtifactSynchronizerException {
+
+        Gson gson = new Gson();
+        int threadCount = Math.min(Runtime.getRuntime().availableProcessors(), gatewayRuntimeArtifacts.size());
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount,
+                createThreadFactory("StartupArtifactParser-"));
+        try {
+            List<Future<GatewayAPIDTO>> futures = new ArrayList<>(gatewayRuntimeArtifacts.size());
+            for (String runtimeArtifact : gatewayRuntimeArtifacts) {
+                futures.add(executorService.submit(() -> parseArtifact(gson, runtimeArtifact, graphQLSchemaDTOMap)));
+            }
+            List<GatewayAPIDTO> gatewayAPIDTOs = new ArrayList<>(gatewayRuntimeArtifacts.size());
+            for (Future<GatewayAPIDTO> future : futures) {
+                try {
+                    GatewayAPIDTO gatewayAPIDTO = future.get();
+                    if (gatewayAPIDTO != null) {
+                        gatewayAPIDTOs.add(gatewayAPIDTO);
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Error while parsing runtime artifact of an API ", e.getCause());
+                    errorCount.incrementAndGet();
+                }
+            }
+            return gatewayAPIDTOs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArtifactSynchronizerException("Interrupted while parsing the runtime artifacts", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private GatewayAPIDTO parseArtifact(Gson gson, String runtimeArtifact,
+                                        Map<String, GraphQLSchemaDTO> graphQLSchemaDTOMap) {
+
+        if (StringUtils.isEmpty(runtimeArtifact)) {
+            return null;
+        }
+        GatewayAPIDTO gatewayAPIDTO = gson.fromJson(runtimeArtifact, GatewayAPIDTO.class);
+        if (gatewayAPIDTO.getGraphQLSchema() != null) {
+            graphQLSchemaDTOMap.put(gatewayAPIDTO.getApiId(), buildGraphQLSchemaDTO(gatewayAPIDTO));
+        }
+        return gatewayAPIDTO;
+    }
+
+    /**
+     * Deploys the parsed startup artifacts one after the other, in the order they were retrieved. Each artifact is
+     * deployed and registered in the gateway data holder while holding the lock of the data holder, the same way
+     * deployment events are applied, as neither the synapse configuration nor the data holder maps are safe for
+     * concurrent updates.
+     *
+     * @param gatewayAPIDTOs      parsed artifacts
+     * @param graphQLSchemaDTOMap GraphQL schemas of the GraphQL APIs against the API uuid
+     * @param errorCount          count of failed deployments
+     */
+    private void deployArtifacts(List<GatewayAPIDTO> gatewayAPIDTOs, Map<String, GraphQLSchemaDTO> graphQLSchemaDTOMap,
+                                 AtomicInteger errorCount) {
+
+        APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
+        DataHolder dataHolder = DataHolder.getInstance();
+        for (GatewayAPIDTO gatewayAPIDTO : gatewayAPIDTOs) {
+            try {
+                log.info("Deploying synapse artifacts of " + gatewayAPIDTO.getName());
+                synchronized (dataHolder) {
+                    apiGatewayAdmin.deployAPI(gatewayAPIDTO);
+                    addDeployedCertificatesToAPIAssociation(gatewayAPIDTO);
+                    GraphQLSchemaDTO graphQLSchemaDTO = graphQLSchemaDTOMap.get(gatewayAPIDTO.getApiId());
+                    if (graphQLSchemaDTO != null) {
+                        dataHolder.addApiToGraphQLSchemaDTO(gatewayAPIDTO.getApiId(), graphQLSchemaDTO);
+                    }
+                    dataHolder.addKeyManagerToAPIMapping(gatewayAPIDTO.getApiId(), gatewayAPIDTO.getKeyManagers());
+                    dataHolder.markAPIAsDeployed(gatewayAPIDTO);
+                }
+            } catch (AxisFault axisFault) {
+                log.error("Error in deploying " + gatewayAPIDTO.getName() + " to the Gateway ", axisFault);
+                errorCount.incrementAndGet();
+            }
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(String namePrefix) {
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+    }
+
     private void unDeployAPI(APIGatewayAdmin apiGatewayAdmin, DeployAPIInGatewayEvent gatewayEvent)
             throws AxisFault {
             if (gatewayArtifactSynchronizerProperties.isRetrieveFromStorageEnabled()) {
@@ -285,6 +468,7 @@ public class InMemoryAPIDeployer {
                                         .addStringToList(gatewayEvent.getUuid().concat(
                                                 "_graphQL"), gatewayAPIDTO.getLocalEntriesToBeRemove()));
                         DataHolder.getInstance().getApiToGraphQLSchemaDTOMap().remove(gatewayEvent.getUuid());
+                        GraphQLQueryCache.getInstance().invalidate(gatewayEvent.getUuid());
                     }
                     if (APIConstants.APITransportType.WS.toString().equalsIgnoreCase(gatewayEvent.getApiType())) {
                         org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.setWebsocketEndpointsToBeRemoved(
@@ -310,7 +494,10 @@ public class InMemoryAPIDeployer {
         try {
             APIGatewayAdmin apiGatewayAdmin = new APIGatewayAdmin();
             MessageContext.setCurrentMessageContext(org.wso2.carbon.apimgt.gateway.utils.GatewayUtils.createAxis2MessageContext());
-            unDeployAPI(apiGatewayAdmin, gatewayEvent);
+            synchronized (DataHolder.getInstance()) {
+                unDeployAPI(apiGatewayAdmin, gatewayEvent);
+            }
+            LatencyStatsCollector.getInstance().removeAPI(gatewayEvent.getUuid());
         } catch (AxisFault axisFault) {
             throw new ArtifactSynchronizerException("Error while unDeploying api ", axisFault);
         } finally {
@@ -360,7 +547,7 @@ public class InMemoryAPIDeployer {
         }
     }
 
-    private void addDeployedCertificatesToAPIAssociation(GatewayAPIDTO gatewayAPIDTO) {
+    private static void addDeployedCertificatesToAPIAssociation(GatewayAPIDTO gatewayAPIDTO) {
 
         if (gatewayAPIDTO != null) {
             String apiId = gatewayAPIDTO.getApiId();
@@ -382,15 +569,19 @@ public class InMemoryAPIDeployer {
     private void addDeployedGraphqlQLToAPI(GatewayAPIDTO gatewayAPIDTO) {
 
         if (gatewayAPIDTO != null && gatewayAPIDTO.getGraphQLSchema() != null) {
-            String apiId = gatewayAPIDTO.getApiId();
-            SchemaParser schemaParser = new SchemaParser();
-            TypeDefinitionRegistry registry = schemaParser.parse(gatewayAPIDTO.getGraphQLSchema());
-            GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
-            GraphQLSchemaDTO schemaDTO = new GraphQLSchemaDTO(schema, registry);
-            DataHolder.getInstance().addApiToGraphQLSchemaDTO(apiId, schemaDTO);
+            DataHolder.getInstance().addApiToGraphQLSchemaDTO(gatewayAPIDTO.getApiId(),
+                    buildGraphQLSchemaDTO(gatewayAPIDTO));
         }
     }
 
+    private static GraphQLSchemaDTO buildGraphQLSchemaDTO(GatewayAPIDTO gatewayAPIDTO) {
+
+        SchemaParser schemaParser = new SchemaParser();
+        TypeDefinitionRegistry registry = schemaParser.parse(gatewayAPIDTO.getGraphQLSchema());
+        GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+        return new GraphQLSchemaDTO(schema, registry);
+    }
+
     private void setClientCertificatesToRemoveIntoGatewayDTO(GatewayAPIDTO gatewayDTO) {
 
         if (gatewayDTO != null) {
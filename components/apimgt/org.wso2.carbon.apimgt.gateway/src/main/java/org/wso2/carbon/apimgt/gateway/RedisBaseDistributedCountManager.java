@@ -23,25 +23,97 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.commons.throttle.core.DistributedCounterManager;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.Response;
-import redis.clients.jedis.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Redis Base Distributed Counter Manager for Throttler.
+ * <p>
+ * When the async counter is enabled, counters and shared timestamps are kept locally and all the writes are sent to
+ * Redis in the background at a fixed interval, so that the request thread never waits for Redis. Each sync is one
+ * pipelined round trip which removes the deleted keys, writes and reads back the shared timestamps, adds the local
+ * increments of all the active counters through a batch of Lua script calls and reads back the values of the
+ * counters, which include the increments of the other gateway nodes. A counter reset at the start of a window is
+ * written with a SET instead of an increment, so the increments of the previous window still in flight never land on
+ * the reset counter. While Redis is unavailable the counters keep counting locally and the writes are sent once Redis
+ * is available again. A shared timestamp is read from Redis on the request thread the first time it is used, so that
+ * a window started by another gateway node is joined at once.
  */
 public class RedisBaseDistributedCountManager implements DistributedCounterManager {
 
     private static final Log log = LogFactory.getLog(RedisBaseDistributedCountManager.class);
+    // Arguments are a (delta, expiry time, reset) triplet per key. A reset counter is set to its delta and any other
+    // counter is incremented by its delta. A counter with a zero delta is only read, so that a counter removed or
+    // expired in Redis is not created again. A counter created by the script is given its expiry time in the same
+    // script, so that it never outlives its window.
+    private static final String SYNC_COUNTERS_SCRIPT = "local values = {} "
+            + "for i = 1, #KEYS do "
+            + "local delta = tonumber(ARGV[3 * i - 2]) "
+            + "local expiryTime = tonumber(ARGV[3 * i - 1]) "
+            + "if ARGV[3 * i] == '1' then redis.call('SET', KEYS[i], delta) values[i] = delta "
+            + "elseif delta == 0 then values[i] = tonumber(redis.call('GET', KEYS[i]) or '0') "
+            + "else values[i] = redis.call('INCRBY', KEYS[i], delta) end "
+            + "if expiryTime > 0 and redis.call('PTTL', KEYS[i]) == -1 then "
+            + "redis.call('PEXPIREAT', KEYS[i], expiryTime) end "
+            + "end "
+            + "return values";
+    private static final int MAX_COUNTERS_PER_SCRIPT_CALL = 500;
+    private static final long IDLE_COUNTER_TIMEOUT = 60000L;
     JedisPool redisPool;
+    private final boolean asyncCounterEnabled;
+    private final Map<String, LocalCounter> localCounters = new ConcurrentHashMap<>();
+    private final Map<String, LocalTimestamp> localTimestamps = new ConcurrentHashMap<>();
+    private final Map<String, Long> expiryTimes = new ConcurrentHashMap<>();
+    private final Queue<String> pendingExpiries = new ConcurrentLinkedQueue<>();
+    private final Queue<String> pendingRemovals = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService counterSyncExecutor;
+    private volatile boolean redisAvailable = true;
 
     public RedisBaseDistributedCountManager(JedisPool redisPool) {
 
+        this(redisPool, false, 0);
+    }
+
+    /**
+     * Creates a counter manager which optionally syncs the counters with Redis in the background.
+     *
+     * @param redisPool           pool of Redis connections
+     * @param asyncCounterEnabled whether counters are counted locally and synced with Redis in the background
+     * @param counterSyncInterval interval between two syncs of the counters with Redis, in milliseconds
+     */
+    public RedisBaseDistributedCountManager(JedisPool redisPool, boolean asyncCounterEnabled,
+                                            long counterSyncInterval) {
+
         this.redisPool = redisPool;
+        this.asyncCounterEnabled = asyncCounterEnabled;
+        if (asyncCounterEnabled) {
+            counterSyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "RedisThrottleCounterSync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            counterSyncExecutor.scheduleWithFixedDelay(this::syncCounters, counterSyncInterval, counterSyncInterval,
+                    TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public long getCounter(String key) {
 
+        if (asyncCounterEnabled) {
+            return getLocalCounter(key).get();
+        }
         long startTime = 0;
         try {
             String count;
@@ -84,18 +156,16 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long addAndGetCounter(String key, long value) {
 
+        if (asyncCounterEnabled) {
+            return addToLocalCounter(key, value, false);
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
             try (Jedis jedis = redisPool.getResource()) {
-
-                Transaction transaction = jedis.multi();
-                Response<String> previousResponse = transaction.get(key);
-                Response<Long> incrementedValueResponse = transaction.incrBy(key, value);
-                transaction.exec();
-                Long incrementedValue = incrementedValueResponse.get();
+                long incrementedValue = jedis.incrBy(key, value);
                 if (log.isDebugEnabled()) {
-                    log.debug(String.format("%s Key increased from %s to %s", key, previousResponse.get(),
+                    log.debug(String.format("%s Key increased from %s to %s", key, incrementedValue - value,
                             incrementedValue));
                 }
                 return incrementedValue;
@@ -111,15 +181,17 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public void removeCounter(String key) {
 
+        if (asyncCounterEnabled) {
+            localCounters.remove(key);
+            pendingRemovals.add(key);
+            return;
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
 
             try (Jedis jedis = redisPool.getResource()) {
-
-                Transaction transaction = jedis.multi();
-                transaction.del(key);
-                transaction.exec();
+                jedis.del(key);
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("%s Key Removed", key));
                 }
@@ -134,22 +206,18 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long asyncGetAndAddCounter(String key, long value) {
 
+        if (asyncCounterEnabled) {
+            return addToLocalCounter(key, value, true);
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
 
             try (Jedis jedis = redisPool.getResource()) {
-                long current = 0;
-                Transaction transaction = jedis.multi();
-                Response<String> currentValue = transaction.get(key);
-
-                Response<Long> incrementedValue = transaction.incrBy(key, value);
-                transaction.exec();
-                if (currentValue != null) {
-                    current = Long.parseLong(currentValue.get());
-                }
+                long incrementedValue = jedis.incrBy(key, value);
+                long current = incrementedValue - value;
                 if (log.isDebugEnabled()) {
-                    log.info(String.format("%s Key increased from %s to %s", key, current, incrementedValue.get()));
+                    log.debug(String.format("%s Key increased from %s to %s", key, current, incrementedValue));
                 }
                 return current;
             }
@@ -164,6 +232,12 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long asyncGetAndAlterCounter(String key, long value) {
 
+        if (asyncCounterEnabled) {
+            // The counter of the new window replaces the one of the previous window, whose increments not sent yet
+            // are dropped. It is written with a SET, which is sent after any increment of the previous window.
+            LocalCounter previousLocalCounter = localCounters.put(key, LocalCounter.reset(value));
+            return previousLocalCounter != null ? previousLocalCounter.get() : 0;
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
@@ -171,17 +245,12 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
             try (Jedis jedis = redisPool.getResource()) {
 
                 long current = 0;
-                Transaction transaction = jedis.multi();
-                Response<String> currentValue = transaction.get(key);
-                transaction.del(key);
-                Response<Long> incrementedValue = transaction.incrBy(key, value);
-                transaction.exec();
-
+                String currentValue = jedis.getSet(key, String.valueOf(value));
                 if (currentValue != null) {
-                    current = Long.parseLong(currentValue.get());
+                    current = Long.parseLong(currentValue);
                 }
                 if (log.isDebugEnabled()) {
-                    log.info(String.format("%s Key increased from %s to %s", key, current, incrementedValue.get()));
+                    log.debug(String.format("%s Key altered from %s to %s", key, current, value));
                 }
                 return current;
             }
@@ -195,6 +264,17 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public long getTimestamp(String key) {
 
+        if (asyncCounterEnabled) {
+            LocalTimestamp timestamp = localTimestamps.get(key);
+            if (timestamp == null) {
+                LocalTimestamp loadedTimestamp = new LocalTimestamp(readTimestamp(key));
+                timestamp = localTimestamps.putIfAbsent(key, loadedTimestamp);
+                if (timestamp == null) {
+                    timestamp = loadedTimestamp;
+                }
+            }
+            return timestamp.get();
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
@@ -217,15 +297,16 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public void setTimestamp(String key, long timeStamp) {
 
+        if (asyncCounterEnabled) {
+            getLocalTimestamp(key).set(timeStamp);
+            return;
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
 
             try (Jedis jedis = redisPool.getResource()) {
-
-                Transaction transaction = jedis.multi();
-                transaction.set(key, String.valueOf(timeStamp));
-                transaction.exec();
+                jedis.set(key, String.valueOf(timeStamp));
             }
         } finally {
             if (log.isDebugEnabled()) {
@@ -237,15 +318,17 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public void removeTimestamp(String key) {
 
+        if (asyncCounterEnabled) {
+            localTimestamps.remove(key);
+            pendingRemovals.add(key);
+            return;
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
 
             try (Jedis jedis = redisPool.getResource()) {
-
-                Transaction transaction = jedis.multi();
-                transaction.del(key);
-                transaction.exec();
+                jedis.del(key);
             }
         } finally {
             if (log.isDebugEnabled()) {
@@ -257,14 +340,17 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
     @Override
     public void setExpiry(String key, long expiryTimeStamp) {
 
+        if (asyncCounterEnabled) {
+            expiryTimes.put(key, expiryTimeStamp);
+            pendingExpiries.add(key);
+            return;
+        }
         long startTime = 0;
         try {
             startTime = System.currentTimeMillis();
 
             try (Jedis jedis = redisPool.getResource()) {
-                Transaction transaction = jedis.multi();
-                transaction.pexpireAt(key, expiryTimeStamp);
-                transaction.exec();
+                jedis.pexpireAt(key, expiryTimeStamp);
             }
         } finally {
             if (log.isDebugEnabled()) {
@@ -285,5 +371,352 @@ public class RedisBaseDistributedCountManager implements DistributedCounterManag
 
         return "redis";
     }
-}
 
+    /**
+     * Stops syncing the counters in the background, after sending the pending increments to Redis.
+     */
+    public void shutdown() {
+
+        if (counterSyncExecutor != null) {
+            counterSyncExecutor.shutdown();
+            syncCounters();
+        }
+    }
+
+    /**
+     * Sends the pending writes to Redis and updates the local counters and timestamps with the values in Redis.
+     * Counters and timestamps which were not used for a while and have nothing to send are dropped.
+     */
+    synchronized void syncCounters() {
+
+        long startTime = System.currentTimeMillis();
+        expiryTimes.values().removeIf(expiryTime -> expiryTime < startTime);
+        List<String> removals = drain(pendingRemovals);
+        List<String> expiries = drain(pendingExpiries);
+
+        List<String> timestampKeys = new ArrayList<>();
+        List<LocalTimestamp> timestamps = new ArrayList<>();
+        List<Long> sentTimestamps = new ArrayList<>();
+        for (Map.Entry<String, LocalTimestamp> entry : localTimestamps.entrySet()) {
+            LocalTimestamp timestamp = entry.getValue();
+            Long sentTimestamp = timestamp.takeUnsynced();
+            if (sentTimestamp == null && startTime - timestamp.lastAccessTime > IDLE_COUNTER_TIMEOUT) {
+                localTimestamps.remove(entry.getKey(), timestamp);
+                continue;
+            }
+            timestampKeys.add(entry.getKey());
+            timestamps.add(timestamp);
+            sentTimestamps.add(sentTimestamp);
+        }
+
+        List<String> keys = new ArrayList<>();
+        List<LocalCounter> counters = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (Map.Entry<String, LocalCounter> entry : localCounters.entrySet()) {
+            LocalCounter counter = entry.getValue();
+            long delta = counter.getUnsyncedDelta();
+            if (delta == 0 && !counter.resetPending && startTime - counter.lastAccessTime > IDLE_COUNTER_TIMEOUT) {
+                localCounters.computeIfPresent(entry.getKey(),
+                        (key, current) -> current == counter && counter.removeIfUnchanged() ? null : current);
+                if (localCounters.get(entry.getKey()) != counter) {
+                    continue;
+                }
+            }
+            keys.add(entry.getKey());
+            counters.add(counter);
+            deltas.add(delta);
+            arguments.add(String.valueOf(delta));
+            arguments.add(String.valueOf(expiryTimes.getOrDefault(entry.getKey(), 0L)));
+            arguments.add(counter.resetPending ? "1" : "0");
+        }
+        if (removals.isEmpty() && expiries.isEmpty() && timestampKeys.isEmpty() && keys.isEmpty()) {
+            return;
+        }
+        try (Jedis jedis = redisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (String key : removals) {
+                pipeline.del(key);
+            }
+            List<Response<String>> timestampResponses = new ArrayList<>();
+            for (int i = 0; i < timestampKeys.size(); i++) {
+                String key = timestampKeys.get(i);
+                if (sentTimestamps.get(i) != null) {
+                    pipeline.set(key, String.valueOf(sentTimestamps.get(i)));
+                    timestampResponses.add(null);
+                } else {
+                    timestampResponses.add(pipeline.get(key));
+                }
+            }
+            List<Response<Object>> counterResponses = new ArrayList<>();
+            for (int from = 0; from < keys.size(); from += MAX_COUNTERS_PER_SCRIPT_CALL) {
+                int to = Math.min(from + MAX_COUNTERS_PER_SCRIPT_CALL, keys.size());
+                counterResponses.add(pipeline.eval(SYNC_COUNTERS_SCRIPT, keys.subList(from, to),
+                        arguments.subList(from * 3, to * 3)));
+            }
+            // Expiry times are set after the keys are written, so that keys created by this sync get them
+            for (String key : expiries) {
+                Long expiryTime = expiryTimes.get(key);
+                if (expiryTime != null) {
+                    pipeline.pexpireAt(key, expiryTime);
+                }
+            }
+            pipeline.sync();
+            for (int i = 0; i < timestamps.size(); i++) {
+                Response<String> response = timestampResponses.get(i);
+                if (response != null && response.get() != null) {
+                    timestamps.get(i).synced(Long.parseLong(response.get()));
+                }
+            }
+            int index = 0;
+            for (Response<Object> response : counterResponses) {
+                for (Object value : (List<?>) response.get()) {
+                    counters.get(index).synced((Long) value, deltas.get(index));
+                    index++;
+                }
+            }
+            if (!redisAvailable) {
+                redisAvailable = true;
+                log.info("Throttle counters are synced with Redis again");
+            }
+        } catch (RuntimeException e) {
+            // Writes are kept and sent with the next sync
+            pendingRemovals.addAll(removals);
+            pendingExpiries.addAll(expiries);
+            for (int i = 0; i < timestamps.size(); i++) {
+                if (sentTimestamps.get(i) != null) {
+                    timestamps.get(i).unsynced();
+                }
+            }
+            handleRedisFailure(e);
+        } finally {
+            if (log.isDebugEnabled()) {
+                log.debug("Time Taken to sync " + keys.size() + " counters and " + timestampKeys.size() +
+                        " timestamps :" + (System.currentTimeMillis() - startTime));
+            }
+        }
+    }
+
+    private static List<String> drain(Queue<String> queue) {
+
+        List<String> keys = new ArrayList<>();
+        String key;
+        while ((key = queue.poll()) != null) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private void handleRedisFailure(RuntimeException e) {
+
+        if (redisAvailable) {
+            redisAvailable = false;
+            log.warn("Unable to sync throttle counters with Redis. Counting locally until Redis is available", e);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Unable to sync throttle counters with Redis", e);
+        }
+    }
+
+    /**
+     * Adds to the local counter of the given key. An increment which lands on a counter removed as idle at the same
+     * time is taken back and made on the counter which replaces it, so that it is not lost.
+     */
+    private long addToLocalCounter(String key, long delta, boolean returnPrevious) {
+
+        while (true) {
+            LocalCounter counter = getLocalCounter(key);
+            long value = returnPrevious ? counter.getAndAdd(delta) : counter.addAndGet(delta);
+            if (!counter.removed) {
+                return value;
+            }
+            counter.unsyncedDelta.add(-delta);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Reads a shared timestamp from Redis. Returns 0 if Redis is unavailable, in which case the timestamp is read by
+     * the next sync.
+     */
+    private long readTimestamp(String key) {
+
+        if (!redisAvailable) {
+            return 0;
+        }
+        try (Jedis jedis = redisPool.getResource()) {
+            String timestamp = jedis.get(key);
+            return timestamp != null ? Long.parseLong(timestamp) : 0;
+        } catch (RuntimeException e) {
+            handleRedisFailure(e);
+            return 0;
+        }
+    }
+
+    private LocalCounter getLocalCounter(String key) {
+
+        LocalCounter counter = localCounters.get(key);
+        if (counter == null) {
+            counter = localCounters.computeIfAbsent(key, k -> new LocalCounter(false));
+        }
+        return counter;
+    }
+
+    private LocalTimestamp getLocalTimestamp(String key) {
+
+        LocalTimestamp timestamp = localTimestamps.get(key);
+        if (timestamp == null) {
+            timestamp = localTimestamps.computeIfAbsent(key, k -> new LocalTimestamp());
+        }
+        return timestamp;
+    }
+
+    /**
+     * Local view of a distributed counter, made of the value last read from Redis and the increments made on this
+     * node since then.
+     * <p>
+     * The two parts are published together by the sync thread under a sequence lock, so that a reader never sees the
+     * new value read from Redis together with the increments already included in it.
+     */
+    private static final class LocalCounter {
+
+        private final LongAdder unsyncedDelta = new LongAdder();
+        private volatile long syncedValue;
+        // Odd while the sync thread publishes a new value
+        private volatile long version;
+        // Whether the counter has to be set in Redis instead of incremented, as it was reset on this node
+        private volatile boolean resetPending;
+        // Whether the counter was removed as idle, after which increments have to be made on a new counter
+        private volatile boolean removed;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private LocalCounter(boolean resetPending) {
+
+            this.resetPending = resetPending;
+        }
+
+        private static LocalCounter reset(long value) {
+
+            LocalCounter counter = new LocalCounter(true);
+            counter.unsyncedDelta.add(value);
+            return counter;
+        }
+
+        private long get() {
+
+            lastAccessTime = System.currentTimeMillis();
+            while (true) {
+                long startVersion = version;
+                if ((startVersion & 1) == 0) {
+                    long value = syncedValue + unsyncedDelta.sum();
+                    if (version == startVersion) {
+                        return value;
+                    }
+                }
+                Thread.yield();
+            }
+        }
+
+        private long addAndGet(long delta) {
+
+            unsyncedDelta.add(delta);
+            return get();
+        }
+
+        private long getAndAdd(long delta) {
+
+            long current = get();
+            unsyncedDelta.add(delta);
+            return current;
+        }
+
+        private long getUnsyncedDelta() {
+
+            return unsyncedDelta.sum();
+        }
+
+        /**
+         * Marks the counter as removed unless it has increments to send. The mark is set before the increments are
+         * checked, so that an increment made after the check sees it and moves to a new counter. Only called by the
+         * sync thread.
+         */
+        private boolean removeIfUnchanged() {
+
+            removed = true;
+            if (unsyncedDelta.sum() != 0 || resetPending) {
+                removed = false;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Publishes the value read from Redis, which includes the given sent increments. Only called by the sync
+         * thread.
+         */
+        private void synced(long value, long sentDelta) {
+
+            version++;
+            unsyncedDelta.add(-sentDelta);
+            syncedValue = value;
+            resetPending = false;
+            version++;
+        }
+    }
+
+    /**
+     * Local view of a shared timestamp, with the value set on this node until it is sent to Redis.
+     */
+    private static final class LocalTimestamp {
+
+        private volatile long value;
+        private volatile boolean unsynced;
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private LocalTimestamp() {
+
+        }
+
+        private LocalTimestamp(long value) {
+
+            this.value = value;
+        }
+
+        private long get() {
+
+            lastAccessTime = System.currentTimeMillis();
+            return value;
+        }
+
+        private void set(long timestamp) {
+
+            lastAccessTime = System.currentTimeMillis();
+            value = timestamp;
+            unsynced = true;
+        }
+
+        /**
+         * Returns the value to send to Redis, or null if the value has not been set on this node since the last sync.
+         */
+        private Long takeUnsynced() {
+
+            if (!unsynced) {
+                return null;
+            }
+            unsynced = false;
+            return value;
+        }
+
+        private void unsynced() {
+
+            unsynced = true;
+        }
+
+        private void synced(long timestamp) {
+
+            // A value set on this node while the sync was in flight is kept
+            if (!unsynced) {
+                value = timestamp;
+            }
+        }
+    }
+}
@@ -35,6 +35,8 @@ import org.apache.synapse.rest.AbstractHandler;
 import org.jetbrains.annotations.NotNull;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.apimgt.tracing.TracingSpan;
 import org.wso2.carbon.apimgt.tracing.TracingTracer;
@@ -88,6 +90,7 @@ public class APIMgtLatencyStatsHandler extends AbstractHandler {
             String method = (String) (axis2MsgContext.getProperty(
                     Constants.Configuration.HTTP_METHOD));
             messageContext.setProperty(APIMgtGatewayConstants.HTTP_METHOD, method);
+            LatencyStatsCollector.getInstance().startSampling(messageContext, apiUUID);
         }
         /*
         * The axis2 message context is set here so that the method level logging can access the transport headers
@@ -115,6 +118,8 @@ public class APIMgtLatencyStatsHandler extends AbstractHandler {
                 messageContext.setProperty(APIMgtGatewayConstants.BACKEND_LATENCY, System.currentTimeMillis() -
                         executionStartTime);
             }
+            LatencyStatsCollector.getInstance().recordSince(messageContext, LatencyPhase.BACKEND,
+                    APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
         }
         return true;
     }
@@ -24,6 +24,8 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.keymgt.model.entity.API;
 import org.wso2.carbon.apimgt.tracing.TracingSpan;
@@ -77,6 +79,8 @@ public class APIMgtLatencySynapseHandler extends AbstractSynapseHandler {
         TracingTracer tracer = ServiceReferenceHolder.getInstance().getTracer();
         TelemetryTracer telemetryTracer = ServiceReferenceHolder.getInstance().getTelemetryTracer();
         Map<String, String> tracerSpecificCarrier = new HashMap<>();
+        LatencyStatsCollector.getInstance().markStart(messageContext,
+                APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
         if (TelemetryUtil.telemetryEnabled() || Util.tracingEnabled()) {
             if (Util.tracingEnabled()) {
                 TracingSpan parentSpan = (TracingSpan) messageContext.getProperty(APIMgtGatewayConstants.RESOURCE_SPAN);
@@ -121,6 +125,8 @@ public class APIMgtLatencySynapseHandler extends AbstractSynapseHandler {
 
     @Override
     public boolean handleResponseOutFlow(MessageContext messageContext) {
+        LatencyStatsCollector.getInstance().recordSince(messageContext, LatencyPhase.TOTAL,
+                APIMgtGatewayConstants.LATENCY_STATS_START_TIME);
         if (TelemetryUtil.telemetryEnabled()) {
             Object resourceSpanObject = messageContext.getProperty(APIMgtGatewayConstants.RESOURCE_SPAN);
             if (resourceSpanObject != null) {
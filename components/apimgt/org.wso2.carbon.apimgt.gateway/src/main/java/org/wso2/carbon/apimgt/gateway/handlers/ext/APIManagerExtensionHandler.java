@@ -29,6 +29,8 @@ import org.apache.synapse.rest.RESTConstants;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.MethodStats;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.tracing.TracingSpan;
 import org.wso2.carbon.apimgt.tracing.TracingTracer;
@@ -138,8 +140,11 @@ public class APIManagerExtensionHandler extends AbstractHandler {
             } else if (Util.tracingEnabled()) {
                 Util.finishSpan(requestMediationTracingSpan);
             }
+            long mediationLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.REQUEST_MEDIATION_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
+                    TimeUnit.NANOSECONDS.toMillis(mediationLatency));
+            LatencyStatsCollector.getInstance().record(messageContext, LatencyPhase.REQUEST_MEDIATION,
+                    mediationLatency);
             stopMetricTimer(context);
         }
     }
@@ -180,8 +185,11 @@ public class APIManagerExtensionHandler extends AbstractHandler {
             } else if (Util.tracingEnabled()) {
                 Util.finishSpan(responseMediationTracingSpan);
             }
+            long mediationLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.RESPONSE_MEDIATION_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
+                    TimeUnit.NANOSECONDS.toMillis(mediationLatency));
+            LatencyStatsCollector.getInstance().record(messageContext, LatencyPhase.RESPONSE_MEDIATION,
+                    mediationLatency);
             stopMetricTimer(context);
         }
     }
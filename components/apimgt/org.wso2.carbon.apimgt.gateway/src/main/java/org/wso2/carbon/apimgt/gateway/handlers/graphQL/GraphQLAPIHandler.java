@@ -92,7 +92,6 @@ public class GraphQLAPIHandler extends AbstractHandler {
                 return true;
             }
             String payload;
-            Parser parser = new Parser();
             org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext).
                     getAxis2MessageContext();
             String requestPath = messageContext.getProperty(REST_SUB_REQUEST_PATH).toString();
@@ -121,35 +120,30 @@ public class GraphQLAPIHandler extends AbstractHandler {
             }
 
             // Validate payload with graphQLSchema
-            Document document = parser.parseDocument(payload);
+            GraphQLQueryCache.CachedQuery parsedQuery = getParsedQuery(payload);
+            messageContext.setProperty(APIConstants.GRAPHQL_PAYLOAD_DOCUMENT, parsedQuery.getDocument());
 
-            if (validatePayloadWithSchema(messageContext, document)) {
+            if (parsedQuery.getValidationErrorMessage() == null) {
                 supportForBasicAndAuthentication(messageContext);
 
-                // Extract the operation type and operations from the payload
-                for (Definition definition : document.getDefinitions()) {
-                    if (definition instanceof OperationDefinition) {
-                        OperationDefinition operation = (OperationDefinition) definition;
-                        if (operation.getOperation() != null) {
-                            String httpVerb = ((Axis2MessageContext) messageContext).getAxis2MessageContext().
-                                    getProperty(HTTP_METHOD).toString();
-                            messageContext.setProperty(HTTP_VERB, httpVerb);
-                            ((Axis2MessageContext) messageContext).getAxis2MessageContext().setProperty(HTTP_METHOD,
-                                    operation.getOperation().toString());
-                            String operationList = GraphQLProcessorUtil.getOperationListAsString(operation,
-                                    graphQLSchemaDTO.getTypeDefinitionRegistry());
-                            messageContext.setProperty(APIConstants.API_ELECTED_RESOURCE, operationList);
-                            if (log.isDebugEnabled()) {
-                                log.debug("Operation list has been successfully added to elected property");
-                            }
-                            return true;
-                        }
-                    } else {
-                        handleFailure(messageContext, "Operation definition cannot be empty");
-                        return false;
+                // Set the operation type and operations extracted from the payload
+                if (parsedQuery.getOperationType() != null) {
+                    String httpVerb = ((Axis2MessageContext) messageContext).getAxis2MessageContext().
+                            getProperty(HTTP_METHOD).toString();
+                    messageContext.setProperty(HTTP_VERB, httpVerb);
+                    ((Axis2MessageContext) messageContext).getAxis2MessageContext().setProperty(HTTP_METHOD,
+                            parsedQuery.getOperationType());
+                    messageContext.setProperty(APIConstants.API_ELECTED_RESOURCE, parsedQuery.getOperationList());
+                    if (log.isDebugEnabled()) {
+                        log.debug("Operation list has been successfully added to elected property");
                     }
+                    return true;
+                } else if (parsedQuery.isOperationDefinitionMissing()) {
+                    handleFailure(messageContext, "Operation definition cannot be empty");
+                    return false;
                 }
             } else {
+                handleFailure(messageContext, parsedQuery.getValidationErrorMessage());
                 return false;
             }
         } catch (IOException | XMLStreamException | InvalidSyntaxException e) {
@@ -257,23 +251,50 @@ public class GraphQLAPIHandler extends AbstractHandler {
     }
 
     /**
-     * This method validate the payload
+     * This method returns the parsed and validated form of the payload, from the query cache if the same query was
+     * received for the currently deployed schema of the API.
      *
-     * @param messageContext message context of the request
-     * @param document       graphQL schema of the request
-     * @return true or false
+     * @param payload payload of the request
+     * @return parsed payload, with the result of validating it against the schema and the operation of the payload
      */
-    private boolean validatePayloadWithSchema(MessageContext messageContext, Document document) {
+    private GraphQLQueryCache.CachedQuery getParsedQuery(String payload) {
 
-        String validationErrorMessage;
         // Get GraphQL schema data from gateway internal data holder
         graphQLSchemaDTO = DataHolder.getInstance().getApiToGraphQLSchemaDTOMap().get(apiUUID);
-        validationErrorMessage = queryValidator.validatePayload(graphQLSchemaDTO.getGraphQLSchema(), document);
-        if (validationErrorMessage != null) {
-            handleFailure(messageContext, validationErrorMessage);
-            return false;
+        GraphQLQueryCache queryCache = GraphQLQueryCache.getInstance();
+        GraphQLQueryCache.CachedQuery parsedQuery = queryCache.get(apiUUID, payload,
+                graphQLSchemaDTO.getGraphQLSchema());
+        if (parsedQuery == null) {
+            Document document = new Parser().parseDocument(payload);
+            String validationErrorMessage = queryValidator.validatePayload(graphQLSchemaDTO.getGraphQLSchema(),
+                    document);
+            String operationType = null;
+            String operationList = null;
+            boolean operationDefinitionMissing = false;
+            if (validationErrorMessage == null) {
+                // Extract the operation type and operations from the payload
+                for (Definition definition : document.getDefinitions()) {
+                    if (definition instanceof OperationDefinition) {
+                        OperationDefinition operation = (OperationDefinition) definition;
+                        if (operation.getOperation() != null) {
+                            operationType = operation.getOperation().toString();
+                            operationList = GraphQLProcessorUtil.getOperationListAsString(operation,
+                                    graphQLSchemaDTO.getTypeDefinitionRegistry());
+                            break;
+                        }
+                    } else {
+                        operationDefinitionMissing = true;
+                        break;
+                    }
+                }
+            }
+            parsedQuery = new GraphQLQueryCache.CachedQuery(graphQLSchemaDTO.getGraphQLSchema(), document,
+                    validationErrorMessage, operationType, operationList, operationDefinitionMissing);
+            if (apiUUID != null) {
+                queryCache.put(apiUUID, payload, parsedQuery);
+            }
         }
-        return true;
+        return parsedQuery;
     }
 
     /**
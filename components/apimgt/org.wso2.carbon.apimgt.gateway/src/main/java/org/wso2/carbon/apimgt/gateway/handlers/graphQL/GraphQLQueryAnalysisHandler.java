@@ -17,6 +17,7 @@
  */
 package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
 
+import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -24,7 +25,11 @@ import org.apache.http.HttpStatus;
 import org.apache.synapse.Mediator;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.SynapseConstants;
+import org.apache.synapse.commons.json.JsonUtil;
+import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.AbstractHandler;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.apimgt.common.gateway.constants.GraphQLConstants;
 import org.wso2.carbon.apimgt.common.gateway.dto.QueryAnalyzerResponseDTO;
@@ -33,6 +38,8 @@ import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
+import java.util.Map;
+
 /**
  * This Handler can be used to analyse GraphQL Query. This implementation uses previously set
  * complexity and depth limitation to block the complex queries before it reaches the backend.
@@ -54,7 +61,17 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
             queryAnalyzer = new QueryAnalyzer(schema);
         }
         String payload = messageContext.getProperty(APIConstants.GRAPHQL_PAYLOAD).toString();
-        if (!isDepthAndComplexityValid(messageContext, payload)) {
+        Document document = (Document) messageContext.getProperty(APIConstants.GRAPHQL_PAYLOAD_DOCUMENT);
+        String operationName = null;
+        Map<String, Object> variables = null;
+        if (document != null && (getMaxQueryDepth(messageContext) > 0 || getMaxQueryComplexity(messageContext) > 0)) {
+            JSONObject requestBody = getRequestBody(messageContext);
+            if (requestBody != null) {
+                operationName = getOperationName(requestBody);
+                variables = getVariables(requestBody);
+            }
+        }
+        if (!isDepthAndComplexityValid(messageContext, payload, document, operationName, variables)) {
             log.debug("Query was blocked by the static query analyser");
             return false;
         }
@@ -66,11 +83,16 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
      *
      * @param messageContext message context of the request
      * @param payload        payload of the request
+     * @param document       payload parsed by the GraphQL API handler, or null if it is not available
+     * @param operationName  operation name of the request, or null if it is not given
+     * @param variables      variables of the request, or null if they are not given
      * @return true, if the query is not blocked or false, if the query is blocked
      */
-    private boolean isDepthAndComplexityValid(MessageContext messageContext, String payload) {
+    private boolean isDepthAndComplexityValid(MessageContext messageContext, String payload, Document document,
+                                              String operationName, Map<String, Object> variables) {
         try {
-            return isDepthValid(messageContext, payload) && isComplexityValid(messageContext, payload);
+            return isDepthValid(messageContext, payload, document, operationName)
+                    && isComplexityValid(messageContext, payload, document, operationName, variables);
         } catch (Exception e) {
             String errorMessage = "Policy definition parsing failed. ";
             log.error(errorMessage, e);
@@ -79,12 +101,12 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
         }
     }
 
-    private boolean isDepthValid(MessageContext messageContext, String payload) {
-        int maxQueryDepth = -1;
-        if (messageContext.getPropertyKeySet().contains(GraphQLConstants.MAXIMUM_QUERY_DEPTH)) {
-            maxQueryDepth = (int) messageContext.getProperty(GraphQLConstants.MAXIMUM_QUERY_DEPTH);
-        }
-        QueryAnalyzerResponseDTO responseDTO = queryAnalyzer.analyseQueryDepth(maxQueryDepth, payload);
+    private boolean isDepthValid(MessageContext messageContext, String payload, Document document,
+                                 String operationName) {
+        int maxQueryDepth = getMaxQueryDepth(messageContext);
+        QueryAnalyzerResponseDTO responseDTO = document != null
+                ? queryAnalyzer.analyseQueryDepth(maxQueryDepth, document, operationName)
+                : queryAnalyzer.analyseQueryDepth(maxQueryDepth, payload);
         if (!responseDTO.isSuccess() && !responseDTO.getErrorList().isEmpty()) {
             handleFailure(GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP, messageContext,
                     GraphQLConstants.GRAPHQL_QUERY_TOO_DEEP_MESSAGE, responseDTO.getErrorList().toString());
@@ -94,16 +116,17 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
         return true;
     }
 
-    private boolean isComplexityValid(MessageContext messageContext, String payload) {
-        int queryComplexity = -1;
-        if (messageContext.getPropertyKeySet().contains(GraphQLConstants.MAXIMUM_QUERY_COMPLEXITY)) {
-            queryComplexity = (int) messageContext.getProperty(GraphQLConstants.MAXIMUM_QUERY_COMPLEXITY);
-        }
+    private boolean isComplexityValid(MessageContext messageContext, String payload, Document document,
+                                      String operationName, Map<String, Object> variables) {
+        int queryComplexity = getMaxQueryComplexity(messageContext);
         String complexityInfoJson = (String) messageContext
                 .getProperty(APIConstants.GRAPHQL_ACCESS_CONTROL_POLICY);
         QueryAnalyzerResponseDTO responseDTO = null;
         try {
-            responseDTO = queryAnalyzer.analyseQueryMutationComplexity(payload, queryComplexity, complexityInfoJson);
+            responseDTO = document != null
+                    ? queryAnalyzer.analyseQueryMutationComplexity(document, operationName, variables,
+                            queryComplexity, complexityInfoJson)
+                    : queryAnalyzer.analyseQueryMutationComplexity(payload, queryComplexity, complexityInfoJson);
         } catch (ParseException e) {
             String errorMessage = "Policy definition parsing failed. ";
             handleFailure(GraphQLConstants.GRAPHQL_INVALID_QUERY, messageContext, errorMessage, errorMessage);
@@ -117,6 +140,60 @@ public class GraphQLQueryAnalysisHandler extends AbstractHandler {
         return true;
     }
 
+    private static int getMaxQueryDepth(MessageContext messageContext) {
+
+        if (messageContext.getPropertyKeySet().contains(GraphQLConstants.MAXIMUM_QUERY_DEPTH)) {
+            return (int) messageContext.getProperty(GraphQLConstants.MAXIMUM_QUERY_DEPTH);
+        }
+        return -1;
+    }
+
+    private static int getMaxQueryComplexity(MessageContext messageContext) {
+
+        if (messageContext.getPropertyKeySet().contains(GraphQLConstants.MAXIMUM_QUERY_COMPLEXITY)) {
+            return (int) messageContext.getProperty(GraphQLConstants.MAXIMUM_QUERY_COMPLEXITY);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the JSON body of the request, which is already built by the GraphQL API handler, or null if the query
+     * is not sent in a JSON body.
+     *
+     * @param messageContext message context of the request
+     * @return JSON body of the request
+     */
+    private static JSONObject getRequestBody(MessageContext messageContext) {
+
+        org.apache.axis2.context.MessageContext axis2MC = ((Axis2MessageContext) messageContext)
+                .getAxis2MessageContext();
+        if (!JsonUtil.hasAJsonPayload(axis2MC)) {
+            return null;
+        }
+        try {
+            Object requestBody = new JSONParser().parse(JsonUtil.jsonPayloadToString(axis2MC));
+            return requestBody instanceof JSONObject ? (JSONObject) requestBody : null;
+        } catch (ParseException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while reading the operation name and variables of the GraphQL request", e);
+            }
+            return null;
+        }
+    }
+
+    private static String getOperationName(JSONObject requestBody) {
+
+        Object operationName = requestBody.get(GraphQLConstants.GRAPHQL_OPERATION_NAME);
+        return operationName instanceof String ? (String) operationName : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getVariables(JSONObject requestBody) {
+
+        Object variables = requestBody.get(GraphQLConstants.GRAPHQL_VARIABLES);
+        return variables instanceof Map ? (Map<String, Object>) variables : null;
+    }
+
     /**
      * This method handle the failure.
      *
@@ -0,0 +1,357 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of the GraphQL queries received by the gateway, keyed by API UUID and query. Each entry holds
+ * the parsed document, the result of validating it against the schema of the API and the operation extracted from
+ * it, so that a repeated query is neither parsed nor validated again.
+ * <p>
+ * The cache is bounded by the number of entries and by the estimated memory used by the cached documents. Entries
+ * are kept together with the schema they were validated against, and an entry validated against a schema other than
+ * the currently deployed one is treated as a miss.
+ * <p>
+ * The cache is split into stripes by key. Each stripe is an LRU with its own lock and an equal share of the bounds,
+ * so that lookups of different queries do not contend on a single lock. Small caches consist of a single stripe.
+ * <p>
+ * Queries are keyed by a seeded 64 bit hash of their text, so that crafted queries cannot be made to collide. The
+ * text is kept in the key and compared only when the hashes match.
+ */
+public final class GraphQLQueryCache {
+
+    private static final Log log = LogFactory.getLog(GraphQLQueryCache.class);
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_MAX_WEIGHT = 32L * 1024 * 1024;
+    // Rough number of bytes retained by the parsed document per character of the query
+    private static final int ESTIMATED_DOCUMENT_BYTES_PER_QUERY_CHAR = 24;
+    // Bytes retained by the query text kept in the key, per character
+    private static final int QUERY_KEY_BYTES_PER_CHAR = 2;
+    private static final int ESTIMATED_ENTRY_OVERHEAD = 256;
+    private static final long FNV_64_PRIME = 0x100000001b3L;
+    private static final long QUERY_HASH_SEED = ThreadLocalRandom.current().nextLong();
+    private static final int MAX_STRIPES = 16;
+    // Smallest share of the entry bound given to a stripe, so that small caches remain a single exact LRU
+    private static final int MIN_ENTRIES_PER_STRIPE = 64;
+    private static final GraphQLQueryCache instance = new GraphQLQueryCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+
+    private final Stripe[] stripes;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    GraphQLQueryCache(int maxEntries, long maxWeight) {
+
+        int stripeCount = Math.max(1, Math.min(MAX_STRIPES,
+                Integer.highestOneBit(maxEntries / MIN_ENTRIES_PER_STRIPE)));
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe((maxEntries + stripeCount - 1) / stripeCount, maxWeight / stripeCount);
+        }
+    }
+
+    public static GraphQLQueryCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns the cached query of the given API, if it was validated against the given schema.
+     *
+     * @param apiUUID UUID of the API
+     * @param query   GraphQL query
+     * @param schema  schema of the deployed API
+     * @return cached query or null if the query is not cached
+     */
+    public CachedQuery get(String apiUUID, String query, GraphQLSchema schema) {
+
+        QueryKey queryKey = new QueryKey(apiUUID, query);
+        CachedQuery cachedQuery = getStripe(queryKey).get(queryKey);
+        if (cachedQuery != null && cachedQuery.schema == schema) {
+            hitCount.incrementAndGet();
+            return cachedQuery;
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Adds a query of the given API to the cache, evicting the least recently used queries of its stripe if the
+     * stripe is full.
+     *
+     * @param apiUUID     UUID of the API
+     * @param query       GraphQL query
+     * @param cachedQuery parsed and validated query
+     */
+    public void put(String apiUUID, String query, CachedQuery cachedQuery) {
+
+        QueryKey queryKey = new QueryKey(apiUUID, query);
+        getStripe(queryKey).put(queryKey, cachedQuery);
+    }
+
+    /**
+     * Evicts all the queries of the given API. Called when the API is undeployed.
+     *
+     * @param apiUUID UUID of the API
+     */
+    public void invalidate(String apiUUID) {
+
+        for (Stripe stripe : stripes) {
+            stripe.invalidate(apiUUID);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Evicted cached GraphQL queries of API " + apiUUID);
+        }
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the estimated memory used by the cached queries, in bytes.
+     *
+     * @return estimated memory footprint of the cache
+     */
+    public long getEstimatedWeight() {
+
+        long weight = 0;
+        for (Stripe stripe : stripes) {
+            weight += stripe.getEstimatedWeight();
+        }
+        return weight;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    public double getHitRatio() {
+
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private Stripe getStripe(QueryKey queryKey) {
+
+        return stripes[(int) (queryKey.queryHash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the estimated memory retained by the cache entry of a query, which is made of the parsed document and
+     * the query text kept in the key.
+     */
+    private static long getWeight(String query) {
+
+        return (long) query.length() * (ESTIMATED_DOCUMENT_BYTES_PER_QUERY_CHAR + QUERY_KEY_BYTES_PER_CHAR)
+                + ESTIMATED_ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Hashes a query with a seeded FNV-1a over its characters, followed by the MurmurHash3 finalizer.
+     */
+    static long hashQuery(String query) {
+
+        long hash = QUERY_HASH_SEED;
+        for (int i = 0; i < query.length(); i++) {
+            hash = (hash ^ query.charAt(i)) * FNV_64_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * LRU holding the queries of one stripe of the cache. All the methods synchronize on the stripe.
+     */
+    private static final class Stripe {
+
+        private final int maxEntries;
+        private final long maxWeight;
+        private final LinkedHashMap<QueryKey, CachedQuery> cachedQueries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        private Stripe(int maxEntries, long maxWeight) {
+
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized CachedQuery get(QueryKey queryKey) {
+
+            return cachedQueries.get(queryKey);
+        }
+
+        synchronized void put(QueryKey queryKey, CachedQuery cachedQuery) {
+
+            long entryWeight = getWeight(queryKey.query);
+            if (entryWeight > maxWeight) {
+                return;
+            }
+            if (cachedQueries.put(queryKey, cachedQuery) == null) {
+                weight += entryWeight;
+            }
+            Iterator<Map.Entry<QueryKey, CachedQuery>> iterator = cachedQueries.entrySet().iterator();
+            while ((cachedQueries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+                Map.Entry<QueryKey, CachedQuery> eldest = iterator.next();
+                weight -= getWeight(eldest.getKey().query);
+                iterator.remove();
+            }
+        }
+
+        synchronized void invalidate(String apiUUID) {
+
+            Iterator<Map.Entry<QueryKey, CachedQuery>> iterator = cachedQueries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<QueryKey, CachedQuery> entry = iterator.next();
+                if (Objects.equals(apiUUID, entry.getKey().apiUUID)) {
+                    weight -= getWeight(entry.getKey().query);
+                    iterator.remove();
+                }
+            }
+        }
+
+        synchronized int size() {
+
+            return cachedQueries.size();
+        }
+
+        synchronized long getEstimatedWeight() {
+
+            return weight;
+        }
+    }
+
+    /**
+     * A GraphQL query parsed and validated against the schema of an API.
+     */
+    public static final class CachedQuery {
+
+        private final GraphQLSchema schema;
+        private final Document document;
+        private final String validationErrorMessage;
+        private final String operationType;
+        private final String operationList;
+        private final boolean operationDefinitionMissing;
+
+        public CachedQuery(GraphQLSchema schema, Document document, String validationErrorMessage,
+                           String operationType, String operationList, boolean operationDefinitionMissing) {
+
+            this.schema = schema;
+            this.document = document;
+            this.validationErrorMessage = validationErrorMessage;
+            this.operationType = operationType;
+            this.operationList = operationList;
+            this.operationDefinitionMissing = operationDefinitionMissing;
+        }
+
+        public Document getDocument() {
+
+            return document;
+        }
+
+        /**
+         * Returns the schema validation error of the query, or null if the query is valid.
+         *
+         * @return validation error message
+         */
+        public String getValidationErrorMessage() {
+
+            return validationErrorMessage;
+        }
+
+        /**
+         * Returns the type of the operation of the query, or null if the query has no typed operation.
+         *
+         * @return operation type
+         */
+        public String getOperationType() {
+
+            return operationType;
+        }
+
+        public String getOperationList() {
+
+            return operationList;
+        }
+
+        public boolean isOperationDefinitionMissing() {
+
+            return operationDefinitionMissing;
+        }
+    }
+
+    private static final class QueryKey {
+
+        private final String apiUUID;
+        private final String query;
+        private final long queryHash;
+
+        private QueryKey(String apiUUID, String query) {
+
+            this.apiUUID = apiUUID;
+            this.query = query;
+            this.queryHash = hashQuery(query);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey queryKey = (QueryKey) o;
+            return queryHash == queryKey.queryHash && Objects.equals(apiUUID, queryKey.apiUUID)
+                    && query.equals(queryKey.query);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * Objects.hashCode(apiUUID) + (int) (queryHash ^ (queryHash >>> 32));
+        }
+    }
+}
@@ -19,7 +19,6 @@ package org.wso2.carbon.apimgt.gateway.handlers.logging;
 import org.apache.axis2.AxisFault;
 import org.apache.axis2.Constants;
 import org.apache.axis2.description.WSDL2Constants;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
@@ -28,10 +27,10 @@ import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.AbstractHandler;
 import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
+import org.slf4j.MDC;
 import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 
-import java.util.Date;
 import java.util.Map;
 
 /**
@@ -51,28 +50,18 @@ public class APILogMessageHandler extends AbstractHandler {
 
     private boolean mediate(MessageContext messageContext, String direction) {
 
-        String applicationName = (String) messageContext.getProperty(APIMgtGatewayConstants.APPLICATION_NAME);
-        String endUserName = (String) messageContext.getProperty(APIMgtGatewayConstants.END_USER_NAME);
-        boolean isLoginRequest = false;
-        String logMessage = "";
+        AccessLogRecord record = new AccessLogRecord();
+        record.outbound = DIRECTION_OUT.equals(direction);
+        record.applicationName = (String) messageContext.getProperty(APIMgtGatewayConstants.APPLICATION_NAME);
+        record.endUserName = (String) messageContext.getProperty(APIMgtGatewayConstants.END_USER_NAME);
 
         org.apache.axis2.context.MessageContext axisMC = ((Axis2MessageContext) messageContext).getAxis2MessageContext();
 
-        if (applicationName != null) {
-            logMessage = " appName=" + applicationName;
-        }
-        if (endUserName != null) {
-            logMessage = logMessage + " , userName=" + endUserName;
-        }
-        String httpMethod = String.valueOf(axisMC.getProperty(Constants.Configuration.HTTP_METHOD));
-        if (httpMethod != null) {
-            logMessage = logMessage + " , httpMethod=" + httpMethod;
-        }
+        record.httpMethod = axisMC.getProperty(Constants.Configuration.HTTP_METHOD);
         Map headers = (Map) axisMC.getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
         String logID = (String) headers.get(APIConstants.ACTIVITY_ID);
 
-
-        if (DIRECTION_OUT.equals(direction) && logID == null) {
+        if (record.outbound && logID == null) {
             try {
                 org.apache.axis2.context.MessageContext inMessageContext =
                         axisMC.getOperationContext().getMessageContext(WSDL2Constants.MESSAGE_LABEL_IN);
@@ -91,29 +80,15 @@ public class APILogMessageHandler extends AbstractHandler {
                 log.error("Cannot get Transport headers from Gateway", axisFault);
             }
         }
-        if (logID != null) {
-            logMessage = logMessage + " , transactionId=" + logID;
-        }
-        String userAgent = (String) ((Map<String, Object>) axisMC.getProperty(org.apache.axis2.context.MessageContext
-                .TRANSPORT_HEADERS)).get(APIConstants.USER_AGENT);
-        if (userAgent != null) {
-            logMessage = logMessage + " , userAgent=" + userAgent;
-        }
+        record.transactionId = logID;
+        record.userAgent = (String) headers.get(APIConstants.USER_AGENT);
 
         String requestURI = (String) messageContext.getProperty(RESTConstants.REST_FULL_REQUEST_PATH);
-        if (requestURI != null) {
-            logMessage = logMessage + " , requestURI=" + requestURI;
-            if ("/token/".equalsIgnoreCase(requestURI)) {
-                isLoginRequest = true;
-            }
-        }
-        long reqIncomingTimestamp = Long.parseLong((String) ((Axis2MessageContext) messageContext).
-                getAxis2MessageContext().getProperty(APIMgtGatewayConstants.REQUEST_RECEIVED_TIME));
-        Date incomingReqTime = new Date(reqIncomingTimestamp);
-        logMessage = logMessage + " , requestTime=" + incomingReqTime;
+        record.requestURI = requestURI;
+        record.loginRequest = "/token/".equalsIgnoreCase(requestURI);
+        record.requestTime = Long.parseLong((String) axisMC.getProperty(APIMgtGatewayConstants.REQUEST_RECEIVED_TIME));
 
-        String remoteIP = (String) ((Map<String, Object>) axisMC.getProperty(org.apache.axis2.context.MessageContext
-                .TRANSPORT_HEADERS)).get(APIMgtGatewayConstants.X_FORWARDED_FOR);
+        String remoteIP = (String) headers.get(APIMgtGatewayConstants.X_FORWARDED_FOR);
         if (remoteIP != null) {
             if (remoteIP.indexOf(',') > 0) {
                 remoteIP = remoteIP.substring(0, remoteIP.indexOf(','));
@@ -121,35 +96,14 @@ public class APILogMessageHandler extends AbstractHandler {
         } else {
             remoteIP = (String) axisMC.getProperty(org.apache.axis2.context.MessageContext.REMOTE_ADDR);
         }
-        //null check before add it to log message
-        if (remoteIP != null) {
-            logMessage = logMessage + " , clientIP=" + remoteIP;
-        }
-        if (DIRECTION_OUT.equals(direction)) {
-            String statusCode = String.valueOf(axisMC.getProperty(NhttpConstants.HTTP_SC));
-
-            if (StringUtils.isNotEmpty(statusCode)) {
-                logMessage = logMessage + " , statusCode=" + statusCode;
-            }
-        }
-        if (isLoginRequest) {
-
-            if (DIRECTION_IN.equals(direction)) {
-                log.debug("Inbound OAuth token request from client to gateway: " + logMessage);
-
-            } else if (DIRECTION_OUT.equals(direction)) {
-                log.debug("Outbound OAuth token response from gateway to client: " + logMessage);
-            }
-        } else {
-            if (DIRECTION_IN.equals(direction)) {
-                log.debug("Inbound API call from client to gateway: " + logMessage);
-
-            } else if (DIRECTION_OUT.equals(direction)) {
-                logMessage = logMessage + " , EndPointURL=" + messageContext.getProperty(
-                        SynapseConstants.ENDPOINT_PREFIX);
-                log.debug("Outbound API call from gateway to client: " + logMessage);
-            }
+        record.clientIP = remoteIP;
+        if (record.outbound) {
+            record.statusCode = axisMC.getProperty(NhttpConstants.HTTP_SC);
+            record.endpointURL = messageContext.getProperty(SynapseConstants.ENDPOINT_PREFIX);
         }
+        record.correlationId = MDC.get(APIConstants.CORRELATION_ID);
+        record.threadName = Thread.currentThread().getName();
+        AccessLogWriterHolder.ACCESS_LOG_WRITER.write(record);
         return true;
     }
 
@@ -160,4 +114,12 @@ public class APILogMessageHandler extends AbstractHandler {
     public boolean handleResponse(MessageContext messageContext) {
         return !log.isDebugEnabled() || mediate(messageContext, DIRECTION_OUT);
     }
+
+    /**
+     * Holds the access log writer, so that its thread is started only when access logging is enabled.
+     */
+    private static class AccessLogWriterHolder {
+
+        private static final AccessLogWriter ACCESS_LOG_WRITER = new AccessLogWriter(log).start();
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.logging;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Date;
+
+/**
+ * Fields of an access log entry of {@link APILogMessageHandler}, captured on the request thread and rendered later by
+ * {@link AccessLogWriter}.
+ */
+final class AccessLogRecord {
+
+    boolean outbound;
+    boolean loginRequest;
+    String applicationName;
+    String endUserName;
+    Object httpMethod;
+    String transactionId;
+    String userAgent;
+    String requestURI;
+    long requestTime;
+    String clientIP;
+    Object statusCode;
+    Object endpointURL;
+    // Correlation ID and thread of the API call, rendered as fields since the record is written by another thread
+    String correlationId;
+    String threadName;
+
+    /**
+     * Renders the log message of this record.
+     *
+     * @return log message
+     */
+    String render() {
+
+        StringBuilder logMessage = new StringBuilder(256);
+        if (loginRequest) {
+            logMessage.append(outbound ? "Outbound OAuth token response from gateway to client: "
+                    : "Inbound OAuth token request from client to gateway: ");
+        } else {
+            logMessage.append(outbound ? "Outbound API call from gateway to client: "
+                    : "Inbound API call from client to gateway: ");
+        }
+        if (applicationName != null) {
+            logMessage.append(" appName=").append(applicationName);
+        }
+        if (endUserName != null) {
+            logMessage.append(" , userName=").append(endUserName);
+        }
+        logMessage.append(" , httpMethod=").append(httpMethod);
+        if (transactionId != null) {
+            logMessage.append(" , transactionId=").append(transactionId);
+        }
+        if (userAgent != null) {
+            logMessage.append(" , userAgent=").append(userAgent);
+        }
+        if (requestURI != null) {
+            logMessage.append(" , requestURI=").append(requestURI);
+        }
+        logMessage.append(" , requestTime=").append(new Date(requestTime));
+        if (clientIP != null) {
+            logMessage.append(" , clientIP=").append(clientIP);
+        }
+        if (outbound) {
+            String status = String.valueOf(statusCode);
+            if (StringUtils.isNotEmpty(status)) {
+                logMessage.append(" , statusCode=").append(status);
+            }
+            if (!loginRequest) {
+                logMessage.append(" , EndPointURL=").append(endpointURL);
+            }
+        }
+        if (correlationId != null) {
+            logMessage.append(" , correlationId=").append(correlationId);
+        }
+        if (threadName != null) {
+            logMessage.append(" , threadName=").append(threadName);
+        }
+        return logMessage.toString();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.logging;
+
+import org.apache.commons.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes access log records on a background thread, so that rendering and writing log messages does not add to the
+ * latency of the API calls. Records are handed over through a bounded queue. When the queue is full, records are
+ * dropped rather than blocking the request thread, and the number of dropped records is reported once the writer
+ * catches up.
+ * <p>
+ * The correlation ID, thread name and request time of the API call are rendered as fields of the record, so the
+ * writer thread keeps its own name and logging context.
+ */
+final class AccessLogWriter implements Runnable {
+
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int BATCH_SIZE = 256;
+
+    private final Log log;
+    private final BlockingQueue<AccessLogRecord> queue;
+    private final AtomicLong droppedRecordCount = new AtomicLong();
+    private long reportedDroppedRecordCount;
+
+    AccessLogWriter(Log log) {
+
+        this(log, QUEUE_CAPACITY);
+    }
+
+    AccessLogWriter(Log log, int queueCapacity) {
+
+        this.log = log;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Starts the background thread of this writer.
+     *
+     * @return this writer
+     */
+    AccessLogWriter start() {
+
+        Thread writerThread = new Thread(this, "APIAccessLogWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        return this;
+    }
+
+    /**
+     * Queues a record to be written.
+     *
+     * @param record access log record
+     * @return true if the record was queued, false if it was dropped because the queue is full
+     */
+    boolean write(AccessLogRecord record) {
+
+        if (queue.offer(record)) {
+            return true;
+        }
+        droppedRecordCount.incrementAndGet();
+        return false;
+    }
+
+    long getDroppedRecordCount() {
+
+        return droppedRecordCount.get();
+    }
+
+    @Override
+    public void run() {
+
+        List<AccessLogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    void writeBatch(List<AccessLogRecord> batch) {
+
+        for (AccessLogRecord record : batch) {
+            try {
+                log.debug(record.render());
+            } catch (RuntimeException e) {
+                log.error("Error while writing access log record", e);
+            }
+        }
+        long dropped = droppedRecordCount.get();
+        if (dropped > reportedDroppedRecordCount) {
+            log.warn((dropped - reportedDroppedRecordCount) + " access log records were dropped as the access log "
+                    + "queue was full");
+            reportedDroppedRecordCount = dropped;
+        }
+    }
+}
@@ -48,6 +48,8 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.authenticator.InternalAP
 import org.wso2.carbon.apimgt.gateway.handlers.security.basicauth.BasicAuthAuthenticator;
 import org.wso2.carbon.apimgt.gateway.handlers.security.oauth.OAuthAuthenticator;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
@@ -466,8 +468,10 @@ public class APIAuthenticationHandler extends AbstractHandler implements Managed
             } else if (Util.tracingEnabled()) {
                 Util.finishSpan(keyTracingSpan);
             }
+            long securityLatency = System.nanoTime() - startTime;
             messageContext.setProperty(APIMgtGatewayConstants.SECURITY_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+                    TimeUnit.NANOSECONDS.toMillis(securityLatency));
+            LatencyStatsCollector.getInstance().record(messageContext, LatencyPhase.SECURITY, securityLatency);
             stopMetricTimer(context);
 
         }
@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link OpenApiInteractionValidator} of each deployed API, so that the validator, which resolves the
+ * whole OpenAPI definition when built, is created once per API deployment instead of once per message.
+ * <p>
+ * Validators are kept against the API UUID together with the {@link OpenAPI} object they were built from. A
+ * redeployed API comes with a new OpenAPI object, so a validator of a previous revision is never handed out even if
+ * the eviction on redeployment is missed.
+ */
+public final class OpenAPIValidatorCache {
+
+    private static final Log log = LogFactory.getLog(OpenAPIValidatorCache.class);
+    private static final OpenAPIValidatorCache instance = new OpenAPIValidatorCache();
+
+    private final Map<String, CachedValidator> validators = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    private OpenAPIValidatorCache() {
+
+    }
+
+    public static OpenAPIValidatorCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Returns the validator built for the given OpenAPI definition of the API, building it if the API has no
+     * validator yet or if its validator was built for a different definition.
+     *
+     * @param apiUUID          UUID of the API
+     * @param openAPI          OpenAPI definition of the deployed API
+     * @param validatorFactory function used to build the validator on a miss
+     * @return validator for the given OpenAPI definition
+     */
+    public OpenApiInteractionValidator getValidator(String apiUUID, OpenAPI openAPI,
+                                                    Function<OpenAPI, OpenApiInteractionValidator> validatorFactory) {
+
+        if (apiUUID == null) {
+            missCount.incrementAndGet();
+            return validatorFactory.apply(openAPI);
+        }
+        CachedValidator cachedValidator = validators.get(apiUUID);
+        if (cachedValidator != null && cachedValidator.openAPI == openAPI) {
+            hitCount.incrementAndGet();
+            return cachedValidator.validator;
+        }
+        missCount.incrementAndGet();
+        CachedValidator newValidator = new CachedValidator(openAPI, validatorFactory.apply(openAPI));
+        validators.put(apiUUID, newValidator);
+        if (log.isDebugEnabled()) {
+            log.debug("Built schema validator for API " + apiUUID);
+        }
+        return newValidator.validator;
+    }
+
+    /**
+     * Evicts the validator of the given API. Called when the API is undeployed or redeployed.
+     *
+     * @param apiUUID UUID of the API
+     */
+    public void invalidate(String apiUUID) {
+
+        if (apiUUID != null && validators.remove(apiUUID) != null && log.isDebugEnabled()) {
+            log.debug("Evicted schema validator of API " + apiUUID);
+        }
+    }
+
+    public int size() {
+
+        return validators.size();
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    private static final class CachedValidator {
+
+        private final OpenAPI openAPI;
+        private final OpenApiInteractionValidator validator;
+
+        private CachedValidator(OpenAPI openAPI, OpenApiInteractionValidator validator) {
+
+            this.openAPI = openAPI;
+            this.validator = validator;
+        }
+    }
+}
@@ -38,6 +38,20 @@ public class SchemaValidator extends AbstractHandler {
     private static final Log logger = LogFactory.getLog(SchemaValidator.class);
     private static final String HTTP_SC_CODE = "400";
 
+    /**
+     * Returns the OpenApiInteractionValidator of the API being invoked, building it on the first message after the
+     * API is deployed.
+     *
+     * @param messageContext message context
+     * @param openAPI        openAPI
+     * @return OpenApiInteractionValidator object for the provided swagger.
+     */
+    private static OpenApiInteractionValidator getOpenAPIValidator(MessageContext messageContext, OpenAPI openAPI) {
+
+        String apiUUID = (String) messageContext.getProperty(APIMgtGatewayConstants.API_UUID_PROPERTY);
+        return OpenAPIValidatorCache.getInstance().getValidator(apiUUID, openAPI, SchemaValidator::getOpenAPIValidator);
+    }
+
     /**
      * Method to generate OpenApiInteractionValidator when the openAPI is provided.
      *
@@ -63,7 +77,7 @@ public class SchemaValidator extends AbstractHandler {
         logger.debug("Validating the API request Body content..");
         OpenAPI openAPI = (OpenAPI) messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_OBJECT);
         if (openAPI != null) {
-            OpenApiInteractionValidator validator = getOpenAPIValidator(openAPI);
+            OpenApiInteractionValidator validator = getOpenAPIValidator(messageContext, openAPI);
             OpenAPIRequest request = new OpenAPIRequest(messageContext);
 
             ValidationReport validationReport = validator.validateRequest(request);
@@ -85,7 +99,7 @@ public class SchemaValidator extends AbstractHandler {
 
         OpenAPI openAPI = (OpenAPI) messageContext.getProperty(APIMgtGatewayConstants.OPEN_API_OBJECT);
         if (openAPI != null) {
-            OpenApiInteractionValidator validator = getOpenAPIValidator(openAPI);
+            OpenApiInteractionValidator validator = getOpenAPIValidator(messageContext, openAPI);
             OpenAPIResponse response = new OpenAPIResponse(messageContext);
 
             ValidationReport validationReport = validator.validateResponse(response.getPath(), response.getMethod(),
@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.jwt;
+
+import org.json.JSONObject;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Entry of the gateway backend JWT cache. Holds the serialized backend JWT together with its expiry time, so that a
+ * cache hit does not need to decode the token payload to decide whether the token can still be used.
+ * <p>
+ * An entry also carries the time from which the token should be regenerated in the background.
+ */
+public final class BackendJWTCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Fraction of the usable lifetime of a token after which it is regenerated ahead of its expiry.
+     */
+    private static final int REFRESH_AHEAD_PERCENTAGE = 80;
+
+    private final String token;
+    private final long expiryTime;
+    private final long refreshTime;
+
+    BackendJWTCacheEntry(String token, long expiryTime, long refreshTime) {
+
+        this.token = token;
+        this.expiryTime = expiryTime;
+        this.refreshTime = refreshTime;
+    }
+
+    /**
+     * Creates a cache entry for a newly generated backend JWT. The expiry time is read from the exp claim of the
+     * token, falling back to the given default if the token does not carry one.
+     *
+     * @param token              serialized backend JWT
+     * @param currentTime        current time in milliseconds
+     * @param defaultExpiryTime  expiry time in milliseconds to use if the token has no exp claim
+     * @param timestampSkew      allowed clock skew in milliseconds
+     * @return cache entry for the token
+     */
+    public static BackendJWTCacheEntry create(String token, long currentTime, long defaultExpiryTime,
+                                              long timestampSkew) {
+
+        long expiryTime = getExpiryTime(token, defaultExpiryTime);
+        long usableLifetime = Math.max(0, expiryTime - timestampSkew - currentTime);
+        long refreshTime = currentTime + usableLifetime / 100 * REFRESH_AHEAD_PERCENTAGE;
+        return new BackendJWTCacheEntry(token, expiryTime, refreshTime);
+    }
+
+    private static long getExpiryTime(String token, long defaultExpiryTime) {
+
+        int payloadStart = token.indexOf('.');
+        int payloadEnd = payloadStart >= 0 ? token.indexOf('.', payloadStart + 1) : -1;
+        if (payloadEnd < 0) {
+            return defaultExpiryTime;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(payloadStart + 1, payloadEnd));
+            JSONObject claims = new JSONObject(new String(payload, StandardCharsets.UTF_8));
+            return claims.has("exp") ? claims.getLong("exp") * 1000L : defaultExpiryTime;
+        } catch (RuntimeException e) {
+            return defaultExpiryTime;
+        }
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public long getExpiryTime() {
+
+        return expiryTime;
+    }
+
+    public long getRefreshTime() {
+
+        return refreshTime;
+    }
+
+    /**
+     * Checks whether the token can still be sent to the backend.
+     *
+     * @param currentTime   current time in milliseconds
+     * @param timestampSkew allowed clock skew in milliseconds
+     * @return true if the token is not about to expire
+     */
+    public boolean isValid(long currentTime, long timestampSkew) {
+
+        return expiryTime - currentTime > timestampSkew;
+    }
+
+    /**
+     * Checks whether the token should be regenerated in the background.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if the refresh time of the token has passed
+     */
+    public boolean isRefreshDue(long currentTime) {
+
+        return currentTime >= refreshTime;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.jwt;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor shared by all the JWT validators of the gateway to regenerate cached backend JWTs ahead of their expiry.
+ * Refreshing is best effort: the executor has a bounded queue and rejects tasks once it is full, in which case the
+ * token is regenerated by the request that finds it expired.
+ * <p>
+ * At most one refresh is in flight per cache key. The keys are tracked here rather than on the cache entries, as a
+ * distributed cache hands out a new copy of the entry on every lookup.
+ */
+final class BackendJWTRefreshExecutor {
+
+    private static final int POOL_SIZE = 2;
+    private static final int QUEUE_SIZE = 1000;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+    private BackendJWTRefreshExecutor() {
+
+    }
+
+    private static class ExecutorHolder {
+
+        private static final ThreadPoolExecutor INSTANCE = createExecutor();
+    }
+
+    /**
+     * Runs the refresh of the token cached under the given key, unless a refresh of the key is already in flight.
+     *
+     * @param cacheKey cache key of the token
+     * @param refresh  regenerates and caches the token
+     * @return true if the refresh was scheduled, false if the key is already being refreshed or the queue is full
+     */
+    static boolean refresh(String cacheKey, Runnable refresh) {
+
+        if (!refreshingKeys.add(cacheKey)) {
+            return false;
+        }
+        try {
+            ExecutorHolder.INSTANCE.execute(() -> {
+                try {
+                    refresh.run();
+                } finally {
+                    refreshingKeys.remove(cacheKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(cacheKey);
+            return false;
+        }
+    }
+
+    static boolean isRefreshing(String cacheKey) {
+
+        return refreshingKeys.contains(cacheKey);
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), runnable -> {
+            Thread thread = new Thread(runnable, "BackendJWTRefresher-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
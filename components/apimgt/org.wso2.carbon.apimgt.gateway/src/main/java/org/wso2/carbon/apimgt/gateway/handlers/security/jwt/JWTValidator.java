@@ -26,7 +26,6 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.RESTConstants;
-import org.json.JSONObject;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.model.KeyManager;
 import org.wso2.carbon.apimgt.common.gateway.constants.GraphQLConstants;
@@ -62,7 +61,6 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 
 import java.security.cert.Certificate;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -277,42 +275,82 @@ public class JWTValidator {
     private String generateAndRetrieveJWTToken(String tokenSignature, JWTInfoDto jwtInfoDto)
             throws APISecurityException {
 
-        String endUserToken = null;
-        boolean valid = false;
+        if (!isGatewayTokenCacheEnabled) {
+            return generateBackendJWT(jwtInfoDto);
+        }
         String jwtTokenCacheKey = jwtInfoDto.getApiContext().concat(":").concat(jwtInfoDto.getVersion()).concat(":")
                 .concat(tokenSignature);
-        if (isGatewayTokenCacheEnabled) {
-            Object token = getGatewayJWTTokenCache().get(jwtTokenCacheKey);
-            if (token != null) {
-                endUserToken = (String) token;
-                String[] splitToken = ((String) token).split("\\.");
-                JSONObject payload = new JSONObject(new String(Base64.getUrlDecoder().decode(splitToken[1])));
-                long exp = payload.getLong("exp") * 1000L;
-                long timestampSkew = getTimeStampSkewInSeconds() * 1000;
-                valid = (exp - System.currentTimeMillis() > timestampSkew);
-            }
-            if (StringUtils.isEmpty(endUserToken) || !valid) {
-                try {
-                    includeUserStoreClaimsIntoClaims(jwtInfoDto);
-                    endUserToken = apiMgtGatewayJWTGenerator.generateToken(jwtInfoDto);
-                    getGatewayJWTTokenCache().put(jwtTokenCacheKey, endUserToken);
-                } catch (JWTGeneratorException e) {
-                    log.error("Error while Generating Backend JWT", e);
-                    throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
-                            APISecurityConstants.API_AUTH_GENERAL_ERROR_MESSAGE, e);
+        long currentTime = System.currentTimeMillis();
+        long timestampSkew = getTimeStampSkewInSeconds() * 1000;
+        Object cachedEntry = getGatewayJWTTokenCache().get(jwtTokenCacheKey);
+        if (cachedEntry instanceof BackendJWTCacheEntry) {
+            BackendJWTCacheEntry backendJWTCacheEntry = (BackendJWTCacheEntry) cachedEntry;
+            if (backendJWTCacheEntry.isValid(currentTime, timestampSkew)) {
+                if (backendJWTCacheEntry.isRefreshDue(currentTime)) {
+                    refreshBackendJWT(jwtTokenCacheKey, jwtInfoDto);
                 }
+                return backendJWTCacheEntry.getToken();
             }
-        } else {
+        }
+        String endUserToken = generateBackendJWT(jwtInfoDto);
+        getGatewayJWTTokenCache().put(jwtTokenCacheKey, createBackendJWTCacheEntry(endUserToken, timestampSkew));
+        return endUserToken;
+    }
+
+    private String generateBackendJWT(JWTInfoDto jwtInfoDto) throws APISecurityException {
+
+        try {
+            includeUserStoreClaimsIntoClaims(jwtInfoDto);
+            return apiMgtGatewayJWTGenerator.generateToken(jwtInfoDto);
+        } catch (JWTGeneratorException e) {
+            log.error("Error while Generating Backend JWT", e);
+            throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
+                    APISecurityConstants.API_AUTH_GENERAL_ERROR_MESSAGE, e);
+        }
+    }
+
+    private BackendJWTCacheEntry createBackendJWTCacheEntry(String endUserToken, long timestampSkew) {
+
+        long currentTime = System.currentTimeMillis();
+        long defaultExpiryTime = currentTime + jwtConfigurationDto.getTTL() * 1000L;
+        return BackendJWTCacheEntry.create(endUserToken, currentTime, defaultExpiryTime, timestampSkew);
+    }
+
+    /**
+     * Regenerates a cached backend JWT that is close to its expiry in the background, so that requests keep being
+     * served from the cache and never wait for the token to be signed. Only one refresh of a token is in flight at a
+     * time. If the refresh cannot be done, the request that finds the token expired generates it as before.
+     *
+     * @param jwtTokenCacheKey cache key of the backend JWT
+     * @param jwtInfoDto       details of the current request to generate the token from
+     */
+    private void refreshBackendJWT(String jwtTokenCacheKey, JWTInfoDto jwtInfoDto) {
+
+        if (BackendJWTRefreshExecutor.isRefreshing(jwtTokenCacheKey)) {
+            return;
+        }
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        long timestampSkew = getTimeStampSkewInSeconds() * 1000;
+        boolean scheduled = BackendJWTRefreshExecutor.refresh(jwtTokenCacheKey, () -> {
             try {
-                includeUserStoreClaimsIntoClaims(jwtInfoDto);
-                endUserToken = apiMgtGatewayJWTGenerator.generateToken(jwtInfoDto);
-            } catch (JWTGeneratorException e) {
-                log.error("Error while Generating Backend JWT", e);
-                throw new APISecurityException(APISecurityConstants.API_AUTH_GENERAL_ERROR,
-                        APISecurityConstants.API_AUTH_GENERAL_ERROR_MESSAGE, e);
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain, true);
+                String endUserToken = generateBackendJWT(jwtInfoDto);
+                getGatewayJWTTokenCache().put(jwtTokenCacheKey,
+                        createBackendJWTCacheEntry(endUserToken, timestampSkew));
+                if (log.isDebugEnabled()) {
+                    log.debug("Refreshed backend JWT ahead of its expiry for " + jwtInfoDto.getApiContext()
+                            + ":" + jwtInfoDto.getVersion());
+                }
+            } catch (APISecurityException | RuntimeException e) {
+                log.error("Error while refreshing Backend JWT", e);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
             }
+        });
+        if (!scheduled && log.isDebugEnabled()) {
+            log.debug("Backend JWT refresh could not be scheduled. Token will be regenerated on expiry.");
         }
-        return endUserToken;
     }
 
     private void includeUserStoreClaimsIntoClaims(JWTInfoDto jwtInfoDto) {
@@ -22,6 +22,8 @@ public class SseApiConstants {
 
     public static final String SSE_THROTTLE_DTO = "sse_throttle_dto";
     public static final String SSE_ANALYTICS_INFO = "sse_analytics_info";
+    public static final String SSE_EVENT_SCANNER = "sse_event_scanner";
+    public static final String SSE_THROTTLE_EVENT_BATCH = "sse_throttle_event_batch";
     public static final String THROTTLED_MESSAGE =
             ": request is throttled out by the server, try again at later point of time\n";
     public static final String THROTTLED_OUT_ERROR_MESSAGE = "Message throttled out";
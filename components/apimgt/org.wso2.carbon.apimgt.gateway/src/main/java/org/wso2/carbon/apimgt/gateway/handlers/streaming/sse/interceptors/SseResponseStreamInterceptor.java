@@ -20,7 +20,6 @@ package org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.interceptors;
 
 import org.apache.axiom.util.UIDGenerator;
 import org.apache.axis2.context.MessageContext;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.synapse.SynapseConstants;
@@ -31,7 +30,9 @@ import org.wso2.carbon.apimgt.common.analytics.collectors.impl.GenericRequestDat
 import org.wso2.carbon.apimgt.common.analytics.exceptions.AnalyticsException;
 import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.analytics.SseResponseEventDataProvider;
+import org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.throttling.ThrottleEventBatch;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.throttling.ThrottleInfo;
+import org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.utils.SseEventDelimiterScanner;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.utils.SseUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
@@ -43,7 +44,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.SseApiConstants.SSE_ANALYTICS_INFO;
+import static org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.SseApiConstants.SSE_EVENT_SCANNER;
 import static org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.SseApiConstants.SSE_THROTTLE_DTO;
+import static org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.SseApiConstants.SSE_THROTTLE_EVENT_BATCH;
 import static org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.utils.SseUtils.isThrottled;
 
 /**
@@ -54,7 +57,7 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
     private static final Log log = LogFactory.getLog(SseResponseStreamInterceptor.class);
     private static final String SSE_STREAM_DELIMITER = "\n\n";
     private static final int DEFAULT_NO_OF_THROTTLE_PUBLISHER_EXECUTORS = 100;
-    private String charset = StandardCharsets.UTF_8.name();
+    private byte[] delimiter = SSE_STREAM_DELIMITER.getBytes(StandardCharsets.UTF_8);
     private ExecutorService throttlePublisherService;
     private int noOfExecutorThreads = DEFAULT_NO_OF_THROTTLE_PUBLISHER_EXECUTORS;
 
@@ -70,7 +73,7 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
 
     @Override
     public boolean targetResponse(ByteBuffer buffer, MessageContext axis2Ctx) {
-        int eventCount = getEventCount(buffer);
+        int eventCount = getEventCount(buffer, axis2Ctx);
         if (log.isDebugEnabled()) {
             log.debug("No. of events =" + eventCount);
         }
@@ -85,21 +88,20 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
         this.noOfExecutorThreads = executorThreads;
     }
 
-    private int getEventCount(ByteBuffer stream) {
-        Charset charsetValue = Charset.forName(this.charset);
-        String text = charsetValue.decode(stream).toString();
-        return StringUtils.countMatches(text, SSE_STREAM_DELIMITER);
+    private int getEventCount(ByteBuffer stream, MessageContext axis2Ctx) {
+        Object scanner = axis2Ctx.getProperty(SSE_EVENT_SCANNER);
+        if (scanner == null) {
+            scanner = new SseEventDelimiterScanner(delimiter);
+            axis2Ctx.setProperty(SSE_EVENT_SCANNER, scanner);
+        }
+        return ((SseEventDelimiterScanner) scanner).scan(stream);
     }
 
     private boolean handleThrottlingAndAnalytics(int eventCount, MessageContext axi2Ctx) {
 
         Object throttleObject = axi2Ctx.getProperty(SSE_THROTTLE_DTO);
         if (throttleObject != null) {
-            String messageId = UIDGenerator.generateURNString();
             ThrottleInfo throttleInfo = (ThrottleInfo) throttleObject;
-            String remoteIP = throttleInfo.getRemoteIp();
-            JSONObject propertiesMap = new JSONObject();
-            Utils.setRemoteIp(propertiesMap, remoteIP);
             boolean isThrottled = isThrottled(throttleInfo.getSubscriberTenantDomain(),
                                               throttleInfo.getResourceLevelThrottleKey(),
                                               throttleInfo.getSubscriptionLevelThrottleKey(),
@@ -108,8 +110,10 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
                 log.warn("Request is throttled out");
                 return false;
             }
-            throttlePublisherService.execute(
-                    () -> SseUtils.publishNonThrottledEvent(eventCount, messageId, throttleInfo, propertiesMap));
+            ThrottleEventBatch throttleEventBatch = getThrottleEventBatch(throttleInfo, axi2Ctx);
+            if (throttleEventBatch.add(eventCount)) {
+                throttlePublisherService.execute(() -> publishThrottleEvents(throttleEventBatch));
+            }
             if (APIUtil.isAnalyticsEnabled()) {
                 try {
                     publishAnalyticsData(eventCount, axi2Ctx);
@@ -124,6 +128,28 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
         return true;
     }
 
+    private ThrottleEventBatch getThrottleEventBatch(ThrottleInfo throttleInfo, MessageContext axi2Ctx) {
+
+        Object throttleEventBatch = axi2Ctx.getProperty(SSE_THROTTLE_EVENT_BATCH);
+        if (throttleEventBatch == null) {
+            JSONObject propertiesMap = new JSONObject();
+            Utils.setRemoteIp(propertiesMap, throttleInfo.getRemoteIp());
+            throttleEventBatch = new ThrottleEventBatch(throttleInfo, propertiesMap);
+            axi2Ctx.setProperty(SSE_THROTTLE_EVENT_BATCH, throttleEventBatch);
+        }
+        return (ThrottleEventBatch) throttleEventBatch;
+    }
+
+    private void publishThrottleEvents(ThrottleEventBatch throttleEventBatch) {
+
+        int eventCount = throttleEventBatch.drain();
+        if (eventCount > 0) {
+            SseUtils.publishNonThrottledEvent(eventCount, UIDGenerator.generateURNString(),
+                                              throttleEventBatch.getThrottleInfo(),
+                                              throttleEventBatch.getProperties());
+        }
+    }
+
     private void publishAnalyticsData(int eventCount, MessageContext axi2Ctx) throws AnalyticsException {
 
         Object responseEventProvider = axi2Ctx.getProperty(SSE_ANALYTICS_INFO);
@@ -140,6 +166,6 @@ public class SseResponseStreamInterceptor extends DefaultStreamInterceptor {
     }
 
     public void setCharset(String charset) {
-        this.charset = charset;
+        this.delimiter = SseEventDelimiterScanner.encodeDelimiter(SSE_STREAM_DELIMITER, Charset.forName(charset));
     }
 }
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.throttling;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accumulates the events of a server sent event stream which are yet to be published to the traffic manager. Events
+ * counted while a publish task of the stream is pending are added to that task instead of scheduling a new one, so
+ * that a fast stream results in a few large publish tasks rather than one task per response chunk.
+ */
+public class ThrottleEventBatch {
+
+    private final ThrottleInfo throttleInfo;
+    private final JSONObject properties;
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+
+    public ThrottleEventBatch(ThrottleInfo throttleInfo, JSONObject properties) {
+
+        this.throttleInfo = throttleInfo;
+        this.properties = properties;
+    }
+
+    public ThrottleInfo getThrottleInfo() {
+
+        return throttleInfo;
+    }
+
+    public JSONObject getProperties() {
+
+        return properties;
+    }
+
+    /**
+     * Adds events to the batch.
+     *
+     * @param eventCount number of events to add
+     * @return true if the batch was empty and events were added, in which case the caller has to schedule a publish
+     * task for it
+     */
+    public boolean add(int eventCount) {
+
+        if (eventCount <= 0) {
+            return false;
+        }
+        return pendingEvents.getAndAdd(eventCount) == 0;
+    }
+
+    /**
+     * Takes all the events accumulated so far out of the batch.
+     *
+     * @return number of events to publish
+     */
+    public int drain() {
+
+        return pendingEvents.getAndSet(0);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Counts the event delimiters of a server sent event stream directly on the response buffers, without decoding them.
+ * The part of a delimiter seen at the end of a buffer is remembered, so that a delimiter split across two buffers is
+ * still counted. Delimiters are counted without overlapping, in the same way as the events were counted on the
+ * decoded text.
+ * <p>
+ * An instance keeps the state of a single stream and is not thread safe.
+ */
+public final class SseEventDelimiterScanner {
+
+    private final byte[] delimiter;
+    private final int[] fallback;
+    private int matched;
+
+    public SseEventDelimiterScanner(byte[] delimiter) {
+
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Event delimiter cannot be empty");
+        }
+        this.delimiter = delimiter.clone();
+        this.fallback = buildFallbackTable(this.delimiter);
+    }
+
+    /**
+     * Encodes an event delimiter in the charset of a stream. Charsets such as UTF-16 prefix the encoded text with a
+     * byte order mark, which only appears at the start of the stream and is therefore left out of the delimiter.
+     *
+     * @param delimiter event delimiter
+     * @param charset   charset of the stream
+     * @return encoded delimiter
+     */
+    public static byte[] encodeDelimiter(String delimiter, Charset charset) {
+
+        byte[] encoded = delimiter.getBytes(charset);
+        // A byte order mark is written once per encoded text, so it is the part which is not doubled
+        int byteOrderMarkLength = 2 * encoded.length - (delimiter + delimiter).getBytes(charset).length;
+        return byteOrderMarkLength > 0 ? Arrays.copyOfRange(encoded, byteOrderMarkLength, encoded.length) : encoded;
+    }
+
+    /**
+     * Builds the Knuth-Morris-Pratt fallback table of the delimiter. The entry at index i is the length of the
+     * longest proper prefix of the first i + 1 bytes of the delimiter, which is also a suffix of them.
+     */
+    private static int[] buildFallbackTable(byte[] pattern) {
+
+        int[] table = new int[pattern.length];
+        int length = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (length > 0 && pattern[i] != pattern[length]) {
+                length = table[length - 1];
+            }
+            if (pattern[i] == pattern[length]) {
+                length++;
+            }
+            table[i] = length;
+        }
+        return table;
+    }
+
+    /**
+     * Counts the delimiters completed by the remaining bytes of the given buffer. The position of the buffer is not
+     * changed.
+     *
+     * @param buffer response buffer
+     * @return number of delimiters found
+     */
+    public int scan(ByteBuffer buffer) {
+
+        int count = 0;
+        int state = matched;
+        for (int i = buffer.position(), limit = buffer.limit(); i < limit; i++) {
+            byte current = buffer.get(i);
+            while (state > 0 && current != delimiter[state]) {
+                state = fallback[state - 1];
+            }
+            if (current == delimiter[state]) {
+                state++;
+                if (state == delimiter.length) {
+                    count++;
+                    state = 0;
+                }
+            }
+        }
+        matched = state;
+        return count;
+    }
+}
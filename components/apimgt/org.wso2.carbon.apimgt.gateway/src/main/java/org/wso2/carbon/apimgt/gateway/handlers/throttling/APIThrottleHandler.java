@@ -55,6 +55,8 @@ import org.wso2.carbon.apimgt.gateway.handlers.Utils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityUtils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
@@ -193,8 +195,10 @@ public class APIThrottleHandler extends AbstractHandler {
             }
             throw e;
         } finally {
+            long throttlingLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY,
-                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStartTime));
+                    TimeUnit.NANOSECONDS.toMillis(throttlingLatency));
+            LatencyStatsCollector.getInstance().record(messageContext, LatencyPhase.THROTTLING, throttlingLatency);
             context.stop();
             if (TelemetryUtil.telemetryEnabled()) {
                 TelemetryUtil.finishSpan(throttlingLatencySpan);
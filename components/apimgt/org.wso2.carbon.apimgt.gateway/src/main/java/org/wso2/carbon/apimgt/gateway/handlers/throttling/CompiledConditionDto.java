@@ -0,0 +1,142 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.throttling;
+
+import org.wso2.carbon.apimgt.gateway.throttling.util.IPAddress;
+import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, pre-compiled form of a {@link ConditionDto} received from the traffic manager along with a throttle
+ * decision. Header, query parameter and JWT claim values are compiled into patterns and IP values are parsed once,
+ * when the condition is added to the throttle data holder, instead of for every request.
+ */
+public final class CompiledConditionDto {
+
+    private final ConditionDto conditionDto;
+    private final IPAddress specificIp;
+    private final IPAddress startingIp;
+    private final IPAddress endingIp;
+    private final Map<String, Pattern> headerPatterns;
+    private final Map<String, Pattern> jwtClaimPatterns;
+    private final Map<String, Pattern> queryParamPatterns;
+
+    public CompiledConditionDto(ConditionDto conditionDto) {
+
+        this.conditionDto = conditionDto;
+        ConditionDto.IPCondition ipCondition = conditionDto.getIpCondition();
+        this.specificIp = ipCondition != null && ipCondition.getSpecificIp() != null ?
+                IPAddress.valueOf(ipCondition.getSpecificIp()) : null;
+        ConditionDto.IPCondition ipRangeCondition = conditionDto.getIpRangeCondition();
+        if (ipRangeCondition != null && ipRangeCondition.getStartingIp() != null
+                && ipRangeCondition.getEndingIp() != null) {
+            this.startingIp = IPAddress.valueOf(ipRangeCondition.getStartingIp());
+            this.endingIp = IPAddress.valueOf(ipRangeCondition.getEndingIp());
+        } else {
+            this.startingIp = null;
+            this.endingIp = null;
+        }
+        this.headerPatterns = conditionDto.getHeaderConditions() != null ?
+                compilePatterns(conditionDto.getHeaderConditions().getValues()) : Collections.emptyMap();
+        this.jwtClaimPatterns = conditionDto.getJwtClaimConditions() != null ?
+                compilePatterns(conditionDto.getJwtClaimConditions().getValues()) : Collections.emptyMap();
+        this.queryParamPatterns = conditionDto.getQueryParameterConditions() != null ?
+                compilePatterns(conditionDto.getQueryParameterConditions().getValues()) : Collections.emptyMap();
+    }
+
+    /**
+     * Compiles the given list of conditions.
+     *
+     * @param conditionDtoList conditions to compile
+     * @return compiled conditions, in the same order
+     */
+    public static List<CompiledConditionDto> compile(List<ConditionDto> conditionDtoList) {
+
+        if (conditionDtoList == null || conditionDtoList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompiledConditionDto> compiledConditions = new ArrayList<>(conditionDtoList.size());
+        for (ConditionDto conditionDto : conditionDtoList) {
+            compiledConditions.add(new CompiledConditionDto(conditionDto));
+        }
+        return Collections.unmodifiableList(compiledConditions);
+    }
+
+    private static Map<String, Pattern> compilePatterns(Map<String, String> values) {
+
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Pattern> patterns = new LinkedHashMap<>(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            patterns.put(entry.getKey(), CompiledConditionGroup.compilePattern(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(patterns);
+    }
+
+    public ConditionDto getConditionDto() {
+
+        return conditionDto;
+    }
+
+    /**
+     * Returns the parsed IP of the specific IP condition, or null if the condition has no IP.
+     *
+     * @return specific IP
+     */
+    IPAddress getSpecificIp() {
+
+        return specificIp;
+    }
+
+    /**
+     * Returns the parsed starting IP of the IP range condition, or null if the condition has no complete range.
+     *
+     * @return starting IP of the range
+     */
+    IPAddress getStartingIp() {
+
+        return startingIp;
+    }
+
+    IPAddress getEndingIp() {
+
+        return endingIp;
+    }
+
+    Map<String, Pattern> getHeaderPatterns() {
+
+        return headerPatterns;
+    }
+
+    Map<String, Pattern> getJwtClaimPatterns() {
+
+        return jwtClaimPatterns;
+    }
+
+    Map<String, Pattern> getQueryParamPatterns() {
+
+        return queryParamPatterns;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.throttling;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.api.dto.ConditionDTO;
+import org.wso2.carbon.apimgt.api.dto.ConditionGroupDTO;
+import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
+import org.wso2.carbon.apimgt.gateway.throttling.util.IPAddress;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable, pre-compiled form of a {@link ConditionGroupDTO}. Regular expressions of header, query parameter and
+ * JWT claim conditions are compiled and the boundaries of IP range conditions are parsed once, when the group is
+ * compiled, so that {@link ThrottleConditionEvaluator} does not need to do it for every request.
+ */
+public final class CompiledConditionGroup {
+
+    private static final Log log = LogFactory.getLog(CompiledConditionGroup.class);
+
+    private final ConditionGroupDTO conditionGroup;
+    private final CompiledCondition[] conditions;
+
+    public CompiledConditionGroup(ConditionGroupDTO conditionGroup) {
+
+        this.conditionGroup = conditionGroup;
+        ConditionDTO[] conditionDTOs = conditionGroup.getConditions();
+        if (conditionDTOs == null) {
+            this.conditions = new CompiledCondition[0];
+        } else {
+            this.conditions = new CompiledCondition[conditionDTOs.length];
+            for (int i = 0; i < conditionDTOs.length; i++) {
+                conditions[i] = new CompiledCondition(conditionDTOs[i]);
+            }
+        }
+    }
+
+    public ConditionGroupDTO getConditionGroup() {
+
+        return conditionGroup;
+    }
+
+    CompiledCondition[] getConditions() {
+
+        return conditions;
+    }
+
+    /**
+     * Pre-compiled form of a single {@link ConditionDTO} of the group.
+     */
+    static final class CompiledCondition {
+
+        private final String type;
+        private final String name;
+        private final String value;
+        private final boolean inverted;
+        private final Pattern pattern;
+        private final IPAddress startingIp;
+        private final IPAddress endingIp;
+
+        private CompiledCondition(ConditionDTO condition) {
+
+            this.type = condition.getConditionType();
+            this.name = condition.getConditionName();
+            this.value = condition.getConditionValue();
+            this.inverted = condition.isInverted();
+            if (PolicyConstants.IP_RANGE_TYPE.equals(type)) {
+                // For an IP Range Condition, starting IP is set as a the name, ending IP as the value.
+                this.startingIp = IPAddress.valueOf(name);
+                this.endingIp = IPAddress.valueOf(value);
+                this.pattern = null;
+            } else {
+                this.startingIp = null;
+                this.endingIp = null;
+                if (PolicyConstants.HEADER_TYPE.equals(type) || PolicyConstants.QUERY_PARAMETER_TYPE.equals(type)
+                        || PolicyConstants.JWT_CLAIMS_TYPE.equals(type)) {
+                    this.pattern = compilePattern(value);
+                } else {
+                    this.pattern = null;
+                }
+            }
+        }
+
+        String getType() {
+
+            return type;
+        }
+
+        String getName() {
+
+            return name;
+        }
+
+        String getValue() {
+
+            return value;
+        }
+
+        boolean isInverted() {
+
+            return inverted;
+        }
+
+        /**
+         * Returns the compiled condition value, or null if the value is not a valid regular expression.
+         *
+         * @return compiled condition value
+         */
+        Pattern getPattern() {
+
+            return pattern;
+        }
+
+        IPAddress getStartingIp() {
+
+            return startingIp;
+        }
+
+        IPAddress getEndingIp() {
+
+            return endingIp;
+        }
+    }
+
+    /**
+     * Compiles the given regular expression of a throttle condition.
+     *
+     * @param regex regular expression
+     * @return compiled pattern or null if the expression is invalid
+     */
+    static Pattern compilePattern(String regex) {
+
+        if (regex == null) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            log.error("Invalid regular expression " + regex + " in throttle condition. The condition will not be "
+                    + "matched.", e);
+            return null;
+        }
+    }
+}
@@ -23,23 +23,23 @@ package org.wso2.carbon.apimgt.gateway.handlers.throttling;
 import org.apache.axis2.context.MessageContext;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
-import org.wso2.carbon.apimgt.api.dto.ConditionDTO;
 import org.wso2.carbon.apimgt.api.dto.ConditionGroupDTO;
 import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
 import org.wso2.carbon.apimgt.common.gateway.util.JWTUtil;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.throttling.util.IPAddress;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
 import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
-import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -51,9 +51,23 @@ import java.util.regex.Pattern;
  * Mozilla. Decision Engine keeps a track of which attributes are present in the request and which keys have been
  * throttled out. In order to see if those keys are applicable for the request, GW too should run some checks by
  * going through the attributes used for those conditions. What this class does is performing those checks.
+ * <p>
+ * Conditions are evaluated in their compiled form. Condition groups are compiled when the resources of an API are
+ * loaded and kept until the next policy or API redeployment, while conditions received with throttle decisions are
+ * compiled when they are added to the {@code ThrottleDataHolder}.
  */
 public class ThrottleConditionEvaluator {
 
+    private static final int MAX_COMPILED_CONDITION_GROUPS = 10000;
+
+    // Keyed by identity as ConditionGroupDTO does not override equals. Groups of redeployed APIs are not used as keys
+    // again, so the map is cleared on redeployment events and whenever it grows beyond the limit.
+    private final Map<ConditionGroupDTO, CompiledConditionGroup> compiledConditionGroups = new ConcurrentHashMap<>();
+    // Compiled forms of the condition lists passed to getThrottledInCondition. ConditionDto does not override equals
+    // either, so two lists are equal if they hold the same condition instances in the same order.
+    private final Map<List<ConditionDto>, List<CompiledConditionDto>> compiledConditionLists =
+            new ConcurrentHashMap<>();
+
     private ThrottleConditionEvaluator() {
 
     }
@@ -68,6 +82,63 @@ public class ThrottleConditionEvaluator {
         return ThrottleEvaluatorHolder.evaluator;
     }
 
+    /**
+     * Compiles the given condition groups ahead of the first request that evaluates them.
+     *
+     * @param conditionGroups condition groups of a resource
+     */
+    public void compileConditionGroups(ConditionGroupDTO[] conditionGroups) {
+
+        if (conditionGroups != null) {
+            for (ConditionGroupDTO conditionGroup : conditionGroups) {
+                if (conditionGroup != null
+                        && !APIConstants.THROTTLE_POLICY_DEFAULT.equals(conditionGroup.getConditionGroupId())) {
+                    getCompiledConditionGroup(conditionGroup);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all the compiled condition groups and condition lists. Called when policies or APIs are redeployed, so
+     * that the compiled forms of conditions which are no longer in use are released.
+     */
+    public void clearCompiledConditionGroups() {
+
+        compiledConditionGroups.clear();
+        compiledConditionLists.clear();
+    }
+
+    private CompiledConditionGroup getCompiledConditionGroup(ConditionGroupDTO conditionGroup) {
+
+        CompiledConditionGroup compiledConditionGroup = compiledConditionGroups.get(conditionGroup);
+        if (compiledConditionGroup == null) {
+            compiledConditionGroup = new CompiledConditionGroup(conditionGroup);
+            if (compiledConditionGroups.size() >= MAX_COMPILED_CONDITION_GROUPS) {
+                compiledConditionGroups.clear();
+            }
+            compiledConditionGroups.put(conditionGroup, compiledConditionGroup);
+        }
+        return compiledConditionGroup;
+    }
+
+    private List<CompiledConditionDto> getCompiledConditions(List<ConditionDto> conditions) {
+
+        if (conditions == null || conditions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompiledConditionDto> compiledConditions = compiledConditionLists.get(conditions);
+        if (compiledConditions == null) {
+            compiledConditions = CompiledConditionDto.compile(conditions);
+            if (compiledConditionLists.size() >= MAX_COMPILED_CONDITION_GROUPS) {
+                compiledConditionLists.clear();
+            }
+            // Keyed by a copy, so that later changes to the given list do not corrupt the map
+            compiledConditionLists.put(new ArrayList<>(conditions), compiledConditions);
+        }
+        return compiledConditions;
+    }
+
     /**
      * When called, provides a list of Applicable Condition Groups for the current request.
      *
@@ -82,11 +153,13 @@ public class ThrottleConditionEvaluator {
 
         ArrayList<ConditionGroupDTO> matchingConditions = new ArrayList<>(inputConditionGroups.length);
         ConditionGroupDTO defaultGroup = null;
+        RequestAttributes requestAttributes = new RequestAttributes(((Axis2MessageContext) synapseContext)
+                .getAxis2MessageContext(), authenticationContext);
 
         for (ConditionGroupDTO conditionGroup : inputConditionGroups) {
             if (APIConstants.THROTTLE_POLICY_DEFAULT.equals(conditionGroup.getConditionGroupId())) {
                 defaultGroup = conditionGroup;
-            } else if (isConditionGroupApplicable(synapseContext, authenticationContext, conditionGroup)) {
+            } else if (isConditionGroupApplicable(requestAttributes, getCompiledConditionGroup(conditionGroup))) {
                 matchingConditions.add(conditionGroup);
             }
         }
@@ -99,57 +172,48 @@ public class ThrottleConditionEvaluator {
         return matchingConditions;
     }
 
-    private boolean isConditionGroupApplicable(org.apache.synapse.MessageContext synapseContext,
-                                               AuthenticationContext authenticationContext,
-                                               ConditionGroupDTO conditionGroup) {
-
-        ConditionDTO[] conditions = conditionGroup.getConditions();
+    private boolean isConditionGroupApplicable(RequestAttributes requestAttributes,
+                                               CompiledConditionGroup conditionGroup) {
 
-        boolean evaluationState = true;
+        CompiledConditionGroup.CompiledCondition[] conditions = conditionGroup.getConditions();
 
         if (conditions.length == 0) {
-            evaluationState = false;
+            return false;
         }
 
         // When multiple conditions have been specified, all the conditions should occur.
-        for (ConditionDTO condition : conditions) {
-            evaluationState = evaluationState & isConditionApplicable(synapseContext, authenticationContext, condition);
-
+        for (CompiledConditionGroup.CompiledCondition condition : conditions) {
             // If one of the conditions are false, rest will evaluate to false. So no need to check the rest.
-            if (!evaluationState) {
+            if (!isConditionApplicable(requestAttributes, condition)) {
                 return false;
             }
         }
-        return evaluationState;
+        return true;
     }
 
-    private boolean isConditionApplicable(org.apache.synapse.MessageContext synapseContext,
-                                          AuthenticationContext authenticationContext,
-                                          ConditionDTO condition) {
-
-        org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) synapseContext)
-                .getAxis2MessageContext();
+    private boolean isConditionApplicable(RequestAttributes requestAttributes,
+                                          CompiledConditionGroup.CompiledCondition condition) {
 
         boolean state = false;
-        switch (condition.getConditionType()) {
+        switch (condition.getType()) {
             case PolicyConstants.IP_RANGE_TYPE: {
-                state = isWithinIP(axis2MessageContext, condition);
+                state = isWithinIP(requestAttributes, condition);
                 break;
             }
             case PolicyConstants.IP_SPECIFIC_TYPE: {
-                state = isMatchingIP(axis2MessageContext, condition);
+                state = isMatchingIP(requestAttributes, condition);
                 break;
             }
             case PolicyConstants.QUERY_PARAMETER_TYPE: {
-                state = isQueryParamPresent(axis2MessageContext, condition);
+                state = isQueryParamPresent(requestAttributes, condition);
                 break;
             }
             case PolicyConstants.JWT_CLAIMS_TYPE: {
-                state = isJWTClaimPresent(authenticationContext, condition);
+                state = isJWTClaimPresent(requestAttributes, condition);
                 break;
             }
             case PolicyConstants.HEADER_TYPE: {
-                state = isHeaderPresent(axis2MessageContext, condition);
+                state = isHeaderPresent(requestAttributes, condition);
                 break;
             }
         }
@@ -161,189 +225,192 @@ public class ThrottleConditionEvaluator {
         return state;
     }
 
-    private boolean isHeaderPresent(MessageContext messageContext, ConditionDTO condition) {
+    private boolean isHeaderPresent(RequestAttributes requestAttributes,
+                                    CompiledConditionGroup.CompiledCondition condition) {
 
-        Map<String, String> transportHeaderMap = (Map<String, String>) messageContext
-                .getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
+        Map<String, String> transportHeaderMap = requestAttributes.getTransportHeaders();
         if (transportHeaderMap != null) {
-            String value = transportHeaderMap.get(condition.getConditionName());
-            if (value == null) {
-                return false;
-            }
-            Pattern pattern = Pattern.compile(condition.getConditionValue());
-            Matcher matcher = pattern.matcher(value);
-            return matcher.find();
+            return matches(condition.getPattern(), transportHeaderMap.get(condition.getName()));
         }
         return false;
     }
 
-    private boolean isHeaderPresent(MessageContext messageContext, ConditionDto.HeaderConditions condition) {
+    private boolean isHeaderPresent(RequestAttributes requestAttributes, CompiledConditionDto condition) {
 
-        Map<String, String> transportHeaderMap = (Map<String, String>) messageContext
-                .getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
+        Map<String, String> transportHeaderMap = requestAttributes.getTransportHeaders();
         boolean status = true;
-        for (Map.Entry<String, String> headerEntry : condition.getValues().entrySet()) {
+        for (Map.Entry<String, Pattern> headerEntry : condition.getHeaderPatterns().entrySet()) {
             if (transportHeaderMap != null) {
                 String value = transportHeaderMap.get(headerEntry.getKey());
                 if (StringUtils.isEmpty(value)) {
                     status = false;
                     break;
                 } else {
-                    Pattern pattern = Pattern.compile(headerEntry.getValue());
-                    Matcher matcher = pattern.matcher(value);
-                    status = status && matcher.find();
+                    status = status && matches(headerEntry.getValue(), value);
                 }
             }
         }
 
-        if (condition.isInvert()) {
+        if (condition.getConditionDto().getHeaderConditions().isInvert()) {
             return !status;
         } else {
             return status;
         }
     }
 
-    private boolean isJWTClaimPresent(AuthenticationContext authenticationContext, ConditionDTO condition) {
+    private boolean isJWTClaimPresent(RequestAttributes requestAttributes,
+                                      CompiledConditionGroup.CompiledCondition condition) {
 
-        Map<String, String> assertions = JWTUtil.getJWTClaims(authenticationContext.getCallerToken());
+        Map<String, String> assertions = requestAttributes.getJWTClaims();
         if (assertions != null) {
-            String value = assertions.get(condition.getConditionName());
-            if (value == null) {
-                return false;
-            } else {
-                Pattern pattern = Pattern.compile(condition.getConditionValue());
-                Matcher matcher = pattern.matcher(value);
-                return matcher.find();
-            }
+            return matches(condition.getPattern(), assertions.get(condition.getName()));
         }
         return false;
     }
 
-    private boolean isJWTClaimPresent(AuthenticationContext authenticationContext, ConditionDto.JWTClaimConditions
-            condition) {
-                
-        if (authenticationContext.getCallerToken() == null) {
+    private boolean isJWTClaimPresent(RequestAttributes requestAttributes, CompiledConditionDto condition) {
+
+        if (requestAttributes.getCallerToken() == null) {
             return false;
         }
 
-        Map<String, String> assertions = JWTUtil.getJWTClaims(authenticationContext.getCallerToken());
+        Map<String, String> assertions = requestAttributes.getJWTClaims();
         boolean status = true;
 
-        for (Map.Entry<String, String> jwtClaim : condition.getValues().entrySet()) {
+        for (Map.Entry<String, Pattern> jwtClaim : condition.getJwtClaimPatterns().entrySet()) {
             String value = assertions.get(jwtClaim.getKey());
             if (value == null) {
                 status = false;
                 break;
             } else {
-                Pattern pattern = Pattern.compile(jwtClaim.getValue());
-                Matcher matcher = pattern.matcher(value);
-                status = status && matcher.find();
+                status = status && matches(jwtClaim.getValue(), value);
             }
         }
-        if (condition.isInvert()) {
+        if (condition.getConditionDto().getJwtClaimConditions().isInvert()) {
             return !status;
         } else {
             return status;
         }
     }
 
-    private boolean isQueryParamPresent(MessageContext messageContext, ConditionDto.QueryParamConditions condition) {
+    private boolean isQueryParamPresent(RequestAttributes requestAttributes, CompiledConditionDto condition) {
 
-        Map<String, String> queryParamMap = GatewayUtils.getQueryParams(messageContext);
+        Map<String, String> queryParamMap = requestAttributes.getQueryParams();
         boolean status = true;
 
-        for (Map.Entry<String, String> queryParam : condition.getValues().entrySet()) {
+        for (Map.Entry<String, Pattern> queryParam : condition.getQueryParamPatterns().entrySet()) {
             if (queryParamMap == null || queryParamMap.get(queryParam.getKey()) == null) {
                 status = false;
                 break;
             } else {
-                Pattern pattern = Pattern.compile(queryParam.getValue());
-                Matcher matcher = pattern.matcher(queryParamMap.get(queryParam.getKey()));
-                status = status && matcher.find();
+                status = status && matches(queryParam.getValue(), queryParamMap.get(queryParam.getKey()));
             }
         }
-        if (condition.isInvert()) {
+        if (condition.getConditionDto().getQueryParameterConditions().isInvert()) {
             return !status;
         } else {
             return status;
         }
     }
 
-    private boolean isQueryParamPresent(MessageContext messageContext, ConditionDTO condition) {
+    private boolean isQueryParamPresent(RequestAttributes requestAttributes,
+                                        CompiledConditionGroup.CompiledCondition condition) {
 
-        Map<String, String> queryParamMap = GatewayUtils.getQueryParams(messageContext);
+        Map<String, String> queryParamMap = requestAttributes.getQueryParams();
 
         if (queryParamMap != null) {
-            String value = queryParamMap.get(condition.getConditionName());
-            if (value == null) {
-                return false;
-            }
-            Pattern pattern = Pattern.compile(condition.getConditionValue());
-            Matcher matcher = pattern.matcher(value);
-            return matcher.find();
+            return matches(condition.getPattern(), queryParamMap.get(condition.getName()));
         }
         return false;
     }
 
-    private boolean isMatchingIP(MessageContext messageContext, ConditionDTO condition) {
+    private static boolean matches(Pattern pattern, String value) {
+
+        return value != null && pattern != null && pattern.matcher(value).find();
+    }
+
+    private boolean isMatchingIP(RequestAttributes requestAttributes,
+                                 CompiledConditionGroup.CompiledCondition condition) {
 
-        String currentIpString = GatewayUtils.getIp(messageContext);
-        return currentIpString.equals(condition.getConditionValue());
+        return requestAttributes.getIp().equals(condition.getValue());
     }
 
-    private boolean isWithinIP(MessageContext messageContext, ConditionDTO condition) {
-        // For an IP Range Condition, starting IP is set as a the name, ending IP as the value.
-        BigInteger startIp = APIUtil.ipToBigInteger(condition.getConditionName());
-        BigInteger endIp = APIUtil.ipToBigInteger(condition.getConditionValue());
+    private boolean isWithinIP(RequestAttributes requestAttributes,
+                               CompiledConditionGroup.CompiledCondition condition) {
 
-        String currentIpString = GatewayUtils.getIp(messageContext);
-        if (!currentIpString.isEmpty()) {
-            BigInteger currentIp = APIUtil.ipToBigInteger(currentIpString);
+        if (!requestAttributes.getIp().isEmpty()) {
+            IPAddress currentIp = requestAttributes.getIpAddress();
 
-            return startIp.compareTo(currentIp) <= 0 && endIp.compareTo(currentIp) >= 0;
+            return condition.getStartingIp().compareTo(currentIp) <= 0
+                    && condition.getEndingIp().compareTo(currentIp) >= 0;
         }
         return false;
     }
 
-    private boolean isWithinIP(MessageContext messageContext, ConditionDto.IPCondition ipCondition) {
+    private boolean isWithinIP(RequestAttributes requestAttributes, CompiledConditionDto condition) {
 
-        String currentIpString = GatewayUtils.getIp(messageContext);
         boolean status;
-        if (StringUtils.isNotEmpty(currentIpString)) {
-            BigInteger currentIp = APIUtil.ipToBigInteger(currentIpString);
-            status = ipCondition.getStartingIp().compareTo(currentIp) <= 0
-                    && ipCondition.getEndingIp().compareTo(currentIp) >= 0;
+        if (StringUtils.isNotEmpty(requestAttributes.getIp())) {
+            IPAddress currentIp = requestAttributes.getIpAddress();
+            status = condition.getStartingIp() != null && condition.getStartingIp().compareTo(currentIp) <= 0
+                    && condition.getEndingIp().compareTo(currentIp) >= 0;
         } else {
             return false;
         }
-        if (ipCondition.isInvert()) {
+        if (condition.getConditionDto().getIpRangeCondition().isInvert()) {
             return !status;
         } else {
             return status;
         }
     }
 
-    private boolean isMatchingIP(MessageContext messageContext, ConditionDto.IPCondition ipCondition) {
-
-        String currentIpString = GatewayUtils.getIp(messageContext);
-        BigInteger longValueOfIp = APIUtil.ipToBigInteger(currentIpString);
+    private boolean isMatchingIP(RequestAttributes requestAttributes, CompiledConditionDto condition) {
 
-        if (ipCondition.isInvert()) {
-            return !longValueOfIp.equals(ipCondition.getSpecificIp());
+        boolean status = requestAttributes.getIpAddress().equals(condition.getSpecificIp());
+        if (condition.getConditionDto().getIpCondition().isInvert()) {
+            return !status;
         }
-        return longValueOfIp.equals(ipCondition.getSpecificIp());
+        return status;
     }
 
+    /**
+     * Returns the name of the throttled condition, out of the given conditions, that the current request falls
+     * into. Each list of conditions is compiled once and reused while it holds the same condition instances.
+     *
+     * @param synCtx          Message Context of the incoming request.
+     * @param authContext     AuthenticationContext populated by {@code APIAuthenticationHandler}
+     * @param conditionDtoMap conditions of the throttled resource by condition name
+     * @return name of the matching condition or null if the request does not fall into a throttled condition
+     */
     public String getThrottledInCondition(org.apache.synapse.MessageContext synCtx, AuthenticationContext authContext,
                                           Map<String, List<ConditionDto>> conditionDtoMap) {
 
-        org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) synCtx)
-                .getAxis2MessageContext();
-        String condition = null;
+        Map<String, List<CompiledConditionDto>> compiledConditionMap = new LinkedHashMap<>();
         for (Map.Entry<String, List<ConditionDto>> conditionList : conditionDtoMap.entrySet()) {
+            compiledConditionMap.put(conditionList.getKey(), getCompiledConditions(conditionList.getValue()));
+        }
+        return getThrottledInCompiledCondition(synCtx, authContext, compiledConditionMap);
+    }
+
+    /**
+     * Returns the name of the throttled condition, out of the given conditions, that the current request falls
+     * into.
+     *
+     * @param synCtx               Message Context of the incoming request.
+     * @param authContext          AuthenticationContext populated by {@code APIAuthenticationHandler}
+     * @param compiledConditionMap compiled conditions of the throttled resource by condition name
+     * @return name of the matching condition or null if the request does not fall into a throttled condition
+     */
+    public String getThrottledInCompiledCondition(org.apache.synapse.MessageContext synCtx,
+                                                  AuthenticationContext authContext,
+                                                  Map<String, List<CompiledConditionDto>> compiledConditionMap) {
+
+        RequestAttributes requestAttributes = new RequestAttributes(((Axis2MessageContext) synCtx)
+                .getAxis2MessageContext(), authContext);
+        String condition = null;
+        for (Map.Entry<String, List<CompiledConditionDto>> conditionList : compiledConditionMap.entrySet()) {
             if (!"default".equals(conditionList.getKey())) {
-                boolean pipeLineStatus = isThrottledWithinCondition(axis2MessageContext, authContext, conditionList
-                        .getValue());
+                boolean pipeLineStatus = isThrottledWithinCondition(requestAttributes, conditionList.getValue());
                 if (pipeLineStatus) {
                     condition = conditionList.getKey();
                     break;
@@ -351,11 +418,10 @@ public class ThrottleConditionEvaluator {
             }
         }
         if (StringUtils.isEmpty(condition)) {
-            if (conditionDtoMap.containsKey("default")) {
-                List<ConditionDto> conditionDtoList = conditionDtoMap.get("default");
+            if (compiledConditionMap.containsKey("default")) {
+                List<CompiledConditionDto> conditionDtoList = compiledConditionMap.get("default");
                 if (conditionDtoList != null && !conditionDtoList.isEmpty()) {
-                    boolean pipeLineStatus = isThrottledWithinCondition(axis2MessageContext, authContext,
-                            conditionDtoList);
+                    boolean pipeLineStatus = isThrottledWithinCondition(requestAttributes, conditionDtoList);
                     if (!pipeLineStatus) {
                         condition = "default";
                     }
@@ -367,37 +433,38 @@ public class ThrottleConditionEvaluator {
         return condition;
     }
 
-    private boolean isThrottledWithinCondition(MessageContext axis2MessageContext, AuthenticationContext authContext,
-                                               List<ConditionDto> conditionDtoList) {
+    private boolean isThrottledWithinCondition(RequestAttributes requestAttributes,
+                                               List<CompiledConditionDto> conditionDtoList) {
 
         ThrottleProperties throttleProperties = ServiceReferenceHolder.getInstance().getThrottleProperties();
         boolean status = true;
-        for (ConditionDto condition : conditionDtoList) {
+        for (CompiledConditionDto compiledCondition : conditionDtoList) {
+            ConditionDto condition = compiledCondition.getConditionDto();
             status = true;
             if (condition.getIpCondition() != null) {
-                if (!isMatchingIP(axis2MessageContext, condition.getIpCondition())) {
+                if (!isMatchingIP(requestAttributes, compiledCondition)) {
                     status = false;
                 }
             } else if (condition.getIpRangeCondition() != null) {
-                if (!isWithinIP(axis2MessageContext, condition.getIpRangeCondition())) {
+                if (!isWithinIP(requestAttributes, compiledCondition)) {
                     status = false;
                 }
             }
             if (condition.getHeaderConditions() != null && throttleProperties.isEnableHeaderConditions() &&
                     !condition.getHeaderConditions().getValues().isEmpty()) {
-                if (!isHeaderPresent(axis2MessageContext, condition.getHeaderConditions())) {
+                if (!isHeaderPresent(requestAttributes, compiledCondition)) {
                     status = false;
                 }
             }
             if (condition.getJwtClaimConditions() != null && throttleProperties.isEnableJwtConditions() &&
                     !condition.getJwtClaimConditions().getValues().isEmpty()) {
-                if (!isJWTClaimPresent(authContext, condition.getJwtClaimConditions())) {
+                if (!isJWTClaimPresent(requestAttributes, compiledCondition)) {
                     status = false;
                 }
             }
             if (condition.getQueryParameterConditions() != null && throttleProperties.isEnableQueryParamConditions() &&
                     !condition.getQueryParameterConditions().getValues().isEmpty()) {
-                if (!isQueryParamPresent(axis2MessageContext, condition.getQueryParameterConditions())) {
+                if (!isQueryParamPresent(requestAttributes, compiledCondition)) {
                     status = false;
                 }
             }
@@ -407,4 +474,77 @@ public class ThrottleConditionEvaluator {
         }
         return status;
     }
+
+    /**
+     * Attributes of the request under evaluation. Each attribute is extracted from the message context at most once
+     * per evaluation, however many conditions refer to it.
+     */
+    private static final class RequestAttributes {
+
+        private final MessageContext messageContext;
+        private final AuthenticationContext authenticationContext;
+        private Map<String, String> transportHeaders;
+        private boolean transportHeadersLoaded;
+        private Map<String, String> queryParams;
+        private boolean queryParamsLoaded;
+        private Map<String, String> jwtClaims;
+        private boolean jwtClaimsLoaded;
+        private String ip;
+        private IPAddress ipAddress;
+
+        private RequestAttributes(MessageContext messageContext, AuthenticationContext authenticationContext) {
+
+            this.messageContext = messageContext;
+            this.authenticationContext = authenticationContext;
+        }
+
+        private Map<String, String> getTransportHeaders() {
+
+            if (!transportHeadersLoaded) {
+                transportHeaders = (Map<String, String>) messageContext
+                        .getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
+                transportHeadersLoaded = true;
+            }
+            return transportHeaders;
+        }
+
+        private Map<String, String> getQueryParams() {
+
+            if (!queryParamsLoaded) {
+                queryParams = GatewayUtils.getQueryParams(messageContext);
+                queryParamsLoaded = true;
+            }
+            return queryParams;
+        }
+
+        private String getCallerToken() {
+
+            return authenticationContext != null ? authenticationContext.getCallerToken() : null;
+        }
+
+        private Map<String, String> getJWTClaims() {
+
+            if (!jwtClaimsLoaded) {
+                jwtClaims = JWTUtil.getJWTClaims(getCallerToken());
+                jwtClaimsLoaded = true;
+            }
+            return jwtClaims;
+        }
+
+        private String getIp() {
+
+            if (ip == null) {
+                ip = GatewayUtils.getIp(messageContext);
+            }
+            return ip;
+        }
+
+        private IPAddress getIpAddress() {
+
+            if (ipAddress == null) {
+                ipAddress = IPAddress.valueOf(getIp());
+            }
+            return ipAddress;
+        }
+    }
 }
@@ -58,12 +58,19 @@ import org.wso2.carbon.apimgt.gateway.handlers.ext.listener.ExtensionListenerUti
 import org.wso2.carbon.apimgt.gateway.handlers.security.APISecurityUtils;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
+import org.wso2.carbon.apimgt.gateway.throttling.LocalThrottleController;
 import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.impl.APIConstants;
-import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
 import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
+import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ApplicationPolicy;
+import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicy;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ThrottleLimit;
 import org.wso2.carbon.apimgt.tracing.TracingSpan;
 import org.wso2.carbon.apimgt.tracing.TracingTracer;
 import org.wso2.carbon.apimgt.tracing.Util;
@@ -81,6 +88,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import javax.xml.stream.XMLStreamException;
 
 
@@ -177,6 +185,10 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
         boolean isApplicationLevelThrottled;
         boolean isSubscriptionLevelThrottled;
         boolean isSubscriptionLevelSpikeThrottled = false;
+        boolean isSubscriptionLevelLocallyThrottled = false;
+        boolean isApplicationLevelLocallyThrottled = false;
+        ThrottleLimit subscriptionPolicyLimit = null;
+        ThrottleLimit applicationPolicyLimit = null;
         boolean isApiLevelThrottled = false;
         boolean isBlockedRequest = false;
         boolean apiLevelThrottledTriggered = false;
@@ -282,13 +294,13 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
                         if (getThrottleDataHolder().isAPIThrottled
                                 (resourceLevelThrottleKey)) {
                             if (getThrottleDataHolder().isConditionsAvailable(resourceLevelThrottleKey)) {
-                                Map<String, List<ConditionDto>> conditionDtoMap = getThrottleDataHolder()
-                                        .getConditionDtoMap(resourceLevelThrottleKey);
+                                Map<String, List<CompiledConditionDto>> conditionDtoMap = getThrottleDataHolder()
+                                        .getCompiledConditionMap(resourceLevelThrottleKey);
                                 if (log.isDebugEnabled()) {
                                     log.debug("Conditions available" + conditionDtoMap.size());
                                 }
-                                String throttledCondition = getThrottleConditionEvaluator().getThrottledInCondition
-                                        (synCtx, authContext, conditionDtoMap);
+                                String throttledCondition = getThrottleConditionEvaluator()
+                                        .getThrottledInCompiledCondition(synCtx, authContext, conditionDtoMap);
                                 if (StringUtils.isNotEmpty(throttledCondition)) {
                                     if (log.isDebugEnabled()) {
                                         log.debug("Throttled with Condition :" + throttledCondition);
@@ -371,6 +383,12 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
                                 authContext, apiContext, apiVersion);
                         isSubscriptionLevelThrottled = getThrottleDataHolder().
                                 isThrottled(subscriptionLevelThrottleKey);
+                        if (!isSubscriptionLevelThrottled && getLocalThrottleController() != null) {
+                            subscriptionPolicyLimit = getSubscriptionPolicyLimit(subscriptionLevelTier,
+                                    apiTenantDomain);
+                            isSubscriptionLevelThrottled = isSubscriptionLevelLocallyThrottled =
+                                    isLocallyThrottled(synCtx, subscriptionLevelThrottleKey, subscriptionPolicyLimit);
+                        }
                         if (!isSubscriptionLevelThrottled && authContext.getSpikeArrestLimit() > 0) {
                             isSubscriptionLevelSpikeThrottled = isSubscriptionLevelSpike(synCtx, subscriptionLevelThrottleKey);
                         }
@@ -380,6 +398,13 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
                             //Application Level Throttling
                             isApplicationLevelThrottled = getThrottleDataHolder().
                                     isThrottled(applicationLevelThrottleKey);
+                            if (!isApplicationLevelThrottled && getLocalThrottleController() != null) {
+                                applicationPolicyLimit = getApplicationPolicyLimit(applicationLevelTier,
+                                        subscriberTenantDomain, apiTenantDomain);
+                                isApplicationLevelThrottled = isApplicationLevelLocallyThrottled =
+                                        isLocallyThrottled(synCtx, applicationLevelThrottleKey,
+                                                applicationPolicyLimit);
+                            }
 
                             //if application level not throttled means it does not throttled at any level.
                             if (!isApplicationLevelThrottled) {
@@ -418,6 +443,11 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
 
                                     }
                                 }
+                                if (!isThrottled && getLocalThrottleController() != null) {
+                                    isThrottled = !acquireLocalTokens(synCtx, subscriptionLevelThrottleKey,
+                                            subscriptionPolicyLimit, applicationLevelThrottleKey,
+                                            applicationPolicyLimit);
+                                }
                             } else {
                                 if (log.isDebugEnabled()) {
                                     log.debug("Request throttled at application level for throttle key" +
@@ -425,8 +455,11 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
                                 }
                                 synCtx.setProperty(APIThrottleConstants.THROTTLED_OUT_REASON,
                                                    APIThrottleConstants.APPLICATION_LIMIT_EXCEEDED);
-                                long timestamp = getThrottleDataHolder().getThrottleNextAccessTimestamp(applicationLevelThrottleKey);
-                                synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP, timestamp);
+                                if (!isApplicationLevelLocallyThrottled) {
+                                    long timestamp = getThrottleDataHolder()
+                                            .getThrottleNextAccessTimestamp(applicationLevelThrottleKey);
+                                    synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP, timestamp);
+                                }
                                 isThrottled = isApplicationLevelThrottled = true;
                             }
                         } else {
@@ -447,8 +480,12 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
                                               subscriptionLevelThrottleKey);
                                 }
                                 if (!isSubscriptionLevelSpikeThrottled) {
-                                    long timestamp = getThrottleDataHolder().getThrottleNextAccessTimestamp(subscriptionLevelThrottleKey);
-                                    synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP, timestamp);
+                                    if (!isSubscriptionLevelLocallyThrottled) {
+                                        long timestamp = getThrottleDataHolder()
+                                                .getThrottleNextAccessTimestamp(subscriptionLevelThrottleKey);
+                                        synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP,
+                                                timestamp);
+                                    }
                                     synCtx.setProperty(APIThrottleConstants.THROTTLED_OUT_REASON, APIThrottleConstants.API_LIMIT_EXCEEDED);
                                     synCtx.setProperty(APIThrottleConstants.THROTTLED_OUT_REASON,
                                                        APIThrottleConstants.SUBSCRIPTION_LIMIT_EXCEEDED);
@@ -506,6 +543,131 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
         return ServiceReferenceHolder.getInstance().getThrottleDataHolder();
     }
 
+    protected LocalThrottleController getLocalThrottleController() {
+        return ServiceReferenceHolder.getInstance().getLocalThrottleController();
+    }
+
+    /**
+     * Checks the given throttle key against the share of this gateway of the limit of its policy, so that the
+     * requests of a burst are throttled before the decision of the traffic manager is received. No token is taken,
+     * as the request may still be throttled at another level.
+     *
+     * @param synCtx      synapse message context which contains message data
+     * @param throttleKey throttle key of the request
+     * @param limit       default limit of the policy, or null if it is not known
+     * @return true if the request is throttled locally
+     */
+    private boolean isLocallyThrottled(MessageContext synCtx, String throttleKey, ThrottleLimit limit) {
+
+        // Only request count limits are enforced locally, others are left to the traffic manager
+        if (!isLocallyEnforced(limit)) {
+            return false;
+        }
+        LocalThrottleController localThrottleController = getLocalThrottleController();
+        long currentTime = System.currentTimeMillis();
+        ThrottleLimit.RequestCountLimit requestCountLimit = limit.getRequestCount();
+        if (localThrottleController.isThrottled(throttleKey, requestCountLimit.getRequestCount(),
+                requestCountLimit.getTimeWindowInMillis(), currentTime)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Request throttled locally for throttle key " + throttleKey);
+            }
+            synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP,
+                    localThrottleController.getNextAccessTimestamp(throttleKey, currentTime));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes the local tokens of an admitted request from the buckets of its subscription and application policies.
+     * The buckets are only checked while the request is evaluated, so a request throttled at the application level
+     * or by a custom policy does not use up the share of its subscription. A request whose token was taken by a
+     * concurrent request in the meantime is throttled.
+     *
+     * @param synCtx                       synapse message context which contains message data
+     * @param subscriptionLevelThrottleKey subscription level throttle key of the request
+     * @param subscriptionLimit            default limit of the subscription policy, or null if it is not known
+     * @param applicationLevelThrottleKey  application level throttle key of the request
+     * @param applicationLimit             default limit of the application policy, or null if it is not known
+     * @return true if the request is admitted
+     */
+    private boolean acquireLocalTokens(MessageContext synCtx, String subscriptionLevelThrottleKey,
+                                       ThrottleLimit subscriptionLimit, String applicationLevelThrottleKey,
+                                       ThrottleLimit applicationLimit) {
+
+        LocalThrottleController localThrottleController = getLocalThrottleController();
+        long currentTime = System.currentTimeMillis();
+        boolean subscriptionTokenAcquired = false;
+        if (isLocallyEnforced(subscriptionLimit)) {
+            if (!localThrottleController.tryAcquire(subscriptionLevelThrottleKey,
+                    subscriptionLimit.getRequestCount().getRequestCount(),
+                    subscriptionLimit.getRequestCount().getTimeWindowInMillis(), currentTime)) {
+                setLocallyThrottled(synCtx, subscriptionLevelThrottleKey, currentTime,
+                        APIThrottleConstants.SUBSCRIPTION_LIMIT_EXCEEDED);
+                return false;
+            }
+            subscriptionTokenAcquired = true;
+        }
+        if (isLocallyEnforced(applicationLimit) && !localThrottleController.tryAcquire(applicationLevelThrottleKey,
+                applicationLimit.getRequestCount().getRequestCount(),
+                applicationLimit.getRequestCount().getTimeWindowInMillis(), currentTime)) {
+            if (subscriptionTokenAcquired) {
+                localThrottleController.release(subscriptionLevelThrottleKey);
+            }
+            setLocallyThrottled(synCtx, applicationLevelThrottleKey, currentTime,
+                    APIThrottleConstants.APPLICATION_LIMIT_EXCEEDED);
+            return false;
+        }
+        return true;
+    }
+
+    private void setLocallyThrottled(MessageContext synCtx, String throttleKey, long currentTime,
+                                     String throttledOutReason) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Request throttled locally for throttle key " + throttleKey);
+        }
+        synCtx.setProperty(APIThrottleConstants.THROTTLED_OUT_REASON, throttledOutReason);
+        synCtx.setProperty(APIThrottleConstants.THROTTLED_NEXT_ACCESS_TIMESTAMP,
+                getLocalThrottleController().getNextAccessTimestamp(throttleKey, currentTime));
+    }
+
+    private static boolean isLocallyEnforced(ThrottleLimit limit) {
+
+        return limit != null && limit.isRequestCountLimit();
+    }
+
+    protected ThrottleLimit getSubscriptionPolicyLimit(String subscriptionLevelTier, String apiTenantDomain) {
+
+        if (StringUtils.isEmpty(subscriptionLevelTier)
+                || APIConstants.UNLIMITED_TIER.equalsIgnoreCase(subscriptionLevelTier)) {
+            return null;
+        }
+        SubscriptionDataStore store = SubscriptionDataHolder.getInstance().getTenantSubscriptionStore(apiTenantDomain);
+        if (store == null) {
+            return null;
+        }
+        SubscriptionPolicy policy = store.getSubscriptionPolicyByName(subscriptionLevelTier,
+                APIUtil.getTenantIdFromTenantDomain(apiTenantDomain));
+        return policy != null ? policy.getDefaultLimit() : null;
+    }
+
+    protected ThrottleLimit getApplicationPolicyLimit(String applicationLevelTier, String subscriberTenantDomain,
+                                                      String apiTenantDomain) {
+
+        if (StringUtils.isEmpty(applicationLevelTier) || StringUtils.isEmpty(subscriberTenantDomain)
+                || APIConstants.UNLIMITED_TIER.equalsIgnoreCase(applicationLevelTier)) {
+            return null;
+        }
+        SubscriptionDataStore store = SubscriptionDataHolder.getInstance().getTenantSubscriptionStore(apiTenantDomain);
+        if (store == null) {
+            return null;
+        }
+        ApplicationPolicy policy = store.getApplicationPolicyByName(applicationLevelTier,
+                APIUtil.getTenantIdFromTenantDomain(subscriberTenantDomain));
+        return policy != null ? policy.getDefaultLimit() : null;
+    }
+
     protected String getTenantDomain() {
         return CarbonContext.getThreadLocalCarbonContext().getTenantDomain();
     }
@@ -555,7 +717,7 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
             throttleLatencyTracingSpan = Util.startSpan(APIMgtGatewayConstants.THROTTLE_LATENCY,
                     responseLatencySpan, tracer);
         }
-        long executionStartTime = System.currentTimeMillis();
+        long executionStartTime = System.nanoTime();
         if (!ExtensionListenerUtil.preProcessRequest(messageContext, type)) {
             return false;
         }
@@ -575,8 +737,10 @@ public class ThrottleHandler extends AbstractHandler implements ManagedLifecycle
             }
             throw e;
         } finally {
+            long throttlingLatency = System.nanoTime() - executionStartTime;
             messageContext.setProperty(APIMgtGatewayConstants.THROTTLING_LATENCY,
-                    System.currentTimeMillis() - executionStartTime);
+                    TimeUnit.NANOSECONDS.toMillis(throttlingLatency));
+            LatencyStatsCollector.getInstance().record(messageContext, LatencyPhase.THROTTLING, throttlingLatency);
             context3.stop();
             if (TelemetryUtil.telemetryEnabled()) {
                 TelemetryUtil.finishSpan(throttleLatencySpan);
@@ -23,14 +23,17 @@ import org.apache.synapse.api.API;
 import org.wso2.carbon.apimgt.api.gateway.GraphQLSchemaDTO;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.dto.GraphQLOperationDTO;
+import org.wso2.carbon.apimgt.gateway.inbound.websocket.WebSocketThrottleEventWindow;
 import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.ResourceInfoDTO;
+import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
 import org.wso2.carbon.apimgt.impl.jwt.SignedJWTInfo;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Message context to hold information of an intercepted single inbound connection.
@@ -60,6 +63,8 @@ public class InboundMessageContext {
     private String matchingResource; //invoking API resource
     private ChannelHandlerContext ctx;
     private boolean isJWTToken;
+    // Throttle keys of the connection per resource, computed on the first frame sent to each resource
+    private Map<String, WebSocketThrottleEventWindow> throttleEventWindows = new ConcurrentHashMap<>();
 
     //Graphql Subscription specific connection context information
     private GraphQLSchemaDTO graphQLSchemaDTO;
@@ -119,6 +124,23 @@ public class InboundMessageContext {
 
     public void setInfoDTO(APIKeyValidationInfoDTO infoDTO) {
         this.infoDTO = infoDTO;
+        this.throttleEventWindows.clear();
+    }
+
+    /**
+     * Returns the throttle keys of the frames of this connection sent to the given resource.
+     *
+     * @param verbInfoDTO resource of the frame, or null if API level throttling applies
+     * @return throttle event window of the resource
+     */
+    public WebSocketThrottleEventWindow getThrottleEventWindow(VerbInfoDTO verbInfoDTO) {
+        String resourceKey = verbInfoDTO != null ? verbInfoDTO.getRequestKey() : "";
+        WebSocketThrottleEventWindow throttleEventWindow = throttleEventWindows.get(resourceKey);
+        if (throttleEventWindow == null) {
+            throttleEventWindow = throttleEventWindows.computeIfAbsent(resourceKey,
+                    key -> new WebSocketThrottleEventWindow(this, verbInfoDTO));
+        }
+        return throttleEventWindow;
     }
 
     public Map<String, String> getRequestHeaders() {
@@ -0,0 +1,267 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.inbound.websocket;
+
+import org.apache.axiom.util.UIDGenerator;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
+import org.wso2.carbon.apimgt.gateway.handlers.Utils;
+import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
+import org.wso2.carbon.apimgt.gateway.inbound.InboundMessageContext;
+import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
+import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+import org.wso2.carbon.apimgt.keymgt.SubscriptionDataHolder;
+import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
+import org.wso2.carbon.apimgt.keymgt.model.entity.APIPolicyConditionGroup;
+import org.wso2.carbon.apimgt.keymgt.model.entity.ApiPolicy;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Policy;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttle keys and tiers of the frames sent over a WebSocket connection to a single resource. They are computed
+ * once per connection and resource instead of once per frame.
+ * <p>
+ * When throttle event aggregation is enabled, the window also accumulates the frames seen since its last publish, so
+ * that they can be published as a single summarized event carrying the number of frames and their total size. The
+ * Traffic Manager only uses the total size of such an event, so frames are only aggregated when all the policies
+ * evaluating them are bandwidth policies; a policy counting requests or events would count the summarized event once.
+ */
+public class WebSocketThrottleEventWindow {
+
+    private static final String THROTTLE_STREAM_ID = "org.wso2.throttle.request.stream:1.0.0";
+    private static final AtomicLong policyVersion = new AtomicLong();
+
+    private final String applicationLevelThrottleKey;
+    private final String applicationLevelTier;
+    private final String apiLevelThrottleKey;
+    private final String apiLevelTier;
+    private final String subscriptionLevelThrottleKey;
+    private final String subscriptionLevelTier;
+    private final String resourceLevelThrottleKey;
+    private final String resourceLevelTier;
+    private final String authorizedUser;
+    private final String apiContext;
+    private final String apiVersion;
+    private final String appTenant;
+    private final String apiTenant;
+    private final String appId;
+    private final String apiName;
+    private final String remoteIP;
+
+    private long messageCount;
+    private long messageSize;
+    // Policy version the policies were resolved at, shifted left by one, with the lowest bit set if the frames can
+    // be aggregated. -1 until the policies are resolved.
+    private volatile long aggregationSupport = -1;
+
+    public WebSocketThrottleEventWindow(InboundMessageContext inboundMessageContext, VerbInfoDTO verbInfoDTO) {
+
+        APIKeyValidationInfoDTO infoDTO = inboundMessageContext.getInfoDTO();
+        applicationLevelTier = infoDTO.getApplicationTier();
+        apiLevelTier = infoDTO.getApiTier() == null && verbInfoDTO == null ? APIConstants.UNLIMITED_TIER
+                : infoDTO.getApiTier();
+        subscriptionLevelTier = infoDTO.getTier();
+        if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equalsIgnoreCase(infoDTO.getSubscriberTenantDomain())) {
+            authorizedUser = infoDTO.getSubscriber() + "@" + infoDTO.getSubscriberTenantDomain();
+        } else {
+            authorizedUser = infoDTO.getSubscriber();
+        }
+        apiName = infoDTO.getApiName();
+        apiContext = inboundMessageContext.getApiContext();
+        apiVersion = inboundMessageContext.getVersion();
+        appTenant = infoDTO.getSubscriberTenantDomain();
+        apiTenant = inboundMessageContext.getTenantDomain();
+        appId = infoDTO.getApplicationId();
+        applicationLevelThrottleKey = appId + ":" + authorizedUser;
+        apiLevelThrottleKey = apiContext + ":" + apiVersion;
+        //If API level throttle policy is present then it will apply and no resource level policy will apply for it
+        if (StringUtils.isNotEmpty(apiLevelTier) && verbInfoDTO == null) {
+            resourceLevelThrottleKey = apiLevelThrottleKey;
+            resourceLevelTier = apiLevelTier;
+        } else {
+            resourceLevelThrottleKey = verbInfoDTO.getRequestKey();
+            resourceLevelTier = verbInfoDTO.getThrottling();
+        }
+        subscriptionLevelThrottleKey = appId + ":" + apiContext + ":" + apiVersion;
+        String userIP = inboundMessageContext.getUserIP();
+        if (userIP.indexOf(":") > 0) {
+            userIP = userIP.substring(1, userIP.indexOf(":"));
+        }
+        remoteIP = userIP;
+    }
+
+    public String getApplicationLevelThrottleKey() {
+
+        return applicationLevelThrottleKey;
+    }
+
+    public String getSubscriptionLevelThrottleKey() {
+
+        return subscriptionLevelThrottleKey;
+    }
+
+    public String getResourceLevelThrottleKey() {
+
+        return resourceLevelThrottleKey;
+    }
+
+    public String getRemoteIP() {
+
+        return remoteIP;
+    }
+
+    /**
+     * Discards the policies resolved by all the windows, so that they are resolved again on their next frame. Called
+     * when a throttle policy is added, updated or removed.
+     */
+    public static void onPoliciesChanged() {
+
+        policyVersion.incrementAndGet();
+    }
+
+    /**
+     * Checks whether the frames of the window can be published as summarized events, which is only the case when
+     * every policy evaluating them limits the data amount. The policies are resolved on the first call and again
+     * after a policy change.
+     *
+     * @return true if the frames can be aggregated, false if each frame has to be published as an event of its own
+     */
+    public boolean isAggregationSupported() {
+
+        ThrottleDataHolder throttleDataHolder = ServiceReferenceHolder.getInstance().getThrottleDataHolder();
+        if (throttleDataHolder != null && throttleDataHolder.isKeyTemplatesPresent()) {
+            // Custom policies count the requests matching their key templates
+            return false;
+        }
+        long currentPolicyVersion = policyVersion.get();
+        long support = aggregationSupport;
+        if (support < 0 || support >>> 1 != currentPolicyVersion) {
+            support = currentPolicyVersion << 1 | (isThrottledByDataAmountOnly() ? 1 : 0);
+            aggregationSupport = support;
+        }
+        return (support & 1) == 1;
+    }
+
+    private boolean isThrottledByDataAmountOnly() {
+
+        return isBandwidthPolicy(applicationLevelTier, appTenant, Policy.POLICY_TYPE.APPLICATION)
+                && isBandwidthPolicy(subscriptionLevelTier, apiTenant, Policy.POLICY_TYPE.SUBSCRIPTION)
+                && isBandwidthPolicy(apiLevelTier, apiTenant, Policy.POLICY_TYPE.API)
+                && isBandwidthPolicy(resourceLevelTier, apiTenant, Policy.POLICY_TYPE.API);
+    }
+
+    private boolean isBandwidthPolicy(String tier, String tenantDomain, Policy.POLICY_TYPE policyType) {
+
+        if (StringUtils.isEmpty(tier) || APIConstants.UNLIMITED_TIER.equalsIgnoreCase(tier)) {
+            return true;
+        }
+        SubscriptionDataStore store = SubscriptionDataHolder.getInstance().getTenantSubscriptionStore(tenantDomain);
+        if (store == null) {
+            return false;
+        }
+        int tenantId = APIUtil.getTenantIdFromTenantDomain(tenantDomain);
+        Policy policy;
+        if (Policy.POLICY_TYPE.APPLICATION.equals(policyType)) {
+            policy = store.getApplicationPolicyByName(tier, tenantId);
+        } else if (Policy.POLICY_TYPE.SUBSCRIPTION.equals(policyType)) {
+            policy = store.getSubscriptionPolicyByName(tier, tenantId);
+        } else {
+            policy = store.getApiPolicyByName(tier, tenantId);
+        }
+        if (policy == null || !PolicyConstants.BANDWIDTH_TYPE.equals(policy.getQuotaType())) {
+            return false;
+        }
+        if (policy instanceof ApiPolicy) {
+            for (APIPolicyConditionGroup conditionGroup : ((ApiPolicy) policy).getConditionGroups()) {
+                if (!PolicyConstants.BANDWIDTH_TYPE.equals(conditionGroup.getQuotaType())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a frame to the window.
+     *
+     * @param size size of the frame in bytes
+     * @return true if the window was empty, in which case the caller has to schedule it for publishing
+     */
+    public synchronized boolean add(int size) {
+
+        messageSize += size;
+        return messageCount++ == 0;
+    }
+
+    /**
+     * Takes the frames accumulated so far out of the window and builds the summarized throttle event for them.
+     *
+     * @return throttle event, or null if no frame was added since the last call
+     */
+    public Event drain() {
+
+        long count;
+        long size;
+        synchronized (this) {
+            count = messageCount;
+            size = messageSize;
+            messageCount = 0;
+            messageSize = 0;
+        }
+        if (count == 0) {
+            return null;
+        }
+        JSONObject properties = new JSONObject();
+        Utils.setRemoteIp(properties, remoteIP);
+        properties.put(APIThrottleConstants.MESSAGE_SIZE, size);
+        properties.put(APIThrottleConstants.MESSAGE_COUNT, count);
+        return createEvent(properties);
+    }
+
+    /**
+     * Builds the throttle event of a single frame.
+     *
+     * @param size size of the frame in bytes
+     * @return throttle event
+     */
+    public Event createEvent(int size) {
+
+        JSONObject properties = new JSONObject();
+        Utils.setRemoteIp(properties, remoteIP);
+        properties.put(APIThrottleConstants.MESSAGE_SIZE, size);
+        return createEvent(properties);
+    }
+
+    private Event createEvent(JSONObject properties) {
+
+        Object[] objects = new Object[]{UIDGenerator.generateURNString(), applicationLevelThrottleKey,
+                applicationLevelTier, apiLevelThrottleKey, apiLevelTier, subscriptionLevelThrottleKey,
+                subscriptionLevelTier, resourceLevelThrottleKey, resourceLevelTier, authorizedUser, apiContext,
+                apiVersion, appTenant, apiTenant, appId, apiName, properties.toString()};
+        return new Event(THROTTLE_STREAM_ID, System.currentTimeMillis(), null, null, objects);
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONObject;
+import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.common.gateway.constants.GraphQLConstants;
@@ -50,6 +51,7 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * A GraphQL subscriptions specific extension of RequestProcessor. This class intercepts the inbound websocket
@@ -82,9 +84,10 @@ public class GraphQLRequestProcessor extends RequestProcessor {
             String operationId = graphQLMsg.getString(
                     GraphQLConstants.SubscriptionConstants.PAYLOAD_FIELD_NAME_ID);
             if (validatePayloadFields(graphQLMsg)) {
-                String graphQLSubscriptionPayload =
-                        ((JSONObject) graphQLMsg.get(GraphQLConstants.SubscriptionConstants.PAYLOAD_FIELD_NAME_PAYLOAD))
-                                .getString(GraphQLConstants.SubscriptionConstants.PAYLOAD_FIELD_NAME_QUERY);
+                JSONObject subscriptionPayload =
+                        (JSONObject) graphQLMsg.get(GraphQLConstants.SubscriptionConstants.PAYLOAD_FIELD_NAME_PAYLOAD);
+                String graphQLSubscriptionPayload = subscriptionPayload
+                        .getString(GraphQLConstants.SubscriptionConstants.PAYLOAD_FIELD_NAME_QUERY);
                 Document document = parser.parseDocument(graphQLSubscriptionPayload);
                 // Extract the operation type and operations from the payload
                 OperationDefinition operation = getOperationFromPayload(document);
@@ -111,7 +114,8 @@ public class GraphQLRequestProcessor extends RequestProcessor {
                                         inboundMessageContext.getGraphQLSchemaDTO().getGraphQLSchema());
                                 // analyze query depth and complexity
                                 responseDTO = validateQueryDepthAndComplexity(queryAnalyzer,
-                                        inboundMessageContext, graphQLSubscriptionPayload, operationId);
+                                        inboundMessageContext, graphQLSubscriptionPayload, document,
+                                        subscriptionPayload, operationId);
                                 if (!responseDTO.isError()) {
                                     //throttle for matching resource
                                     responseDTO = InboundWebsocketProcessorUtil
@@ -236,17 +240,23 @@ public class GraphQLRequestProcessor extends RequestProcessor {
      * @param queryAnalyzer         Query complexity and depth analyzer for subscription operations
      * @param inboundMessageContext InboundMessageContext
      * @param payload               GraphQL payload
+     * @param document              parsed GraphQL payload
+     * @param subscriptionPayload   payload of the subscribe message, holding the operation name and variables
      * @param operationId           Graphql message id
      * @return GraphQLProcessorResponseDTO
      */
     private GraphQLProcessorResponseDTO validateQueryDepthAndComplexity(QueryAnalyzer queryAnalyzer,
                                                                         InboundMessageContext inboundMessageContext,
-                                                                        String payload, String operationId) {
+                                                                        String payload, Document document,
+                                                                        JSONObject subscriptionPayload,
+                                                                        String operationId) {
 
+        String operationName = subscriptionPayload.optString(GraphQLConstants.GRAPHQL_OPERATION_NAME, null);
         GraphQLProcessorResponseDTO responseDTO = validateQueryDepth(queryAnalyzer, inboundMessageContext,
-                payload, operationId);
+                payload, document, operationName, operationId);
         if (!responseDTO.isError()) {
-            return validateQueryComplexity(queryAnalyzer, inboundMessageContext, payload, operationId);
+            return validateQueryComplexity(queryAnalyzer, inboundMessageContext, payload, document, operationName,
+                    subscriptionPayload.optJSONObject(GraphQLConstants.GRAPHQL_VARIABLES), operationId);
         }
         return responseDTO;
     }
@@ -257,12 +267,18 @@ public class GraphQLRequestProcessor extends RequestProcessor {
      * @param queryAnalyzer         Query complexity and depth analyzer for subscription operations
      * @param inboundMessageContext InboundMessageContext
      * @param payload               GraphQL payload
+     * @param document              parsed GraphQL payload
+     * @param operationName         operation name of the subscription, or null if it is not given
+     * @param variables             variables of the subscription, or null if they are not given
      * @param operationId           Graphql message id
      * @return GraphQLProcessorResponseDTO
      */
+    @SuppressWarnings("unchecked")
     private GraphQLProcessorResponseDTO validateQueryComplexity(QueryAnalyzer queryAnalyzer,
                                                                 InboundMessageContext inboundMessageContext,
-                                                                String payload, String operationId) {
+                                                                String payload, Document document,
+                                                                String operationName, JSONObject variables,
+                                                                String operationId) {
 
         GraphQLProcessorResponseDTO responseDTO = new GraphQLProcessorResponseDTO();
         responseDTO.setId(operationId);
@@ -270,9 +286,14 @@ public class GraphQLRequestProcessor extends RequestProcessor {
             //get access control policy
             String accessControlInfo = getGraphQLAccessControlInfo(inboundMessageContext.getGraphQLSchemaDTO()
                     .getGraphQLSchema());
+            int maxQueryComplexity = inboundMessageContext.getInfoDTO().getGraphQLMaxComplexity();
+            Map<String, Object> variableValues = null;
+            if (variables != null && maxQueryComplexity > 0) {
+                variableValues = (Map<String, Object>) new JSONParser().parse(variables.toString());
+            }
             QueryAnalyzerResponseDTO queryAnalyzerResponseDTO =
-                    queryAnalyzer.analyseQueryMutationComplexity(payload,
-                            inboundMessageContext.getInfoDTO().getGraphQLMaxComplexity(), accessControlInfo);
+                    queryAnalyzer.analyseQueryMutationComplexity(document, operationName, variableValues,
+                            maxQueryComplexity, accessControlInfo);
             if (!queryAnalyzerResponseDTO.isSuccess() && !queryAnalyzerResponseDTO.getErrorList().isEmpty()) {
                 List<String> errorList = queryAnalyzerResponseDTO.getErrorList();
                 log.error("Query complexity validation failed for: " + payload + " errors: " + errorList.toString());
@@ -302,18 +323,21 @@ public class GraphQLRequestProcessor extends RequestProcessor {
      * @param queryAnalyzer         Query complexity and depth analyzer for subscription operations
      * @param inboundMessageContext InboundMessageContext
      * @param payload               GraphQL payload
+     * @param document              parsed GraphQL payload
+     * @param operationName         operation name of the subscription, or null if it is not given
      * @param operationId           GraphQL message Id
      * @return GraphQLProcessorResponseDTO
      */
     private GraphQLProcessorResponseDTO validateQueryDepth(QueryAnalyzer queryAnalyzer,
                                                            InboundMessageContext inboundMessageContext,
-                                                           String payload, String operationId) {
+                                                           String payload, Document document, String operationName,
+                                                           String operationId) {
 
         GraphQLProcessorResponseDTO responseDTO = new GraphQLProcessorResponseDTO();
         responseDTO.setId(operationId);
         QueryAnalyzerResponseDTO queryAnalyzerResponseDTO =
                 queryAnalyzer.analyseQueryDepth(inboundMessageContext.getInfoDTO().
-                        getGraphQLMaxDepth(), payload);
+                        getGraphQLMaxDepth(), document, operationName);
         if (!queryAnalyzerResponseDTO.isSuccess() && !queryAnalyzerResponseDTO.getErrorList().isEmpty()) {
             List<String> errorList = queryAnalyzerResponseDTO.getErrorList();
             log.error("Query depth validation failed for: " + payload + " errors: " + errorList.toString());
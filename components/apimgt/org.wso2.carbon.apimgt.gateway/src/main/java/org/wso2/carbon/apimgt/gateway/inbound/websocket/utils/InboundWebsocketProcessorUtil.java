@@ -19,14 +19,12 @@ package org.wso2.carbon.apimgt.gateway.inbound.websocket.utils;
 
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
-import org.apache.axiom.util.UIDGenerator;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHeaders;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.api.API;
-import org.json.JSONObject;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.common.gateway.constants.GraphQLConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.DataPublisherUtil;
@@ -40,10 +38,10 @@ import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.handlers.security.jwt.JWTValidator;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.websocket.WebSocketApiConstants;
 import org.wso2.carbon.apimgt.gateway.handlers.streaming.websocket.WebSocketApiException;
-import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
 import org.wso2.carbon.apimgt.gateway.inbound.InboundMessageContext;
 import org.wso2.carbon.apimgt.gateway.inbound.websocket.GraphQLProcessorResponseDTO;
 import org.wso2.carbon.apimgt.gateway.inbound.websocket.InboundProcessorResponseDTO;
+import org.wso2.carbon.apimgt.gateway.inbound.websocket.WebSocketThrottleEventWindow;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.gateway.utils.APIMgtGoogleAnalyticsUtils;
@@ -52,6 +50,7 @@ import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.caching.CacheProvider;
 import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
 import org.wso2.carbon.apimgt.impl.dto.ResourceInfoDTO;
+import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
 import org.wso2.carbon.apimgt.impl.jwt.SignedJWTInfo;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
@@ -75,6 +74,9 @@ import javax.cache.Cache;
 public class InboundWebsocketProcessorUtil {
 
     private static final Log log = LogFactory.getLog(InboundWebsocketProcessorUtil.class);
+    private static final Object throttleEventAggregatorLock = new Object();
+    private static volatile boolean throttleEventAggregatorResolved;
+    private static volatile WebSocketThrottleEventAggregator throttleEventAggregator;
 
     /**
      * Validates AuthenticationContext and set APIKeyValidationInfoDTO to InboundMessageContext.
@@ -252,52 +254,17 @@ public class InboundWebsocketProcessorUtil {
                                                          InboundMessageContext inboundMessageContext,
                                                          InboundProcessorResponseDTO responseDTO) {
 
-        APIKeyValidationInfoDTO infoDTO = inboundMessageContext.getInfoDTO();
-        String applicationLevelTier = infoDTO.getApplicationTier();
-        String apiLevelTier = infoDTO.getApiTier() == null && verbInfoDTO == null ? APIConstants.UNLIMITED_TIER
-                : infoDTO.getApiTier();
-        String subscriptionLevelTier = infoDTO.getTier();
-        String resourceLevelTier;
-        String authorizedUser;
-        if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equalsIgnoreCase(infoDTO.getSubscriberTenantDomain())) {
-            authorizedUser = infoDTO.getSubscriber() + "@" + infoDTO.getSubscriberTenantDomain();
-        } else {
-            authorizedUser = infoDTO.getSubscriber();
-        }
-        String apiName = infoDTO.getApiName();
-        String apiVersion = inboundMessageContext.getVersion();
-        String appTenant = infoDTO.getSubscriberTenantDomain();
-        String apiTenant = inboundMessageContext.getTenantDomain();
-        String appId = infoDTO.getApplicationId();
-        String applicationLevelThrottleKey = appId + ":" + authorizedUser;
-        String apiLevelThrottleKey = inboundMessageContext.getApiContext() + ":" + apiVersion;
-        String resourceLevelThrottleKey;
-        //If API level throttle policy is present then it will apply and no resource level policy will apply for it
-        if (StringUtils.isNotEmpty(apiLevelTier) && verbInfoDTO == null) {
-            resourceLevelThrottleKey = apiLevelThrottleKey;
-            resourceLevelTier = apiLevelTier;
-        } else {
-            resourceLevelThrottleKey = verbInfoDTO.getRequestKey();
-            resourceLevelTier = verbInfoDTO.getThrottling();
-        }
-        String subscriptionLevelThrottleKey = appId + ":" + inboundMessageContext.getApiContext() + ":" + apiVersion;
-        String messageId = UIDGenerator.generateURNString();
-        String remoteIP = inboundMessageContext.getUserIP();
+        WebSocketThrottleEventWindow throttleEventWindow = inboundMessageContext.getThrottleEventWindow(verbInfoDTO);
         if (log.isDebugEnabled()) {
-            log.debug("Remote IP address : " + remoteIP);
-        }
-        if (remoteIP.indexOf(":") > 0) {
-            remoteIP = remoteIP.substring(1, remoteIP.indexOf(":"));
+            log.debug("Remote IP address : " + inboundMessageContext.getUserIP());
         }
-        JSONObject jsonObMap = new JSONObject();
-        Utils.setRemoteIp(jsonObMap, remoteIP);
-        jsonObMap.put(APIThrottleConstants.MESSAGE_SIZE, msgSize);
         try {
             PrivilegedCarbonContext.startTenantFlow();
             PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(
                     inboundMessageContext.getTenantDomain(), true);
-            boolean isThrottled = WebsocketUtil.isThrottled(resourceLevelThrottleKey, subscriptionLevelThrottleKey,
-                    applicationLevelThrottleKey);
+            boolean isThrottled = WebsocketUtil.isThrottled(throttleEventWindow.getResourceLevelThrottleKey(),
+                    throttleEventWindow.getSubscriptionLevelThrottleKey(),
+                    throttleEventWindow.getApplicationLevelThrottleKey());
             if (isThrottled) {
                 responseDTO.setError(true);
                 responseDTO.setErrorCode(WebSocketApiConstants.FrameErrorConstants.THROTTLED_OUT_ERROR);
@@ -306,19 +273,53 @@ public class InboundWebsocketProcessorUtil {
         } finally {
             PrivilegedCarbonContext.endTenantFlow();
         }
-        Object[] objects =
-                new Object[]{messageId, applicationLevelThrottleKey, applicationLevelTier, apiLevelThrottleKey,
-                        apiLevelTier, subscriptionLevelThrottleKey, subscriptionLevelTier, resourceLevelThrottleKey,
-                        resourceLevelTier, authorizedUser, inboundMessageContext.getApiContext(), apiVersion,
-                        appTenant, apiTenant, appId, apiName, jsonObMap.toString()};
-        org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(
-                "org.wso2.throttle.request.stream:1.0.0", System.currentTimeMillis(), null, null, objects);
+        WebSocketThrottleEventAggregator throttleEventAggregator = getThrottleEventAggregator();
+        if (throttleEventAggregator == null || !throttleEventAggregator.add(throttleEventWindow, msgSize)) {
+            publishThrottleEvent(throttleEventWindow.createEvent(msgSize));
+        }
+        return responseDTO;
+    }
+
+    private static void publishThrottleEvent(org.wso2.carbon.databridge.commons.Event event) {
+
         if (ServiceReferenceHolder.getInstance().getThrottleDataPublisher() == null) {
             log.error("Cannot publish events to traffic manager because ThrottleDataPublisher "
                     + "has not been initialised");
+            return;
         }
         ServiceReferenceHolder.getInstance().getThrottleDataPublisher().getDataPublisher().tryPublish(event);
-        return responseDTO;
+    }
+
+    /**
+     * Returns the aggregator of WebSocket throttle events, which is only created if throttle event aggregation is
+     * enabled in the throttle configuration. Nothing is cached until the throttle configuration is available.
+     *
+     * @return aggregator, or null if throttle events are published one by one
+     */
+    private static WebSocketThrottleEventAggregator getThrottleEventAggregator() {
+
+        if (!throttleEventAggregatorResolved) {
+            synchronized (throttleEventAggregatorLock) {
+                if (!throttleEventAggregatorResolved) {
+                    ThrottleProperties throttleProperties =
+                            ServiceReferenceHolder.getInstance().getThrottleProperties();
+                    if (throttleProperties == null) {
+                        return null;
+                    }
+                    if (throttleProperties.isEnableWebSocketThrottleEventAggregation()) {
+                        long interval = throttleProperties.getWebSocketThrottleEventAggregationInterval();
+                        if (log.isDebugEnabled()) {
+                            log.debug("WebSocket throttle events are aggregated and published every " + interval
+                                    + "ms");
+                        }
+                        throttleEventAggregator = WebSocketThrottleEventAggregator.start(
+                                InboundWebsocketProcessorUtil::publishThrottleEvent, interval);
+                    }
+                    throttleEventAggregatorResolved = true;
+                }
+            }
+        }
+        return throttleEventAggregator;
     }
 
     /**
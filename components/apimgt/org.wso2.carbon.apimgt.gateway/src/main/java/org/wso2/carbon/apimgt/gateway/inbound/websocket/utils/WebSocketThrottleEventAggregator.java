@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.inbound.websocket.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.gateway.inbound.websocket.WebSocketThrottleEventWindow;
+import org.wso2.carbon.databridge.commons.Event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the throttle events of WebSocket frames in summarized form. Frames are accumulated in the throttle event
+ * window of their connection and resource, and each window holding frames is published once per interval as a
+ * single event carrying the number of frames and their total size.
+ * <p>
+ * Only windows which received frames since the last publish are tracked, so a connection which is closed or idle
+ * does not need to be unregistered. Frames evaluated by a policy which counts requests or events are not aggregated,
+ * since the Traffic Manager would count their summarized event only once.
+ */
+public class WebSocketThrottleEventAggregator {
+
+    private static final Log log = LogFactory.getLog(WebSocketThrottleEventAggregator.class);
+
+    private final Queue<WebSocketThrottleEventWindow> pendingWindows = new ConcurrentLinkedQueue<>();
+    private final Consumer<Event> eventPublisher;
+
+    WebSocketThrottleEventAggregator(Consumer<Event> eventPublisher) {
+
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Starts an aggregator which publishes the accumulated events at the given interval.
+     *
+     * @param eventPublisher publisher of the summarized events
+     * @param interval       publishing interval in milliseconds, validated when the throttle configuration is read
+     * @return started aggregator
+     */
+    static WebSocketThrottleEventAggregator start(Consumer<Event> eventPublisher, long interval) {
+
+        WebSocketThrottleEventAggregator aggregator = new WebSocketThrottleEventAggregator(eventPublisher);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WebSocketThrottleEventAggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(aggregator::publishPendingEvents, interval, interval,
+                TimeUnit.MILLISECONDS);
+        return aggregator;
+    }
+
+    /**
+     * Adds a frame to the given window, scheduling the window for the next publish if it was empty.
+     *
+     * @param throttleEventWindow window of the connection and resource of the frame
+     * @param size                size of the frame in bytes
+     * @return true if the frame was added, false if the frames of the window cannot be aggregated and the caller has
+     * to publish the frame on its own
+     */
+    public boolean add(WebSocketThrottleEventWindow throttleEventWindow, int size) {
+
+        if (!throttleEventWindow.isAggregationSupported()) {
+            return false;
+        }
+        if (throttleEventWindow.add(size)) {
+            pendingWindows.add(throttleEventWindow);
+        }
+        return true;
+    }
+
+    /**
+     * Publishes one summarized event for each window which received frames since the last publish.
+     */
+    void publishPendingEvents() {
+
+        try {
+            int published = 0;
+            WebSocketThrottleEventWindow throttleEventWindow;
+            while ((throttleEventWindow = pendingWindows.poll()) != null) {
+                Event event = throttleEventWindow.drain();
+                if (event != null) {
+                    eventPublisher.accept(event);
+                    published++;
+                }
+            }
+            if (log.isDebugEnabled() && published > 0) {
+                log.debug("Published " + published + " aggregated WebSocket throttle events");
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while publishing aggregated WebSocket throttle events", e);
+        }
+    }
+}
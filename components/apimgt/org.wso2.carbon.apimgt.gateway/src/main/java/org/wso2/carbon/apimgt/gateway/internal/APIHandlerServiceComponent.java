@@ -37,8 +37,14 @@ import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
 import org.wso2.carbon.apimgt.gateway.RedisBaseDistributedCountManager;
 import org.wso2.carbon.apimgt.gateway.handlers.security.keys.APIKeyValidatorClientPool;
 import org.wso2.carbon.apimgt.gateway.jwt.RevokedJWTMapCleaner;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStats;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
+import org.wso2.carbon.apimgt.gateway.listeners.GatewayJMSMessageListener;
 import org.wso2.carbon.apimgt.gateway.listeners.GatewayStartupListener;
+import org.wso2.carbon.apimgt.gateway.listeners.NotificationEventStats;
 import org.wso2.carbon.apimgt.gateway.listeners.ServerStartupListener;
+import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDecisionStats;
+import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
 import org.wso2.carbon.apimgt.impl.caching.CacheProvider;
 import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
@@ -68,6 +74,10 @@ import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 @Component(
         name = "org.wso2.carbon.apimgt.handlers",
@@ -78,6 +88,7 @@ public class APIHandlerServiceComponent {
 
     private APIKeyValidatorClientPool clientPool;
     private ServiceRegistration registration;
+    private RedisBaseDistributedCountManager redisBaseDistributedCountManager;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -125,11 +136,12 @@ public class APIHandlerServiceComponent {
         RedisConfig redisConfig =
                 ServiceReferenceHolder.getInstance().getAPIManagerConfiguration().getRedisConfig();
         if (redisConfig.isRedisEnabled()) {
-            RedisBaseDistributedCountManager redisBaseDistributedCountManager =
-                    new RedisBaseDistributedCountManager(ServiceReferenceHolder.getInstance().getRedisPool());
+            ServiceReferenceHolder.getInstance().setRedisPool(getJedisPool(redisConfig));
+            redisBaseDistributedCountManager =
+                    new RedisBaseDistributedCountManager(ServiceReferenceHolder.getInstance().getRedisPool(),
+                            redisConfig.isAsyncCounterEnabled(), redisConfig.getCounterSyncInterval());
             context.getBundleContext().registerService(DistributedCounterManager.class,
                     redisBaseDistributedCountManager, null);
-            ServiceReferenceHolder.getInstance().setRedisPool(getJedisPool(redisConfig));
         }
 
         // Create caches for the super tenant
@@ -148,6 +160,9 @@ public class APIHandlerServiceComponent {
         CacheProvider.createGatewayInternalKeyCache();
         CacheProvider.createGatewayInternalKeyDataCache();
         CacheProvider.createInvalidInternalKeyCache();
+        initLatencyStats();
+        registerMBean(new ThrottleDecisionStats(), ThrottleDecisionStats.OBJECT_NAME);
+        registerMBean(new NotificationEventStats(), NotificationEventStats.OBJECT_NAME);
     }
 
     @Deactivate
@@ -161,10 +176,57 @@ public class APIHandlerServiceComponent {
             log.debug("Unregistering ThrottleDataService...");
             registration.unregister();
         }
+        if (redisBaseDistributedCountManager != null) {
+            redisBaseDistributedCountManager.shutdown();
+        }
         if (ServiceReferenceHolder.getInstance().getRedisPool() != null &&
                 !ServiceReferenceHolder.getInstance().getRedisPool().isClosed()) {
             ServiceReferenceHolder.getInstance().getRedisPool().destroy();
         }
+        unregisterMBean(LatencyStats.OBJECT_NAME);
+        unregisterMBean(ThrottleDecisionStats.OBJECT_NAME);
+        unregisterMBean(NotificationEventStats.OBJECT_NAME);
+        GatewayJMSMessageListener.shutdownNotificationEventExecutor();
+    }
+
+    private void initLatencyStats() {
+
+        String sampleRate = ServiceReferenceHolder.getInstance().getAPIManagerConfiguration()
+                .getFirstProperty(APIConstants.API_GATEWAY_LATENCY_STATS_SAMPLE_RATE);
+        if (StringUtils.isNotEmpty(sampleRate)) {
+            try {
+                LatencyStatsCollector.getInstance().setSampleRate(Double.parseDouble(sampleRate));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid latency stats sample rate " + sampleRate + ". Latency stats are disabled.");
+            }
+        }
+        registerMBean(new LatencyStats(), LatencyStats.OBJECT_NAME);
+    }
+
+    private void registerMBean(Object mBean, String name) {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(mBean, objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while registering the MBean " + name, e);
+        }
+    }
+
+    private void unregisterMBean(String name) {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the MBean " + name, e);
+        }
     }
 
     @Reference(
@@ -22,6 +22,7 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.common.analytics.collectors.AnalyticsCustomDataProvider;
 import org.wso2.carbon.apimgt.common.gateway.jwtgenerator.AbstractAPIMgtGatewayJWTGenerator;
 import org.wso2.carbon.apimgt.gateway.handlers.analytics.Constants;
+import org.wso2.carbon.apimgt.gateway.throttling.LocalThrottleController;
 import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
 import org.wso2.carbon.apimgt.gateway.throttling.publisher.ThrottleDataPublisher;
 import org.wso2.carbon.apimgt.gateway.utils.redis.RedisCacheUtils;
@@ -71,6 +72,7 @@ public class ServiceReferenceHolder {
     private ConfigurationContextService cfgCtxService;
     private APIManagerConfigurationService amConfigService;
     public ThrottleDataHolder throttleDataHolder;
+    private LocalThrottleController localThrottleController;
     private ThrottleProperties throttleProperties;
     private ConfigurationContext axis2ConfigurationContext;
     private TracingService tracingService;
@@ -104,6 +106,19 @@ public class ServiceReferenceHolder {
     public ThrottleDataHolder getThrottleDataHolder() {
         return throttleDataHolder;
     }
+
+    public void setLocalThrottleController(LocalThrottleController localThrottleController) {
+        this.localThrottleController = localThrottleController;
+    }
+
+    /**
+     * Returns the controller enforcing throttle policies locally in the gateway.
+     *
+     * @return local throttle controller, or null if local throttling is not enabled
+     */
+    public LocalThrottleController getLocalThrottleController() {
+        return localThrottleController;
+    }
     private ArtifactRetriever artifactRetriever;
 
     private ServiceReferenceHolder() {
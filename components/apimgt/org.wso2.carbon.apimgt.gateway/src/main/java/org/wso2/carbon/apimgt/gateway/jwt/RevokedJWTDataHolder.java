@@ -20,16 +20,13 @@ package org.wso2.carbon.apimgt.gateway.jwt;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  *  Singleton which stores the revoked JWT map
  */
 public class RevokedJWTDataHolder {
 
     private static final Log log = LogFactory.getLog(RevokedJWTDataHolder.class);
-    private static Map<String, Long> revokedJWTMap = new ConcurrentHashMap<>();
+    private static RevokedJWTSignatureSet revokedJWTSignatures = new RevokedJWTSignatureSet();
     private static RevokedJWTDataHolder instance = new RevokedJWTDataHolder();
 
     /**
@@ -39,8 +36,10 @@ public class RevokedJWTDataHolder {
      */
     public void addRevokedJWTToMap(String key, Long value) {
         if (key != null && value != null) {
-            log.debug("Adding revoked JWT key, value pair to the revoked map :" + key + " , " + value);
-            revokedJWTMap.put(key, value);
+            if (log.isDebugEnabled()) {
+                log.debug("Adding revoked JWT key, value pair to the revoked map :" + key + " , " + value);
+            }
+            revokedJWTSignatures.add(key, value);
         }
     }
 
@@ -50,7 +49,7 @@ public class RevokedJWTDataHolder {
      * @return true if it exists and false otherwise.
      */
     public static boolean isJWTTokenSignatureExistsInRevokedMap(String jwtSignature) {
-        return revokedJWTMap.containsKey(jwtSignature);
+        return revokedJWTSignatures.contains(jwtSignature);
     }
 
     private RevokedJWTDataHolder() {
@@ -58,11 +57,11 @@ public class RevokedJWTDataHolder {
     }
 
     /**
-     * Fetches the revoke map.
-     * @return
+     * Fetches the set of revoked JWT signatures.
+     * @return revoked JWT signatures
      */
-    Map<String, Long> getRevokedJWTMap() {
-        return revokedJWTMap;
+    RevokedJWTSignatureSet getRevokedJWTSignatures() {
+        return revokedJWTSignatures;
     }
 
     /**
@@ -20,8 +20,6 @@ package org.wso2.carbon.apimgt.gateway.jwt;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -41,21 +39,9 @@ public class RevokedJWTMapCleaner extends TimerTask {
 
     private void cleanJWTRevokedMap() {
 
-        long currentTimestamp = System.currentTimeMillis();
-        Map<String, Long> revokedMap = RevokedJWTDataHolder.getInstance().getRevokedJWTMap();
-        Iterator it = revokedMap.entrySet().iterator();
-        int count = 0;
-        while (it.hasNext()) {
-            Map.Entry entry = (Map.Entry) it.next();
-            long expiryTime = (long) (entry.getValue()) * 1000;
-            if (currentTimestamp > expiryTime) { // if token is expired, remove from the revoked map
-                it.remove();
-                if (log.isDebugEnabled()) {
-                    log.debug("Removed entry : " + entry.getKey());
-                }
-                count++;
-            }
-        }
+        // Expiry times of the revoked tokens are in seconds
+        long currentTimestamp = System.currentTimeMillis() / 1000;
+        int count = RevokedJWTDataHolder.getInstance().getRevokedJWTSignatures().removeExpired(currentTimestamp);
         if (log.isDebugEnabled()) {
             log.debug("Number of removed JWT tokens from the map : " + count);
         }
@@ -65,7 +51,8 @@ public class RevokedJWTMapCleaner extends TimerTask {
      * Starts the timer task to clean the JWT revoke map
      */
     public void startJWTRevokedMapCleaner() {
-        // Thread starts after 2 mins and runs every 45 minutes
-        new Timer().schedule(this, 120000, 2700000);
+        // Thread starts after 2 mins and runs every 15 minutes. Each run only visits the revoked tokens which expired
+        // since the previous run.
+        new Timer("RevokedJWTMapCleaner", true).schedule(this, 120000, 900000);
     }
 }
@@ -0,0 +1,334 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compact set of revoked JWT signatures. Signatures are reduced to 128 bit digests which are kept, together with the
+ * expiry time of the token, in primitive arrays forming an open addressing hash table, instead of keeping the
+ * signature strings in a hash map.
+ * <p>
+ * The digests are also recorded in buckets by the hour in which the tokens expire, so that removing the expired
+ * tokens only visits the buckets of the hours which are over, instead of scanning the whole set.
+ * <p>
+ * Lookups are done with an optimistic read which is only retried under the read lock if the set was modified during
+ * the lookup.
+ */
+final class RevokedJWTSignatureSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EXPIRY_BUCKET_DURATION = 3600L;
+
+    private final StampedLock lock = new StampedLock();
+    // Slot i holds the digest (digestHighs[i], digestLows[i]). A digest of (0, 0) marks an empty slot.
+    private long[] digestHighs = new long[INITIAL_CAPACITY];
+    private long[] digestLows = new long[INITIAL_CAPACITY];
+    private long[] expiryTimes = new long[INITIAL_CAPACITY];
+    private int size;
+    // Start of the expiry hour -> digests of the tokens expiring in that hour, as (high, low) pairs
+    private final TreeMap<Long, DigestList> expiryBuckets = new TreeMap<>();
+
+    /**
+     * Adds a revoked signature. If the signature is already in the set, the later of the two expiry times is kept.
+     *
+     * @param signature  signature of the revoked token
+     * @param expiryTime expiry time of the token, in seconds
+     */
+    void add(String signature, long expiryTime) {
+
+        long[] digest = digest(signature);
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(digestHighs, digestLows, digest[0], digest[1]);
+            if (isEmpty(slot)) {
+                digestHighs[slot] = digest[0];
+                digestLows[slot] = digest[1];
+                expiryTimes[slot] = expiryTime;
+                size++;
+                if (size * 2 > digestHighs.length) {
+                    resize(digestHighs.length * 2);
+                }
+            } else if (expiryTimes[slot] < expiryTime) {
+                expiryTimes[slot] = expiryTime;
+            } else {
+                return;
+            }
+            expiryBuckets.computeIfAbsent(getExpiryBucket(expiryTime), bucket -> new DigestList())
+                    .add(digest[0], digest[1]);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Checks whether the given signature is revoked.
+     *
+     * @param signature signature to check
+     * @return true if the signature is in the set
+     */
+    boolean contains(String signature) {
+
+        long[] digest = digest(signature);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean found = contains(digestHighs, digestLows, digest[0], digest[1]);
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return contains(digestHighs, digestLows, digest[0], digest[1]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Removes the signatures of the tokens which expired in the expiry hours that are over at the given time.
+     *
+     * @param currentTime current time, in seconds
+     * @return number of removed signatures
+     */
+    int removeExpired(long currentTime) {
+
+        int removedCount = 0;
+        long stamp = lock.writeLock();
+        try {
+            Iterator<Map.Entry<Long, DigestList>> iterator =
+                    expiryBuckets.headMap(getExpiryBucket(currentTime)).entrySet().iterator();
+            while (iterator.hasNext()) {
+                DigestList digests = iterator.next().getValue();
+                for (int i = 0; i < digests.size; i += 2) {
+                    int slot = findSlot(digestHighs, digestLows, digests.values[i], digests.values[i + 1]);
+                    // A signature revoked again with a later expiry time is kept until its new bucket is over
+                    if (!isEmpty(slot) && expiryTimes[slot] < currentTime) {
+                        removeSlot(slot);
+                        removedCount++;
+                    }
+                }
+                iterator.remove();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removedCount;
+    }
+
+    int size() {
+
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean isEmpty(int slot) {
+
+        return digestHighs[slot] == 0 && digestLows[slot] == 0;
+    }
+
+    /**
+     * Probes the given table for a digest. As this may run while the table is modified, the probe is bounded by the
+     * capacity of the table so that it always terminates, and only reads the arrays it was given.
+     */
+    private static boolean contains(long[] highs, long[] lows, long high, long low) {
+
+        int capacity = Math.min(highs.length, lows.length);
+        int mask = capacity - 1;
+        int slot = (int) low & mask;
+        for (int i = 0; i < capacity; i++) {
+            long slotHigh = highs[slot];
+            long slotLow = lows[slot];
+            if (slotHigh == high && slotLow == low) {
+                return true;
+            }
+            if (slotHigh == 0 && slotLow == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the slot holding the given digest, or the empty slot at which the digest would be inserted.
+     */
+    private static int findSlot(long[] highs, long[] lows, long high, long low) {
+
+        int mask = highs.length - 1;
+        int slot = (int) low & mask;
+        while (!(highs[slot] == high && lows[slot] == low) && !(highs[slot] == 0 && lows[slot] == 0)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the digest of the given slot, moving back the following digests of the probe sequence so that no
+     * lookup stops at the emptied slot before reaching them.
+     */
+    private void removeSlot(int slot) {
+
+        int mask = digestHighs.length - 1;
+        int emptySlot = slot;
+        int nextSlot = (slot + 1) & mask;
+        while (!isEmpty(nextSlot)) {
+            int homeSlot = (int) digestLows[nextSlot] & mask;
+            // Move the digest back if its home slot is not in the cyclic range (emptySlot, nextSlot]
+            if (((nextSlot - homeSlot) & mask) >= ((nextSlot - emptySlot) & mask)) {
+                digestHighs[emptySlot] = digestHighs[nextSlot];
+                digestLows[emptySlot] = digestLows[nextSlot];
+                expiryTimes[emptySlot] = expiryTimes[nextSlot];
+                emptySlot = nextSlot;
+            }
+            nextSlot = (nextSlot + 1) & mask;
+        }
+        digestHighs[emptySlot] = 0;
+        digestLows[emptySlot] = 0;
+        expiryTimes[emptySlot] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+
+        long[] highs = new long[capacity];
+        long[] lows = new long[capacity];
+        long[] expiries = new long[capacity];
+        for (int i = 0; i < digestHighs.length; i++) {
+            if (!isEmpty(i)) {
+                int slot = findSlot(highs, lows, digestHighs[i], digestLows[i]);
+                highs[slot] = digestHighs[i];
+                lows[slot] = digestLows[i];
+                expiries[slot] = expiryTimes[i];
+            }
+        }
+        digestHighs = highs;
+        digestLows = lows;
+        expiryTimes = expiries;
+    }
+
+    private static long getExpiryBucket(long expiryTime) {
+
+        return Math.floorDiv(expiryTime, EXPIRY_BUCKET_DURATION);
+    }
+
+    /**
+     * Computes a 128 bit digest of the given signature using the MurmurHash3 x64 128 bit function over its
+     * characters. The digest is never (0, 0), as that value marks the empty slots.
+     */
+    static long[] digest(String signature) {
+
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int length = signature.length();
+        int blockEnd = length - length % 8;
+        for (int i = 0; i < blockEnd; i += 8) {
+            long k1 = pack(signature, i, 4);
+            long k2 = pack(signature, i + 4, 4);
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        int remaining = length - blockEnd;
+        if (remaining > 4) {
+            long k2 = pack(signature, blockEnd + 4, remaining - 4);
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+        }
+        if (remaining > 0) {
+            long k1 = pack(signature, blockEnd, Math.min(remaining, 4));
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+        h1 ^= length * 2L;
+        h2 ^= length * 2L;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        if (h1 == 0 && h2 == 0) {
+            h2 = 1;
+        }
+        return new long[]{h1, h2};
+    }
+
+    private static long pack(String value, int offset, int count) {
+
+        long packed = 0;
+        for (int i = 0; i < count; i++) {
+            packed |= ((long) value.charAt(offset + i)) << (16 * i);
+        }
+        return packed;
+    }
+
+    private static long fmix64(long k) {
+
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Growable list of digests, stored as consecutive (high, low) pairs.
+     */
+    private static final class DigestList {
+
+        private long[] values = new long[8];
+        private int size;
+
+        private void add(long high, long low) {
+
+            if (size + 2 > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = high;
+            values[size++] = low;
+        }
+    }
+}
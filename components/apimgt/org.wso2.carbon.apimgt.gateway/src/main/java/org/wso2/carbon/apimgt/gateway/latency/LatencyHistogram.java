@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free latency histogram with logarithmic buckets. Each power of two range of values is split into
+ * {@link #SUB_BUCKET_COUNT} linear sub buckets, which keeps the relative error of the reported percentiles within
+ * about 6% while using a fixed amount of memory regardless of the number of recorded values.
+ * <p>
+ * Values are recorded in microseconds. Values larger than the highest trackable value are counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a latency value.
+     *
+     * @param value latency in microseconds
+     */
+    public void record(long value) {
+
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(getBucketIndex(value));
+        totalValue.addAndGet(value);
+        long currentMax = maxValue.get();
+        while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Returns a point in time copy of this histogram. Values recorded while the snapshot is being taken may or may
+     * not be included in it.
+     *
+     * @return snapshot of the histogram
+     */
+    public Snapshot getSnapshot() {
+
+        long[] snapshotCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+        return new Snapshot(snapshotCounts, count, totalValue.get(), maxValue.get());
+    }
+
+    static int getBucketIndex(long value) {
+
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long getBucketUpperBound(int index) {
+
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int bucket = index / SUB_BUCKET_COUNT;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (bucket - 1);
+        return lowerBound + (1L << (bucket - 1)) - 1;
+    }
+
+    /**
+     * Immutable copy of the content of a {@link LatencyHistogram}.
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalValue;
+        private final long maxValue;
+
+        Snapshot(long[] counts, long count, long totalValue, long maxValue) {
+
+            this.counts = counts;
+            this.count = count;
+            this.totalValue = totalValue;
+            this.maxValue = maxValue;
+        }
+
+        public long getCount() {
+
+            return count;
+        }
+
+        public long getMax() {
+
+            return maxValue;
+        }
+
+        public double getMean() {
+
+            return count > 0 ? (double) totalValue / count : 0;
+        }
+
+        /**
+         * Returns the value below which the given percentage of the recorded values fall.
+         *
+         * @param percentile percentile between 0 and 100
+         * @return latency in microseconds, or 0 if no value is recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+
+            if (count == 0) {
+                return 0;
+            }
+            double boundedPercentile = Math.min(Math.max(percentile, 0), 100);
+            long targetCount = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * count));
+            long cumulativeCount = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulativeCount += counts[i];
+                if (cumulativeCount >= targetCount) {
+                    return Math.min(getBucketUpperBound(i), maxValue);
+                }
+            }
+            return maxValue;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of {@link LatencyStatsMBean} backed by the {@link LatencyStatsCollector} instance.
+ */
+public class LatencyStats implements LatencyStatsMBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.apimgt.gateway:type=LatencyStats";
+
+    @Override
+    public String[] getAPIUUIDs() {
+
+        List<String> apiUUIDs = LatencyStatsCollector.getInstance().getAPIUUIDs();
+        return apiUUIDs.toArray(new String[0]);
+    }
+
+    @Override
+    public double getSampleRate() {
+
+        return LatencyStatsCollector.getInstance().getSampleRate();
+    }
+
+    @Override
+    public void setSampleRate(double sampleRate) {
+
+        LatencyStatsCollector.getInstance().setSampleRate(sampleRate);
+    }
+
+    @Override
+    public long getCount(String apiUUID, String phase) {
+
+        LatencyHistogram.Snapshot snapshot = getSnapshot(apiUUID, phase);
+        return snapshot != null ? snapshot.getCount() : 0;
+    }
+
+    @Override
+    public double getMean(String apiUUID, String phase) {
+
+        LatencyHistogram.Snapshot snapshot = getSnapshot(apiUUID, phase);
+        return snapshot != null ? snapshot.getMean() : 0;
+    }
+
+    @Override
+    public long getMax(String apiUUID, String phase) {
+
+        LatencyHistogram.Snapshot snapshot = getSnapshot(apiUUID, phase);
+        return snapshot != null ? snapshot.getMax() : 0;
+    }
+
+    @Override
+    public long getValueAtPercentile(String apiUUID, String phase, double percentile) {
+
+        LatencyHistogram.Snapshot snapshot = getSnapshot(apiUUID, phase);
+        return snapshot != null ? snapshot.getValueAtPercentile(percentile) : 0;
+    }
+
+    @Override
+    public void reset() {
+
+        LatencyStatsCollector.getInstance().reset();
+    }
+
+    private static LatencyHistogram.Snapshot getSnapshot(String apiUUID, String phase) {
+
+        if (apiUUID == null || phase == null) {
+            return null;
+        }
+        LatencyPhase latencyPhase;
+        try {
+            latencyPhase = LatencyPhase.valueOf(phase.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            // An unknown phase has no recorded latencies, like an unknown API
+            return null;
+        }
+        return LatencyStatsCollector.getInstance().getSnapshot(apiUUID, latencyPhase);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+import org.apache.synapse.MessageContext;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the latencies of the request processing phases of the gateway into a {@link LatencyHistogram} per API
+ * and phase.
+ * <p>
+ * Whether a request is recorded is decided once, when the request enters the API, based on the configured sample
+ * rate. The phases of requests which are not sampled only pay for a message context property lookup.
+ */
+public class LatencyStatsCollector {
+
+    private static final LatencyStatsCollector instance = new LatencyStatsCollector();
+
+    private final Map<String, LatencyHistogram[]> apiHistograms = new ConcurrentHashMap<>();
+    private volatile double sampleRate;
+
+    private LatencyStatsCollector() {
+
+    }
+
+    public static LatencyStatsCollector getInstance() {
+
+        return instance;
+    }
+
+    public double getSampleRate() {
+
+        return sampleRate;
+    }
+
+    /**
+     * Sets the fraction of the requests to be recorded. 0 disables the recording and 1 records all the requests.
+     *
+     * @param sampleRate sample rate between 0 and 1
+     */
+    public void setSampleRate(double sampleRate) {
+
+        if (Double.isNaN(sampleRate) || sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Latency stats sample rate should be between 0 and 1 : " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Decides whether the latencies of the given request are recorded and marks the start of the request if so.
+     *
+     * @param messageContext message context of the request
+     * @param apiUUID        UUID of the API which serves the request
+     */
+    public void startSampling(MessageContext messageContext, String apiUUID) {
+
+        double currentSampleRate = sampleRate;
+        if (apiUUID == null || currentSampleRate <= 0) {
+            return;
+        }
+        if (currentSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < currentSampleRate) {
+            messageContext.setProperty(APIMgtGatewayConstants.LATENCY_STATS_API_UUID, apiUUID);
+            messageContext.setProperty(APIMgtGatewayConstants.LATENCY_STATS_START_TIME, System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks the start of a phase of the given request, if the request is sampled.
+     *
+     * @param messageContext    message context of the request
+     * @param startTimeProperty message context property holding the start time of the phase
+     */
+    public void markStart(MessageContext messageContext, String startTimeProperty) {
+
+        if (messageContext.getProperty(APIMgtGatewayConstants.LATENCY_STATS_API_UUID) != null) {
+            messageContext.setProperty(startTimeProperty, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records the time elapsed since the start of a phase of the given request, if the request is sampled and the
+     * start of the phase is marked.
+     *
+     * @param messageContext    message context of the request
+     * @param phase             completed phase
+     * @param startTimeProperty message context property holding the start time of the phase
+     */
+    public void recordSince(MessageContext messageContext, LatencyPhase phase, String startTimeProperty) {
+
+        Object apiUUID = messageContext.getProperty(APIMgtGatewayConstants.LATENCY_STATS_API_UUID);
+        if (apiUUID != null) {
+            Object startTime = messageContext.getProperty(startTimeProperty);
+            if (startTime instanceof Long) {
+                record((String) apiUUID, phase, System.nanoTime() - (Long) startTime);
+            }
+        }
+    }
+
+    /**
+     * Records the latency of a phase of the given request, if the request is sampled.
+     *
+     * @param messageContext message context of the request
+     * @param phase          completed phase
+     * @param latencyNanos   time taken by the phase in nanoseconds
+     */
+    public void record(MessageContext messageContext, LatencyPhase phase, long latencyNanos) {
+
+        Object apiUUID = messageContext.getProperty(APIMgtGatewayConstants.LATENCY_STATS_API_UUID);
+        if (apiUUID != null) {
+            record((String) apiUUID, phase, latencyNanos);
+        }
+    }
+
+    void record(String apiUUID, LatencyPhase phase, long latencyNanos) {
+
+        LatencyHistogram[] histograms = apiHistograms.computeIfAbsent(apiUUID, uuid -> createHistograms());
+        histograms[phase.ordinal()].record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Returns the UUIDs of the APIs having recorded latencies.
+     *
+     * @return list of API UUIDs
+     */
+    public List<String> getAPIUUIDs() {
+
+        return new ArrayList<>(apiHistograms.keySet());
+    }
+
+    /**
+     * Returns a snapshot of the latencies recorded for a phase of an API.
+     *
+     * @param apiUUID UUID of the API
+     * @param phase   request processing phase
+     * @return snapshot of the latency histogram, or null if nothing is recorded for the API
+     */
+    public LatencyHistogram.Snapshot getSnapshot(String apiUUID, LatencyPhase phase) {
+
+        LatencyHistogram[] histograms = apiHistograms.get(apiUUID);
+        return histograms != null ? histograms[phase.ordinal()].getSnapshot() : null;
+    }
+
+    /**
+     * Discards the latencies recorded for an API. Called when the API is undeployed.
+     *
+     * @param apiUUID UUID of the API
+     */
+    public void removeAPI(String apiUUID) {
+
+        if (apiUUID != null) {
+            apiHistograms.remove(apiUUID);
+        }
+    }
+
+    /**
+     * Discards all the recorded latencies.
+     */
+    public void reset() {
+
+        apiHistograms.clear();
+    }
+
+    private static LatencyHistogram[] createHistograms() {
+
+        LatencyHistogram[] histograms = new LatencyHistogram[LatencyPhase.values().length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+/**
+ * JMX view of the request processing latencies recorded by the {@link LatencyStatsCollector}. Latencies are
+ * reported in microseconds and phases are named after the constants of {@link LatencyPhase}.
+ */
+public interface LatencyStatsMBean {
+
+    String[] getAPIUUIDs();
+
+    double getSampleRate();
+
+    void setSampleRate(double sampleRate);
+
+    long getCount(String apiUUID, String phase);
+
+    double getMean(String apiUUID, String phase);
+
+    long getMax(String apiUUID, String phase);
+
+    long getValueAtPercentile(String apiUUID, String phase, double percentile);
+
+    void reset();
+}
@@ -31,6 +31,8 @@ import org.wso2.carbon.apimgt.gateway.APILoggerManager;
 import org.wso2.carbon.apimgt.gateway.EndpointCertificateDeployer;
 import org.wso2.carbon.apimgt.gateway.GoogleAnalyticsConfigDeployer;
 import org.wso2.carbon.apimgt.gateway.InMemoryAPIDeployer;
+import org.wso2.carbon.apimgt.gateway.handlers.throttling.ThrottleConditionEvaluator;
+import org.wso2.carbon.apimgt.gateway.inbound.websocket.WebSocketThrottleEventWindow;
 import org.wso2.carbon.apimgt.gateway.internal.DataHolder;
 import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.APIConstants;
@@ -56,10 +58,13 @@ import org.wso2.carbon.apimgt.impl.notifier.events.SubscriptionPolicyEvent;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.TreeSet;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
@@ -69,13 +74,32 @@ import javax.jms.Topic;
 public class GatewayJMSMessageListener implements MessageListener {
 
     private static final Log log = LogFactory.getLog(GatewayJMSMessageListener.class);
+    private static final Gson gson = new Gson();
+    private static final Map<String, EventType> eventTypes = new HashMap<>();
+    // Events applied in the order of the API they belong to. Other events are applied in the order they were
+    // received, on the lane of the key manager data events.
+    private static final Set<EventType> apiEventTypes = EnumSet.of(EventType.DEPLOY_API_IN_GATEWAY,
+            EventType.REMOVE_API_FROM_GATEWAY, EventType.API_UPDATE, EventType.API_LIFECYCLE_CHANGE);
+    private static final String KEY_MANAGER_DATA_ORDERING_KEY = "KeyManagerData";
+
+    static {
+        for (EventType eventType : EventType.values()) {
+            eventTypes.put(eventType.name(), eventType);
+        }
+    }
     private boolean debugEnabled = log.isDebugEnabled();
     private InMemoryAPIDeployer inMemoryApiDeployer = new InMemoryAPIDeployer();
     private EventHubConfigurationDto eventHubConfigurationDto = ServiceReferenceHolder.getInstance()
             .getAPIManagerConfiguration().getEventHubConfigurationDto();
     private GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties = ServiceReferenceHolder
             .getInstance().getAPIManagerConfiguration().getGatewayArtifactSynchronizerProperties();
-    ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "DeploymentThread"));
+    private static volatile OrderedEventExecutor notificationEventExecutor;
+    private final Map<EventType, NotificationHandler> notificationHandlers = new EnumMap<>(EventType.class);
+
+    public GatewayJMSMessageListener() {
+
+        registerNotificationHandlers();
+    }
 
     public void onMessage(Message message) {
 
@@ -140,191 +164,293 @@ public class GatewayJMSMessageListener implements MessageListener {
 
     private void handleNotificationMessage(String eventType, long timestamp, String encodedEvent) {
 
+        EventType type = eventTypes.get(eventType);
+        NotificationHandler notificationHandler = type != null ? notificationHandlers.get(type) : null;
+        if (notificationHandler == null) {
+            if (debugEnabled) {
+                log.debug("Ignoring event of type " + eventType + " as there is no handler registered for it");
+            }
+            return;
+        }
         byte[] eventDecoded = Base64.decodeBase64(encodedEvent);
-        String eventJson = new String(eventDecoded);
-
-        if (APIConstants.EventType.DEPLOY_API_IN_GATEWAY.name().equals(eventType)
-                || APIConstants.EventType.REMOVE_API_FROM_GATEWAY.name().equals(eventType)) {
-            executor.submit(new Runnable() {
-                @Override
-                public void run() {
-
-                    DeployAPIInGatewayEvent gatewayEvent = new Gson().fromJson(new String(eventDecoded),
-                            DeployAPIInGatewayEvent.class);
-                    String tenantDomain = gatewayEvent.getTenantDomain();
-                    boolean tenantLoaded = ServiceReferenceHolder.getInstance().isTenantLoaded(tenantDomain);
-                    if (!tenantLoaded) {
-                        String syncKey = tenantDomain.concat("__").concat(this.getClass().getName());
-                        synchronized (syncKey.intern()) {
-                            tenantLoaded = ServiceReferenceHolder.getInstance().isTenantLoaded(tenantDomain);
-                            if (!tenantLoaded) {
-                                APIUtil.loadTenantConfigBlockingMode(tenantDomain);
-                            }
-                        }
-                    }
+        notificationHandler.handle(type, timestamp, new String(eventDecoded));
+    }
 
-                    if (tenantLoaded) {
-                        Set<String> systemConfiguredGatewayLabels = new HashSet(gatewayEvent.getGatewayLabels());
-                        systemConfiguredGatewayLabels.retainAll(gatewayArtifactSynchronizerProperties.getGatewayLabels());
-                        if (!systemConfiguredGatewayLabels.isEmpty()) {
-                            ServiceReferenceHolder.getInstance().getKeyManagerDataService().updateDeployedAPIRevision(gatewayEvent);
-                            if (EventType.DEPLOY_API_IN_GATEWAY.name().equals(eventType)) {
-                                boolean tenantFlowStarted = false;
-                                try {
-                                    startTenantFlow(tenantDomain);
-                                    tenantFlowStarted = true;
-                                    inMemoryApiDeployer.deployAPI(gatewayEvent);
-                                } catch (ArtifactSynchronizerException e) {
-                                    log.error("Error in deploying artifacts for " + gatewayEvent.getUuid() +
-                                            "in the Gateway");
-                                } finally {
-                                    if (tenantFlowStarted) {
-                                        endTenantFlow();
-                                    }
-                                }
-                            }
-                            if (APIConstants.EventType.REMOVE_API_FROM_GATEWAY.name().equals(eventType)) {
-                                boolean tenantFlowStarted = false;
-                                try {
-                                    startTenantFlow(tenantDomain);
-                                    tenantFlowStarted = true;
-                                    inMemoryApiDeployer.unDeployAPI(gatewayEvent);
-                                } catch (ArtifactSynchronizerException e) {
-                                    log.error("Error in undeploying artifacts");
-                                } finally {
-                                    if (tenantFlowStarted) {
-                                        endTenantFlow();
-                                    }
-                                }
-                                DataHolder.getInstance().removeAPIFromAllTenantMap(gatewayEvent.getContext(),
-                                        gatewayEvent.getTenantDomain());
-                            }
-                        }
+    private void registerNotificationHandlers() {
 
-                        if (debugEnabled) {
-                            log.debug("Event with ID " + gatewayEvent.getEventId() + " is received and " +
-                                    gatewayEvent.getUuid() + " is successfully deployed/undeployed");
-                        }
-                    }
+        notificationHandlers.put(EventType.DEPLOY_API_IN_GATEWAY, this::handleDeploymentEvent);
+        notificationHandlers.put(EventType.REMOVE_API_FROM_GATEWAY, this::handleDeploymentEvent);
+        NotificationHandler applicationUpdateHandler = (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addOrUpdateApplication(gson.fromJson(eventJson, ApplicationEvent.class));
+        notificationHandlers.put(EventType.APPLICATION_CREATE, applicationUpdateHandler);
+        notificationHandlers.put(EventType.APPLICATION_UPDATE, applicationUpdateHandler);
+        NotificationHandler subscriptionUpdateHandler = (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addOrUpdateSubscription(gson.fromJson(eventJson, SubscriptionEvent.class));
+        notificationHandlers.put(EventType.SUBSCRIPTIONS_CREATE, subscriptionUpdateHandler);
+        notificationHandlers.put(EventType.SUBSCRIPTIONS_UPDATE, subscriptionUpdateHandler);
+        notificationHandlers.put(EventType.API_UPDATE, this::handleAPIEvent);
+        notificationHandlers.put(EventType.API_LIFECYCLE_CHANGE, this::handleAPIEvent);
+        notificationHandlers.put(EventType.APPLICATION_REGISTRATION_CREATE, (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateApplicationKeyMapping(
+                        gson.fromJson(eventJson, ApplicationRegistrationEvent.class)));
+        notificationHandlers.put(EventType.SUBSCRIPTIONS_DELETE, (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeSubscription(gson.fromJson(eventJson, SubscriptionEvent.class)));
+        notificationHandlers.put(EventType.APPLICATION_DELETE, (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeApplication(gson.fromJson(eventJson, ApplicationEvent.class)));
+        notificationHandlers.put(EventType.REMOVE_APPLICATION_KEYMAPPING, (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeApplicationKeyMapping(gson.fromJson(eventJson, ApplicationRegistrationEvent.class)));
+        NotificationHandler scopeUpdateHandler = (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addScope(gson.fromJson(eventJson, ScopeEvent.class));
+        notificationHandlers.put(EventType.SCOPE_CREATE, scopeUpdateHandler);
+        notificationHandlers.put(EventType.SCOPE_UPDATE, scopeUpdateHandler);
+        notificationHandlers.put(EventType.SCOPE_DELETE, (eventType, timestamp, eventJson) ->
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .deleteScope(gson.fromJson(eventJson, ScopeEvent.class)));
+        notificationHandlers.put(EventType.POLICY_CREATE, this::handlePolicyEvent);
+        notificationHandlers.put(EventType.POLICY_UPDATE, this::handlePolicyEvent);
+        notificationHandlers.put(EventType.POLICY_DELETE, this::handlePolicyEvent);
+        notificationHandlers.put(EventType.ENDPOINT_CERTIFICATE_ADD, (eventType, timestamp, eventJson) -> {
+            CertificateEvent certificateEvent = gson.fromJson(eventJson, CertificateEvent.class);
+            try {
+                new EndpointCertificateDeployer(certificateEvent.getTenantDomain())
+                        .deployCertificate(certificateEvent.getAlias());
+            } catch (APIManagementException e) {
+                log.error(e);
+            }
+        });
+        notificationHandlers.put(EventType.ENDPOINT_CERTIFICATE_REMOVE, (eventType, timestamp, eventJson) -> {
+            CertificateEvent certificateEvent = gson.fromJson(eventJson, CertificateEvent.class);
+            boolean tenantFlowStarted = false;
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                        .setTenantDomain(certificateEvent.getTenantDomain(), true);
+                tenantFlowStarted = true;
+                CertificateManagerImpl.getInstance().deleteCertificateFromGateway(certificateEvent.getAlias());
+            } finally {
+                if (tenantFlowStarted) {
+                    PrivilegedCarbonContext.endTenantFlow();
                 }
-            });
-        }
-        if (EventType.APPLICATION_CREATE.toString().equals(eventType)
-                || EventType.APPLICATION_UPDATE.toString().equals(eventType)) {
-            ApplicationEvent event = new Gson().fromJson(eventJson, ApplicationEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateApplication(event);;
-        } else if (EventType.SUBSCRIPTIONS_CREATE.toString().equals(eventType)
-                || EventType.SUBSCRIPTIONS_UPDATE.toString().equals(eventType)) {
-            SubscriptionEvent event = new Gson().fromJson(eventJson, SubscriptionEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateSubscription(event);
-        } else if (EventType.API_UPDATE.toString().equals(eventType)) {
-            APIEvent event = new Gson().fromJson(eventJson, APIEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateAPI(event);
-            DataHolder.getInstance().addAPIMetaData(event);
-        } else if (EventType.API_LIFECYCLE_CHANGE.toString().equals(eventType)) {
-            APIEvent event = new Gson().fromJson(eventJson, APIEvent.class);
-            if (APIStatus.RETIRED.toString().equals(event.getApiStatus())) {
-                ServiceReferenceHolder.getInstance().getKeyManagerDataService().removeAPI(event);
-                DataHolder.getInstance().removeAPIFromAllTenantMap(event.getApiContext(),event.getTenantDomain());
-            } else {
-                ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateAPI(event);
             }
-        } else if (EventType.APPLICATION_REGISTRATION_CREATE.toString().equals(eventType)) {
-            ApplicationRegistrationEvent event = new Gson().fromJson(eventJson, ApplicationRegistrationEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateApplicationKeyMapping(event);
-        } else if (EventType.SUBSCRIPTIONS_DELETE.toString().equals(eventType)) {
-            SubscriptionEvent event = new Gson().fromJson(eventJson, SubscriptionEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().removeSubscription(event);
-        } else if (EventType.APPLICATION_DELETE.toString().equals(eventType)) {
-            ApplicationEvent event = new Gson().fromJson(eventJson, ApplicationEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().removeApplication(event);
-        } else if (EventType.REMOVE_APPLICATION_KEYMAPPING.toString().equals(eventType)) {
-            ApplicationRegistrationEvent event = new Gson().fromJson(eventJson, ApplicationRegistrationEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().removeApplicationKeyMapping(event);
-        } else if (EventType.SCOPE_CREATE.toString().equals(eventType)) {
-            ScopeEvent event = new Gson().fromJson(eventJson,ScopeEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addScope(event);
-        } else if (EventType.SCOPE_UPDATE.toString().equals(eventType)) {
-            ScopeEvent event = new Gson().fromJson(eventJson, ScopeEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addScope(event);
-        } else if (EventType.SCOPE_DELETE.toString().equals(eventType)) {
-            ScopeEvent event = new Gson().fromJson(eventJson, ScopeEvent.class);
-            ServiceReferenceHolder.getInstance().getKeyManagerDataService().deleteScope(event);
-        } else if (EventType.POLICY_CREATE.toString().equals(eventType) ||
-            EventType.POLICY_DELETE.toString().equals(eventType) ||
-            EventType.POLICY_UPDATE.toString().equals(eventType)) {
-            PolicyEvent event = new Gson().fromJson(eventJson, PolicyEvent.class);
-            boolean updatePolicy = false;
-            boolean deletePolicy = false;
-            if (EventType.POLICY_CREATE.toString().equals(eventType)
-                    || EventType.POLICY_UPDATE.toString().equals(eventType)) {
-                updatePolicy = true;
-            } else if (EventType.POLICY_DELETE.toString().equals(eventType)) {
-                deletePolicy = true;
+        });
+        notificationHandlers.put(EventType.GA_CONFIG_UPDATE, (eventType, timestamp, eventJson) -> {
+            GoogleAnalyticsConfigEvent googleAnalyticsConfigEvent =
+                    gson.fromJson(eventJson, GoogleAnalyticsConfigEvent.class);
+            try {
+                new GoogleAnalyticsConfigDeployer(googleAnalyticsConfigEvent.getTenantDomain()).deploy();
+            } catch (APIManagementException e) {
+                log.error(e);
             }
-            if (event.getPolicyType() == PolicyType.API) {
-                APIPolicyEvent policyEvent = new Gson().fromJson(eventJson, APIPolicyEvent.class);
-                if (updatePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .addOrUpdateAPIPolicy(policyEvent);
-                } else if (deletePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .removeAPIPolicy(policyEvent);
-                }
-            } else if (event.getPolicyType() == PolicyType.SUBSCRIPTION) {
-                SubscriptionPolicyEvent policyEvent = new Gson().fromJson(eventJson, SubscriptionPolicyEvent.class);
-                if (updatePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .addOrUpdateSubscriptionPolicy(policyEvent);
-                } else if (deletePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .removeSubscriptionPolicy(policyEvent);
+        });
+        notificationHandlers.put(EventType.UDATE_API_LOG_LEVEL, (eventType, timestamp, eventJson) -> {
+            APIEvent apiEvent = gson.fromJson(eventJson, APIEvent.class);
+            APILoggerManager.getInstance().updateLoggerMap(apiEvent.getApiContext(), apiEvent.getLogLevel());
+        });
+        for (Map.Entry<EventType, NotificationHandler> entry : notificationHandlers.entrySet()) {
+            if (!apiEventTypes.contains(entry.getKey())) {
+                NotificationHandler handler = entry.getValue();
+                entry.setValue((eventType, timestamp, eventJson) -> getNotificationEventExecutor().submit(
+                        KEY_MANAGER_DATA_ORDERING_KEY, null, timestamp,
+                        () -> handler.handle(eventType, timestamp, eventJson)));
+            }
+        }
+    }
+
+    private void handleAPIEvent(EventType eventType, long timestamp, String eventJson) {
+
+        APIEvent event = gson.fromJson(eventJson, APIEvent.class);
+        getNotificationEventExecutor().submit(String.valueOf(event.getUuid()), null, timestamp,
+                () -> processAPIEvent(eventType, event));
+    }
+
+    private void processAPIEvent(EventType eventType, APIEvent event) {
+
+        DataHolder dataHolder = DataHolder.getInstance();
+        if (EventType.API_LIFECYCLE_CHANGE == eventType && APIStatus.RETIRED.toString().equals(event.getApiStatus())) {
+            ServiceReferenceHolder.getInstance().getKeyManagerDataService().removeAPI(event);
+            synchronized (dataHolder) {
+                dataHolder.removeAPIFromAllTenantMap(event.getApiContext(), event.getTenantDomain());
+            }
+        } else {
+            ServiceReferenceHolder.getInstance().getKeyManagerDataService().addOrUpdateAPI(event);
+            if (EventType.API_UPDATE == eventType) {
+                synchronized (dataHolder) {
+                    dataHolder.addAPIMetaData(event);
                 }
-            } else if (event.getPolicyType() == PolicyType.APPLICATION) {
-                ApplicationPolicyEvent policyEvent = new Gson().fromJson(eventJson, ApplicationPolicyEvent.class);
-                if (updatePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .addOrUpdateApplicationPolicy(policyEvent);
-                } else if (deletePolicy) {
-                    ServiceReferenceHolder.getInstance().getKeyManagerDataService()
-                            .removeApplicationPolicy(policyEvent);
+            }
+        }
+    }
+
+    private void handleDeploymentEvent(EventType eventType, long timestamp, String eventJson) {
+
+        DeployAPIInGatewayEvent gatewayEvent = gson.fromJson(eventJson, DeployAPIInGatewayEvent.class);
+        // A deployment retrieves the latest artifacts of the API, so a pending event is redundant when the next
+        // event of the same API is of the same type and targets the same gateway labels.
+        String coalescingKey = null;
+        if (gatewayEvent.getGatewayLabels() != null) {
+            coalescingKey = eventType.name() + APIConstants.DELEM_COLON
+                    + new TreeSet<>(gatewayEvent.getGatewayLabels());
+        }
+        getNotificationEventExecutor().submit(String.valueOf(gatewayEvent.getUuid()), coalescingKey, timestamp,
+                () -> processDeploymentEvent(eventType, gatewayEvent));
+    }
+
+    private void processDeploymentEvent(EventType eventType, DeployAPIInGatewayEvent gatewayEvent) {
+
+        String tenantDomain = gatewayEvent.getTenantDomain();
+        boolean tenantLoaded = ServiceReferenceHolder.getInstance().isTenantLoaded(tenantDomain);
+        if (!tenantLoaded) {
+            String syncKey = tenantDomain.concat("__").concat(GatewayJMSMessageListener.class.getName());
+            synchronized (syncKey.intern()) {
+                tenantLoaded = ServiceReferenceHolder.getInstance().isTenantLoaded(tenantDomain);
+                if (!tenantLoaded) {
+                    APIUtil.loadTenantConfigBlockingMode(tenantDomain);
                 }
             }
-        } else if (EventType.ENDPOINT_CERTIFICATE_ADD.toString().equals(eventType) ||
-                EventType.ENDPOINT_CERTIFICATE_REMOVE.toString().equals(eventType)) {
-            CertificateEvent certificateEvent = new Gson().fromJson(eventJson, CertificateEvent.class);
-            if (EventType.ENDPOINT_CERTIFICATE_ADD.toString().equals(eventType)) {
-                try {
-                    new EndpointCertificateDeployer(certificateEvent.getTenantDomain())
-                            .deployCertificate(certificateEvent.getAlias());
-                } catch (APIManagementException e) {
-                    log.error(e);
+        }
+
+        if (tenantLoaded) {
+            Set<String> systemConfiguredGatewayLabels = new HashSet(gatewayEvent.getGatewayLabels());
+            systemConfiguredGatewayLabels.retainAll(gatewayArtifactSynchronizerProperties.getGatewayLabels());
+            if (!systemConfiguredGatewayLabels.isEmpty()) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService().updateDeployedAPIRevision(gatewayEvent);
+                if (EventType.DEPLOY_API_IN_GATEWAY == eventType) {
+                    boolean tenantFlowStarted = false;
+                    try {
+                        startTenantFlow(tenantDomain);
+                        tenantFlowStarted = true;
+                        inMemoryApiDeployer.deployAPI(gatewayEvent);
+                    } catch (ArtifactSynchronizerException e) {
+                        log.error("Error in deploying artifacts for " + gatewayEvent.getUuid() +
+                                "in the Gateway");
+                    } finally {
+                        if (tenantFlowStarted) {
+                            endTenantFlow();
+                        }
+                    }
                 }
-            } else if (EventType.ENDPOINT_CERTIFICATE_REMOVE.toString().equals(eventType)) {
-                boolean tenantFlowStarted = false;
-                try {
-                    PrivilegedCarbonContext.startTenantFlow();
-                    PrivilegedCarbonContext.getThreadLocalCarbonContext()
-                            .setTenantDomain(certificateEvent.getTenantDomain(), true);
-                    tenantFlowStarted = true;
-                    CertificateManagerImpl.getInstance().deleteCertificateFromGateway(certificateEvent.getAlias());
-                } finally {
-                    if (tenantFlowStarted) {
-                        PrivilegedCarbonContext.endTenantFlow();
+                if (EventType.REMOVE_API_FROM_GATEWAY == eventType) {
+                    boolean tenantFlowStarted = false;
+                    try {
+                        startTenantFlow(tenantDomain);
+                        tenantFlowStarted = true;
+                        inMemoryApiDeployer.unDeployAPI(gatewayEvent);
+                    } catch (ArtifactSynchronizerException e) {
+                        log.error("Error in undeploying artifacts");
+                    } finally {
+                        if (tenantFlowStarted) {
+                            endTenantFlow();
+                        }
+                    }
+                    DataHolder dataHolder = DataHolder.getInstance();
+                    synchronized (dataHolder) {
+                        dataHolder.removeAPIFromAllTenantMap(gatewayEvent.getContext(),
+                                gatewayEvent.getTenantDomain());
                     }
                 }
             }
-        } else if (EventType.GA_CONFIG_UPDATE.toString().equals(eventType)) {
-            GoogleAnalyticsConfigEvent googleAnalyticsConfigEvent =
-                    new Gson().fromJson(eventJson, GoogleAnalyticsConfigEvent.class);
-            try {
-                new GoogleAnalyticsConfigDeployer(googleAnalyticsConfigEvent.getTenantDomain()).deploy();
-            } catch (APIManagementException e) {
-                log.error(e);
+
+            if (debugEnabled) {
+                log.debug("Event with ID " + gatewayEvent.getEventId() + " is received and " +
+                        gatewayEvent.getUuid() + " is successfully deployed/undeployed");
+            }
+        }
+    }
+
+    private void handlePolicyEvent(EventType eventType, long timestamp, String eventJson) {
+
+        PolicyEvent event = gson.fromJson(eventJson, PolicyEvent.class);
+        boolean updatePolicy = false;
+        boolean deletePolicy = false;
+        if (EventType.POLICY_CREATE == eventType || EventType.POLICY_UPDATE == eventType) {
+            updatePolicy = true;
+        } else if (EventType.POLICY_DELETE == eventType) {
+            deletePolicy = true;
+        }
+        // Condition groups of the changed policy are reloaded along with the resources of the APIs.
+        ThrottleConditionEvaluator.getInstance().clearCompiledConditionGroups();
+        if (event.getPolicyType() == PolicyType.API) {
+            APIPolicyEvent policyEvent = gson.fromJson(eventJson, APIPolicyEvent.class);
+            if (updatePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addOrUpdateAPIPolicy(policyEvent);
+            } else if (deletePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeAPIPolicy(policyEvent);
+            }
+        } else if (event.getPolicyType() == PolicyType.SUBSCRIPTION) {
+            SubscriptionPolicyEvent policyEvent = gson.fromJson(eventJson, SubscriptionPolicyEvent.class);
+            if (updatePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addOrUpdateSubscriptionPolicy(policyEvent);
+            } else if (deletePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeSubscriptionPolicy(policyEvent);
+            }
+        } else if (event.getPolicyType() == PolicyType.APPLICATION) {
+            ApplicationPolicyEvent policyEvent = gson.fromJson(eventJson, ApplicationPolicyEvent.class);
+            if (updatePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .addOrUpdateApplicationPolicy(policyEvent);
+            } else if (deletePolicy) {
+                ServiceReferenceHolder.getInstance().getKeyManagerDataService()
+                        .removeApplicationPolicy(policyEvent);
+            }
+        }
+        WebSocketThrottleEventWindow.onPoliciesChanged();
+    }
+
+    /**
+     * Returns the executor which applies notification events. Events of the same API are applied in the order they
+     * were received, while events of different APIs are spread over the configured number of threads. Artifacts of
+     * different APIs are retrieved in parallel, while the synapse configuration and the data holder are updated one
+     * API at a time. Key manager data events are applied in the order they were received. The executor is shared by
+     * all the listeners of the gateway.
+     *
+     * @return notification event executor
+     */
+    public OrderedEventExecutor getNotificationEventExecutor() {
+
+        OrderedEventExecutor executor = notificationEventExecutor;
+        if (executor == null) {
+            synchronized (GatewayJMSMessageListener.class) {
+                executor = notificationEventExecutor;
+                if (executor == null) {
+                    executor = new OrderedEventExecutor("NotificationEventThread",
+                            gatewayArtifactSynchronizerProperties.getDeploymentEventThreadCount());
+                    notificationEventExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the executor which applies notification events, or null if no event was received yet.
+     *
+     * @return notification event executor
+     */
+    static OrderedEventExecutor getActiveNotificationEventExecutor() {
+
+        return notificationEventExecutor;
+    }
+
+    /**
+     * Stops the threads applying notification events. Events which are still pending are discarded.
+     */
+    public static void shutdownNotificationEventExecutor() {
+
+        synchronized (GatewayJMSMessageListener.class) {
+            if (notificationEventExecutor != null) {
+                notificationEventExecutor.shutdown();
+                notificationEventExecutor = null;
             }
-        } else if (EventType.UDATE_API_LOG_LEVEL.toString().equals(eventType)) {
-            APIEvent apiEvent = new Gson().fromJson(eventJson, APIEvent.class);
-            APILoggerManager.getInstance().updateLoggerMap(apiEvent.getApiContext(), apiEvent.getLogLevel());
         }
     }
 
@@ -389,4 +515,13 @@ public class GatewayJMSMessageListener implements MessageListener {
         ServiceReferenceHolder.getInstance().getSubscriptionsDataService()
                 .removeSubscription(apiKey, topicName, tenantDomain, subscriber);
     }
+
+    /**
+     * Applies a notification event of a given type.
+     */
+    @FunctionalInterface
+    private interface NotificationHandler {
+
+        void handle(EventType eventType, long timestamp, String eventJson);
+    }
 }
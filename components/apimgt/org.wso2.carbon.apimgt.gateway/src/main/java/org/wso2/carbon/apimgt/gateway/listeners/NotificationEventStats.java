@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.listeners;
+
+/**
+ * Implementation of {@link NotificationEventStatsMBean} backed by the {@link OrderedEventExecutor} of the
+ * {@link GatewayJMSMessageListener}. All the values are 0 until the first notification event is received.
+ */
+public class NotificationEventStats implements NotificationEventStatsMBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.apimgt.gateway:type=NotificationEventStats";
+
+    @Override
+    public int getQueueDepth() {
+
+        OrderedEventExecutor executor = GatewayJMSMessageListener.getActiveNotificationEventExecutor();
+        return executor != null ? executor.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long getLastEventLag() {
+
+        OrderedEventExecutor executor = GatewayJMSMessageListener.getActiveNotificationEventExecutor();
+        return executor != null ? executor.getLastEventLag() : 0;
+    }
+
+    @Override
+    public long getProcessedEventCount() {
+
+        OrderedEventExecutor executor = GatewayJMSMessageListener.getActiveNotificationEventExecutor();
+        return executor != null ? executor.getProcessedEventCount() : 0;
+    }
+
+    @Override
+    public long getCoalescedEventCount() {
+
+        OrderedEventExecutor executor = GatewayJMSMessageListener.getActiveNotificationEventExecutor();
+        return executor != null ? executor.getCoalescedEventCount() : 0;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.listeners;
+
+/**
+ * JMX view of the executor applying the notification events received by the gateway. The queue depth is the number
+ * of events waiting to be applied and the event lag is the time in milliseconds between publishing the last applied
+ * event and starting to apply it. Coalesced events are events dropped as a later event of the same API replaced them.
+ */
+public interface NotificationEventStatsMBean {
+
+    int getQueueDepth();
+
+    long getLastEventLag();
+
+    long getProcessedEventCount();
+
+    long getCoalescedEventCount();
+}
@@ -0,0 +1,173 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.listeners;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes events on a fixed set of single threaded lanes. Events are assigned to a lane by their ordering key, so
+ * events of the same entity are processed one at a time in the order they were submitted, while events of different
+ * entities can be processed in parallel.
+ * <p>
+ * An event which is still waiting in its lane is dropped when the next event submitted for the same ordering key has
+ * the same coalescing key, since applying the later event alone leads to the same state.
+ */
+public class OrderedEventExecutor {
+
+    private static final Log log = LogFactory.getLog(OrderedEventExecutor.class);
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int SUPERSEDED = 2;
+
+    private final String name;
+    private final ExecutorService[] lanes;
+    private final Map<String, OrderedEvent> lastSubmittedEvents = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong processedEventCount = new AtomicLong();
+    private final AtomicLong coalescedEventCount = new AtomicLong();
+    private volatile long lastEventLag;
+
+    public OrderedEventExecutor(String name, int laneCount) {
+
+        this.name = name;
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String threadName = lanes.length == 1 ? name : name + "-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Submits an event for processing.
+     *
+     * @param orderingKey    key of the entity the event belongs to
+     * @param coalescingKey  key identifying events with the same effect on the entity, or null if the event must
+     *                       always be processed
+     * @param eventTimestamp time at which the event was published, used to compute the processing lag
+     * @param task           processing logic of the event
+     */
+    public void submit(String orderingKey, String coalescingKey, long eventTimestamp, Runnable task) {
+
+        OrderedEvent event = new OrderedEvent(orderingKey, coalescingKey, eventTimestamp, task);
+        queueDepth.incrementAndGet();
+        OrderedEvent previousEvent = lastSubmittedEvents.put(orderingKey, event);
+        if (previousEvent != null && coalescingKey != null && coalescingKey.equals(previousEvent.coalescingKey)
+                && previousEvent.state.compareAndSet(PENDING, SUPERSEDED)) {
+            coalescedEventCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Event of " + orderingKey + " is superseded by a later event of the same kind");
+            }
+        }
+        lanes[Math.floorMod(orderingKey.hashCode(), lanes.length)].execute(event);
+    }
+
+    /**
+     * Returns the number of events submitted but not processed yet.
+     *
+     * @return number of pending events
+     */
+    public int getQueueDepth() {
+
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the time in milliseconds between the publishing and the start of processing of the last processed
+     * event.
+     *
+     * @return lag of the last processed event
+     */
+    public long getLastEventLag() {
+
+        return lastEventLag;
+    }
+
+    public long getProcessedEventCount() {
+
+        return processedEventCount.get();
+    }
+
+    public long getCoalescedEventCount() {
+
+        return coalescedEventCount.get();
+    }
+
+    /**
+     * Stops the lanes. Events which have not started yet are discarded.
+     */
+    public void shutdown() {
+
+        for (ExecutorService lane : lanes) {
+            queueDepth.addAndGet(-lane.shutdownNow().size());
+        }
+        lastSubmittedEvents.clear();
+    }
+
+    private class OrderedEvent implements Runnable {
+
+        private final String orderingKey;
+        private final String coalescingKey;
+        private final long eventTimestamp;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        OrderedEvent(String orderingKey, String coalescingKey, long eventTimestamp, Runnable task) {
+
+            this.orderingKey = orderingKey;
+            this.coalescingKey = coalescingKey;
+            this.eventTimestamp = eventTimestamp;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+                if (!state.compareAndSet(PENDING, RUNNING)) {
+                    return;
+                }
+                lastEventLag = System.currentTimeMillis() - eventTimestamp;
+                if (log.isDebugEnabled()) {
+                    log.debug("Processing event of " + orderingKey + " in " + name + " with a lag of "
+                            + lastEventLag + " ms. Pending events: " + (queueDepth.get() - 1));
+                }
+                task.run();
+                processedEventCount.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.error("Error while processing event of " + orderingKey + " in " + name, e);
+            } finally {
+                lastSubmittedEvents.remove(orderingKey, this);
+                queueDepth.decrementAndGet();
+            }
+        }
+    }
+}
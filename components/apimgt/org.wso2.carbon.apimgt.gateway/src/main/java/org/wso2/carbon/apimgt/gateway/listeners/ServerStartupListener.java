@@ -24,10 +24,12 @@ import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.gateway.service.APIThrottleDataServiceImpl;
 import org.wso2.carbon.apimgt.impl.caching.CacheInvalidationServiceImpl;
 import org.wso2.carbon.apimgt.gateway.service.RevokedTokenDataImpl;
+import org.wso2.carbon.apimgt.gateway.throttling.LocalThrottleController;
 import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
 import org.wso2.carbon.apimgt.gateway.throttling.publisher.ThrottleDataPublisher;
 import org.wso2.carbon.apimgt.gateway.webhooks.SubscriptionsDataServiceImpl;
 import org.wso2.carbon.apimgt.impl.caching.CacheInvalidationService;
+import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.webhooks.SubscriptionsDataService;
 import org.wso2.carbon.core.ServerStartupObserver;
 
@@ -52,6 +54,25 @@ public class ServerStartupListener implements ServerStartupObserver {
         ServiceReferenceHolder.getInstance().setCacheInvalidationService(cacheInvalidationService);
         ServiceReferenceHolder.getInstance().setAPIThrottleDataService(throttleDataServiceImpl);
         ServiceReferenceHolder.getInstance().setThrottleDataHolder(throttleDataHolder);
+        ThrottleProperties throttleProperties = ServiceReferenceHolder.getInstance().getThrottleProperties();
+        if (throttleProperties != null && throttleProperties.getLocalThrottling() != null
+                && throttleProperties.getLocalThrottling().isEnabled()) {
+            long reconcileInterval = throttleProperties.getLocalThrottling().getReconcileInterval();
+            if (reconcileInterval <= 0) {
+                log.warn("Invalid local throttling reconcile interval " + reconcileInterval + ". Using the default "
+                        + "interval of " + ThrottleProperties.LocalThrottling.DEFAULT_RECONCILE_INTERVAL + " ms");
+                reconcileInterval = ThrottleProperties.LocalThrottling.DEFAULT_RECONCILE_INTERVAL;
+            }
+            int gatewayCount = throttleProperties.getLocalThrottling().getGatewayCount();
+            if (gatewayCount <= 0) {
+                log.warn("Invalid local throttling gateway count " + gatewayCount + ". Using a single gateway");
+                gatewayCount = 1;
+            }
+            LocalThrottleController localThrottleController = new LocalThrottleController(gatewayCount);
+            localThrottleController.startReconciliation(throttleDataHolder, reconcileInterval);
+            ServiceReferenceHolder.getInstance().setLocalThrottleController(localThrottleController);
+            log.info("Local throttling enabled with a share of 1/" + gatewayCount + " of the policy limits");
+        }
         ServiceReferenceHolder.getInstance().setRevokedTokenService(new RevokedTokenDataImpl());
         SubscriptionsDataService subscriptionsDataService = new SubscriptionsDataServiceImpl();
         ServiceReferenceHolder.getInstance().setSubscriptionsDataService(subscriptionsDataService);
@@ -31,6 +31,7 @@ import org.wso2.carbon.apimgt.gateway.mediators.oauth.conf.OAuthEndpoint;
 import org.wso2.carbon.apimgt.gateway.utils.redis.RedisCacheUtils;
 
 import java.io.IOException;
+import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -40,6 +41,7 @@ import java.util.concurrent.CountDownLatch;
 public class OAuthTokenGenerator {
 
     private static final Log log = LogFactory.getLog(OAuthTokenGenerator.class);
+    private static final long MAX_REFRESH_AHEAD_TIME_IN_SECONDS = 60;
 
     /**
      * Method to check for and refresh expired/generate new access tokens
@@ -53,31 +55,22 @@ public class OAuthTokenGenerator {
             throws APISecurityException {
 
         try {
-            TokenResponse tokenResponse = null;
-            if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
-                Object previousResponseObject =
-                        new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
-                                .getObject(oAuthEndpoint.getId(), TokenResponse.class);
-                if (previousResponseObject != null) {
-                    tokenResponse = (TokenResponse) previousResponseObject;
-                }
-            } else {
-                tokenResponse = TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId());
-            }
+            TokenResponse tokenResponse = getCachedToken(oAuthEndpoint);
             if (tokenResponse != null) {
-                long validTill = tokenResponse.getValidTill();
-                long currentTimeInSeconds = System.currentTimeMillis() / 1000;
-                long timeDifference = validTill - currentTimeInSeconds;
+                long timeDifference = getRemainingValidity(tokenResponse);
 
                 if (timeDifference <= 1) {
-                    if (tokenResponse.getRefreshToken() != null) {
-                        tokenResponse = addTokenToCache(oAuthEndpoint, tokenResponse.getRefreshToken());
-                    } else {
-                        tokenResponse = addTokenToCache(oAuthEndpoint, null);
-                    }
+                    tokenResponse = requestToken(oAuthEndpoint, tokenResponse);
+                } else if (!ServiceReferenceHolder.getInstance().isRedisEnabled()
+                        && isRefreshAheadDue(tokenResponse, timeDifference)) {
+                    // Serve the current token and replace it before it expires, so that requests do not have to wait
+                    // for the token endpoint. Tokens shared through Redis are renewed on expiry only.
+                    TokenResponse currentTokenResponse = tokenResponse;
+                    TokenCache.getInstance().refreshTokenInBackground(oAuthEndpoint.getId(),
+                            () -> addTokenToCache(oAuthEndpoint, currentTokenResponse.getRefreshToken()));
                 }
             } else {
-                tokenResponse = addTokenToCache(oAuthEndpoint, null);
+                tokenResponse = requestToken(oAuthEndpoint, null);
             }
             return tokenResponse;
         } catch (IOException e) {
@@ -99,6 +92,65 @@ public class OAuthTokenGenerator {
         }
     }
 
+    /**
+     * Method to request a new access token in place of an expired or missing one. Concurrent requests for the same
+     * endpoint share a single call to the token endpoint.
+     *
+     * @param oAuthEndpoint OAuthEndpoint object for token endpoint properties
+     * @param expiredToken  Expired token response if exists
+     * @return TokenResponse object
+     */
+    private static TokenResponse requestToken(OAuthEndpoint oAuthEndpoint, TokenResponse expiredToken)
+            throws IOException, APIManagementException, ParseException {
+
+        return TokenCache.getInstance().requestToken(oAuthEndpoint.getId(), () -> {
+            // The token may have been renewed by a request which completed while this one was waiting to start.
+            TokenResponse cachedToken = getCachedToken(oAuthEndpoint);
+            if (cachedToken != null && getRemainingValidity(cachedToken) > 1 && (expiredToken == null
+                    || !Objects.equals(cachedToken.getAccessToken(), expiredToken.getAccessToken()))) {
+                return cachedToken;
+            }
+            return addTokenToCache(oAuthEndpoint, expiredToken != null ? expiredToken.getRefreshToken() : null);
+        });
+    }
+
+    private static TokenResponse getCachedToken(OAuthEndpoint oAuthEndpoint) {
+
+        if (ServiceReferenceHolder.getInstance().isRedisEnabled()) {
+            Object previousResponseObject =
+                    new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
+                            .getObject(oAuthEndpoint.getId(), TokenResponse.class);
+            if (previousResponseObject != null) {
+                return (TokenResponse) previousResponseObject;
+            }
+            return null;
+        }
+        return TokenCache.getInstance().getTokenMap().get(oAuthEndpoint.getId());
+    }
+
+    private static long getRemainingValidity(TokenResponse tokenResponse) {
+
+        return tokenResponse.getValidTill() - System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * Checks whether the token is close enough to its expiry to be refreshed in the background. A token is refreshed
+     * ahead once the last tenth of its lifetime, capped at {@link #MAX_REFRESH_AHEAD_TIME_IN_SECONDS}, starts.
+     */
+    private static boolean isRefreshAheadDue(TokenResponse tokenResponse, long remainingValidity) {
+
+        if (tokenResponse.getExpiresIn() == null) {
+            return false;
+        }
+        try {
+            long refreshAheadTime = Math.min(Long.parseLong(tokenResponse.getExpiresIn()) / 10,
+                    MAX_REFRESH_AHEAD_TIME_IN_SECONDS);
+            return remainingValidity <= refreshAheadTime;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Method to request for access token and add the generated token into
      * in-memory cache or redis cache
@@ -123,7 +175,7 @@ public class OAuthTokenGenerator {
                 new RedisCacheUtils(ServiceReferenceHolder.getInstance().getRedisPool())
                         .addObject(oAuthEndpoint.getId(), tokenResponse);
             } else {
-                TokenCache.getInstance().getTokenMap().put(oAuthEndpoint.getId(), tokenResponse);
+                TokenCache.getInstance().putToken(oAuthEndpoint.getId(), tokenResponse);
             }
         }
         return tokenResponse;
@@ -18,18 +18,43 @@
 
 package org.wso2.carbon.apimgt.gateway.mediators.oauth;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.simple.parser.ParseException;
+import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+import org.wso2.carbon.apimgt.impl.utils.SingleFlight;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Token Cache Singleton Implementation
+ * <p>
+ * Token requests to the same endpoint are coalesced, so that when a token expires only one of the concurrent requests
+ * calls the token endpoint while the others wait for its result.
  */
 public class TokenCache {
+    private static final Log log = LogFactory.getLog(TokenCache.class);
     private static final TokenCache instance = new TokenCache();
+    private static final int MAX_CACHED_TOKENS = 10000;
 
-    private final Map<String, TokenResponse> tokenMap = new HashMap<>();
+    private final Map<String, TokenResponse> tokenMap = new ConcurrentHashMap<>();
+    // Endpoints in the order their tokens were last put, guarded by itself
+    private final Set<String> tokenOrder = new LinkedHashSet<>();
+    private final SingleFlight<String, TokenResponse> tokenRequests = new SingleFlight<>();
+    private final Set<String> scheduledRefreshes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tokenRequestTime = new AtomicLong();
+    private final AtomicLong backgroundRefreshCount = new AtomicLong();
+    private volatile ExecutorService refreshExecutor;
 
     /**
      * Private Constructor
@@ -39,7 +64,7 @@ public class TokenCache {
 
     /**
      * Get TokenCache Instance
-     * @return
+     * @return token cache
      */
     public static TokenCache getInstance() {
         return instance;
@@ -47,9 +72,156 @@ public class TokenCache {
 
     /**
      * Get token map
-     * @return
+     * @return tokens keyed by the id of their OAuth endpoint
      */
     public Map<String, TokenResponse> getTokenMap() {
         return tokenMap;
     }
+
+    /**
+     * Adds a token to the cache. When the cache is full, the token which was put the earliest is evicted, which is
+     * the token expiring the earliest as long as the endpoints issue tokens of the same lifetime.
+     *
+     * @param endpointId    id of the OAuth endpoint
+     * @param tokenResponse token to be cached
+     */
+    public void putToken(String endpointId, TokenResponse tokenResponse) {
+        synchronized (tokenOrder) {
+            tokenOrder.remove(endpointId);
+            tokenOrder.add(endpointId);
+            tokenMap.put(endpointId, tokenResponse);
+            // The order may still hold endpoints removed from the token map directly, which are skipped
+            Iterator<String> iterator = tokenOrder.iterator();
+            while (tokenMap.size() > MAX_CACHED_TOKENS && iterator.hasNext()) {
+                String eldestEndpointId = iterator.next();
+                iterator.remove();
+                tokenMap.remove(eldestEndpointId);
+            }
+        }
+    }
+
+    /**
+     * Requests a token for the given endpoint. If a request for the same endpoint is already in progress, waits for
+     * and returns its result instead of calling the token endpoint again.
+     *
+     * @param endpointId    id of the OAuth endpoint
+     * @param tokenProvider retrieves the token from the token endpoint
+     * @return token response
+     * @throws IOException            In the event of errors with HttpClient connections
+     * @throws APIManagementException In the event of errors when accessing the token endpoint url
+     * @throws ParseException         In the event of errors when parsing the token endpoint response
+     */
+    public TokenResponse requestToken(String endpointId, TokenProvider tokenProvider)
+            throws IOException, APIManagementException, ParseException {
+        try {
+            return tokenRequests.execute(endpointId, () -> {
+                long startTime = System.currentTimeMillis();
+                try {
+                    return tokenProvider.getToken();
+                } finally {
+                    tokenRequestTime.addAndGet(System.currentTimeMillis() - startTime);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new APIManagementException("Interrupted while waiting for the OAuth token of endpoint "
+                    + endpointId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof APIManagementException) {
+                throw (APIManagementException) cause;
+            } else if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new APIManagementException("Error while retrieving the OAuth token of endpoint " + endpointId,
+                    cause);
+        }
+    }
+
+    /**
+     * Requests a new token for the given endpoint in the background, unless a request for the endpoint is already in
+     * progress.
+     *
+     * @param endpointId    id of the OAuth endpoint
+     * @param tokenProvider retrieves the token from the token endpoint
+     */
+    public void refreshTokenInBackground(String endpointId, TokenProvider tokenProvider) {
+        if (tokenRequests.isInFlight(endpointId) || !scheduledRefreshes.add(endpointId)) {
+            return;
+        }
+        backgroundRefreshCount.incrementAndGet();
+        getRefreshExecutor().execute(() -> {
+            try {
+                requestToken(endpointId, tokenProvider);
+            } catch (IOException | APIManagementException | ParseException | RuntimeException e) {
+                log.error("Error while refreshing OAuth token of endpoint " + endpointId + " in the background", e);
+            } finally {
+                scheduledRefreshes.remove(endpointId);
+            }
+        });
+    }
+
+    private ExecutorService getRefreshExecutor() {
+        ExecutorService executor = refreshExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = refreshExecutor;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "OAuthTokenRefreshThread");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    refreshExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Get number of requests made to token endpoints
+     * @return number of token endpoint calls
+     */
+    public long getTokenRequestCount() {
+        return tokenRequests.getCallCount();
+    }
+
+    /**
+     * Get average time taken by the requests made to token endpoints in milliseconds
+     * @return average token endpoint call time in milliseconds
+     */
+    public long getAverageTokenRequestTime() {
+        long requestCount = tokenRequests.getCallCount();
+        return requestCount > 0 ? tokenRequestTime.get() / requestCount : 0;
+    }
+
+    /**
+     * Get number of token requests served by waiting for a concurrent request to the same endpoint
+     * @return number of coalesced token requests
+     */
+    public long getCoalescedRequestCount() {
+        return tokenRequests.getCoalescedCallCount();
+    }
+
+    /**
+     * Get number of tokens refreshed in the background before they expire
+     * @return number of background token refreshes
+     */
+    public long getBackgroundRefreshCount() {
+        return backgroundRefreshCount.get();
+    }
+
+    /**
+     * Retrieves a token from a token endpoint.
+     */
+    @FunctionalInterface
+    public interface TokenProvider {
+
+        TokenResponse getToken() throws IOException, APIManagementException, ParseException;
+    }
 }
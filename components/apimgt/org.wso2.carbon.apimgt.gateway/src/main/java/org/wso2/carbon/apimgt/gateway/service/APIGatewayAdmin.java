@@ -28,6 +28,7 @@ import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.gateway.CredentialDto;
 import org.wso2.carbon.apimgt.api.gateway.GatewayAPIDTO;
 import org.wso2.carbon.apimgt.api.gateway.GatewayContentDTO;
+import org.wso2.carbon.apimgt.gateway.handlers.security.OpenAPIValidatorCache;
 import org.wso2.carbon.apimgt.gateway.utils.EndpointAdminServiceProxy;
 import org.wso2.carbon.apimgt.gateway.utils.GatewayUtils;
 import org.wso2.carbon.apimgt.gateway.utils.LocalEntryServiceProxy;
@@ -779,6 +780,7 @@ public class APIGatewayAdmin extends org.wso2.carbon.core.AbstractAdmin {
                              MediationSecurityAdminServiceProxy mediationSecurityAdminServiceProxy) throws AxisFault {
 
         CertificateManager certificateManager = CertificateManagerImpl.getInstance();
+        OpenAPIValidatorCache.getInstance().invalidate(gatewayAPIDTO.getApiId());
         if (log.isDebugEnabled()) {
             log.debug("Start to undeploy default api " + gatewayAPIDTO.getName() + ":" + gatewayAPIDTO.getVersion());
         }
@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.wso2.carbon.apimgt.gateway.dto.IPRange;
+import org.wso2.carbon.apimgt.gateway.throttling.util.IPAddress;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable lookup structure built from the IP blocking conditions of a tenant. Fixed IPs are kept in hash sets,
+ * non inverted ranges are merged into sorted disjoint intervals searched with a binary search, and inverted ranges
+ * are reduced to their intersection, so a request IP is checked against any number of conditions by parsing it
+ * once and doing a logarithmic lookup.
+ * <p>
+ * A range condition blocks the addresses strictly between its starting and ending IPs, and an inverted condition
+ * blocks every address its non inverted form does not.
+ */
+public final class IPBlockingConditionIndex {
+
+    private final Set<String> blockedIps = new HashSet<>();
+    private final Set<String> invertedBlockedIps = new HashSet<>();
+    private final IPAddress[] rangeStarts;
+    private final IPAddress[] rangeEnds;
+    private final boolean invertedRangesPresent;
+    private final IPAddress invertedRangesStart;
+    private final IPAddress invertedRangesEnd;
+
+    public IPBlockingConditionIndex(Collection<IPRange> ipRanges) {
+
+        List<IPAddress[]> ranges = new ArrayList<>();
+        boolean invertedRangesFound = false;
+        IPAddress invertedStart = IPAddress.ZERO;
+        IPAddress invertedEnd = null;
+        boolean invertedRangesDisjoint = false;
+        for (IPRange ipRange : ipRanges) {
+            if (APIConstants.BLOCKING_CONDITIONS_IP.equals(ipRange.getType())) {
+                if (ipRange.isInvert()) {
+                    invertedBlockedIps.add(ipRange.getFixedIp());
+                } else {
+                    blockedIps.add(ipRange.getFixedIp());
+                }
+            } else if (APIConstants.BLOCK_CONDITION_IP_RANGE.equals(ipRange.getType())
+                    && ipRange.getStartingIpBigIntValue() != null && ipRange.getEndingIpBigIntValue() != null) {
+                // Range conditions exclude their boundaries, so the stored intervals are closed ones starting right
+                // after the starting IP and ending right before the ending IP.
+                IPAddress first = IPAddress.valueOf(ipRange.getStartingIpBigIntValue()).next();
+                IPAddress last = IPAddress.valueOf(ipRange.getEndingIpBigIntValue()).previous();
+                boolean empty = first == null || last == null || first.compareTo(last) > 0;
+                if (ipRange.isInvert()) {
+                    invertedRangesFound = true;
+                    if (empty) {
+                        invertedRangesDisjoint = true;
+                    } else {
+                        invertedStart = invertedStart.compareTo(first) > 0 ? invertedStart : first;
+                        invertedEnd = invertedEnd != null && invertedEnd.compareTo(last) < 0 ? invertedEnd : last;
+                    }
+                } else if (!empty) {
+                    ranges.add(new IPAddress[]{first, last});
+                }
+            }
+        }
+        this.invertedRangesPresent = invertedRangesFound;
+        if (invertedRangesDisjoint || invertedEnd == null || invertedStart.compareTo(invertedEnd) > 0) {
+            this.invertedRangesStart = null;
+            this.invertedRangesEnd = null;
+        } else {
+            this.invertedRangesStart = invertedStart;
+            this.invertedRangesEnd = invertedEnd;
+        }
+
+        ranges.sort((range1, range2) -> range1[0].compareTo(range2[0]));
+        List<IPAddress[]> mergedRanges = new ArrayList<>();
+        for (IPAddress[] range : ranges) {
+            IPAddress[] lastRange = mergedRanges.isEmpty() ? null : mergedRanges.get(mergedRanges.size() - 1);
+            if (lastRange != null && range[0].compareTo(lastRange[1]) <= 0) {
+                if (range[1].compareTo(lastRange[1]) > 0) {
+                    lastRange[1] = range[1];
+                }
+            } else {
+                mergedRanges.add(range);
+            }
+        }
+        this.rangeStarts = new IPAddress[mergedRanges.size()];
+        this.rangeEnds = new IPAddress[mergedRanges.size()];
+        for (int i = 0; i < mergedRanges.size(); i++) {
+            rangeStarts[i] = mergedRanges.get(i)[0];
+            rangeEnds[i] = mergedRanges.get(i)[1];
+        }
+    }
+
+    /**
+     * Checks whether the given IP is blocked by any of the conditions of this index.
+     *
+     * @param ip client IP
+     * @return true if the IP is blocked
+     */
+    public boolean isBlocked(String ip) {
+
+        if (blockedIps.contains(ip)) {
+            return true;
+        }
+        if (!invertedBlockedIps.isEmpty() && (invertedBlockedIps.size() > 1 || !invertedBlockedIps.contains(ip))) {
+            return true;
+        }
+        if (rangeStarts.length == 0 && !invertedRangesPresent) {
+            return false;
+        }
+        IPAddress address = IPAddress.valueOf(ip);
+        if (invertedRangesPresent && (invertedRangesStart == null || address.compareTo(invertedRangesStart) < 0
+                || address.compareTo(invertedRangesEnd) > 0)) {
+            return true;
+        }
+        int index = Arrays.binarySearch(rangeStarts, address);
+        if (index >= 0) {
+            return true;
+        }
+        // the range starting right before the insertion point is the only one that can contain the address
+        int candidate = -index - 2;
+        return candidate >= 0 && address.compareTo(rangeEnds[candidate]) <= 0;
+    }
+
+    /**
+     * Checks whether this index has any conditions.
+     *
+     * @return true if there are no conditions
+     */
+    public boolean isEmpty() {
+
+        return blockedIps.isEmpty() && invertedBlockedIps.isEmpty() && rangeStarts.length == 0
+                && !invertedRangesPresent;
+    }
+}
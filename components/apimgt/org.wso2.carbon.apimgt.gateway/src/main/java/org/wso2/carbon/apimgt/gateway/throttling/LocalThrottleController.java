@@ -0,0 +1,247 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the limits of throttle policies locally in the gateway, before the decision of the traffic manager for a
+ * throttle key is received.
+ * <p>
+ * Each throttle key is given a token bucket holding the share of this gateway of the limit of its policy, so a burst
+ * served by the gateways can not exceed the limit by the requests admitted while the events of the burst are
+ * evaluated by the traffic manager and its decision is propagated back. A gateway receiving more than its share of the
+ * requests of a key borrows the unused shares of the other gateways: on each reconciliation, the bucket of a key the
+ * traffic manager has not throttled is refilled with up to one share, until the borrowed tokens reach the shares of
+ * the other gateways within the time window of the policy. A client whose requests all reach the same gateway is thus
+ * admitted up to the full limit, while the first burst of a window is bounded by the share of each gateway.
+ * <p>
+ * The traffic manager remains the authority on the global count: the buckets are periodically reconciled with the
+ * decisions in the {@link ThrottleDataHolder}, so that a key throttled because of the requests served by the other
+ * gateways is throttled locally until the decision expires, and buckets of keys which are no longer used are dropped.
+ */
+public class LocalThrottleController {
+
+    private static final Log log = LogFactory.getLog(LocalThrottleController.class);
+
+    private final Map<String, LocalBucket> buckets = new ConcurrentHashMap<>();
+    private final int gatewayCount;
+    private ScheduledExecutorService reconciliationExecutor;
+
+    /**
+     * Creates a controller.
+     *
+     * @param gatewayCount number of gateways sharing the limits of the policies
+     */
+    public LocalThrottleController(int gatewayCount) {
+
+        this.gatewayCount = Math.max(1, gatewayCount);
+    }
+
+    /**
+     * Checks whether a request of the given throttle key would exceed the share of this gateway of the limit of its
+     * policy. No token is taken, as the request may still be throttled by another policy.
+     *
+     * @param throttleKey  throttle key of the request
+     * @param requestCount number of requests allowed by the policy per time window, across all the gateways
+     * @param timeWindow   time window of the policy in milliseconds
+     * @param currentTime  current time in milliseconds
+     * @return true if the request is throttled
+     */
+    public boolean isThrottled(String throttleKey, long requestCount, long timeWindow, long currentTime) {
+
+        LocalBucket bucket = buckets.get(throttleKey);
+        return bucket != null && bucket.isOf(requestCount, timeWindow)
+                && !bucket.tokenBucket.hasToken(currentTime);
+    }
+
+    /**
+     * Takes a token of the given throttle key for an admitted request.
+     *
+     * @param throttleKey  throttle key of the request
+     * @param requestCount number of requests allowed by the policy per time window, across all the gateways
+     * @param timeWindow   time window of the policy in milliseconds
+     * @param currentTime  current time in milliseconds
+     * @return true if a token was taken, false if the share of this gateway is used up
+     */
+    public boolean tryAcquire(String throttleKey, long requestCount, long timeWindow, long currentTime) {
+
+        LocalBucket bucket = buckets.get(throttleKey);
+        if (bucket == null || !bucket.isOf(requestCount, timeWindow)) {
+            // New key, or the limit of the policy has been changed
+            LocalBucket newBucket = new LocalBucket(requestCount, timeWindow, gatewayCount);
+            bucket = buckets.compute(throttleKey, (key, existingBucket) ->
+                    existingBucket != null && existingBucket.isOf(requestCount, timeWindow)
+                            ? existingBucket : newBucket);
+        }
+        return bucket.tokenBucket.tryAcquire(currentTime);
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire(String, long, long, long)} for a request which was not admitted.
+     *
+     * @param throttleKey throttle key of the request
+     */
+    public void release(String throttleKey) {
+
+        LocalBucket bucket = buckets.get(throttleKey);
+        if (bucket != null) {
+            bucket.tokenBucket.release();
+        }
+    }
+
+    /**
+     * Returns the time at which the given throttle key is admitted again.
+     *
+     * @param throttleKey throttle key
+     * @param currentTime current time in milliseconds
+     * @return next access time in milliseconds
+     */
+    public long getNextAccessTimestamp(String throttleKey, long currentTime) {
+
+        LocalBucket bucket = buckets.get(throttleKey);
+        return bucket != null ? bucket.tokenBucket.getNextAvailableTime(currentTime) : currentTime;
+    }
+
+    /**
+     * Reconciles the buckets with the decisions of the traffic manager. The bucket of a key throttled by the traffic
+     * manager is emptied until the decision expires, the full buckets of keys without a decision are dropped, and the
+     * other buckets of keys without a decision borrow from the unused shares of the other gateways. Buckets are only
+     * reconciled by one thread at a time.
+     *
+     * @param throttleDataHolder holder of the decisions of the traffic manager
+     * @param currentTime        current time in milliseconds
+     */
+    public void reconcile(ThrottleDataHolder throttleDataHolder, long currentTime) {
+
+        int drainedCount = 0;
+        int droppedCount = 0;
+        long borrowedCount = 0;
+        for (Map.Entry<String, LocalBucket> entry : buckets.entrySet()) {
+            LocalBucket bucket = entry.getValue();
+            long nextAccessTimestamp = throttleDataHolder.getThrottleNextAccessTimestamp(entry.getKey());
+            if (nextAccessTimestamp > currentTime) {
+                bucket.tokenBucket.drainUntil(nextAccessTimestamp);
+                drainedCount++;
+            } else if (bucket.tokenBucket.isFull(currentTime)) {
+                if (buckets.remove(entry.getKey(), bucket)) {
+                    droppedCount++;
+                }
+            } else {
+                borrowedCount += bucket.borrow(currentTime);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Reconciled local throttle buckets. Drained: " + drainedCount + ", dropped: " + droppedCount
+                    + ", borrowed tokens: " + borrowedCount + ", remaining: " + buckets.size());
+        }
+    }
+
+    /**
+     * Starts reconciling the buckets with the decisions of the traffic manager periodically.
+     *
+     * @param throttleDataHolder holder of the decisions of the traffic manager
+     * @param interval           reconciliation interval in milliseconds
+     */
+    public synchronized void startReconciliation(ThrottleDataHolder throttleDataHolder, long interval) {
+
+        if (reconciliationExecutor != null) {
+            return;
+        }
+        reconciliationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LocalThrottleReconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciliationExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile(throttleDataHolder, System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                log.error("Error while reconciling local throttle buckets", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopReconciliation() {
+
+        if (reconciliationExecutor != null) {
+            reconciliationExecutor.shutdownNow();
+            reconciliationExecutor = null;
+        }
+    }
+
+    public int size() {
+
+        return buckets.size();
+    }
+
+    /**
+     * Token bucket of a throttle key holding the share of this gateway of the limit of the policy, together with the
+     * tokens borrowed from the shares of the other gateways in the current time window.
+     */
+    private static final class LocalBucket {
+
+        private final long requestCount;
+        private final long timeWindow;
+        private final TokenBucket tokenBucket;
+        // Only updated on reconciliation
+        private long borrowedTokens;
+        private long borrowWindowStart;
+
+        private LocalBucket(long requestCount, long timeWindow, int gatewayCount) {
+
+            this.requestCount = requestCount;
+            this.timeWindow = timeWindow;
+            this.tokenBucket = new TokenBucket(Math.max(1, requestCount / gatewayCount), timeWindow);
+        }
+
+        private boolean isOf(long requestCount, long timeWindow) {
+
+            return this.requestCount == requestCount && this.timeWindow == timeWindow;
+        }
+
+        /**
+         * Refills the bucket with up to one share from the unused shares of the other gateways.
+         *
+         * @param currentTime current time in milliseconds
+         * @return number of tokens borrowed
+         */
+        private long borrow(long currentTime) {
+
+            if (currentTime - borrowWindowStart >= timeWindow) {
+                borrowWindowStart = currentTime;
+                borrowedTokens = 0;
+            }
+            long share = tokenBucket.getCapacity();
+            long borrowableTokens = Math.min(share, requestCount - share - borrowedTokens);
+            if (borrowableTokens <= 0) {
+                return 0;
+            }
+            long tokens = tokenBucket.refill(borrowableTokens, currentTime);
+            borrowedTokens += tokens;
+            return tokens;
+        }
+    }
+}
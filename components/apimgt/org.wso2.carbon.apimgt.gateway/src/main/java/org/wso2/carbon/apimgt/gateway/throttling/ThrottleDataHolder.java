@@ -25,11 +25,15 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.apimgt.gateway.dto.IPRange;
+import org.wso2.carbon.apimgt.gateway.handlers.throttling.CompiledConditionDto;
+import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
+import org.wso2.carbon.apimgt.impl.dto.ThrottleProperties;
 import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 
-import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -50,19 +54,24 @@ public class ThrottleDataHolder {
     private Map<String, String> blockedApplicationConditionsMap = new ConcurrentHashMap<String, String>();
     private Map<String, String> blockedUserConditionsMap = new ConcurrentHashMap<String, String>();
     private Map<String, Set<IPRange>> blockedIpConditionsMap = new ConcurrentHashMap<>();
+    private Map<String, IPBlockingConditionIndex> blockedIpConditionIndexMap = new ConcurrentHashMap<>();
     private Map<String, String> keyTemplateMap = new ConcurrentHashMap<String, String>();
     private boolean isBlockingConditionsPresent = true;
     private boolean isKeyTemplatesPresent = false;
-    private Map<String, Long> throttleDataMap = new ConcurrentHashMap<String, Long>();
-    private Map<String,Long> throttledAPIKeysMap = new ConcurrentHashMap<String, Long>();
-    private Map<String, Map<String, List<ConditionDto>>> conditionDtoMap = new ConcurrentHashMap<>();
+    private ThrottleDecisionTable throttleDataMap = new ThrottleDecisionTable(getMaxThrottleDecisions(), null);
+    private Map<String, ThrottledApiConditions> conditionDtoMap = new ConcurrentHashMap<>();
+    // Conditions of a throttled API key are dropped together with its decision once the decision expires
+    private ThrottleDecisionTable throttledAPIKeysMap = new ThrottleDecisionTable(getMaxThrottleDecisions(),
+            this::removeExpiredApiConditions);
     public void addThrottleData(String key, Long value) {
         throttleDataMap.put(key, value);
     }
     private Map<String, String> blockedSubscriptionConditionsMap = new ConcurrentHashMap<String, String>();
 
     public void addThrottleDataFromMap(Map<String, Long> data) {
-        throttleDataMap.putAll(data);
+        for (Map.Entry<String, Long> entry : data.entrySet()) {
+            throttleDataMap.put(entry.getKey(), entry.getValue());
+        }
     }
 
     public void addThrottledAPIKey(String key, Long value){
@@ -71,26 +80,51 @@ public class ThrottleDataHolder {
 
     public void addThrottledApiConditions(String key, String conditionKey, List<ConditionDto> conditionValue) {
 
-        Map<String, List<ConditionDto>> conditionMap;
-        if (conditionDtoMap.containsKey(key)) {
-            conditionMap = conditionDtoMap.get(key);
-        } else {
-            conditionMap = new ConcurrentHashMap<>();
-            conditionDtoMap.put(key, conditionMap);
-        }
-        if (!conditionMap.containsKey(conditionKey)) {
-            conditionMap.put(conditionKey, conditionValue);
-        }
+        conditionDtoMap.compute(key, (throttledKey, conditionMap) -> {
+            if (conditionMap == null) {
+                conditionMap = new ThrottledApiConditions();
+            }
+            conditionMap.computeIfAbsent(conditionKey, name -> CompiledConditionDto.compile(conditionValue));
+            conditionMap.updateTime = System.nanoTime();
+            return conditionMap;
+        });
     }
 
     public void removeThrottledApiConditions(String key, String conditionKey) {
-        if (conditionDtoMap.containsKey(key)) {
-            Map<String, List<ConditionDto>> conditionMap = conditionDtoMap.get(key);
+        conditionDtoMap.computeIfPresent(key, (throttledKey, conditionMap) -> {
             conditionMap.remove(conditionKey);
-            if (conditionMap.isEmpty()) {
-                conditionDtoMap.remove(key);
-            }
-        }
+            return conditionMap.isEmpty() ? null : conditionMap;
+        });
+    }
+
+    private static int getMaxThrottleDecisions() {
+
+        ThrottleProperties throttleProperties = ServiceReferenceHolder.getInstance().getThrottleProperties();
+        return throttleProperties != null ? throttleProperties.getMaxThrottleDecisions()
+                : ThrottleProperties.DEFAULT_MAX_THROTTLE_DECISIONS;
+    }
+
+    ThrottleDecisionTable getThrottleDecisionTable() {
+
+        return throttleDataMap;
+    }
+
+    ThrottleDecisionTable getThrottledAPIKeyDecisionTable() {
+
+        return throttledAPIKeysMap;
+    }
+
+    /**
+     * Removes the conditions of an API key whose decision expired. Conditions are received before the decision they
+     * belong to, so conditions added after the expired decision belong to a newer decision and are kept.
+     *
+     * @param key                  throttled API key
+     * @param decisionCreationTime time at which the expired decision was added, as given by {@link System#nanoTime()}
+     */
+    private void removeExpiredApiConditions(String key, long decisionCreationTime) {
+
+        conditionDtoMap.computeIfPresent(key, (throttledKey, conditionMap) ->
+                conditionMap.updateTime - decisionCreationTime > 0 ? conditionMap : null);
     }
 
     public void addSubscriptionBlockingCondition(String name, String value) {
@@ -112,30 +146,49 @@ public class ThrottleDataHolder {
     }
 
     public boolean isAPIThrottled(String apiKey){
-        boolean isThrottled = this.throttledAPIKeysMap.containsKey(apiKey);
-        if(isThrottled) {
-            long currentTime = System.currentTimeMillis();
-            long timestamp = this.throttledAPIKeysMap.get(apiKey);
-            if(timestamp >= currentTime) {
-                return isThrottled;
-            } else {
-                this.throttledAPIKeysMap.remove(apiKey);
-                this.conditionDtoMap.remove(apiKey);
-                return false;
-            }
-        } else {
-            return isThrottled;
-        }
+        return this.throttledAPIKeysMap.isThrottled(apiKey, System.currentTimeMillis());
     }
 
     public boolean isConditionsAvailable(String key) {
         return conditionDtoMap.containsKey(key);
     }
 
-    public Map<String,List<ConditionDto>> getConditionDtoMap(String key){
+    /**
+     * Returns the conditions of the given throttled key, compiled when they were added.
+     *
+     * @param key throttled resource key
+     * @return compiled conditions by condition name, or null if there are no conditions for the key
+     */
+    public Map<String, List<CompiledConditionDto>> getCompiledConditionMap(String key) {
+
         return conditionDtoMap.get(key);
     }
 
+    /**
+     * Returns the conditions of the given throttled key, as received with the throttle decision.
+     *
+     * @param key throttled resource key
+     * @return copy of the conditions by condition name, or null if there are no conditions for the key
+     * @deprecated use {@link #getCompiledConditionMap(String)}, which neither copies nor recompiles the conditions
+     */
+    @Deprecated
+    public Map<String, List<ConditionDto>> getConditionDtoMap(String key) {
+
+        Map<String, List<CompiledConditionDto>> compiledConditionMap = conditionDtoMap.get(key);
+        if (compiledConditionMap == null) {
+            return null;
+        }
+        Map<String, List<ConditionDto>> conditionMap = new HashMap<>();
+        for (Map.Entry<String, List<CompiledConditionDto>> entry : compiledConditionMap.entrySet()) {
+            List<ConditionDto> conditions = new ArrayList<>(entry.getValue().size());
+            for (CompiledConditionDto compiledCondition : entry.getValue()) {
+                conditions.add(compiledCondition.getConditionDto());
+            }
+            conditionMap.put(entry.getKey(), conditions);
+        }
+        return conditionMap;
+    }
+
     public void removeThrottleData(String key) {
         throttleDataMap.remove(key);
     }
@@ -155,13 +208,32 @@ public class ThrottleDataHolder {
 
     public void addIpBlockingCondition(String tenantDomain, int conditionId, String value, String type) {
 
-        Set<IPRange> ipRanges = blockedIpConditionsMap.get(tenantDomain);
-        if (ipRanges == null){
-            ipRanges = new HashSet<>();
-        }
+        IPRange ipRange = convertValueToIPRange(tenantDomain, conditionId, value, type);
+        blockedIpConditionsMap.compute(tenantDomain, (tenant, ipRanges) -> {
+            if (ipRanges == null) {
+                ipRanges = new HashSet<>();
+            }
+            ipRanges.add(ipRange);
+            updateIpBlockingConditionIndex(tenant, ipRanges);
+            return ipRanges;
+        });
+    }
+
+    /**
+     * Rebuilds the IP blocking condition lookup structure of a tenant. Must be called while holding the tenant's
+     * entry in {@code blockedIpConditionsMap}, so that updates of a tenant are applied in order.
+     *
+     * @param tenantDomain tenant domain
+     * @param ipRanges     current IP blocking conditions of the tenant
+     */
+    private void updateIpBlockingConditionIndex(String tenantDomain, Set<IPRange> ipRanges) {
 
-        ipRanges.add(convertValueToIPRange(tenantDomain, conditionId, value, type));
-        blockedIpConditionsMap.put(tenantDomain, ipRanges);
+        IPBlockingConditionIndex index = new IPBlockingConditionIndex(ipRanges);
+        if (index.isEmpty()) {
+            blockedIpConditionIndexMap.remove(tenantDomain);
+        } else {
+            blockedIpConditionIndexMap.put(tenantDomain, index);
+        }
     }
 
     private IPRange convertValueToIPRange(String tenantDomain, int conditionId, String value, String type) {
@@ -201,8 +273,12 @@ public class ThrottleDataHolder {
     }
 
     public void addIplockingConditionsFromMap(Map<String, Set<IPRange>> data) {
-        if(data.size() > 0) {
-            blockedIpConditionsMap.putAll(data);
+        for (Map.Entry<String, Set<IPRange>> entry : data.entrySet()) {
+            blockedIpConditionsMap.compute(entry.getKey(), (tenant, ipRanges) -> {
+                Set<IPRange> tenantIpRanges = new HashSet<>(entry.getValue());
+                updateIpBlockingConditionIndex(tenant, tenantIpRanges);
+                return tenantIpRanges;
+            });
         }
     }
 
@@ -233,8 +309,7 @@ public class ThrottleDataHolder {
 
     public void removeIpBlockingCondition(String tenantDomain, int conditionId) {
 
-        Set<IPRange> ipRanges = blockedIpConditionsMap.get(tenantDomain);
-        if (ipRanges != null) {
+        blockedIpConditionsMap.computeIfPresent(tenantDomain, (tenant, ipRanges) -> {
             Iterator<IPRange> iterator = ipRanges.iterator();
             while (iterator.hasNext()) {
                 IPRange ipRange = iterator.next();
@@ -243,7 +318,9 @@ public class ThrottleDataHolder {
                     break;
                 }
             }
-        }
+            updateIpBlockingConditionIndex(tenant, ipRanges);
+            return ipRanges;
+        });
     }
 
     public void addKeyTemplate(String key, String value) {
@@ -282,38 +359,14 @@ public class ThrottleDataHolder {
 
     private boolean isIpLevelBlocked(String apiTenantDomain, String ip) {
 
-        Set<IPRange> ipRanges = blockedIpConditionsMap.get(apiTenantDomain);
-        if (ipRanges != null && ipRanges.size() > 0) {
-            log.debug("Tenant " + apiTenantDomain + " contains block conditions");
-            for (IPRange ipRange : ipRanges) {
-                if (APIConstants.BLOCKING_CONDITIONS_IP.equals(ipRange.getType())) {
-                    if (ip.equals(ipRange.getFixedIp())) {
-                        if (!ipRange.isInvert()) {
-                            log.debug("Block IP selected for Blocked");
-                            return true;
-                        }
-                    } else {
-                        if (ipRange.isInvert()) {
-                            log.debug("Block IP selected for Blocked");
-                            return true;
-                        }
-                    }
-                } else if (APIConstants.BLOCK_CONDITION_IP_RANGE.equals(ipRange.getType())) {
-                    BigInteger ipBigIntegerValue = APIUtil.ipToBigInteger(ip);
-
-                    if (((ipBigIntegerValue.compareTo(ipRange.getStartingIpBigIntValue()) > 0) &&
-                            (ipBigIntegerValue.compareTo(ipRange.getEndingIpBigIntValue()) < 0))) {
-                        if (!ipRange.isInvert()) {
-                            log.debug("Block IPRange selected for Blocked");
-                            return true;
-                        }
-                    } else {
-                        if (ipRange.isInvert()) {
-                            log.debug("Block IPRange selected for Blocked");
-                            return true;
-                        }
-                    }
-                }
+        IPBlockingConditionIndex index = blockedIpConditionIndexMap.get(apiTenantDomain);
+        if (index != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Tenant " + apiTenantDomain + " contains block conditions");
+            }
+            if (index.isBlocked(ip)) {
+                log.debug("Block IP selected for Blocked");
+                return true;
             }
         }
         return false;
@@ -329,29 +382,17 @@ public class ThrottleDataHolder {
      * false if key is not there in throttle map(that means its not throttled).
      */
     public boolean isThrottled(String key) {
-        boolean isThrottled = this.throttleDataMap.containsKey(key);
-        if(isThrottled) {
-            long currentTime = System.currentTimeMillis();
-            long timestamp = this.throttleDataMap.get(key);
-            if(timestamp >= currentTime) {
-                return isThrottled;
-            } else {
-                this.throttleDataMap.remove(key);
-                return false;
-            }
-        } else {
-            return isThrottled;
-        }
+        return this.throttleDataMap.isThrottled(key, System.currentTimeMillis());
     }
 
     /**
      * This method used to get the next access timestamp of a given key
      *
      * @param key String unique key of throttle event.
-     * @return throttle next access timestamp
+     * @return throttle next access timestamp, or 0 if the key is not throttled
      */
     public long getThrottleNextAccessTimestamp(String key) {
-        return this.throttleDataMap.get(key);
+        return this.throttleDataMap.getExpiryTime(key);
     }
 
     public boolean isBlockingConditionsPresent() {
@@ -365,4 +406,13 @@ public class ThrottleDataHolder {
     public void setKeyTemplatesPresent(boolean keyTemplatesPresent) {
         isKeyTemplatesPresent = keyTemplatesPresent;
     }
+
+    /**
+     * Compiled conditions of a throttled API key by condition name, with the time at which a condition was last
+     * added.
+     */
+    private static final class ThrottledApiConditions extends ConcurrentHashMap<String, List<CompiledConditionDto>> {
+
+        private volatile long updateTime;
+    }
 }
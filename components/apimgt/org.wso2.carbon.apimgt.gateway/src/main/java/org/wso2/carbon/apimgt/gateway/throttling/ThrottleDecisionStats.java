@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+
+/**
+ * Implementation of {@link ThrottleDecisionStatsMBean} backed by the {@link ThrottleDataHolder} of the gateway. All
+ * the values are 0 until the throttle data holder is created on server startup.
+ */
+public class ThrottleDecisionStats implements ThrottleDecisionStatsMBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.apimgt.gateway:type=ThrottleDecisionStats";
+
+    @Override
+    public int getMaxDecisions() {
+
+        ThrottleDecisionTable decisionTable = getThrottleDecisionTable();
+        return decisionTable != null ? decisionTable.getMaxDecisions() : 0;
+    }
+
+    @Override
+    public int getThrottleDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getThrottleDecisionTable();
+        return decisionTable != null ? decisionTable.size() : 0;
+    }
+
+    @Override
+    public long getExpiredThrottleDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getThrottleDecisionTable();
+        return decisionTable != null ? decisionTable.getExpiredCount() : 0;
+    }
+
+    @Override
+    public long getEvictedThrottleDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getThrottleDecisionTable();
+        return decisionTable != null ? decisionTable.getEvictedCount() : 0;
+    }
+
+    @Override
+    public int getAPIKeyDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getAPIKeyDecisionTable();
+        return decisionTable != null ? decisionTable.size() : 0;
+    }
+
+    @Override
+    public long getExpiredAPIKeyDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getAPIKeyDecisionTable();
+        return decisionTable != null ? decisionTable.getExpiredCount() : 0;
+    }
+
+    @Override
+    public long getEvictedAPIKeyDecisionCount() {
+
+        ThrottleDecisionTable decisionTable = getAPIKeyDecisionTable();
+        return decisionTable != null ? decisionTable.getEvictedCount() : 0;
+    }
+
+    private static ThrottleDecisionTable getThrottleDecisionTable() {
+
+        ThrottleDataHolder throttleDataHolder = ServiceReferenceHolder.getInstance().getThrottleDataHolder();
+        return throttleDataHolder != null ? throttleDataHolder.getThrottleDecisionTable() : null;
+    }
+
+    private static ThrottleDecisionTable getAPIKeyDecisionTable() {
+
+        ThrottleDataHolder throttleDataHolder = ServiceReferenceHolder.getInstance().getThrottleDataHolder();
+        return throttleDataHolder != null ? throttleDataHolder.getThrottledAPIKeyDecisionTable() : null;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+/**
+ * JMX view of the throttle decision tables of the gateway. Throttle decisions are the decisions of throttle keys and
+ * API key decisions are the decisions of throttled API keys with conditions. Evicted decisions are decisions removed
+ * before their expiry as the table was full.
+ */
+public interface ThrottleDecisionStatsMBean {
+
+    int getMaxDecisions();
+
+    int getThrottleDecisionCount();
+
+    long getExpiredThrottleDecisionCount();
+
+    long getEvictedThrottleDecisionCount();
+
+    int getAPIKeyDecisionCount();
+
+    long getExpiredAPIKeyDecisionCount();
+
+    long getEvictedAPIKeyDecisionCount();
+}
@@ -0,0 +1,339 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table of the throttle decisions received from the traffic manager, mapping each throttled key to the time until
+ * which it is throttled.
+ * <p>
+ * A key is checked with a single lock free lookup. Expired decisions are not removed by the readers, but by a
+ * background sweep over a hashed time wheel in which each decision is placed in the slot of its expiry time, so
+ * decisions of windows that are over are evicted even if their keys are never seen again. The number of decisions is
+ * bounded by the {@code MaxThrottleDecisions} throttling configuration. A decision received while the table is full
+ * is never dropped, a decision of the next slot of the time wheel which holds one is evicted to make room for it
+ * instead. As an evicted decision is no longer enforced, evictions are counted and reported after each sweep. Entries
+ * of the time wheel left behind by replaced or removed decisions are purged once they outnumber the decisions, so the
+ * wheel stays proportional to the table.
+ */
+public final class ThrottleDecisionTable {
+
+    private static final Log log = LogFactory.getLog(ThrottleDecisionTable.class);
+    private static final long TICK_DURATION = 1000L;
+    private static final int WHEEL_SIZE = 512;
+    private static final int MIN_STALE_ENTRIES_TO_PURGE = 1024;
+    private static final ScheduledExecutorService expirySweeper = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "ThrottleDecisionExpirySweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Decision>[] wheel;
+    private final int maxDecisions;
+    private final ExpiryListener expiryListener;
+    private long lastSweptTick;
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private long reportedEvictedCount;
+    // Entries of the time wheel whose decisions were replaced or removed
+    private final AtomicInteger staleEntryCount = new AtomicInteger();
+
+    /**
+     * Creates a decision table which is swept in the background.
+     *
+     * @param maxDecisions   maximum number of decisions held by the table
+     * @param expiryListener listener notified of each decision evicted on expiry or to make room, or null
+     */
+    public ThrottleDecisionTable(int maxDecisions, ExpiryListener expiryListener) {
+
+        this(maxDecisions, expiryListener, System.currentTimeMillis());
+        ExpirySweepTask sweepTask = new ExpirySweepTask(this);
+        sweepTask.future = expirySweeper.scheduleWithFixedDelay(sweepTask, TICK_DURATION, TICK_DURATION,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    ThrottleDecisionTable(int maxDecisions, ExpiryListener expiryListener, long currentTime) {
+
+        this.maxDecisions = maxDecisions;
+        this.expiryListener = expiryListener;
+        this.lastSweptTick = currentTime / TICK_DURATION;
+        wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Adds or replaces the decision of the given key.
+     *
+     * @param key        throttled key
+     * @param expiryTime time until which the key is throttled, in milliseconds
+     */
+    public void put(String key, long expiryTime) {
+
+        if (decisions.size() >= maxDecisions && !decisions.containsKey(key)) {
+            evictNextToExpire();
+        }
+        Decision decision = new Decision(key, expiryTime);
+        if (decisions.put(key, decision) != null) {
+            markStale();
+        }
+        schedule(decision);
+    }
+
+    public void remove(String key) {
+
+        if (decisions.remove(key) != null) {
+            markStale();
+        }
+    }
+
+    /**
+     * Returns whether the given key is throttled at the given time.
+     *
+     * @param key         key to check
+     * @param currentTime current time in milliseconds
+     * @return true if the key has a decision which has not expired
+     */
+    public boolean isThrottled(String key, long currentTime) {
+
+        Decision decision = decisions.get(key);
+        return decision != null && decision.expiryTime >= currentTime;
+    }
+
+    /**
+     * Returns the time until which the given key is throttled.
+     *
+     * @param key throttled key
+     * @return expiry time of the decision of the key, or 0 if there is no decision for the key
+     */
+    public long getExpiryTime(String key) {
+
+        Decision decision = decisions.get(key);
+        return decision != null ? decision.expiryTime : 0;
+    }
+
+    public int size() {
+
+        return decisions.size();
+    }
+
+    public int getMaxDecisions() {
+
+        return maxDecisions;
+    }
+
+    public long getExpiredCount() {
+
+        return expiredCount.get();
+    }
+
+    public long getEvictedCount() {
+
+        return evictedCount.get();
+    }
+
+    int getStaleEntryCount() {
+
+        return staleEntryCount.get();
+    }
+
+    /**
+     * Evicts the decisions which expired in the ticks of the time wheel that are over at the given time.
+     *
+     * @param currentTime current time in milliseconds
+     */
+    synchronized void expire(long currentTime) {
+
+        long lastOverTick = currentTime / TICK_DURATION - 1;
+        if (lastOverTick - lastSweptTick > WHEEL_SIZE) {
+            lastSweptTick = lastOverTick - WHEEL_SIZE;
+        }
+        while (lastSweptTick < lastOverTick) {
+            lastSweptTick++;
+            ConcurrentLinkedQueue<Decision> slot = wheel[(int) Math.floorMod(lastSweptTick, (long) WHEEL_SIZE)];
+            // Only the decisions queued before the sweep started are visited, as decisions which are not expired yet
+            // are queued again in the same slot
+            for (int i = slot.size(); i > 0; i--) {
+                Decision decision = slot.poll();
+                if (decision == null) {
+                    break;
+                }
+                if (decisions.get(decision.key) != decision) {
+                    // Removed or replaced by a newer decision
+                    staleEntryCount.decrementAndGet();
+                    continue;
+                }
+                if (decision.expiryTime < currentTime) {
+                    if (decisions.remove(decision.key, decision)) {
+                        expiredCount.incrementAndGet();
+                        notifyExpiry(decision);
+                    }
+                } else {
+                    schedule(decision);
+                }
+            }
+        }
+        long evicted = evictedCount.get();
+        if (evicted > reportedEvictedCount) {
+            log.warn((evicted - reportedEvictedCount) + " throttle decisions were evicted before their expiry as " +
+                    "the throttle decision table is full with " + maxDecisions + " decisions. Increase " +
+                    APIConstants.AdvancedThrottleConstants.MAX_THROTTLE_DECISIONS + " in the throttling " +
+                    "configuration to enforce all the decisions");
+            reportedEvictedCount = evicted;
+        }
+    }
+
+    /**
+     * Evicts the first decision of the next slot of the time wheel to be swept which holds a decision. Slots are only
+     * polled from their head, so a decision is evicted in constant time. A decision of a later rotation of the wheel
+     * may be evicted before a decision of the current rotation in a later slot.
+     */
+    private synchronized void evictNextToExpire() {
+
+        for (int i = 1; i <= WHEEL_SIZE; i++) {
+            ConcurrentLinkedQueue<Decision> slot = wheel[(int) Math.floorMod(lastSweptTick + i, (long) WHEEL_SIZE)];
+            Decision decision;
+            while ((decision = slot.poll()) != null) {
+                if (decisions.remove(decision.key, decision)) {
+                    evictedCount.incrementAndGet();
+                    notifyExpiry(decision);
+                    return;
+                }
+                // Removed or replaced by a newer decision
+                staleEntryCount.decrementAndGet();
+            }
+        }
+    }
+
+    private void markStale() {
+
+        if (staleEntryCount.incrementAndGet() > Math.max(decisions.size(), MIN_STALE_ENTRIES_TO_PURGE)) {
+            purgeStaleEntries();
+        }
+    }
+
+    /**
+     * Removes the entries of replaced and removed decisions from all the slots of the time wheel.
+     */
+    private synchronized void purgeStaleEntries() {
+
+        if (staleEntryCount.get() <= Math.max(decisions.size(), MIN_STALE_ENTRIES_TO_PURGE)) {
+            // Already purged by another thread
+            return;
+        }
+        for (ConcurrentLinkedQueue<Decision> slot : wheel) {
+            for (Iterator<Decision> iterator = slot.iterator(); iterator.hasNext(); ) {
+                Decision decision = iterator.next();
+                if (decisions.get(decision.key) != decision) {
+                    iterator.remove();
+                    staleEntryCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void notifyExpiry(Decision decision) {
+
+        if (expiryListener != null) {
+            expiryListener.onExpiry(decision.key, decision.creationTime);
+        }
+    }
+
+    private void schedule(Decision decision) {
+
+        wheel[(int) Math.floorMod(decision.expiryTime / TICK_DURATION, (long) WHEEL_SIZE)].add(decision);
+    }
+
+    private static final class Decision {
+
+        private final String key;
+        private final long expiryTime;
+        private final long creationTime = System.nanoTime();
+
+        private Decision(String key, long expiryTime) {
+
+            this.key = key;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /**
+     * Listener of the decisions evicted from a table.
+     */
+    public interface ExpiryListener {
+
+        /**
+         * Called when a decision is evicted, on expiry or to make room for a new decision.
+         *
+         * @param key          key of the evicted decision
+         * @param creationTime time at which the evicted decision was added, as given by {@link System#nanoTime()}
+         */
+        void onExpiry(String key, long creationTime);
+    }
+
+    /**
+     * Periodic sweep of a table, which does not keep the table reachable and stops once the table is collected.
+     */
+    private static final class ExpirySweepTask implements Runnable {
+
+        private final WeakReference<ThrottleDecisionTable> tableReference;
+        private volatile ScheduledFuture<?> future;
+
+        private ExpirySweepTask(ThrottleDecisionTable table) {
+
+            this.tableReference = new WeakReference<>(table);
+        }
+
+        @Override
+        public void run() {
+
+            ThrottleDecisionTable table = tableReference.get();
+            if (table == null) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            try {
+                table.expire(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                log.error("Error while evicting expired throttle decisions", e);
+            }
+        }
+    }
+}
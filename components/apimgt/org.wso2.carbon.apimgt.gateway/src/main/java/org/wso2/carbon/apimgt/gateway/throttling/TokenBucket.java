@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock free token bucket which admits up to a given number of requests per time window, refilled continuously at the
+ * rate of the window.
+ * <p>
+ * The bucket is kept as the theoretical arrival time of the next request (generic cell rate algorithm), so a request
+ * is admitted with a single compare and set of one counter. Times are kept in microseconds so that buckets of high
+ * rates are refilled without rounding their rate to whole milliseconds.
+ */
+final class TokenBucket {
+
+    private final long capacity;
+    private final long timeWindow;
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong();
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity   number of requests admitted per time window
+     * @param timeWindow time window in milliseconds
+     */
+    TokenBucket(long capacity, long timeWindow) {
+
+        this.capacity = capacity;
+        this.timeWindow = timeWindow;
+        this.emissionInterval = Math.max(1, timeWindow * 1000 / capacity);
+        this.burstTolerance = emissionInterval * capacity;
+    }
+
+    /**
+     * Takes a token from the bucket if there is one.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if the request is admitted
+     */
+    boolean tryAcquire(long currentTime) {
+
+        long now = currentTime * 1000;
+        while (true) {
+            long arrivalTime = theoreticalArrivalTime.get();
+            long nextArrivalTime = Math.max(arrivalTime, now) + emissionInterval;
+            if (nextArrivalTime - now > burstTolerance) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns whether a token is available, without taking it.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if a request would be admitted
+     */
+    boolean hasToken(long currentTime) {
+
+        long now = currentTime * 1000;
+        return Math.max(theoreticalArrivalTime.get(), now) + emissionInterval - now <= burstTolerance;
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire(long)} to the bucket. The bucket never holds more than its capacity,
+     * so a token returned after the bucket was refilled is dropped.
+     */
+    void release() {
+
+        theoreticalArrivalTime.addAndGet(-emissionInterval);
+    }
+
+    /**
+     * Adds up to the given number of tokens to the bucket, without exceeding its capacity.
+     *
+     * @param tokens      number of tokens to add
+     * @param currentTime current time in milliseconds
+     * @return number of tokens added
+     */
+    long refill(long tokens, long currentTime) {
+
+        long now = currentTime * 1000;
+        while (true) {
+            long arrivalTime = theoreticalArrivalTime.get();
+            if (arrivalTime <= now) {
+                return 0;
+            }
+            long refilledTokens = Math.min(tokens, (arrivalTime - now) / emissionInterval);
+            if (refilledTokens <= 0) {
+                return 0;
+            }
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, arrivalTime - refilledTokens * emissionInterval)) {
+                return refilledTokens;
+            }
+        }
+    }
+
+    /**
+     * Empties the bucket until the given time, after which it is refilled at the rate of the window. Does nothing if
+     * the bucket is already empty until a later time.
+     *
+     * @param time time until which no request is admitted, in milliseconds
+     */
+    void drainUntil(long time) {
+
+        long arrivalTime = time * 1000 + burstTolerance - emissionInterval;
+        theoreticalArrivalTime.accumulateAndGet(arrivalTime, Math::max);
+    }
+
+    /**
+     * Returns the time at which the next token is available.
+     *
+     * @param currentTime current time in milliseconds
+     * @return time of the next token in milliseconds, which is the current time if a token is available
+     */
+    long getNextAvailableTime(long currentTime) {
+
+        long availableTime = theoreticalArrivalTime.get() + emissionInterval - burstTolerance;
+        return Math.max(currentTime, (availableTime + 999) / 1000);
+    }
+
+    /**
+     * Returns whether the bucket is full, so that dropping it does not change the admitted requests.
+     *
+     * @param currentTime current time in milliseconds
+     * @return true if the bucket is full
+     */
+    boolean isFull(long currentTime) {
+
+        return theoreticalArrivalTime.get() <= currentTime * 1000;
+    }
+
+    long getCapacity() {
+
+        return capacity;
+    }
+
+    long getTimeWindow() {
+
+        return timeWindow;
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.transport.passthru.util.RelayUtils;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
 import org.wso2.carbon.apimgt.common.gateway.util.JWTUtil;
 import org.wso2.carbon.apimgt.gateway.handlers.security.AuthenticationContext;
 import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
@@ -43,6 +44,12 @@ public class DataProcessAndPublishingAgent implements Runnable {
     private static final Log log = LogFactory.getLog(DataProcessAndPublishingAgent.class);
 
     private static String streamID = "org.wso2.throttle.request.stream:1.0.0";
+    // Per thread buffers used to build the properties of the events, since a publishing thread handles one event at a
+    // time and the properties are only needed until they are serialized.
+    private static final ThreadLocal<JSONObject> propertiesMapHolder = ThreadLocal.withInitial(JSONObject::new);
+    private static final ThreadLocal<StringBuilder> propertiesBuilderHolder =
+            ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final int MAX_RETAINED_PROPERTIES_BUILDER_CAPACITY = 16 * 1024;
     private MessageContext messageContext;
     private DataPublisher dataPublisher;
 
@@ -69,6 +76,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
     private AuthenticationContext authenticationContext;
 
     private long messageSizeInBytes;
+    private boolean contentAware;
 
     public DataProcessAndPublishingAgent() {
 
@@ -100,6 +108,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
         this.ipAddress = null;
         this.headersMap = null;
         this.messageSizeInBytes = 0;
+        this.contentAware = false;
         this.customPropertyMap = Collections.emptyMap();
     }
 
@@ -147,7 +156,8 @@ public class DataProcessAndPublishingAgent implements Runnable {
                 .getAxis2MessageContext();
         Map<String, String> transportHeaderMap = (Map<String, String>) axis2MessageContext
                 .getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS);
-        if (transportHeaderMap != null) {
+        // Headers are only published when header conditions are enabled, so they are not copied otherwise
+        if (transportHeaderMap != null && getThrottleProperties().isEnableHeaderConditions()) {
             this.headersMap = new HashMap<>(transportHeaderMap);
         }
 
@@ -165,7 +175,8 @@ public class DataProcessAndPublishingAgent implements Runnable {
             log.debug("Remote IP address : " + ipAddress);
         }
 
-        if (authenticationContext.isContentAwareTierPresent() || isVerbInfoContentAware) {
+        this.contentAware = authenticationContext.isContentAwareTierPresent() || isVerbInfoContentAware;
+        if (contentAware) {
             Object contentLength = null;
             if (transportHeaderMap != null) {
                 contentLength = transportHeaderMap.get(APIThrottleConstants.CONTENT_LENGTH);
@@ -194,14 +205,35 @@ public class DataProcessAndPublishingAgent implements Runnable {
     }
 
     public void run() {
-        JSONObject jsonObMap = new JSONObject();
+        JSONObject jsonObMap = propertiesMapHolder.get();
+        try {
+            populateProperties(jsonObMap);
+            Object[] objects = new Object[]{messageContext.getMessageID(),
+                                            this.applicationLevelThrottleKey, this.applicationLevelTier,
+                                            this.apiLevelThrottleKey, this.apiLevelTier,
+                                            this.subscriptionLevelThrottleKey, this.subscriptionLevelTier,
+                                            this.resourceLevelThrottleKey, this.resourceLevelTier,
+                                            this.authorizedUser, this.apiContext, this.apiVersion,
+                                            this.appTenant, this.apiTenant, this.appId, this.apiName,
+                                            toJSONString(jsonObMap)};
+            org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(streamID,
+                    System.currentTimeMillis(), null, null, objects);
+            dataPublisher.tryPublish(event);
+        } finally {
+            jsonObMap.clear();
+        }
+    }
+
+    private void populateProperties(JSONObject jsonObMap) {
         org.apache.axis2.context.MessageContext axis2MessageContext = ((Axis2MessageContext) messageContext)
                 .getAxis2MessageContext();
 
         if (ipAddress != null && ipAddress.length() > 0) {
-            if (ipAddress.contains(":") && ipAddress.split(":").length == 2) {
+            int portSeparatorIndex = ipAddress.indexOf(':');
+            if (portSeparatorIndex >= 0 && portSeparatorIndex == ipAddress.lastIndexOf(':')
+                    && portSeparatorIndex < ipAddress.length() - 1) {
                 log.warn("Client port will be ignored and only the IP address (IPV4) will concern from " + ipAddress);
-                ipAddress = ipAddress.split(":")[0];
+                ipAddress = ipAddress.substring(0, portSeparatorIndex);
             }
             try {
                 InetAddress address = APIUtil.getAddress(ipAddress);
@@ -220,8 +252,9 @@ public class DataProcessAndPublishingAgent implements Runnable {
             }
         }
 
+        ThrottleProperties throttleProperties = getThrottleProperties();
         //HeaderMap will only be set if the Header Publishing has been enabled.
-        if (getThrottleProperties().isEnableHeaderConditions()) {
+        if (throttleProperties.isEnableHeaderConditions()) {
             if (this.headersMap != null) {
                 jsonObMap.putAll(this.headersMap);
             }
@@ -232,7 +265,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
         }
 
         //Setting query parameters
-        if (getThrottleProperties().isEnableQueryParamConditions()) {
+        if (throttleProperties.isEnableQueryParamConditions()) {
             Map<String, String> queryParams = GatewayUtils.getQueryParams(axis2MessageContext);
             if (queryParams != null) {
                 jsonObMap.putAll(queryParams);
@@ -241,7 +274,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
         }
 
         //Publish jwt claims
-        if (getThrottleProperties().isEnableJwtConditions()) {
+        if (throttleProperties.isEnableJwtConditions()) {
             if (authenticationContext.getCallerToken() != null) {
                 Map<String, String> assertions = JWTUtil.getJWTClaims(authenticationContext.getCallerToken());
                 if (assertions != null) {
@@ -251,15 +284,7 @@ public class DataProcessAndPublishingAgent implements Runnable {
         }
 
         //this parameter will be used to capture message size and pass it to calculation logic
-        
-        ArrayList<VerbInfoDTO> list = (ArrayList<VerbInfoDTO>) messageContext.getProperty(APIConstants.VERB_INFO_DTO);
-        boolean isVerbInfoContentAware = false;
-        if (list != null && !list.isEmpty()) {
-            VerbInfoDTO verbInfoDTO = list.get(0);
-            isVerbInfoContentAware = verbInfoDTO.isContentAware();
-        }
-
-        if (authenticationContext.isContentAwareTierPresent() || isVerbInfoContentAware) {
+        if (contentAware) {
             if (log.isDebugEnabled()) {
                 log.debug("Message size: " + messageSizeInBytes + "B");
             }
@@ -275,17 +300,35 @@ public class DataProcessAndPublishingAgent implements Runnable {
             }
 
         }
+    }
 
-        Object[] objects = new Object[]{messageContext.getMessageID(),
-                                        this.applicationLevelThrottleKey, this.applicationLevelTier,
-                                        this.apiLevelThrottleKey, this.apiLevelTier,
-                                        this.subscriptionLevelThrottleKey, this.subscriptionLevelTier,
-                                        this.resourceLevelThrottleKey, this.resourceLevelTier,
-                                        this.authorizedUser, this.apiContext, this.apiVersion,
-                                        this.appTenant, this.apiTenant, this.appId, this.apiName, jsonObMap.toString()};
-        org.wso2.carbon.databridge.commons.Event event = new org.wso2.carbon.databridge.commons.Event(streamID,
-                                                                                                      System.currentTimeMillis(), null, null, objects);
-        dataPublisher.tryPublish(event);
+    /**
+     * Serializes the given properties in the same format as {@link JSONObject#toJSONString()}, using a buffer of the
+     * publishing thread.
+     */
+    static String toJSONString(Map<?, ?> properties) {
+        StringBuilder builder = propertiesBuilderHolder.get();
+        if (builder.capacity() > MAX_RETAINED_PROPERTIES_BUILDER_CAPACITY) {
+            builder = new StringBuilder(256);
+            propertiesBuilderHolder.set(builder);
+        }
+        builder.setLength(0);
+        builder.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> property : properties.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            builder.append('"').append(JSONValue.escape(String.valueOf(property.getKey()))).append('"').append(':');
+            Object value = property.getValue();
+            if (value instanceof String) {
+                builder.append('"').append(JSONValue.escape((String) value)).append('"');
+            } else {
+                builder.append(JSONValue.toJSONString(value));
+            }
+        }
+        return builder.append('}').toString();
     }
 
     protected void buildMessage(org.apache.axis2.context.MessageContext axis2MessageContext) throws IOException,
@@ -0,0 +1,288 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+
+import java.math.BigInteger;
+import java.net.UnknownHostException;
+
+/**
+ * Immutable numeric value of an IPv4 or IPv6 address, held as two unsigned longs. IPv4 addresses (including IPv4
+ * mapped IPv6 addresses) take the same numeric value as {@link APIUtil#ipToBigInteger(String)} gives them, so
+ * values of this class can be compared with ranges configured as big integers without allocating any
+ * {@link BigInteger} on the request path.
+ */
+public final class IPAddress implements Comparable<IPAddress> {
+
+    private static final Log log = LogFactory.getLog(IPAddress.class);
+    public static final IPAddress ZERO = new IPAddress(0, 0);
+    private static final long IPV4_MAPPED_PREFIX = 0xffffL;
+    private static final int IPV6_GROUP_COUNT = 8;
+
+    private final long high;
+    private final long low;
+
+    private IPAddress(long high, long low) {
+
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Returns the numeric value of the given IP address. IP literals are parsed directly, while anything else is
+     * resolved the same way as {@link APIUtil#ipToBigInteger(String)} does.
+     *
+     * @param ipAddress IP address
+     * @return numeric value of the address, or {@link #ZERO} if it could not be resolved
+     */
+    public static IPAddress valueOf(String ipAddress) {
+
+        IPAddress address = parseLiteral(ipAddress);
+        if (address != null) {
+            return address;
+        }
+        try {
+            byte[] bytes = APIUtil.getAddress(ipAddress).getAddress();
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (i < bytes.length - 8) {
+                    high = (high << 8) | (bytes[i] & 0xff);
+                } else {
+                    low = (low << 8) | (bytes[i] & 0xff);
+                }
+            }
+            return new IPAddress(high, low);
+        } catch (UnknownHostException e) {
+            //ignore the error and log it
+            log.error("Error while parsing host IP " + ipAddress, e);
+        }
+        return ZERO;
+    }
+
+    /**
+     * Returns the address having the given numeric value.
+     *
+     * @param value numeric value of the address as returned by {@link APIUtil#ipToBigInteger(String)}
+     * @return address with the given value
+     */
+    public static IPAddress valueOf(BigInteger value) {
+
+        return new IPAddress(value.shiftRight(64).longValue(), value.longValue());
+    }
+
+    /**
+     * Returns the address following this address, or null if this is the highest possible address.
+     *
+     * @return next address
+     */
+    public IPAddress next() {
+
+        if (low != -1L) {
+            return new IPAddress(high, low + 1);
+        }
+        return high != -1L ? new IPAddress(high + 1, 0) : null;
+    }
+
+    /**
+     * Returns the address preceding this address, or null if this is the lowest possible address.
+     *
+     * @return previous address
+     */
+    public IPAddress previous() {
+
+        if (low != 0) {
+            return new IPAddress(high, low - 1);
+        }
+        return high != 0 ? new IPAddress(high - 1, -1L) : null;
+    }
+
+    @Override
+    public int compareTo(IPAddress other) {
+
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IPAddress that = (IPAddress) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+
+        return new BigInteger(Long.toUnsignedString(high)).shiftLeft(64)
+                .add(new BigInteger(Long.toUnsignedString(low))).toString();
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal.
+     *
+     * @param ipAddress IP address literal
+     * @return parsed address or null if the given string is not a literal this parser understands
+     */
+    static IPAddress parseLiteral(String ipAddress) {
+
+        if (ipAddress == null || ipAddress.isEmpty()) {
+            return null;
+        }
+        if (ipAddress.indexOf(':') < 0) {
+            long value = parseIPv4(ipAddress, 0, ipAddress.length());
+            return value >= 0 ? new IPAddress(0, value) : null;
+        }
+        return parseIPv6(ipAddress);
+    }
+
+    private static long parseIPv4(String ipAddress, int from, int to) {
+
+        long value = 0;
+        int octetCount = 0;
+        int octet = -1;
+        for (int i = from; i < to; i++) {
+            char c = ipAddress.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octetCount < 3) {
+                value = (value << 8) | octet;
+                octetCount++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octetCount != 3) {
+            return -1;
+        }
+        return (value << 8) | octet;
+    }
+
+    private static IPAddress parseIPv6(String ipAddress) {
+
+        int from = 0;
+        int to = ipAddress.length();
+        if (ipAddress.charAt(0) == '[') {
+            if (ipAddress.charAt(to - 1) != ']') {
+                return null;
+            }
+            from++;
+            to--;
+        }
+        int zoneIndex = ipAddress.indexOf('%', from);
+        if (zoneIndex >= 0 && zoneIndex < to) {
+            to = zoneIndex;
+        }
+        int[] groups = new int[IPV6_GROUP_COUNT];
+        int groupCount = 0;
+        int compressionIndex = -1;
+        int i = from;
+        if (ipAddress.startsWith("::", from)) {
+            compressionIndex = 0;
+            i += 2;
+        }
+        while (i < to) {
+            int groupStart = i;
+            int group = 0;
+            int digit;
+            while (i < to && (digit = hexValue(ipAddress.charAt(i))) >= 0) {
+                group = (group << 4) | digit;
+                if (++i - groupStart > 4) {
+                    return null;
+                }
+            }
+            if (i < to && ipAddress.charAt(i) == '.') {
+                // IPv4 address embedded in the last 32 bits
+                long value = parseIPv4(ipAddress, groupStart, to);
+                if (value < 0 || groupCount > IPV6_GROUP_COUNT - 2) {
+                    return null;
+                }
+                groups[groupCount++] = (int) (value >>> 16);
+                groups[groupCount++] = (int) (value & 0xffff);
+                break;
+            }
+            if (i == groupStart || groupCount == IPV6_GROUP_COUNT) {
+                return null;
+            }
+            groups[groupCount++] = group;
+            if (i == to) {
+                break;
+            }
+            if (ipAddress.charAt(i) != ':' || ++i == to) {
+                return null;
+            }
+            if (ipAddress.charAt(i) == ':') {
+                if (compressionIndex >= 0) {
+                    return null;
+                }
+                compressionIndex = groupCount;
+                i++;
+            }
+        }
+        if (compressionIndex >= 0) {
+            if (groupCount == IPV6_GROUP_COUNT) {
+                return null;
+            }
+            int shift = IPV6_GROUP_COUNT - groupCount;
+            for (int j = groupCount - 1; j >= compressionIndex; j--) {
+                groups[j + shift] = groups[j];
+                groups[j] = 0;
+            }
+        } else if (groupCount != IPV6_GROUP_COUNT) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        for (int j = 0; j < IPV6_GROUP_COUNT / 2; j++) {
+            high = (high << 16) | groups[j];
+            low = (low << 16) | groups[j + IPV6_GROUP_COUNT / 2];
+        }
+        if (high == 0 && (low >>> 32) == IPV4_MAPPED_PREFIX) {
+            // IPv4 mapped addresses resolve to plain IPv4 addresses
+            low &= 0xffffffffL;
+        }
+        return new IPAddress(high, low);
+    }
+
+    private static int hexValue(char c) {
+
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RedisBaseDistributedCountManagerTest {
+
+    private static final long SYNC_INTERVAL = 3600000L;
+
+    // Counters held by the Redis stand-in
+    private Map<String, Long> redisCounters;
+    // Expiry times given to the counters by the sync script
+    private Map<String, Long> redisExpiryTimes;
+    private JedisPool redisPool;
+    private Jedis jedis;
+    private Pipeline pipeline;
+
+    @Before
+    public void setup() {
+
+        redisCounters = new HashMap<>();
+        redisExpiryTimes = new HashMap<>();
+        redisPool = Mockito.mock(JedisPool.class);
+        jedis = Mockito.mock(Jedis.class);
+        pipeline = Mockito.mock(Pipeline.class);
+        Mockito.when(redisPool.getResource()).thenReturn(jedis);
+        Mockito.when(jedis.pipelined()).thenReturn(pipeline);
+        Mockito.when(jedis.incrBy(Mockito.anyString(), Mockito.anyLong())).thenAnswer(invocation ->
+                redisCounters.merge(invocation.getArgument(0), invocation.getArgument(1), Long::sum));
+        Mockito.when(pipeline.eval(Mockito.anyString(), Mockito.anyList(), Mockito.anyList())).thenAnswer(
+                invocation -> {
+                    List<String> keys = invocation.getArgument(1);
+                    List<String> arguments = invocation.getArgument(2);
+                    List<Long> values = new ArrayList<>();
+                    for (int i = 0; i < keys.size(); i++) {
+                        long delta = Long.parseLong(arguments.get(3 * i));
+                        long expiryTime = Long.parseLong(arguments.get(3 * i + 1));
+                        if (expiryTime > 0) {
+                            redisExpiryTimes.putIfAbsent(keys.get(i), expiryTime);
+                        }
+                        if ("1".equals(arguments.get(3 * i + 2))) {
+                            redisCounters.put(keys.get(i), delta);
+                            values.add(delta);
+                        } else if (delta == 0) {
+                            values.add(redisCounters.getOrDefault(keys.get(i), 0L));
+                        } else {
+                            values.add(redisCounters.merge(keys.get(i), delta, Long::sum));
+                        }
+                    }
+                    Response<Object> response = Mockito.mock(Response.class);
+                    Mockito.when(response.get()).thenReturn(values);
+                    return response;
+                });
+    }
+
+    @Test
+    public void testSyncCounter() {
+
+        RedisBaseDistributedCountManager countManager = new RedisBaseDistributedCountManager(redisPool);
+        redisCounters.put("counter", 5L);
+        Assert.assertEquals(7, countManager.addAndGetCounter("counter", 2));
+        Assert.assertEquals(7, countManager.asyncGetAndAddCounter("counter", 1));
+        Assert.assertEquals(Long.valueOf(8), redisCounters.get("counter"));
+    }
+
+    @Test
+    public void testAsyncCounterDoesNotCallRedisOnRequestPath() {
+
+        RedisBaseDistributedCountManager countManager =
+                new RedisBaseDistributedCountManager(redisPool, true, SYNC_INTERVAL);
+        Assert.assertEquals(1, countManager.addAndGetCounter("counter", 1));
+        Assert.assertEquals(1, countManager.asyncGetAndAddCounter("counter", 2));
+        Assert.assertEquals(3, countManager.getCounter("counter"));
+        Mockito.verifyZeroInteractions(redisPool);
+        countManager.shutdown();
+    }
+
+    @Test
+    public void testAsyncCounterSyncMergesIncrementsOfOtherNodes() {
+
+        RedisBaseDistributedCountManager countManager =
+                new RedisBaseDistributedCountManager(redisPool, true, SYNC_INTERVAL);
+        countManager.addAndGetCounter("counter", 3);
+        countManager.getCounter("idleCounter");
+        // Increments made by another gateway node
+        redisCounters.put("counter", 10L);
+        redisCounters.put("idleCounter", 4L);
+        countManager.syncCounters();
+        Assert.assertEquals(Long.valueOf(13), redisCounters.get("counter"));
+        Assert.assertEquals(13, countManager.getCounter("counter"));
+        Assert.assertEquals(4, countManager.getCounter("idleCounter"));
+
+        // Already synced increments are not sent again
+        countManager.syncCounters();
+        Assert.assertEquals(Long.valueOf(13), redisCounters.get("counter"));
+        Assert.assertEquals(13, countManager.getCounter("counter"));
+        countManager.shutdown();
+    }
+
+    @Test
+    public void testAsyncCounterCountsLocallyWhileRedisIsUnavailable() {
+
+        RedisBaseDistributedCountManager countManager =
+                new RedisBaseDistributedCountManager(redisPool, true, SYNC_INTERVAL);
+        countManager.addAndGetCounter("counter", 2);
+        Mockito.doThrow(new JedisException("Connection refused")).when(pipeline).sync();
+        countManager.syncCounters();
+        Assert.assertEquals(3, countManager.addAndGetCounter("counter", 1));
+
+        Mockito.doNothing().when(pipeline).sync();
+        redisCounters.clear();
+        countManager.syncCounters();
+        Assert.assertEquals(Long.valueOf(3), redisCounters.get("counter"));
+        Assert.assertEquals(3, countManager.getCounter("counter"));
+        countManager.shutdown();
+    }
+
+    @Test
+    public void testAsyncCounterReset() {
+
+        RedisBaseDistributedCountManager countManager =
+                new RedisBaseDistributedCountManager(redisPool, true, SYNC_INTERVAL);
+        countManager.addAndGetCounter("counter", 5);
+        Assert.assertEquals(5, countManager.asyncGetAndAlterCounter("counter", 1));
+        Assert.assertEquals(1, countManager.getCounter("counter"));
+        long expiryTime = System.currentTimeMillis() + SYNC_INTERVAL;
+        countManager.setExpiry("counter", expiryTime);
+        Mockito.verifyZeroInteractions(redisPool);
+
+        // Increments of the previous window made by another gateway node are overwritten by the reset
+        redisCounters.put("counter", 8L);
+        countManager.syncCounters();
+        Assert.assertEquals(Long.valueOf(1), redisCounters.get("counter"));
+        Assert.assertEquals(Long.valueOf(expiryTime), redisExpiryTimes.get("counter"));
+        Assert.assertEquals(1, countManager.getCounter("counter"));
+        Mockito.verify(pipeline).pexpireAt("counter", expiryTime);
+
+        countManager.removeCounter("counter");
+        Assert.assertEquals(0, countManager.getCounter("counter"));
+        countManager.syncCounters();
+        Mockito.verify(pipeline).del("counter");
+        countManager.shutdown();
+    }
+
+    @Test
+    public void testAsyncTimestamp() {
+
+        RedisBaseDistributedCountManager countManager =
+                new RedisBaseDistributedCountManager(redisPool, true, SYNC_INTERVAL);
+        Response<String> timestampResponse = Mockito.mock(Response.class);
+        Mockito.when(timestampResponse.get()).thenReturn("2000");
+        Mockito.when(pipeline.get("timestamp")).thenReturn(timestampResponse);
+        // A timestamp is read from Redis on first use and served locally afterwards
+        Mockito.when(jedis.get("timestamp")).thenReturn("1500");
+        Assert.assertEquals(1500L, countManager.getTimestamp("timestamp"));
+        Assert.assertEquals(1500L, countManager.getTimestamp("timestamp"));
+        Mockito.verify(jedis, Mockito.times(1)).get("timestamp");
+        countManager.setTimestamp("otherTimestamp", 3000L);
+        Assert.assertEquals(3000L, countManager.getTimestamp("otherTimestamp"));
+        Mockito.verify(jedis, Mockito.never()).get("otherTimestamp");
+
+        countManager.syncCounters();
+        Assert.assertEquals(2000L, countManager.getTimestamp("timestamp"));
+        Mockito.verify(pipeline).set("otherTimestamp", "3000");
+        countManager.shutdown();
+    }
+}
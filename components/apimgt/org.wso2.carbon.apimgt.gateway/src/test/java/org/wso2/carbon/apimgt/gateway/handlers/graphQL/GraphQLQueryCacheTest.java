@@ -0,0 +1,153 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.graphQL;
+
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GraphQLQueryCacheTest {
+
+    private static final String SCHEMA = "type Query { hero: String, droid: String }";
+
+    private GraphQLSchema schema;
+
+    @Before
+    public void setup() {
+
+        TypeDefinitionRegistry registry = new SchemaParser().parse(SCHEMA);
+        schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(registry);
+    }
+
+    @Test
+    public void testCacheHitAndMiss() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(10, Long.MAX_VALUE);
+        Assert.assertNull(queryCache.get("api1", "{hero}", schema));
+        queryCache.put("api1", "{hero}", createCachedQuery(schema, "{hero}"));
+        GraphQLQueryCache.CachedQuery cachedQuery = queryCache.get("api1", "{hero}", schema);
+        Assert.assertNotNull(cachedQuery);
+        Assert.assertEquals("query", cachedQuery.getOperationType());
+        Assert.assertNull(queryCache.get("api2", "{hero}", schema));
+        Assert.assertEquals(1, queryCache.getHitCount());
+        Assert.assertEquals(2, queryCache.getMissCount());
+        Assert.assertEquals(1.0 / 3, queryCache.getHitRatio(), 0.0001);
+    }
+
+    @Test
+    public void testEntryOfReplacedSchemaIsMiss() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(10, Long.MAX_VALUE);
+        queryCache.put("api1", "{hero}", createCachedQuery(schema, "{hero}"));
+        GraphQLSchema redeployedSchema = UnExecutableSchemaGenerator.makeUnExecutableSchema(
+                new SchemaParser().parse(SCHEMA));
+        Assert.assertNull(queryCache.get("api1", "{hero}", redeployedSchema));
+        queryCache.put("api1", "{hero}", createCachedQuery(redeployedSchema, "{hero}"));
+        Assert.assertNotNull(queryCache.get("api1", "{hero}", redeployedSchema));
+        Assert.assertEquals(1, queryCache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueryIsEvicted() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(2, Long.MAX_VALUE);
+        queryCache.put("api1", "{hero}", createCachedQuery(schema, "{hero}"));
+        queryCache.put("api1", "{droid}", createCachedQuery(schema, "{droid}"));
+        Assert.assertNotNull(queryCache.get("api1", "{hero}", schema));
+        queryCache.put("api1", "{hero droid}", createCachedQuery(schema, "{hero droid}"));
+        Assert.assertEquals(2, queryCache.size());
+        Assert.assertNotNull(queryCache.get("api1", "{hero}", schema));
+        Assert.assertNull(queryCache.get("api1", "{droid}", schema));
+    }
+
+    @Test
+    public void testCacheIsBoundedByWeight() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(10, 1100);
+        queryCache.put("api1", "{hero}", createCachedQuery(schema, "{hero}"));
+        queryCache.put("api1", "{droid}", createCachedQuery(schema, "{droid}"));
+        queryCache.put("api1", "{hero droid}", createCachedQuery(schema, "{hero droid}"));
+        Assert.assertEquals(2, queryCache.size());
+        Assert.assertTrue(queryCache.getEstimatedWeight() <= 1100);
+        Assert.assertNull(queryCache.get("api1", "{hero}", schema));
+
+        StringBuilder largeQuery = new StringBuilder("{");
+        for (int i = 0; i < 100; i++) {
+            largeQuery.append("hero ");
+        }
+        largeQuery.append('}');
+        queryCache.put("api1", largeQuery.toString(), createCachedQuery(schema, largeQuery.toString()));
+        Assert.assertEquals(2, queryCache.size());
+    }
+
+    @Test
+    public void testStripedCacheIsBounded() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(256, Long.MAX_VALUE);
+        GraphQLQueryCache.CachedQuery cachedQuery = createCachedQuery(schema, "{hero}");
+        for (int i = 0; i < 1000; i++) {
+            queryCache.put("api" + i, "{hero}", cachedQuery);
+        }
+        Assert.assertTrue(queryCache.size() <= 256);
+        Assert.assertNotNull(queryCache.get("api999", "{hero}", schema));
+        queryCache.invalidate("api999");
+        Assert.assertNull(queryCache.get("api999", "{hero}", schema));
+    }
+
+    @Test
+    public void testQueriesWithCollidingStringHashesAreDistinct() {
+
+        // "Aa" and "BB" have the same String hash code
+        String query = "{heroAa}";
+        String collidingQuery = "{heroBB}";
+        Assert.assertEquals(query.hashCode(), collidingQuery.hashCode());
+        Assert.assertNotEquals(GraphQLQueryCache.hashQuery(query), GraphQLQueryCache.hashQuery(collidingQuery));
+        Assert.assertEquals(GraphQLQueryCache.hashQuery(query), GraphQLQueryCache.hashQuery(new String(query)));
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(10, Long.MAX_VALUE);
+        GraphQLQueryCache.CachedQuery cachedQuery = createCachedQuery(schema, query);
+        queryCache.put("api1", query, cachedQuery);
+        Assert.assertNull(queryCache.get("api1", collidingQuery, schema));
+        Assert.assertSame(cachedQuery, queryCache.get("api1", new String(query), schema));
+    }
+
+    @Test
+    public void testInvalidateApi() {
+
+        GraphQLQueryCache queryCache = new GraphQLQueryCache(10, Long.MAX_VALUE);
+        queryCache.put("api1", "{hero}", createCachedQuery(schema, "{hero}"));
+        queryCache.put("api2", "{hero}", createCachedQuery(schema, "{hero}"));
+        queryCache.invalidate("api1");
+        Assert.assertEquals(1, queryCache.size());
+        Assert.assertNull(queryCache.get("api1", "{hero}", schema));
+        Assert.assertNotNull(queryCache.get("api2", "{hero}", schema));
+    }
+
+    private GraphQLQueryCache.CachedQuery createCachedQuery(GraphQLSchema graphQLSchema, String query) {
+
+        Document document = new Parser().parseDocument(query);
+        return new GraphQLQueryCache.CachedQuery(graphQLSchema, document, null, "query", "hero", false);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.logging;
+
+import org.apache.commons.logging.Log;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class AccessLogWriterTest {
+
+    @Test
+    public void testRenderOutboundApiCall() {
+
+        AccessLogRecord record = new AccessLogRecord();
+        record.outbound = true;
+        record.applicationName = "DefaultApplication";
+        record.endUserName = "admin";
+        record.httpMethod = "GET";
+        record.transactionId = "txn-1";
+        record.requestURI = "/pizzashack/1.0.0/menu";
+        record.requestTime = 1670477868131L;
+        record.clientIP = "10.0.0.1";
+        record.statusCode = 200;
+        record.endpointURL = "https://localhost:9443/pizzashack";
+
+        Assert.assertEquals("Outbound API call from gateway to client:  appName=DefaultApplication , userName=admin"
+                + " , httpMethod=GET , transactionId=txn-1 , requestURI=/pizzashack/1.0.0/menu , requestTime="
+                + new Date(1670477868131L) + " , clientIP=10.0.0.1 , statusCode=200"
+                + " , EndPointURL=https://localhost:9443/pizzashack", record.render());
+    }
+
+    @Test
+    public void testRenderInboundTokenRequest() {
+
+        AccessLogRecord record = new AccessLogRecord();
+        record.loginRequest = true;
+        record.httpMethod = "POST";
+        record.requestURI = "/token/";
+        record.requestTime = 0;
+
+        Assert.assertEquals("Inbound OAuth token request from client to gateway:  , httpMethod=POST"
+                + " , requestURI=/token/ , requestTime=" + new Date(0), record.render());
+    }
+
+    @Test
+    public void testRecordsAreDroppedWhenQueueIsFull() {
+
+        Log log = Mockito.mock(Log.class);
+        AccessLogWriter writer = new AccessLogWriter(log, 1);
+        AccessLogRecord record = new AccessLogRecord();
+        Assert.assertTrue(writer.write(record));
+        Assert.assertFalse(writer.write(new AccessLogRecord()));
+        Assert.assertEquals(1, writer.getDroppedRecordCount());
+
+        writer.writeBatch(Collections.singletonList(record));
+        Mockito.verify(log).debug(record.render());
+        Mockito.verify(log).warn("1 access log records were dropped as the access log queue was full");
+        writer.writeBatch(Collections.singletonList(record));
+        Mockito.verify(log, Mockito.times(1)).warn(Mockito.anyString());
+    }
+
+    @Test
+    public void testRecordsAreWrittenWithCorrelationIdAndThreadNameOfRequest() {
+
+        Log log = Mockito.mock(Log.class);
+        List<String> threadNames = new ArrayList<>();
+        Mockito.doAnswer(invocation -> threadNames.add(Thread.currentThread().getName())).when(log)
+                .debug(Mockito.any());
+        AccessLogWriter writer = new AccessLogWriter(log, 10);
+        AccessLogRecord first = new AccessLogRecord();
+        first.httpMethod = "GET";
+        first.requestTime = 0;
+        first.correlationId = "7a3c5b1e-0f5d-4d8e-9a52-3c1f0d2e4b6a";
+        first.threadName = "PassThroughMessageProcessor-1";
+        AccessLogRecord second = new AccessLogRecord();
+        second.httpMethod = "GET";
+        second.requestTime = 0;
+        String writerThreadName = Thread.currentThread().getName();
+
+        writer.writeBatch(Arrays.asList(first, second));
+        Mockito.verify(log).debug("Inbound API call from client to gateway:  , httpMethod=GET , requestTime="
+                + new Date(0) + " , correlationId=7a3c5b1e-0f5d-4d8e-9a52-3c1f0d2e4b6a"
+                + " , threadName=PassThroughMessageProcessor-1");
+        Mockito.verify(log).debug("Inbound API call from client to gateway:  , httpMethod=GET , requestTime="
+                + new Date(0));
+        // the writer thread is never renamed
+        Assert.assertEquals(Arrays.asList(writerThreadName, writerThreadName), threadNames);
+        Assert.assertEquals(writerThreadName, Thread.currentThread().getName());
+    }
+}
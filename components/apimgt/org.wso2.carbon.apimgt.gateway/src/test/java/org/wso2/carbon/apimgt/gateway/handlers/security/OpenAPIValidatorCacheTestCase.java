@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.security;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Test class for OpenAPIValidatorCache.
+ */
+public class OpenAPIValidatorCacheTestCase {
+
+    private final OpenAPIValidatorCache validatorCache = OpenAPIValidatorCache.getInstance();
+    private final AtomicInteger buildCount = new AtomicInteger();
+    private final Function<OpenAPI, OpenApiInteractionValidator> validatorFactory = openAPI -> {
+        buildCount.incrementAndGet();
+        return Mockito.mock(OpenApiInteractionValidator.class);
+    };
+
+    @Test
+    public void testValidatorIsBuiltOncePerDeployment() {
+
+        OpenAPI openAPI = new OpenAPI();
+        long hits = validatorCache.getHitCount();
+        long misses = validatorCache.getMissCount();
+
+        OpenApiInteractionValidator validator = validatorCache.getValidator("api-1", openAPI, validatorFactory);
+        Assert.assertSame(validator, validatorCache.getValidator("api-1", openAPI, validatorFactory));
+        Assert.assertSame(validator, validatorCache.getValidator("api-1", openAPI, validatorFactory));
+        Assert.assertEquals(1, buildCount.get());
+        Assert.assertEquals(hits + 2, validatorCache.getHitCount());
+        Assert.assertEquals(misses + 1, validatorCache.getMissCount());
+    }
+
+    @Test
+    public void testValidatorIsRebuiltForNewDefinition() {
+
+        OpenApiInteractionValidator validator = validatorCache.getValidator("api-2", new OpenAPI(), validatorFactory);
+        OpenApiInteractionValidator redeployedValidator = validatorCache.getValidator("api-2", new OpenAPI(),
+                validatorFactory);
+        Assert.assertNotSame(validator, redeployedValidator);
+        Assert.assertEquals(2, buildCount.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        OpenAPI openAPI = new OpenAPI();
+        OpenApiInteractionValidator validator = validatorCache.getValidator("api-3", openAPI, validatorFactory);
+        validatorCache.invalidate("api-3");
+        Assert.assertNotSame(validator, validatorCache.getValidator("api-3", openAPI, validatorFactory));
+        Assert.assertEquals(2, buildCount.get());
+        validatorCache.invalidate(null);
+    }
+
+    @Test
+    public void testValidatorIsNotCachedWithoutAPIUUID() {
+
+        OpenAPI openAPI = new OpenAPI();
+        int size = validatorCache.size();
+        validatorCache.getValidator(null, openAPI, validatorFactory);
+        validatorCache.getValidator(null, openAPI, validatorFactory);
+        Assert.assertEquals(2, buildCount.get());
+        Assert.assertEquals(size, validatorCache.size());
+    }
+}
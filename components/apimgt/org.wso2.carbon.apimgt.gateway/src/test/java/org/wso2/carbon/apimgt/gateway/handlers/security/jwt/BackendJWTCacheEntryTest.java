@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class BackendJWTCacheEntryTest {
+
+    private static String createToken(String payload) {
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".c2lnbmF0dXJl";
+    }
+
+    @Test
+    public void testExpiryTimeIsReadFromToken() {
+
+        String token = createToken("{\"sub\":\"admin\",\"exp\":1700000900}");
+        BackendJWTCacheEntry entry = BackendJWTCacheEntry.create(token, 1700000000000L, 0L, 0L);
+        Assert.assertEquals(token, entry.getToken());
+        Assert.assertEquals(1700000900000L, entry.getExpiryTime());
+        Assert.assertEquals(1700000720000L, entry.getRefreshTime());
+        Assert.assertTrue(entry.isValid(1700000899000L, 0L));
+        Assert.assertFalse(entry.isValid(1700000899000L, 5000L));
+        Assert.assertFalse(entry.isValid(1700000900000L, 0L));
+    }
+
+    @Test
+    public void testDefaultExpiryTimeIsUsedWithoutExpClaim() {
+
+        BackendJWTCacheEntry entry = BackendJWTCacheEntry.create(createToken("{\"sub\":\"admin\"}"), 1000L,
+                101000L, 0L);
+        Assert.assertEquals(101000L, entry.getExpiryTime());
+        entry = BackendJWTCacheEntry.create("opaque-token", 1000L, 101000L, 0L);
+        Assert.assertEquals(101000L, entry.getExpiryTime());
+    }
+
+    @Test
+    public void testRefreshIsDueAfterRefreshTime() {
+
+        BackendJWTCacheEntry entry = new BackendJWTCacheEntry("token", 10000L, 8000L);
+        Assert.assertFalse(entry.isRefreshDue(7999L));
+        Assert.assertTrue(entry.isRefreshDue(8000L));
+        Assert.assertTrue(entry.isRefreshDue(8001L));
+    }
+}
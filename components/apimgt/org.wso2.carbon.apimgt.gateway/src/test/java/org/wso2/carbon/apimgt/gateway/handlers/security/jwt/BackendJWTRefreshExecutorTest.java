@@ -0,0 +1,92 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.handlers.security.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BackendJWTRefreshExecutorTest {
+
+    @Test
+    public void testOneRefreshIsInFlightPerKey() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        Assert.assertTrue(BackendJWTRefreshExecutor.refresh("api:1.0.0:token1", () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        }));
+        Assert.assertTrue(BackendJWTRefreshExecutor.isRefreshing("api:1.0.0:token1"));
+        Assert.assertFalse(BackendJWTRefreshExecutor.refresh("api:1.0.0:token1", () -> {
+        }));
+        release.countDown();
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        while (BackendJWTRefreshExecutor.isRefreshing("api:1.0.0:token1")) {
+            Thread.sleep(10);
+        }
+        CountDownLatch refreshedAgain = new CountDownLatch(1);
+        Assert.assertTrue(BackendJWTRefreshExecutor.refresh("api:1.0.0:token1", refreshedAgain::countDown));
+        Assert.assertTrue(refreshedAgain.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRefreshIsScheduledOnceUnderConcurrency() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable refresh = () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        int threads = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger scheduled = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        if (BackendJWTRefreshExecutor.refresh("api:1.0.0:token2", refresh)) {
+                            scheduled.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        release.countDown();
+        Assert.assertEquals(1, scheduled.get());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.handlers.streaming.sse.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class SseEventDelimiterScannerTest {
+
+    private static final String DELIMITER = "\n\n";
+
+    private static SseEventDelimiterScanner newScanner() {
+
+        return new SseEventDelimiterScanner(DELIMITER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer toBuffer(String text) {
+
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testByteOrderMarkIsLeftOutOfDelimiter() {
+
+        Assert.assertArrayEquals(new byte[]{0, '\n', 0, '\n'},
+                SseEventDelimiterScanner.encodeDelimiter(DELIMITER, StandardCharsets.UTF_16));
+        Assert.assertArrayEquals(DELIMITER.getBytes(StandardCharsets.UTF_8),
+                SseEventDelimiterScanner.encodeDelimiter(DELIMITER, StandardCharsets.UTF_8));
+
+        SseEventDelimiterScanner scanner = new SseEventDelimiterScanner(
+                SseEventDelimiterScanner.encodeDelimiter(DELIMITER, StandardCharsets.UTF_16));
+        Assert.assertEquals(2, scanner.scan(ByteBuffer.wrap(
+                "data: one\n\ndata: two\n\n".getBytes(StandardCharsets.UTF_16))));
+    }
+
+    @Test
+    public void testEventsInSingleBuffer() {
+
+        SseEventDelimiterScanner scanner = newScanner();
+        Assert.assertEquals(2, scanner.scan(toBuffer("data: one\n\ndata: two\n\n")));
+        Assert.assertEquals(0, scanner.scan(toBuffer("data: three\n")));
+    }
+
+    @Test
+    public void testDelimiterSplitAcrossBuffers() {
+
+        SseEventDelimiterScanner scanner = newScanner();
+        Assert.assertEquals(0, scanner.scan(toBuffer("data: one\n")));
+        Assert.assertEquals(1, scanner.scan(toBuffer("\ndata: two")));
+        Assert.assertEquals(0, scanner.scan(toBuffer("\n")));
+        Assert.assertEquals(1, scanner.scan(toBuffer("\n")));
+    }
+
+    @Test
+    public void testDelimitersAreNotOverlapping() {
+
+        Assert.assertEquals(1, newScanner().scan(toBuffer("data\n\n\n")));
+        Assert.assertEquals(2, newScanner().scan(toBuffer("data\n\n\n\n")));
+    }
+
+    @Test
+    public void testBufferPositionIsNotChanged() {
+
+        ByteBuffer buffer = toBuffer("id: 1\n\n");
+        buffer.position(2);
+        Assert.assertEquals(1, newScanner().scan(buffer));
+        Assert.assertEquals(2, buffer.position());
+        Assert.assertEquals(7, buffer.limit());
+    }
+
+    @Test
+    public void testMatchesCountOnDecodedStream() {
+
+        Random random = new Random(7);
+        String[] fragments = {"data: ", "\u00e9", "\n", "\n\n", "event: update", "\r\n", "x"};
+        for (int round = 0; round < 200; round++) {
+            StringBuilder stream = new StringBuilder();
+            for (int i = 0; i < 50; i++) {
+                stream.append(fragments[random.nextInt(fragments.length)]);
+            }
+            byte[] bytes = stream.toString().getBytes(StandardCharsets.UTF_8);
+            SseEventDelimiterScanner scanner = newScanner();
+            int count = 0;
+            int offset = 0;
+            while (offset < bytes.length) {
+                int length = Math.min(bytes.length - offset, 1 + random.nextInt(8));
+                count += scanner.scan(ByteBuffer.wrap(bytes, offset, length));
+                offset += length;
+            }
+            Assert.assertEquals(StringUtils.countMatches(stream.toString(), DELIMITER), count);
+        }
+    }
+}
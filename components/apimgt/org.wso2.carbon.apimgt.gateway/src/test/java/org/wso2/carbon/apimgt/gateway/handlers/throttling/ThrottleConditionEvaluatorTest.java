@@ -402,6 +402,76 @@ public class ThrottleConditionEvaluatorTest {
         Assert.assertNull(matchingConditionGroups.get(0));
     }
 
+    @Test
+    public void testApplicabilityOfHeaderConditionWithInvalidPattern() {
+
+        ConditionGroupDTO conditionGroupDTO = new ConditionGroupDTO();
+        conditionGroupDTO.setConditionGroupId("HeaderConditionGroup");
+
+        ConditionDTO invalidCondition = new ConditionDTO();
+        invalidCondition.setConditionType("Header");
+        invalidCondition.setConditionName("host");
+        invalidCondition.setConditionValue("org.wso2.com[");
+
+        ConditionDTO[] conditionDTOS = {invalidCondition};
+        conditionGroupDTO.setConditions(conditionDTOS);
+        ConditionGroupDTO[] conditionGroupDTOS = {conditionGroupDTO};
+
+        MessageContext messageContext = TestUtils.getMessageContext(apiContext, apiVersion);
+        Map map = new TreeMap();
+        map.put("host", "org.wso2.com[");
+        ((Axis2MessageContext) messageContext).getAxis2MessageContext()
+                .setProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS, map);
+        throttleConditionEvaluator.compileConditionGroups(conditionGroupDTOS);
+        List<ConditionGroupDTO> matchingConditionGroups = throttleConditionEvaluator.getApplicableConditions
+                (messageContext, new AuthenticationContext(), conditionGroupDTOS);
+        //A condition which cannot be compiled never matches
+        Assert.assertNull(matchingConditionGroups.get(0));
+    }
+
+    @Test
+    public void testApplicabilityOfConditionGroupAfterClearingCompiledConditionGroups() {
+
+        ConditionGroupDTO conditionGroupDTO = new ConditionGroupDTO();
+        conditionGroupDTO.setConditionGroupId("IPSpecificConditionGroup");
+
+        ConditionDTO condition = new ConditionDTO();
+        condition.setConditionType("IPSpecific");
+        condition.setConditionValue("10.10.0.1");
+
+        ConditionDTO[] conditionDTOS = {condition};
+        conditionGroupDTO.setConditions(conditionDTOS);
+        ConditionGroupDTO[] conditionGroupDTOS = {conditionGroupDTO};
+
+        List<ConditionGroupDTO> matchingConditionGroups = throttleConditionEvaluator.getApplicableConditions(TestUtils
+                .getMessageContext(apiContext, apiVersion), new AuthenticationContext(), conditionGroupDTOS);
+        Assert.assertNull(matchingConditionGroups.get(0));
+
+        condition.setConditionValue("127.0.0.1");
+        throttleConditionEvaluator.clearCompiledConditionGroups();
+        matchingConditionGroups = throttleConditionEvaluator.getApplicableConditions(TestUtils
+                .getMessageContext(apiContext, apiVersion), new AuthenticationContext(), conditionGroupDTOS);
+        Assert.assertEquals(matchingConditionGroups.get(0).getConditionGroupId(), "IPSpecificConditionGroup");
+    }
+
+    @Test
+    public void testGetThrottledInCompiledCondition() {
+
+        MessageContext messageContext = TestUtils.getMessageContext(apiContext, apiVersion);
+        Map map = new TreeMap();
+        map.put("X-Forwarded-For", "127.0.0.1");
+        ((Axis2MessageContext) messageContext).getAxis2MessageContext()
+                .setProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS, map);
+        Map<String, List<CompiledConditionDto>> conditionMap = new HashMap<>();
+        conditionMap.put("condition1", CompiledConditionDto.compile(Arrays.asList(new ConditionDto[]{
+                getIPCondition(false)})));
+        conditionMap.put("default", CompiledConditionDto.compile(Arrays.asList(new ConditionDto[]{
+                getIPCondition(false)})));
+        String condition = throttleConditionEvaluator.getThrottledInCompiledCondition(messageContext, null,
+                conditionMap);
+        Assert.assertEquals(condition, "condition1");
+    }
+
     @Test
     public void testGetThrottledInCondition() {
 
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.inbound.websocket.utils;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.gateway.handlers.throttling.APIThrottleConstants;
+import org.wso2.carbon.apimgt.gateway.inbound.InboundMessageContext;
+import org.wso2.carbon.apimgt.gateway.inbound.websocket.WebSocketThrottleEventWindow;
+import org.wso2.carbon.apimgt.gateway.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.gateway.throttling.ThrottleDataHolder;
+import org.wso2.carbon.apimgt.impl.APIConstants;
+import org.wso2.carbon.apimgt.impl.dto.APIKeyValidationInfoDTO;
+import org.wso2.carbon.apimgt.impl.dto.VerbInfoDTO;
+import org.wso2.carbon.databridge.commons.Event;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WebSocketThrottleEventAggregatorTest {
+
+    private InboundMessageContext inboundMessageContext;
+    private List<Event> publishedEvents;
+    private WebSocketThrottleEventAggregator aggregator;
+
+    @Before
+    public void init() {
+
+        APIKeyValidationInfoDTO apiKeyValidationInfoDTO = new APIKeyValidationInfoDTO();
+        apiKeyValidationInfoDTO.setApplicationTier(APIConstants.UNLIMITED_TIER);
+        apiKeyValidationInfoDTO.setTier(APIConstants.UNLIMITED_TIER);
+        apiKeyValidationInfoDTO.setSubscriberTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        apiKeyValidationInfoDTO.setSubscriber("admin");
+        apiKeyValidationInfoDTO.setApiName("GraphQLAPI");
+        apiKeyValidationInfoDTO.setApplicationId("12");
+        inboundMessageContext = new InboundMessageContext();
+        inboundMessageContext.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        inboundMessageContext.setApiContext("/graphql");
+        inboundMessageContext.setVersion("1.0.0");
+        inboundMessageContext.setUserIP("/198.162.10.2:4567");
+        inboundMessageContext.setInfoDTO(apiKeyValidationInfoDTO);
+        publishedEvents = new ArrayList<>();
+        aggregator = new WebSocketThrottleEventAggregator(publishedEvents::add);
+    }
+
+    @Test
+    public void testThrottleKeysAreComputedOncePerResource() {
+
+        VerbInfoDTO verbInfoDTO = new VerbInfoDTO();
+        verbInfoDTO.setThrottling("Gold");
+        verbInfoDTO.setRequestKey("liftStatusChange");
+        WebSocketThrottleEventWindow window = inboundMessageContext.getThrottleEventWindow(verbInfoDTO);
+        Assert.assertSame(window, inboundMessageContext.getThrottleEventWindow(verbInfoDTO));
+        Assert.assertEquals("liftStatusChange", window.getResourceLevelThrottleKey());
+        Assert.assertEquals("12:/graphql:1.0.0", window.getSubscriptionLevelThrottleKey());
+        Assert.assertEquals("12:admin@carbon.super", window.getApplicationLevelThrottleKey());
+        Assert.assertEquals("198.162.10.2", window.getRemoteIP());
+
+        WebSocketThrottleEventWindow apiLevelWindow = inboundMessageContext.getThrottleEventWindow(null);
+        Assert.assertNotSame(window, apiLevelWindow);
+        Assert.assertEquals("/graphql:1.0.0", apiLevelWindow.getResourceLevelThrottleKey());
+    }
+
+    @Test
+    public void testFramesArePublishedAsOneEventPerWindow() {
+
+        WebSocketThrottleEventWindow window = inboundMessageContext.getThrottleEventWindow(null);
+        Assert.assertTrue(aggregator.add(window, 100));
+        aggregator.add(window, 200);
+        aggregator.add(window, 300);
+        aggregator.publishPendingEvents();
+
+        Assert.assertEquals(1, publishedEvents.size());
+        Object[] payload = publishedEvents.get(0).getPayloadData();
+        Assert.assertEquals("12:admin@carbon.super", payload[1]);
+        Assert.assertEquals("/graphql:1.0.0", payload[3]);
+        JSONObject properties = new JSONObject((String) payload[16]);
+        Assert.assertEquals(3, properties.getLong(APIThrottleConstants.MESSAGE_COUNT));
+        Assert.assertEquals(600, properties.getLong(APIThrottleConstants.MESSAGE_SIZE));
+
+        aggregator.publishPendingEvents();
+        Assert.assertEquals(1, publishedEvents.size());
+
+        aggregator.add(window, 50);
+        aggregator.publishPendingEvents();
+        Assert.assertEquals(2, publishedEvents.size());
+        properties = new JSONObject((String) publishedEvents.get(1).getPayloadData()[16]);
+        Assert.assertEquals(1, properties.getLong(APIThrottleConstants.MESSAGE_COUNT));
+        Assert.assertEquals(50, properties.getLong(APIThrottleConstants.MESSAGE_SIZE));
+    }
+
+    @Test
+    public void testFramesOfCountingPoliciesAreNotAggregated() {
+
+        ThrottleDataHolder throttleDataHolder = Mockito.mock(ThrottleDataHolder.class);
+        Mockito.when(throttleDataHolder.isKeyTemplatesPresent()).thenReturn(true);
+        ServiceReferenceHolder.getInstance().setThrottleDataHolder(throttleDataHolder);
+        try {
+            WebSocketThrottleEventWindow window = inboundMessageContext.getThrottleEventWindow(null);
+            Assert.assertFalse(aggregator.add(window, 100));
+            aggregator.publishPendingEvents();
+            Assert.assertTrue(publishedEvents.isEmpty());
+        } finally {
+            ServiceReferenceHolder.getInstance().setThrottleDataHolder(null);
+        }
+    }
+
+    @Test
+    public void testAggregationIsReevaluatedWhenPoliciesChange() {
+
+        WebSocketThrottleEventWindow window = inboundMessageContext.getThrottleEventWindow(null);
+        Assert.assertTrue(window.isAggregationSupported());
+        ThrottleDataHolder throttleDataHolder = Mockito.mock(ThrottleDataHolder.class);
+        Mockito.when(throttleDataHolder.isKeyTemplatesPresent()).thenReturn(true, false);
+        ServiceReferenceHolder.getInstance().setThrottleDataHolder(throttleDataHolder);
+        try {
+            Assert.assertFalse(window.isAggregationSupported());
+            Assert.assertTrue(window.isAggregationSupported());
+            WebSocketThrottleEventWindow.onPoliciesChanged();
+            Assert.assertTrue(window.isAggregationSupported());
+        } finally {
+            ServiceReferenceHolder.getInstance().setThrottleDataHolder(null);
+        }
+    }
+
+    @Test
+    public void testThrottleKeysAreRecomputedWhenKeyInfoChanges() {
+
+        WebSocketThrottleEventWindow window = inboundMessageContext.getThrottleEventWindow(null);
+        APIKeyValidationInfoDTO apiKeyValidationInfoDTO = new APIKeyValidationInfoDTO();
+        apiKeyValidationInfoDTO.setSubscriberTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+        apiKeyValidationInfoDTO.setSubscriber("user1");
+        apiKeyValidationInfoDTO.setApplicationId("13");
+        inboundMessageContext.setInfoDTO(apiKeyValidationInfoDTO);
+        WebSocketThrottleEventWindow newWindow = inboundMessageContext.getThrottleEventWindow(null);
+        Assert.assertNotSame(window, newWindow);
+        Assert.assertEquals("13:user1@carbon.super", newWindow.getApplicationLevelThrottleKey());
+    }
+}
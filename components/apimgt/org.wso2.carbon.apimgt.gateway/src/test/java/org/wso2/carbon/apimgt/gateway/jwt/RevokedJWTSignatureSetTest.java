@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.jwt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+public class RevokedJWTSignatureSetTest {
+
+    private static final long START_TIME = 1700000000L;
+
+    @Test
+    public void testContains() {
+
+        RevokedJWTSignatureSet revokedSignatures = new RevokedJWTSignatureSet();
+        revokedSignatures.add("signature1", START_TIME + 100);
+        Assert.assertTrue(revokedSignatures.contains("signature1"));
+        Assert.assertFalse(revokedSignatures.contains("signature2"));
+        Assert.assertFalse(revokedSignatures.contains(""));
+        revokedSignatures.add("signature1", START_TIME + 200);
+        Assert.assertEquals(1, revokedSignatures.size());
+    }
+
+    @Test
+    public void testDigestDependsOnEveryCharacter() {
+
+        String signature = "eyJhbGciOiJSUzI1NiJ9";
+        long[] digest = RevokedJWTSignatureSet.digest(signature);
+        for (int i = 0; i < signature.length(); i++) {
+            String modified = signature.substring(0, i) + (char) (signature.charAt(i) + 1) +
+                    signature.substring(i + 1);
+            long[] modifiedDigest = RevokedJWTSignatureSet.digest(modified);
+            Assert.assertFalse(digest[0] == modifiedDigest[0] && digest[1] == modifiedDigest[1]);
+        }
+    }
+
+    @Test
+    public void testRemoveExpired() {
+
+        RevokedJWTSignatureSet revokedSignatures = new RevokedJWTSignatureSet();
+        revokedSignatures.add("signature1", START_TIME + 100);
+        revokedSignatures.add("signature2", START_TIME + 7200);
+        revokedSignatures.add("signature3", START_TIME + 100);
+        // Revoked again with a later expiry time
+        revokedSignatures.add("signature3", START_TIME + 10800);
+
+        Assert.assertEquals(0, revokedSignatures.removeExpired(START_TIME));
+        Assert.assertEquals(1, revokedSignatures.removeExpired(START_TIME + 3700));
+        Assert.assertFalse(revokedSignatures.contains("signature1"));
+        Assert.assertTrue(revokedSignatures.contains("signature2"));
+        Assert.assertTrue(revokedSignatures.contains("signature3"));
+
+        Assert.assertEquals(2, revokedSignatures.removeExpired(START_TIME + 15000));
+        Assert.assertEquals(0, revokedSignatures.size());
+    }
+
+    @Test
+    public void testMatchesMapOfSignatures() {
+
+        RevokedJWTSignatureSet revokedSignatures = new RevokedJWTSignatureSet();
+        Map<String, Long> expectedSignatures = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            String signature = UUID.randomUUID().toString();
+            long expiryTime = START_TIME + random.nextInt(48 * 3600);
+            revokedSignatures.add(signature, expiryTime);
+            expectedSignatures.put(signature, expiryTime);
+        }
+        for (long time = START_TIME; time <= START_TIME + 50 * 3600; time += 5 * 3600) {
+            revokedSignatures.removeExpired(time);
+            long currentTime = time;
+            expectedSignatures.values().removeIf(expiryTime ->
+                    Math.floorDiv(expiryTime, 3600L) < Math.floorDiv(currentTime, 3600L));
+            Assert.assertEquals(expectedSignatures.size(), revokedSignatures.size());
+            for (String signature : expectedSignatures.keySet()) {
+                Assert.assertTrue(revokedSignatures.contains(signature));
+            }
+        }
+        Assert.assertEquals(0, revokedSignatures.size());
+    }
+}
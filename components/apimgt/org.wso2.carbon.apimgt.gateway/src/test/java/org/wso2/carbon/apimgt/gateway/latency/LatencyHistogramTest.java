@@ -0,0 +1,87 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundsCoverRecordedValues() {
+
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 33, 100, 1000, 12345, 1000000, 123456789L};
+        for (long value : values) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            Assert.assertTrue("Upper bound of the bucket is lower than " + value,
+                    LatencyHistogram.getBucketUpperBound(index) >= value);
+            if (index > 0) {
+                Assert.assertTrue("Upper bound of the previous bucket is not lower than " + value,
+                        LatencyHistogram.getBucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+        Assert.assertEquals(1000, snapshot.getCount());
+        Assert.assertEquals(1000, snapshot.getMax());
+        Assert.assertEquals(500.5, snapshot.getMean(), 0.001);
+        assertWithinRelativeError(500, snapshot.getValueAtPercentile(50));
+        assertWithinRelativeError(990, snapshot.getValueAtPercentile(99));
+        Assert.assertEquals(1000, snapshot.getValueAtPercentile(100));
+        Assert.assertEquals(0, new LatencyHistogram().getSnapshot().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    histogram.record(j);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+        Assert.assertEquals(40000, snapshot.getCount());
+        Assert.assertEquals(9999, snapshot.getMax());
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+
+        Assert.assertTrue("Expected " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.latency;
+
+import org.apache.synapse.MessageContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.gateway.APIMgtGatewayConstants;
+
+public class LatencyStatsTest {
+
+    @After
+    public void tearDown() {
+
+        LatencyStatsCollector.getInstance().reset();
+    }
+
+    @Test
+    public void testUnknownPhaseHasNoLatencies() {
+
+        LatencyStatsCollector.getInstance().record("api1", LatencyPhase.BACKEND, 5000);
+        LatencyStats latencyStats = new LatencyStats();
+
+        Assert.assertEquals(1, latencyStats.getCount("api1", "backend"));
+        Assert.assertEquals(0, latencyStats.getCount("api1", "unknown"));
+        Assert.assertEquals(0, latencyStats.getMean("api1", "unknown"), 0);
+        Assert.assertEquals(0, latencyStats.getValueAtPercentile("api1", "unknown", 99), 0);
+    }
+
+    @Test
+    public void testRemovedAPIHasNoLatencies() {
+
+        LatencyStatsCollector collector = LatencyStatsCollector.getInstance();
+        collector.record("api1", LatencyPhase.BACKEND, 5000);
+        collector.removeAPI("api1");
+        collector.removeAPI(null);
+
+        Assert.assertFalse(collector.getAPIUUIDs().contains("api1"));
+        Assert.assertNull(collector.getSnapshot("api1", LatencyPhase.BACKEND));
+    }
+
+    @Test
+    public void testOnlySampledRequestsAreTimed() {
+
+        LatencyStatsCollector collector = LatencyStatsCollector.getInstance();
+        MessageContext notSampled = Mockito.mock(MessageContext.class);
+        collector.markStart(notSampled, APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
+        collector.recordSince(notSampled, LatencyPhase.BACKEND,
+                APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
+        Mockito.verify(notSampled, Mockito.never()).setProperty(Mockito.anyString(), Mockito.any());
+        Mockito.verify(notSampled, Mockito.never())
+                .getProperty(APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
+
+        MessageContext sampled = Mockito.mock(MessageContext.class);
+        Mockito.when(sampled.getProperty(APIMgtGatewayConstants.LATENCY_STATS_API_UUID)).thenReturn("api1");
+        Mockito.when(sampled.getProperty(APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME))
+                .thenReturn(System.nanoTime() - 2000000L);
+        collector.recordSince(sampled, LatencyPhase.BACKEND,
+                APIMgtGatewayConstants.LATENCY_STATS_BACKEND_START_TIME);
+        collector.recordSince(sampled, LatencyPhase.TOTAL, APIMgtGatewayConstants.LATENCY_STATS_START_TIME);
+
+        Assert.assertEquals(1, collector.getSnapshot("api1", LatencyPhase.BACKEND).getCount());
+        Assert.assertEquals(0, collector.getSnapshot("api1", LatencyPhase.TOTAL).getCount());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.listeners;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OrderedEventExecutorTest {
+
+    private OrderedEventExecutor executor;
+
+    @Before
+    public void setUp() {
+
+        executor = new OrderedEventExecutor("TestLane", 4);
+    }
+
+    @After
+    public void tearDown() {
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testEventsOfSameKeyAreProcessedInOrder() throws InterruptedException {
+
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        int eventCount = 100;
+        CountDownLatch latch = new CountDownLatch(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            int sequence = i;
+            executor.submit("api1", null, System.currentTimeMillis(), () -> {
+                processed.add(sequence);
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < eventCount; i++) {
+            Assert.assertEquals(Integer.valueOf(i), processed.get(i));
+        }
+        waitForQueueToDrain();
+        Assert.assertEquals(eventCount, executor.getProcessedEventCount());
+    }
+
+    @Test
+    public void testPendingEventIsCoalescedWithNextEventOfSameKind() throws InterruptedException {
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        executor.submit("api1", "DEPLOY", System.currentTimeMillis(), () -> {
+            started.countDown();
+            awaitQuietly(blocker);
+            processed.add("deploy-1");
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.submit("api1", "DEPLOY", System.currentTimeMillis(), () -> processed.add("deploy-2"));
+        executor.submit("api1", "DEPLOY", System.currentTimeMillis(), () -> processed.add("deploy-3"));
+        executor.submit("api1", "REMOVE", System.currentTimeMillis(), () -> processed.add("remove-1"));
+        executor.submit("api1", "DEPLOY", System.currentTimeMillis(), () -> processed.add("deploy-4"));
+        Assert.assertEquals(5, executor.getQueueDepth());
+        CountDownLatch done = new CountDownLatch(1);
+        executor.submit("api1", null, System.currentTimeMillis(), done::countDown);
+        blocker.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        waitForQueueToDrain();
+
+        Assert.assertEquals(Arrays.asList("deploy-1", "deploy-3", "remove-1", "deploy-4"), processed);
+        Assert.assertEquals(1, executor.getCoalescedEventCount());
+        Assert.assertEquals(0, executor.getQueueDepth());
+    }
+
+    @Test
+    public void testFailingEventDoesNotBlockLane() throws InterruptedException {
+
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.submit("api1", null, System.currentTimeMillis(), () -> {
+            throw new IllegalStateException("Deployment failed");
+        });
+        executor.submit("api1", null, System.currentTimeMillis(), latch::countDown);
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownDiscardsPendingEvents() throws InterruptedException {
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Boolean> daemon = Collections.synchronizedList(new ArrayList<>());
+        executor.submit("api1", null, System.currentTimeMillis(), () -> {
+            daemon.add(Thread.currentThread().isDaemon());
+            started.countDown();
+            awaitQuietly(blocker);
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        executor.submit("api1", null, System.currentTimeMillis(), () -> Assert.fail("Event run after shutdown"));
+        executor.shutdown();
+        blocker.countDown();
+        waitForQueueToDrain();
+
+        Assert.assertEquals(Collections.singletonList(true), daemon);
+        Assert.assertEquals(0, executor.getQueueDepth());
+    }
+
+    private void waitForQueueToDrain() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (executor.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.mediators.oauth;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.gateway.mediators.oauth.client.TokenResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenCacheTest {
+
+    @Test
+    public void testConcurrentTokenRequestsAreCoalesced() throws Exception {
+
+        TokenCache tokenCache = TokenCache.getInstance();
+        long coalescedRequestCount = tokenCache.getCoalescedRequestCount();
+        AtomicInteger tokenEndpointCalls = new AtomicInteger();
+        CountDownLatch providerStarted = new CountDownLatch(1);
+        CountDownLatch releaseProvider = new CountDownLatch(1);
+        TokenResponse tokenResponse = createTokenResponse("coalescedToken", 1800);
+        TokenCache.TokenProvider tokenProvider = () -> {
+            tokenEndpointCalls.incrementAndGet();
+            providerStarted.countDown();
+            try {
+                releaseProvider.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return tokenResponse;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<TokenResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> tokenCache.requestToken("coalescedEndpoint", tokenProvider)));
+            Assert.assertTrue(providerStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> tokenCache.requestToken("coalescedEndpoint", tokenProvider)));
+            }
+            while (tokenCache.getCoalescedRequestCount() - coalescedRequestCount < 4) {
+                Thread.sleep(10);
+            }
+            releaseProvider.countDown();
+            for (Future<TokenResponse> result : results) {
+                Assert.assertSame(tokenResponse, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, tokenEndpointCalls.get());
+    }
+
+    @Test
+    public void testFailedTokenRequestIsNotReused() throws Exception {
+
+        TokenCache tokenCache = TokenCache.getInstance();
+        try {
+            tokenCache.requestToken("failingEndpoint", () -> {
+                throw new IOException("Token endpoint unavailable");
+            });
+            Assert.fail("Token request should have failed");
+        } catch (IOException e) {
+            Assert.assertEquals("Token endpoint unavailable", e.getMessage());
+        }
+        TokenResponse tokenResponse = createTokenResponse("recoveredToken", 1800);
+        Assert.assertSame(tokenResponse, tokenCache.requestToken("failingEndpoint", () -> tokenResponse));
+    }
+
+    @Test
+    public void testEarliestPutTokenIsEvictedWhenCacheIsFull() {
+
+        TokenCache tokenCache = TokenCache.getInstance();
+        tokenCache.getTokenMap().clear();
+        for (int i = 0; i < 10000; i++) {
+            tokenCache.putToken("endpoint" + i, createTokenResponse("token" + i, 1800));
+        }
+        tokenCache.putToken("endpoint0", createTokenResponse("renewedToken", 1800));
+        tokenCache.putToken("newEndpoint", createTokenResponse("newToken", 1800));
+        Assert.assertEquals(10000, tokenCache.getTokenMap().size());
+        Assert.assertNotNull(tokenCache.getTokenMap().get("newEndpoint"));
+        Assert.assertEquals("renewedToken", tokenCache.getTokenMap().get("endpoint0").getAccessToken());
+        Assert.assertNull(tokenCache.getTokenMap().get("endpoint1"));
+        Assert.assertNotNull(tokenCache.getTokenMap().get("endpoint2"));
+        tokenCache.getTokenMap().clear();
+    }
+
+    private static TokenResponse createTokenResponse(String accessToken, long validity) {
+
+        TokenResponse tokenResponse = new TokenResponse();
+        tokenResponse.setAccessToken(accessToken);
+        tokenResponse.setExpiresIn(String.valueOf(validity));
+        tokenResponse.setValidTill(System.currentTimeMillis() / 1000 + validity);
+        return tokenResponse;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LocalThrottleControllerTest {
+
+    private static final long START_TIME = 1700000000000L;
+    private static final long MINUTE = 60000L;
+
+    @Test
+    public void testBucketAdmitsCapacityPerTimeWindow() {
+
+        TokenBucket bucket = new TokenBucket(10, MINUTE);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(bucket.tryAcquire(START_TIME));
+        }
+        Assert.assertFalse(bucket.tryAcquire(START_TIME));
+        Assert.assertEquals(START_TIME + 6000, bucket.getNextAvailableTime(START_TIME));
+        // Refilled at the rate of one token per 6 seconds
+        Assert.assertFalse(bucket.tryAcquire(START_TIME + 5999));
+        Assert.assertTrue(bucket.tryAcquire(START_TIME + 6000));
+        Assert.assertFalse(bucket.tryAcquire(START_TIME + 6000));
+        Assert.assertFalse(bucket.isFull(START_TIME + MINUTE));
+        Assert.assertTrue(bucket.isFull(START_TIME + MINUTE + 6000));
+    }
+
+    @Test
+    public void testDrainedBucketIsEmptyUntilDrainTime() {
+
+        TokenBucket bucket = new TokenBucket(10, MINUTE);
+        Assert.assertTrue(bucket.tryAcquire(START_TIME));
+        bucket.drainUntil(START_TIME + 30000);
+        Assert.assertFalse(bucket.tryAcquire(START_TIME + 29999));
+        Assert.assertEquals(START_TIME + 30000, bucket.getNextAvailableTime(START_TIME));
+        Assert.assertTrue(bucket.tryAcquire(START_TIME + 30000));
+        Assert.assertFalse(bucket.tryAcquire(START_TIME + 30000));
+        // An earlier drain time does not refill the bucket
+        bucket.drainUntil(START_TIME + 1000);
+        Assert.assertFalse(bucket.tryAcquire(START_TIME + 30001));
+    }
+
+    @Test
+    public void testRefilledAndReleasedTokensDoNotExceedCapacity() {
+
+        TokenBucket bucket = new TokenBucket(10, MINUTE);
+        Assert.assertEquals(0, bucket.refill(5, START_TIME));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(bucket.tryAcquire(START_TIME));
+        }
+        Assert.assertFalse(bucket.hasToken(START_TIME));
+        Assert.assertEquals(4, bucket.refill(4, START_TIME));
+        Assert.assertTrue(bucket.hasToken(START_TIME));
+        Assert.assertEquals(6, bucket.refill(20, START_TIME));
+        Assert.assertTrue(bucket.isFull(START_TIME));
+        // A released token is dropped when the bucket is already full
+        bucket.release();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(bucket.tryAcquire(START_TIME));
+        }
+        Assert.assertFalse(bucket.tryAcquire(START_TIME));
+        bucket.release();
+        Assert.assertTrue(bucket.tryAcquire(START_TIME));
+    }
+
+    @Test
+    public void testLimitIsSharedBetweenGateways() {
+
+        LocalThrottleController controller = new LocalThrottleController(4);
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (!controller.isThrottled("key1", 100, MINUTE, START_TIME)
+                    && controller.tryAcquire("key1", 100, MINUTE, START_TIME)) {
+                admitted++;
+            }
+        }
+        Assert.assertEquals(25, admitted);
+        Assert.assertTrue(controller.isThrottled("key1", 100, MINUTE, START_TIME));
+        Assert.assertTrue(controller.getNextAccessTimestamp("key1", START_TIME) > START_TIME);
+        Assert.assertEquals(START_TIME, controller.getNextAccessTimestamp("key2", START_TIME));
+        // A released token is admitted again
+        controller.release("key1");
+        Assert.assertFalse(controller.isThrottled("key1", 100, MINUTE, START_TIME));
+        // The bucket of a key is replaced when the limit of its policy is changed
+        Assert.assertFalse(controller.isThrottled("key1", 200, MINUTE, START_TIME));
+        Assert.assertTrue(controller.tryAcquire("key1", 200, MINUTE, START_TIME));
+    }
+
+    @Test
+    public void testCheckDoesNotTakeTokens() {
+
+        LocalThrottleController controller = new LocalThrottleController(1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse(controller.isThrottled("key1", 1, MINUTE, START_TIME));
+        }
+        Assert.assertTrue(controller.tryAcquire("key1", 1, MINUTE, START_TIME));
+        Assert.assertTrue(controller.isThrottled("key1", 1, MINUTE, START_TIME));
+        Assert.assertFalse(controller.tryAcquire("key1", 1, MINUTE, START_TIME));
+    }
+
+    @Test
+    public void testUnusedSharesAreBorrowedOnReconcile() {
+
+        LocalThrottleController controller = new LocalThrottleController(4);
+        ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        long currentTime = System.currentTimeMillis();
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            long time = currentTime + i * 1000;
+            controller.reconcile(throttleDataHolder, time);
+            while (controller.tryAcquire("key1", 100, MINUTE, time)) {
+                admitted++;
+            }
+        }
+        // A gateway receiving all the requests of a key is admitted up to the full limit, and the refill of its share
+        Assert.assertTrue("Admitted " + admitted + " requests", admitted >= 100 && admitted <= 100 + 10 * 25 / 60 + 1);
+
+        // A key throttled by the traffic manager borrows nothing
+        throttleDataHolder.addThrottleData("key2", currentTime + MINUTE);
+        for (int i = 0; i < 25; i++) {
+            Assert.assertTrue(controller.tryAcquire("key2", 100, MINUTE, currentTime));
+        }
+        controller.reconcile(throttleDataHolder, currentTime + 1000);
+        Assert.assertFalse(controller.tryAcquire("key2", 100, MINUTE, currentTime + 1000));
+    }
+
+    @Test
+    public void testReconcileWithTrafficManagerDecisions() {
+
+        LocalThrottleController controller = new LocalThrottleController(1);
+        ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        long currentTime = System.currentTimeMillis();
+        Assert.assertTrue(controller.tryAcquire("key1", 100, MINUTE, currentTime));
+        Assert.assertTrue(controller.tryAcquire("key2", 100, MINUTE, currentTime));
+        Assert.assertTrue(controller.tryAcquire("key3", 100, MINUTE, currentTime));
+        throttleDataHolder.addThrottleData("key1", currentTime + 30000);
+
+        controller.reconcile(throttleDataHolder, currentTime + 1000);
+        // key1 is drained by the decision of the traffic manager, the full buckets of key2 and key3 are dropped
+        Assert.assertEquals(1, controller.size());
+        Assert.assertTrue(controller.isThrottled("key1", 100, MINUTE, currentTime + 1000));
+        Assert.assertEquals(currentTime + 30000, controller.getNextAccessTimestamp("key1", currentTime + 1000));
+    }
+
+    @Test
+    public void testConcurrentRequestsDoNotExceedCapacity() throws InterruptedException {
+
+        LocalThrottleController controller = new LocalThrottleController(1);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (controller.tryAcquire("key1", 1000, MINUTE, START_TIME)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1000, admitted.get());
+    }
+
+    /**
+     * Simulates a burst on a cluster of gateways in which the decisions of the traffic manager take effect after a
+     * propagation delay, and compares the requests admitted over the limit with and without local throttling.
+     */
+    @Test
+    public void testLocalThrottlingBoundsBurstOvershoot() {
+
+        int limit = 1000;
+        int gatewayCount = 2;
+        long propagationDelay = 500;
+        long burstDuration = 2000;
+        // Each gateway receives one request per millisecond
+        int cepOnlyAdmitted = simulateBurst(limit, gatewayCount, propagationDelay, burstDuration, false);
+        int localAdmitted = simulateBurst(limit, gatewayCount, propagationDelay, burstDuration, true);
+
+        // Without local throttling the requests of the whole propagation delay are admitted over the limit
+        Assert.assertEquals(limit + gatewayCount * propagationDelay, cepOnlyAdmitted, gatewayCount);
+        // With local throttling only the tokens refilled during the burst are admitted over the limit
+        Assert.assertTrue("Admitted " + localAdmitted + " requests for a limit of " + limit,
+                localAdmitted - limit <= limit * burstDuration / MINUTE + gatewayCount);
+    }
+
+    private int simulateBurst(int limit, int gatewayCount, long propagationDelay, long burstDuration,
+                              boolean localThrottling) {
+
+        List<LocalThrottleController> controllers = new ArrayList<>();
+        for (int i = 0; i < gatewayCount; i++) {
+            controllers.add(new LocalThrottleController(gatewayCount));
+        }
+        int globalCount = 0;
+        long decisionTime = Long.MAX_VALUE;
+        for (long time = START_TIME; time < START_TIME + burstDuration; time++) {
+            for (LocalThrottleController controller : controllers) {
+                if (time >= decisionTime) {
+                    continue;
+                }
+                if (localThrottling && !controller.tryAcquire("key1", limit, MINUTE, time)) {
+                    continue;
+                }
+                globalCount++;
+                if (globalCount >= limit && decisionTime == Long.MAX_VALUE) {
+                    decisionTime = time + propagationDelay;
+                }
+            }
+        }
+        return globalCount;
+    }
+}
@@ -18,9 +18,13 @@
 
 package org.wso2.carbon.apimgt.gateway.throttling;
 
+import org.junit.Assert;
 import org.junit.Test;
+import org.wso2.carbon.apimgt.impl.dto.ConditionDto;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -43,6 +47,21 @@ public class ThrottleDataHolderTest {
         throttleDataHolder.removeThrottledAPIKey("/api/1.0.0");
     }
 
+    @Test
+    public void getConditionDtoMap() throws Exception {
+        ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        Assert.assertNull(throttleDataHolder.getConditionDtoMap("/api/1.0.0"));
+        ConditionDto conditionDto = new ConditionDto();
+        throttleDataHolder.addThrottledApiConditions("/api/1.0.0", "condition1",
+                Collections.singletonList(conditionDto));
+
+        Map<String, List<ConditionDto>> conditionDtoMap = throttleDataHolder.getConditionDtoMap("/api/1.0.0");
+        Assert.assertEquals(1, conditionDtoMap.size());
+        Assert.assertEquals(Collections.singletonList(conditionDto), conditionDtoMap.get("condition1"));
+        Assert.assertSame(conditionDto,
+                throttleDataHolder.getCompiledConditionMap("/api/1.0.0").get("condition1").get(0).getConditionDto());
+    }
+
 
     @Test
     public void addBlockingCondition() throws Exception {
@@ -66,6 +85,32 @@ public class ThrottleDataHolderTest {
 
     @Test
     public void addIplockingCondition() throws Exception {
+        ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        throttleDataHolder.addIpBlockingCondition("carbon.super", 1, "{\"fixedIp\":\"127.0.0.1\",\"invert\":false}",
+                "IP");
+        throttleDataHolder.addIpBlockingCondition("carbon.super", 2,
+                "{\"startingIp\":\"10.0.0.0\",\"endingIp\":\"10.0.0.255\",\"invert\":false}", "IPRANGE");
+        throttleDataHolder.addIpBlockingCondition("carbon.super", 3,
+                "{\"startingIp\":\"10.0.0.128\",\"endingIp\":\"10.0.1.10\",\"invert\":false}", "IPRANGE");
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "127.0.0.1", "carbon.super"));
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "10.0.0.1", "carbon.super"));
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "10.0.1.9", "carbon.super"));
+        // range boundaries are not blocked
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "10.0.0.0", "carbon.super"));
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "10.0.1.10", "carbon.super"));
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "192.168.0.1", "carbon.super"));
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "127.0.0.1", "abc.com"));
+
+        throttleDataHolder.addIpBlockingCondition("abc.com", 4,
+                "{\"startingIp\":\"2001:db8::\",\"endingIp\":\"2001:db8::ffff\",\"invert\":true}", "IPRANGE");
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "2001:db8::1", "abc.com"));
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "2001:db9::1", "abc.com"));
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "127.0.0.1", "abc.com"));
+    }
+
+    private boolean isIpBlocked(ThrottleDataHolder throttleDataHolder, String ip, String tenantDomain) {
+        return throttleDataHolder.isRequestBlocked("/api/1.0.0", "admin:DefaultApplication", "admin", ip,
+                tenantDomain, "/api/1.0.0:1.0.0:admin-DefaultApplication");
     }
 
     @Test
@@ -98,6 +143,13 @@ public class ThrottleDataHolderTest {
 
     @Test
     public void removeIpBlockingCondition() throws Exception {
+        ThrottleDataHolder throttleDataHolder = new ThrottleDataHolder();
+        throttleDataHolder.addIpBlockingCondition("carbon.super", 1, "{\"fixedIp\":\"127.0.0.1\",\"invert\":true}",
+                "IP");
+        Assert.assertTrue(isIpBlocked(throttleDataHolder, "127.0.0.2", "carbon.super"));
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "127.0.0.1", "carbon.super"));
+        throttleDataHolder.removeIpBlockingCondition("carbon.super", 1);
+        Assert.assertFalse(isIpBlocked(throttleDataHolder, "127.0.0.2", "carbon.super"));
     }
 
     @Test
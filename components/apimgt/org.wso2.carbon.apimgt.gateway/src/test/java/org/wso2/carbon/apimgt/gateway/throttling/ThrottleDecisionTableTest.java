@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.gateway.throttling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ThrottleDecisionTableTest {
+
+    private static final long START_TIME = 1700000000000L;
+
+    @Test
+    public void testIsThrottled() {
+
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(10, null, START_TIME);
+        decisionTable.put("key1", START_TIME + 5000);
+        Assert.assertTrue(decisionTable.isThrottled("key1", START_TIME));
+        Assert.assertTrue(decisionTable.isThrottled("key1", START_TIME + 5000));
+        Assert.assertFalse(decisionTable.isThrottled("key1", START_TIME + 5001));
+        Assert.assertFalse(decisionTable.isThrottled("key2", START_TIME));
+        Assert.assertEquals(START_TIME + 5000, decisionTable.getExpiryTime("key1"));
+        Assert.assertEquals(0, decisionTable.getExpiryTime("key2"));
+        decisionTable.remove("key1");
+        Assert.assertFalse(decisionTable.isThrottled("key1", START_TIME));
+    }
+
+    @Test
+    public void testExpiredDecisionsAreSwept() {
+
+        List<String> expiredKeys = new ArrayList<>();
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(10,
+                (key, creationTime) -> expiredKeys.add(key), START_TIME);
+        decisionTable.put("key1", START_TIME + 2000);
+        decisionTable.put("key2", START_TIME + 60000);
+        // Decision extended before it expired
+        decisionTable.put("key3", START_TIME + 1000);
+        decisionTable.put("key3", START_TIME + 60000);
+
+        decisionTable.expire(START_TIME + 5000);
+        Assert.assertEquals(2, decisionTable.size());
+        Assert.assertEquals(1, decisionTable.getExpiredCount());
+        Assert.assertEquals(1, expiredKeys.size());
+        Assert.assertEquals("key1", expiredKeys.get(0));
+
+        decisionTable.expire(START_TIME + 62000);
+        Assert.assertEquals(0, decisionTable.size());
+        Assert.assertEquals(3, decisionTable.getExpiredCount());
+    }
+
+    @Test
+    public void testDecisionsBeyondOneWheelRotationAreSwept() {
+
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(10, null, START_TIME);
+        decisionTable.put("key1", START_TIME + 3600000);
+        for (long time = START_TIME; time < START_TIME + 3600000; time += 1000) {
+            decisionTable.expire(time);
+        }
+        Assert.assertTrue(decisionTable.isThrottled("key1", START_TIME + 3600000));
+        Assert.assertEquals(1, decisionTable.size());
+        decisionTable.expire(START_TIME + 3602000);
+        Assert.assertEquals(0, decisionTable.size());
+    }
+
+    @Test
+    public void testTableIsBounded() {
+
+        List<String> evictedKeys = new ArrayList<>();
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(2,
+                (key, creationTime) -> evictedKeys.add(key), START_TIME);
+        decisionTable.put("key1", START_TIME + 60000);
+        decisionTable.put("key2", START_TIME + 1000);
+        decisionTable.put("key3", START_TIME + 30000);
+        Assert.assertEquals(2, decisionTable.size());
+        // The decision of the next slot to be swept makes room for the new decision
+        Assert.assertTrue(decisionTable.isThrottled("key3", START_TIME));
+        Assert.assertFalse(decisionTable.isThrottled("key2", START_TIME));
+        Assert.assertEquals(1, decisionTable.getEvictedCount());
+        Assert.assertEquals(1, evictedKeys.size());
+        Assert.assertEquals("key2", evictedKeys.get(0));
+
+        // Existing decisions are updated without evicting others
+        decisionTable.put("key1", START_TIME + 120000);
+        Assert.assertEquals(START_TIME + 120000, decisionTable.getExpiryTime("key1"));
+        Assert.assertEquals(1, decisionTable.getEvictedCount());
+
+        // A decision far from expiry is kept even if it was added first, and its replaced entry is not evicted
+        decisionTable.put("key4", START_TIME + 20000);
+        Assert.assertTrue(decisionTable.isThrottled("key1", START_TIME));
+        Assert.assertFalse(decisionTable.isThrottled("key3", START_TIME));
+        Assert.assertTrue(decisionTable.isThrottled("key4", START_TIME));
+        Assert.assertEquals(2, decisionTable.getEvictedCount());
+
+        // Evicted decisions are not swept again
+        decisionTable.expire(START_TIME + 62000);
+        Assert.assertEquals(1, decisionTable.size());
+        Assert.assertEquals(1, decisionTable.getExpiredCount());
+        Assert.assertEquals(3, evictedKeys.size());
+    }
+
+    @Test
+    public void testReplacedDecisionsAreSkippedOnEviction() {
+
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(2, null, START_TIME);
+        decisionTable.put("key1", START_TIME + 1000);
+        decisionTable.put("key1", START_TIME + 5000);
+        decisionTable.put("key2", START_TIME + 2000);
+        decisionTable.remove("key2");
+        decisionTable.put("key3", START_TIME + 9000);
+        Assert.assertEquals(2, decisionTable.getStaleEntryCount());
+
+        decisionTable.put("key4", START_TIME + 3000);
+        Assert.assertFalse(decisionTable.isThrottled("key1", START_TIME));
+        Assert.assertTrue(decisionTable.isThrottled("key3", START_TIME));
+        Assert.assertTrue(decisionTable.isThrottled("key4", START_TIME));
+        Assert.assertEquals(1, decisionTable.getEvictedCount());
+        Assert.assertEquals(0, decisionTable.getStaleEntryCount());
+        Assert.assertEquals(2, decisionTable.getMaxDecisions());
+    }
+
+    @Test
+    public void testStaleWheelEntriesArePurged() {
+
+        ThrottleDecisionTable decisionTable = new ThrottleDecisionTable(10, null, START_TIME);
+        for (int i = 0; i < 100000; i++) {
+            decisionTable.put("key1", START_TIME + 3600000 + i);
+        }
+        Assert.assertTrue(decisionTable.getStaleEntryCount() <= 1024);
+        Assert.assertEquals(START_TIME + 3600000 + 99999, decisionTable.getExpiryTime("key1"));
+    }
+}
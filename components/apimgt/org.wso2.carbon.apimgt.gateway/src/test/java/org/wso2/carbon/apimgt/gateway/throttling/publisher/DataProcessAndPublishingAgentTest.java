@@ -24,6 +24,8 @@ import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.axis2.Axis2MessageContext;
 import org.apache.synapse.rest.RESTConstants;
 import org.apache.synapse.transport.nhttp.NhttpConstants;
+import org.json.simple.JSONObject;
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -37,7 +39,10 @@ import org.wso2.carbon.apimgt.keymgt.model.entity.API;
 import org.wso2.carbon.databridge.agent.DataPublisher;
 import org.wso2.carbon.databridge.commons.Event;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
 
@@ -448,4 +453,50 @@ public class DataProcessAndPublishingAgentTest {
         dataProcessAndPublishingAgent.run();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testHeadersNotCopiedWhenHeaderConditionsDisabled() throws Exception {
+        ThrottleProperties throttleProperties = new ThrottleProperties();
+        DataProcessAndPublishingAgent dataProcessAndPublishingAgent = new DataProcessAndPublishingAgentWrapper
+                (throttleProperties);
+        AuthenticationContext authenticationContext = new AuthenticationContext();
+        MessageContext messageContext = Mockito.mock(Axis2MessageContext.class);
+        org.apache.axis2.context.MessageContext axis2MsgCntxt = Mockito.mock(org.apache.axis2.context.MessageContext
+                .class);
+        Mockito.when(((Axis2MessageContext) messageContext).getAxis2MessageContext()).thenReturn(axis2MsgCntxt);
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("host", "localhost");
+        Mockito.when(axis2MsgCntxt.getProperty(org.apache.axis2.context.MessageContext.TRANSPORT_HEADERS))
+                .thenReturn(headers);
+        API api = new API();
+        api.setUuid(UUID.randomUUID().toString());
+        api.setApiName(apiName);
+        api.setApiVersion(apiVersion);
+        api.setApiProvider("admin");
+        Mockito.when(messageContext.getProperty(APIMgtGatewayConstants.API_OBJECT)).thenReturn(api);
+        dataProcessAndPublishingAgent.setDataReference(applicationLevelThrottleKey, applicationLevelTier,
+                apiLevelThrottleKey, apiLevelTier, subscriptionLevelThrottleKey, subscriptionLevelTier,
+                resourceLevelThrottleKey, resourceLevelTier, authorizedUser, apiContext, apiVersion, appTenant,
+                apiTenant, appId, messageContext, authenticationContext);
+        Assert.assertNull(dataProcessAndPublishingAgent.headersMap);
+
+        throttleProperties.setEnableHeaderConditions(true);
+        dataProcessAndPublishingAgent.setDataReference(applicationLevelThrottleKey, applicationLevelTier,
+                apiLevelThrottleKey, apiLevelTier, subscriptionLevelThrottleKey, subscriptionLevelTier,
+                resourceLevelThrottleKey, resourceLevelTier, authorizedUser, apiContext, apiVersion, appTenant,
+                apiTenant, appId, messageContext, authenticationContext);
+        Assert.assertEquals(headers, dataProcessAndPublishingAgent.headersMap);
+    }
+
+    @Test
+    public void testPropertiesSerialization() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(APIThrottleConstants.IP, 3232235777L);
+        properties.put(APIThrottleConstants.IPv6, 0);
+        properties.put("bigIp", new BigInteger("42540766411282592856903984951653826561"));
+        properties.put("header\"name", "value with \"quotes\" and \\ slash\n");
+        properties.put("emptyProperty", null);
+        Assert.assertEquals(JSONObject.toJSONString(properties),
+                DataProcessAndPublishingAgent.toJSONString(properties));
+        Assert.assertEquals("{}", DataProcessAndPublishingAgent.toJSONString(new LinkedHashMap<>()));
+    }
+}
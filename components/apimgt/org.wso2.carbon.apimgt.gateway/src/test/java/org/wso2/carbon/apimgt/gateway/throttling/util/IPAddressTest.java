@@ -0,0 +1,66 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.gateway.throttling.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+
+public class IPAddressTest {
+
+    private static final String[] IP_LITERALS = {"0.0.0.0", "127.0.0.1", "10.100.1.255", "255.255.255.255", "::",
+            "::1", "1::", "2001:db8::ff00:42:8329", "2001:0db8:0000:0000:0000:ff00:0042:8329", "fe80::1%eth0",
+            "[2001:db8::1]", "::ffff:192.168.1.1", "::192.168.1.1", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:1.2.3.4",
+            "FFFF:FFFF:FFFF:FFFF:FFFF:FFFF:FFFF:FFFF"};
+
+    @Test
+    public void testLiteralValuesMatchInetAddress() throws Exception {
+
+        for (String ip : IP_LITERALS) {
+            BigInteger expected = new BigInteger(1, InetAddress.getByName(ip).getAddress());
+            IPAddress address = IPAddress.parseLiteral(ip);
+            Assert.assertNotNull(ip, address);
+            Assert.assertEquals(ip, IPAddress.valueOf(expected), address);
+            Assert.assertEquals(ip, expected.toString(), address.toString());
+        }
+    }
+
+    @Test
+    public void testInvalidLiterals() {
+
+        String[] invalidLiterals = {"", "1.2.3", "1.2.3.256", "1.2.3.4.5", "1..2.3", "1:2", ":::", "1::2::3",
+                "12345::", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7:8::", "::1:", "localhost"};
+        for (String ip : invalidLiterals) {
+            Assert.assertNull(ip, IPAddress.parseLiteral(ip));
+        }
+    }
+
+    @Test
+    public void testOrderingAndNeighbours() {
+
+        IPAddress address = IPAddress.parseLiteral("0.0.0.255");
+        Assert.assertEquals(IPAddress.parseLiteral("0.0.1.0"), address.next());
+        Assert.assertEquals(IPAddress.parseLiteral("0.0.0.254"), address.previous());
+        Assert.assertTrue(address.compareTo(IPAddress.parseLiteral("::1:0")) < 0);
+        Assert.assertEquals(IPAddress.parseLiteral("0:0:0:1::"), IPAddress.parseLiteral("::ffff:ffff:ffff:ffff").next());
+        Assert.assertNull(IPAddress.ZERO.previous());
+        Assert.assertNull(IPAddress.parseLiteral("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff").next());
+    }
+}
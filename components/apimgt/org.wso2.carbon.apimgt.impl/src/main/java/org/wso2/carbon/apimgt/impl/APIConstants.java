@@ -557,6 +557,7 @@ public final class APIConstants {
     public static final String CACHE_INVALIDATION_STREAM_ID = "org.wso2.apimgt.cache.invalidation.stream:1.0.0";
     public static final String NOTIFICATION_STREAM_ID = "org.wso2.apimgt.notification.stream:1.0.0";
     public static final String WEBHOOKS_SUBSCRIPTION_STREAM_ID = "org.wso2.apimgt.webhooks.request.stream:1.0.0";
+    public static final String POLICY_LIMIT_STREAM_ID = "org.wso2.throttle.policy.limit.stream:1.0.0";
 
     //Property for enabling scope sharing between APIs
     public static final String ENABLE_API_SCOPES_SHARING = "enable-api-scopes-sharing";
@@ -694,6 +695,7 @@ public final class APIConstants {
     public static final String API_WEBSUB_GATEWAY_ENDPOINT = "GatewayWebSubEndpoint";
     public static final String API_GATEWAY_TYPE = "GatewayType";
     public static final String API_GATEWAY_TYPE_SYNAPSE = "Synapse";
+    public static final String API_GATEWAY_LATENCY_STATS_SAMPLE_RATE = API_GATEWAY + "LatencyStatsSampleRate";
     public static final String API_GATEWAY_VIRTUAL_HOSTS = "VirtualHosts";
     public static final String API_GATEWAY_VIRTUAL_HOST = "VirtualHost";
     public static final String API_GATEWAY_VIRTUAL_HOST_HTTP_ENDPOINT = "HttpEndpoint";
@@ -1287,6 +1289,7 @@ public final class APIConstants {
     public static final String OPERATION_SECURITY_ENABLED = "Enabled";
     public static final String OPERATION_SECURITY_DISABLED = "Disabled";
     public static final String GRAPHQL_PAYLOAD = "GRAPHQL_PAYLOAD";
+    public static final String GRAPHQL_PAYLOAD_DOCUMENT = "GRAPHQL_PAYLOAD_DOCUMENT";
     public static final String GRAPHQL_SCHEMA = "GRAPHQL_SCHEMA";
     public static final String GRAPHQL_ACCESS_CONTROL_POLICY = "WSO2GraphQLAccessControlPolicy";
     public static final String QUERY_ANALYSIS_COMPLEXITY = "complexity";
@@ -1401,6 +1404,8 @@ public final class APIConstants {
     public static final String CONFIG_REDIS_DATABASE_ID =  "RedisDatabaseId";
     public static final String CONFIG_REDIS_CONNECTION_TIMEOUT =  "RedisConnectionTimeout";
     public static final String CONFIG_REDIS_IS_SSL_ENABLED =  "RedisIsSslEnabled";
+    public static final String CONFIG_REDIS_ASYNC_COUNTER_ENABLED = "RedisAsyncCounterEnabled";
+    public static final String CONFIG_REDIS_COUNTER_SYNC_INTERVAL = "RedisCounterSyncInterval";
     public static final String CONFIG_REDIS_PROPERTIES = "Properties";
     public static final String CONFIG_REDIS_MAX_TOTAL = "maxTotal";
     public static final String CONFIG_REDIS_MAX_IDLE = "maxIdle";
@@ -1933,6 +1938,11 @@ public final class APIConstants {
         public static final String ENABLE_JWT_CLAIM_CONDITIONS = "EnableJWTClaimConditions";
         public static final String ENABLE_QUERY_PARAM_CONDITIONS = "EnableQueryParamConditions";
         public static final String SKIP_REDEPLOYING_POLICIES = "SkipRedeployingPolicies";
+        public static final String ENABLE_WEBSOCKET_THROTTLE_EVENT_AGGREGATION =
+                "EnableWebSocketThrottleEventAggregation";
+        public static final String WEBSOCKET_THROTTLE_EVENT_AGGREGATION_INTERVAL =
+                "WebSocketThrottleEventAggregationInterval";
+        public static final String MAX_THROTTLE_DECISIONS = "MaxThrottleDecisions";
         public static final String ENABLED = "Enabled";
         public static final String IS_THROTTLED = "isThrottled";
         public static final String THROTTLE_KEY = "throttleKey";
@@ -1941,6 +1951,10 @@ public final class APIConstants {
         public static final String TRUE = "true";
         public static final String ADD = "add";
         public static final String ENABLE_POLICY_DEPLOYMENT = "EnablePolicyDeployment";
+        public static final String ENABLE_CONSOLIDATED_POLICY_DEPLOYMENT = "EnableConsolidatedPolicyDeployment";
+        public static final String LOCAL_THROTTLING = "LocalThrottling";
+        public static final String LOCAL_THROTTLING_GATEWAY_COUNT = "GatewayCount";
+        public static final String LOCAL_THROTTLING_RECONCILE_INTERVAL = "ReconcileInterval";
     }
 
     /**
@@ -2660,6 +2674,9 @@ public final class APIConstants {
         public static final String LABEL = "label";
         public static final String LABELS = "labels";
         public static final String EnableOnDemandLoadingAPIS = "EnableOnDemandLoadingAPIS";
+        public static final String DEPLOYMENT_EVENT_THREAD_COUNT = "DeploymentEventThreadCount";
+        public static final String STREAM_ARTIFACTS_HEADER = "X-WSO2-Stream-Artifacts";
+        public static final String STREAMED_ARTIFACTS_CONTENT_TYPE = "application/vnd.wso2.runtime-artifacts+gzip";
 
     }
 
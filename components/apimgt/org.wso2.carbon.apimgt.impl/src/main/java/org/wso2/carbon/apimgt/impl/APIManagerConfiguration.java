@@ -383,6 +383,10 @@ public class APIManagerConfiguration {
                 OMElement redisConnectionTimeout = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_CONNECTION_TIMEOUT));
                 OMElement redisIsSslEnabled = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_IS_SSL_ENABLED));
                 OMElement propertiesElement = element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_PROPERTIES));
+                OMElement redisAsyncCounterEnabled =
+                        element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_ASYNC_COUNTER_ENABLED));
+                OMElement redisCounterSyncInterval =
+                        element.getFirstChildWithName(new QName(APIConstants.CONFIG_REDIS_COUNTER_SYNC_INTERVAL));
                 redisConfig.setRedisEnabled(true);
                 redisConfig.setHost(redisHost.getText());
                 redisConfig.setPort(Integer.parseInt(redisPort.getText()));
@@ -394,6 +398,12 @@ public class APIManagerConfiguration {
                     redisConfig.setConnectionTimeout(Integer.parseInt(redisConnectionTimeout.getText()));
                     redisConfig.setSslEnabled(Boolean.parseBoolean(redisIsSslEnabled.getText()));
                 }
+                if (redisAsyncCounterEnabled != null) {
+                    redisConfig.setAsyncCounterEnabled(Boolean.parseBoolean(redisAsyncCounterEnabled.getText()));
+                }
+                if (redisCounterSyncInterval != null) {
+                    redisConfig.setCounterSyncInterval(Long.parseLong(redisCounterSyncInterval.getText()));
+                }
                 if (propertiesElement !=null){
                     Iterator<OMElement> properties = propertiesElement.getChildElements();
                     if (properties != null) {
@@ -1108,11 +1118,76 @@ public class APIManagerConfiguration {
                 throttleProperties.setSkipRedeployingPolicies(skipRedeployingPoliciesElement
                         .getText().split(APIConstants.DELEM_COMMA));
             }
+            // Check WebSocket throttle event aggregation enable
+            OMElement enableWebSocketThrottleEventAggregationElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                            .ENABLE_WEBSOCKET_THROTTLE_EVENT_AGGREGATION));
+            if (enableWebSocketThrottleEventAggregationElement != null) {
+                throttleProperties.setEnableWebSocketThrottleEventAggregation(JavaUtils.isTrueExplicitly(
+                        enableWebSocketThrottleEventAggregationElement.getText()));
+            }
+            OMElement webSocketThrottleEventAggregationIntervalElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                            .WEBSOCKET_THROTTLE_EVENT_AGGREGATION_INTERVAL));
+            if (webSocketThrottleEventAggregationIntervalElement != null) {
+                long webSocketThrottleEventAggregationInterval =
+                        Long.parseLong(webSocketThrottleEventAggregationIntervalElement.getText().trim());
+                if (webSocketThrottleEventAggregationInterval > 0) {
+                    throttleProperties.setWebSocketThrottleEventAggregationInterval(
+                            webSocketThrottleEventAggregationInterval);
+                } else {
+                    log.warn("Invalid WebSocket throttle event aggregation interval "
+                            + webSocketThrottleEventAggregationInterval + ". Using the default value.");
+                }
+            }
+            OMElement maxThrottleDecisionsElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants.MAX_THROTTLE_DECISIONS));
+            if (maxThrottleDecisionsElement != null) {
+                int maxThrottleDecisions = Integer.parseInt(maxThrottleDecisionsElement.getText().trim());
+                if (maxThrottleDecisions > 0) {
+                    throttleProperties.setMaxThrottleDecisions(maxThrottleDecisions);
+                } else {
+                    log.warn("Invalid maximum number of throttle decisions " + maxThrottleDecisions
+                            + ". Using the default value.");
+                }
+            }
             OMElement enablePolicyDeployElement = throttleConfigurationElement
                     .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants.ENABLE_POLICY_DEPLOYMENT));
             if (enablePolicyDeployElement != null) {
                 throttleProperties.setEnablePolicyDeployment(Boolean.parseBoolean(enablePolicyDeployElement.getText()));
             }
+            OMElement enableConsolidatedPolicyDeployElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                            .ENABLE_CONSOLIDATED_POLICY_DEPLOYMENT));
+            if (enableConsolidatedPolicyDeployElement != null) {
+                throttleProperties.setEnableConsolidatedPolicyDeployment(
+                        Boolean.parseBoolean(enableConsolidatedPolicyDeployElement.getText().trim()));
+            }
+            // Configuring local throttling
+            OMElement localThrottlingElement = throttleConfigurationElement
+                    .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants.LOCAL_THROTTLING));
+            if (localThrottlingElement != null) {
+                ThrottleProperties.LocalThrottling localThrottling = new ThrottleProperties.LocalThrottling();
+                OMElement localThrottlingEnabledElement = localThrottlingElement
+                        .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants.ENABLED));
+                if (localThrottlingEnabledElement != null) {
+                    localThrottling.setEnabled(JavaUtils.isTrueExplicitly(localThrottlingEnabledElement.getText()
+                            .trim()));
+                }
+                OMElement gatewayCountElement = localThrottlingElement
+                        .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                                .LOCAL_THROTTLING_GATEWAY_COUNT));
+                if (gatewayCountElement != null) {
+                    localThrottling.setGatewayCount(Integer.parseInt(gatewayCountElement.getText().trim()));
+                }
+                OMElement reconcileIntervalElement = localThrottlingElement
+                        .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
+                                .LOCAL_THROTTLING_RECONCILE_INTERVAL));
+                if (reconcileIntervalElement != null) {
+                    localThrottling.setReconcileInterval(Long.parseLong(reconcileIntervalElement.getText().trim()));
+                }
+                throttleProperties.setLocalThrottling(localThrottling);
+            }
             // Check subscription spike arrest enable
             OMElement enabledSubscriptionLevelSpikeArrestElement = throttleConfigurationElement
                     .getFirstChildWithName(new QName(APIConstants.AdvancedThrottleConstants
@@ -2101,6 +2176,17 @@ public class APIManagerConfiguration {
         if (enableEagerLoading != null){
             gatewayArtifactSynchronizerProperties.setOnDemandLoading(Boolean.parseBoolean(enableEagerLoading.getText()));
         }
+        OMElement deploymentEventThreadCountElement = omElement.getFirstChildWithName(
+                new QName(APIConstants.GatewayArtifactSynchronizer.DEPLOYMENT_EVENT_THREAD_COUNT));
+        if (deploymentEventThreadCountElement != null) {
+            int deploymentEventThreadCount = Integer.parseInt(deploymentEventThreadCountElement.getText());
+            if (deploymentEventThreadCount > 0) {
+                gatewayArtifactSynchronizerProperties.setDeploymentEventThreadCount(deploymentEventThreadCount);
+            } else {
+                log.warn("Invalid deployment event thread count " + deploymentEventThreadCount
+                        + ". Using the default value.");
+            }
+        }
     }
 
     public GatewayArtifactSynchronizerProperties getGatewayArtifactSynchronizerProperties() {
@@ -16,6 +16,7 @@
 
 package org.wso2.carbon.apimgt.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
@@ -27,11 +28,14 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.GZIPOutputStream;
 
 public class GZIPUtils {
     private static final Log log = LogFactory.getLog(GZIPUtils.class);
     private static final int BUFFER_SIZE = 1028;
+    private static final ObjectMapper STREAMING_OBJECT_MAPPER =
+            new ObjectMapper().configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 
     public static void compressFile(String sourcePath, String destinationPath) throws APIManagementException{
         if (log.isDebugEnabled()) {
@@ -61,6 +65,10 @@ public class GZIPUtils {
         }
     }
 
+    /**
+     * @deprecated use {@link #writeZippedResponse(Object, OutputStream)}, which does not create temporary files.
+     */
+    @Deprecated
     public static File constructZippedResponse(Object data) throws APIManagementException {
         String tmpSourceFileName = System.currentTimeMillis() + APIConstants.JSON_FILE_EXTENSION;
         String tmpDestinationFileName = System.currentTimeMillis() + APIConstants.JSON_GZIP_FILENAME_EXTENSION;
@@ -84,4 +92,19 @@ public class GZIPUtils {
         }
         return zippedResponse;
     }
+
+    /**
+     * Serializes the given data to JSON and writes it gzip compressed to the given stream as it is serialized,
+     * without going through temporary files. The given stream is not closed.
+     *
+     * @param data         data to serialize
+     * @param outputStream stream to write the compressed JSON to
+     * @throws IOException if the data could not be serialized or written
+     */
+    public static void writeZippedResponse(Object data, OutputStream outputStream) throws IOException {
+
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        STREAMING_OBJECT_MAPPER.writeValue(gzipOutputStream, data);
+        gzipOutputStream.finish();
+    }
 }
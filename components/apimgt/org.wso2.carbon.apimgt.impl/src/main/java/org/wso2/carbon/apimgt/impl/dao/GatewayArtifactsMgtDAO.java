@@ -23,6 +23,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -675,67 +676,32 @@ public class GatewayArtifactsMgtDAO {
     public List<APIRuntimeArtifactDto> retrieveGatewayArtifactsByLabel(String[] labels, String tenantDomain)
             throws APIManagementException {
 
-        String query = SQLConstants.RETRIEVE_ARTIFACTS_BY_LABEL;
-        query = query.replaceAll(SQLConstants.GATEWAY_LABEL_REGEX, String.join(",",Collections.nCopies(labels.length, "?")));
         List<APIRuntimeArtifactDto> apiRuntimeArtifactDtoList = new ArrayList<>();
-        try (Connection connection = GatewayArtifactsMgtDBUtil.getArtifactSynchronizerConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            int index = 1;
-            for (String label : labels) {
-                preparedStatement.setString(index, label);
-                index++;
-            }
-            preparedStatement.setString(index, tenantDomain);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                while (resultSet.next()) {
-                    String apiId = resultSet.getString("API_ID");
-                    String label = resultSet.getString("LABEL");
-                    try {
-                        APIRuntimeArtifactDto apiRuntimeArtifactDto = new APIRuntimeArtifactDto();
-                        apiRuntimeArtifactDto.setTenantDomain(resultSet.getString("TENANT_DOMAIN"));
-                        apiRuntimeArtifactDto.setApiId(apiId);
-                        String resolvedVhost = VHostUtils.resolveIfNullToDefaultVhost(label,
-                                resultSet.getString("VHOST"));
-                        apiRuntimeArtifactDto.setLabel(label);
-                        apiRuntimeArtifactDto.setVhost(resolvedVhost);
-                        apiRuntimeArtifactDto.setName(resultSet.getString("API_NAME"));
-                        apiRuntimeArtifactDto.setVersion(resultSet.getString("API_VERSION"));
-                        apiRuntimeArtifactDto.setProvider(resultSet.getString("API_PROVIDER"));
-                        apiRuntimeArtifactDto.setRevision(resultSet.getString("REVISION_ID"));
-                        apiRuntimeArtifactDto.setType(resultSet.getString("API_TYPE"));
-                        apiRuntimeArtifactDto.setContext(resultSet.getString("CONTEXT"));
-                        InputStream artifact = resultSet.getBinaryStream("ARTIFACT");
-                        if (artifact != null) {
-                            byte[] artifactByte = APIMgtDBUtil.getBytesFromInputStream(artifact);
-                            try (InputStream newArtifact = new ByteArrayInputStream(artifactByte)) {
-                                apiRuntimeArtifactDto.setArtifact(newArtifact);
-                            }
-                        }
-                        apiRuntimeArtifactDto.setFile(true);
-                        apiRuntimeArtifactDtoList.add(apiRuntimeArtifactDto);
-                    } catch (APIManagementException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Error resolving vhost while retrieving runtime artifact for API %s, "
-                                + "gateway environment \"%s\", tenant: \"%s\"." +
-                                "Skipping runtime artifact for the API.", apiId, label, tenantDomain), e);
-                    } catch (IOException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Error occurred retrieving input stream from byte array of " +
-                                "API: %s, gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
-                    } catch (SQLException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Failed to retrieve Gateway Artifact of API: %s, " +
-                                "gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            handleException("Failed to retrieve Gateway Artifact for labels : " + StringUtils.join(",", labels), e);
-        }
-
+        retrieveGatewayArtifactsByLabel(labels, tenantDomain, apiRuntimeArtifactDtoList::add);
         return apiRuntimeArtifactDtoList;
     }
 
+    /**
+     * Retrieves the gateway artifacts of the given labels and tenant with a single query, handing each artifact to the
+     * given handler as soon as its row is read, so that only one artifact is held in memory at a time.
+     *
+     * @param labels       gateway labels
+     * @param tenantDomain tenant domain of the APIs
+     * @param handler      handler invoked with each retrieved artifact
+     * @throws APIManagementException if the artifacts could not be retrieved or the handler failed
+     */
+    public void retrieveGatewayArtifactsByLabel(String[] labels, String tenantDomain,
+                                                APIRuntimeArtifactHandler handler) throws APIManagementException {
+
+        String labelPlaceholders = String.join(",", Collections.nCopies(labels.length, "?"));
+        String query = SQLConstants.RETRIEVE_ARTIFACTS_BY_LABEL
+                .replaceAll(SQLConstants.GATEWAY_LABEL_REGEX, labelPlaceholders);
+        List<String> parameters = new ArrayList<>(Arrays.asList(labels));
+        parameters.add(tenantDomain);
+        retrieveGatewayArtifacts(query, parameters, tenantDomain,
+                "Failed to retrieve Gateway Artifact for labels : " + StringUtils.join(",", labels), handler);
+    }
+
     public List<APIRuntimeArtifactDto> retrieveAllGatewayArtifactsByLabel(String[] labels)
             throws APIManagementException {
 
@@ -801,59 +767,111 @@ public class GatewayArtifactsMgtDAO {
     public List<APIRuntimeArtifactDto> retrieveGatewayArtifacts(String tenantDomain)
             throws APIManagementException {
 
-        String query = SQLConstants.RETRIEVE_ARTIFACTS;
         List<APIRuntimeArtifactDto> apiRuntimeArtifactDtoList = new ArrayList<>();
+        retrieveGatewayArtifacts(tenantDomain, apiRuntimeArtifactDtoList::add);
+        return apiRuntimeArtifactDtoList;
+    }
+
+    /**
+     * Retrieves the gateway artifacts of the given tenant with a single query, handing each artifact to the given
+     * handler as soon as its row is read, so that only one artifact is held in memory at a time.
+     *
+     * @param tenantDomain tenant domain of the APIs
+     * @param handler      handler invoked with each retrieved artifact
+     * @throws APIManagementException if the artifacts could not be retrieved or the handler failed
+     */
+    public void retrieveGatewayArtifacts(String tenantDomain, APIRuntimeArtifactHandler handler)
+            throws APIManagementException {
+
+        retrieveGatewayArtifacts(SQLConstants.RETRIEVE_ARTIFACTS, Collections.singletonList(tenantDomain),
+                tenantDomain, "Failed to retrieve Gateway Artifacts.", handler);
+    }
+
+    /**
+     * Runs a gateway artifact query and hands each artifact to the given handler as its row is read from the cursor.
+     * Rows which cannot be mapped are skipped.
+     *
+     * @param query        gateway artifact query
+     * @param parameters   parameters of the query, in order
+     * @param tenantDomain tenant domain used in the error logs
+     * @param errorMessage message of the exception thrown if the query fails
+     * @param handler      handler invoked with each retrieved artifact
+     * @throws APIManagementException if the query or the handler fails
+     */
+    private void retrieveGatewayArtifacts(String query, List<String> parameters, String tenantDomain,
+                                          String errorMessage, APIRuntimeArtifactHandler handler)
+            throws APIManagementException {
+
         try (Connection connection = GatewayArtifactsMgtDBUtil.getArtifactSynchronizerConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, tenantDomain);
+            for (int i = 0; i < parameters.size(); i++) {
+                preparedStatement.setString(i + 1, parameters.get(i));
+            }
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    String apiId = resultSet.getString("API_ID");
-                    String label = resultSet.getString("LABEL");
-                    try {
-                        APIRuntimeArtifactDto apiRuntimeArtifactDto = new APIRuntimeArtifactDto();
-                        apiRuntimeArtifactDto.setTenantDomain(resultSet.getString("TENANT_DOMAIN"));
-                        apiRuntimeArtifactDto.setApiId(apiId);
-                        String resolvedVhost = VHostUtils.resolveIfNullToDefaultVhost(label,
-                                resultSet.getString("VHOST"));
-                        apiRuntimeArtifactDto.setLabel(label);
-                        apiRuntimeArtifactDto.setVhost(resolvedVhost);
-                        apiRuntimeArtifactDto.setName(resultSet.getString("API_NAME"));
-                        apiRuntimeArtifactDto.setVersion(resultSet.getString("API_VERSION"));
-                        apiRuntimeArtifactDto.setProvider(resultSet.getString("API_PROVIDER"));
-                        apiRuntimeArtifactDto.setRevision(resultSet.getString("REVISION_ID"));
-                        apiRuntimeArtifactDto.setType(resultSet.getString("API_TYPE"));
-                        apiRuntimeArtifactDto.setContext(resultSet.getString("CONTEXT"));
-                        InputStream artifact = resultSet.getBinaryStream("ARTIFACT");
-                        if (artifact != null) {
-                            byte[] artifactByte = APIMgtDBUtil.getBytesFromInputStream(artifact);
-                            try (InputStream newArtifact = new ByteArrayInputStream(artifactByte)) {
-                                apiRuntimeArtifactDto.setArtifact(newArtifact);
-                            }
-                        }
-                        apiRuntimeArtifactDto.setFile(true);
-                        apiRuntimeArtifactDtoList.add(apiRuntimeArtifactDto);
-                    } catch (APIManagementException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Error resolving vhost while retrieving runtime artifact for API %s, "
-                                + "gateway environment \"%s\", tenant: \"%s\"." +
-                                "Skipping runtime artifact for the API.", apiId, label, tenantDomain), e);
-                    } catch (IOException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Error occurred retrieving input stream from byte array of " +
-                                "API: %s, gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
-                    } catch (SQLException e) {
-                        // handle exception inside the loop and continue with other API artifacts
-                        log.error(String.format("Failed to retrieve Gateway Artifact of API: %s, " +
-                                "gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
+                    APIRuntimeArtifactDto apiRuntimeArtifactDto = getAPIRuntimeArtifactDto(resultSet, tenantDomain);
+                    if (apiRuntimeArtifactDto != null) {
+                        handler.handle(apiRuntimeArtifactDto);
                     }
                 }
             }
         } catch (SQLException e) {
-            handleException("Failed to retrieve Gateway Artifacts.", e);
+            handleException(errorMessage, e);
         }
+    }
 
-        return apiRuntimeArtifactDtoList;
+    /**
+     * Maps the current row of a gateway artifact query to an {@link APIRuntimeArtifactDto}. Errors are logged and
+     * the row skipped, so that the remaining API artifacts can still be retrieved.
+     *
+     * @param resultSet    result set positioned on the row
+     * @param tenantDomain tenant domain used in the error logs
+     * @return mapped artifact or null if the row could not be mapped
+     */
+    private APIRuntimeArtifactDto getAPIRuntimeArtifactDto(ResultSet resultSet, String tenantDomain) {
+
+        String apiId = null;
+        String label = null;
+        try {
+            apiId = resultSet.getString("API_ID");
+            label = resultSet.getString("LABEL");
+            APIRuntimeArtifactDto apiRuntimeArtifactDto = new APIRuntimeArtifactDto();
+            apiRuntimeArtifactDto.setTenantDomain(resultSet.getString("TENANT_DOMAIN"));
+            apiRuntimeArtifactDto.setApiId(apiId);
+            String resolvedVhost = VHostUtils.resolveIfNullToDefaultVhost(label,
+                    resultSet.getString("VHOST"));
+            apiRuntimeArtifactDto.setLabel(label);
+            apiRuntimeArtifactDto.setVhost(resolvedVhost);
+            apiRuntimeArtifactDto.setName(resultSet.getString("API_NAME"));
+            apiRuntimeArtifactDto.setVersion(resultSet.getString("API_VERSION"));
+            apiRuntimeArtifactDto.setProvider(resultSet.getString("API_PROVIDER"));
+            apiRuntimeArtifactDto.setRevision(resultSet.getString("REVISION_ID"));
+            apiRuntimeArtifactDto.setType(resultSet.getString("API_TYPE"));
+            apiRuntimeArtifactDto.setContext(resultSet.getString("CONTEXT"));
+            InputStream artifact = resultSet.getBinaryStream("ARTIFACT");
+            if (artifact != null) {
+                byte[] artifactByte = APIMgtDBUtil.getBytesFromInputStream(artifact);
+                try (InputStream newArtifact = new ByteArrayInputStream(artifactByte)) {
+                    apiRuntimeArtifactDto.setArtifact(newArtifact);
+                }
+            }
+            apiRuntimeArtifactDto.setFile(true);
+            return apiRuntimeArtifactDto;
+        } catch (APIManagementException e) {
+            // handle exception inside the loop and continue with other API artifacts
+            log.error(String.format("Error resolving vhost while retrieving runtime artifact for API %s, "
+                    + "gateway environment \"%s\", tenant: \"%s\"." +
+                    "Skipping runtime artifact for the API.", apiId, label, tenantDomain), e);
+        } catch (IOException e) {
+            // handle exception inside the loop and continue with other API artifacts
+            log.error(String.format("Error occurred retrieving input stream from byte array of " +
+                    "API: %s, gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
+        } catch (SQLException e) {
+            // handle exception inside the loop and continue with other API artifacts
+            log.error(String.format("Failed to retrieve Gateway Artifact of API: %s, " +
+                    "gateway environment \"%s\", tenant: \"%s\".", apiId, label, tenantDomain), e);
+        }
+        return null;
     }
 
     public List<APIRuntimeArtifactDto> retrieveAllGatewayArtifacts() throws APIManagementException {
@@ -1014,4 +1032,17 @@ public class GatewayArtifactsMgtDAO {
         }
     }
 
+    /**
+     * Handler of the gateway artifacts retrieved one at a time.
+     */
+    public interface APIRuntimeArtifactHandler {
+
+        /**
+         * Handles a retrieved gateway artifact.
+         *
+         * @param apiRuntimeArtifactDto retrieved artifact
+         * @throws APIManagementException to abort the retrieval of the remaining artifacts
+         */
+        void handle(APIRuntimeArtifactDto apiRuntimeArtifactDto) throws APIManagementException;
+    }
 }
@@ -17,6 +17,7 @@ public class GatewayArtifactSynchronizerProperties {
     private String gatewayStartup = "sync";
     private long eventWaitingTime = 1;
     private boolean onDemandLoading;
+    private int deploymentEventThreadCount = 4;
 
 
     public String getSaverName() {
@@ -126,4 +127,14 @@ public class GatewayArtifactSynchronizerProperties {
     public boolean isOnDemandLoading() {
         return onDemandLoading;
     }
+
+    public int getDeploymentEventThreadCount() {
+
+        return deploymentEventThreadCount;
+    }
+
+    public void setDeploymentEventThreadCount(int deploymentEventThreadCount) {
+
+        this.deploymentEventThreadCount = deploymentEventThreadCount;
+    }
 }
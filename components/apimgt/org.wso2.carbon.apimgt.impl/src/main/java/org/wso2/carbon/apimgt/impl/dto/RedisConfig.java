@@ -42,6 +42,8 @@ public class RedisConfig {
     private long minEvictableIdleTimeMillis = 60000L;
     private long timeBetweenEvictionRunsMillis = 30000L;
     private int numTestsPerEvictionRun = -1;
+    private boolean asyncCounterEnabled = false;
+    private long counterSyncInterval = 100L;
 
     public int getMaxTotal() {
 
@@ -143,6 +145,26 @@ public class RedisConfig {
         this.numTestsPerEvictionRun = numTestsPerEvictionRun;
     }
 
+    public boolean isAsyncCounterEnabled() {
+
+        return asyncCounterEnabled;
+    }
+
+    public void setAsyncCounterEnabled(boolean asyncCounterEnabled) {
+
+        this.asyncCounterEnabled = asyncCounterEnabled;
+    }
+
+    public long getCounterSyncInterval() {
+
+        return counterSyncInterval;
+    }
+
+    public void setCounterSyncInterval(long counterSyncInterval) {
+
+        this.counterSyncInterval = counterSyncInterval;
+    }
+
     /**
      * Public default constructor
      */
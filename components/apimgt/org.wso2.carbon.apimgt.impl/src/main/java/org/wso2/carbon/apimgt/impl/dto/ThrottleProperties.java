@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.Properties;
 
 public class ThrottleProperties {
+    public static final long DEFAULT_WEBSOCKET_THROTTLE_EVENT_AGGREGATION_INTERVAL = 1000;
+    public static final int DEFAULT_MAX_THROTTLE_DECISIONS = 500000;
     private boolean enabledSubscriptionLevelSpikeArrest;
     private DataPublisher dataPublisher;
     private GlobalEngineWSConnection globalEngineWSConnection;
@@ -40,15 +42,30 @@ public class ThrottleProperties {
         this.enablePolicyDeployment = enablePolicyDeployment;
     }
 
+    public boolean isEnableConsolidatedPolicyDeployment() {
+
+        return enableConsolidatedPolicyDeployment;
+    }
+
+    public void setEnableConsolidatedPolicyDeployment(boolean enableConsolidatedPolicyDeployment) {
+
+        this.enableConsolidatedPolicyDeployment = enableConsolidatedPolicyDeployment;
+    }
+
     private boolean enablePolicyDeployment;
+    private boolean enableConsolidatedPolicyDeployment;
     private PolicyDeployer policyDeployer;
     private BlockCondition blockCondition;
     private boolean enableHeaderConditions = false;
     private boolean enableJwtConditions = false;
     private boolean enableQueryParamConditions =false;
     private String[] skipRedeployingPolicies = new String[]{};
+    private boolean enableWebSocketThrottleEventAggregation = false;
+    private long webSocketThrottleEventAggregationInterval = DEFAULT_WEBSOCKET_THROTTLE_EVENT_AGGREGATION_INTERVAL;
+    private int maxThrottleDecisions = DEFAULT_MAX_THROTTLE_DECISIONS;
     private Map<String, Long> defaultThrottleTierLimits = new HashMap<String, Long>();
     private TrafficManager trafficManager;
+    private LocalThrottling localThrottling = new LocalThrottling();
     public boolean isEnabledSubscriptionLevelSpikeArrest() {
         return enabledSubscriptionLevelSpikeArrest;
     }
@@ -154,6 +171,30 @@ public class ThrottleProperties {
         this.enableQueryParamConditions = enableQueryParamConditions;
     }
 
+    public boolean isEnableWebSocketThrottleEventAggregation() {
+        return enableWebSocketThrottleEventAggregation;
+    }
+
+    public void setEnableWebSocketThrottleEventAggregation(boolean enableWebSocketThrottleEventAggregation) {
+        this.enableWebSocketThrottleEventAggregation = enableWebSocketThrottleEventAggregation;
+    }
+
+    public long getWebSocketThrottleEventAggregationInterval() {
+        return webSocketThrottleEventAggregationInterval;
+    }
+
+    public void setWebSocketThrottleEventAggregationInterval(long webSocketThrottleEventAggregationInterval) {
+        this.webSocketThrottleEventAggregationInterval = webSocketThrottleEventAggregationInterval;
+    }
+
+    public int getMaxThrottleDecisions() {
+        return maxThrottleDecisions;
+    }
+
+    public void setMaxThrottleDecisions(int maxThrottleDecisions) {
+        this.maxThrottleDecisions = maxThrottleDecisions;
+    }
+
     public void setTrafficManager(TrafficManager trafficManager) {
         this.trafficManager = trafficManager;
     }
@@ -162,6 +203,14 @@ public class ThrottleProperties {
         return trafficManager;
     }
 
+    public LocalThrottling getLocalThrottling() {
+        return localThrottling;
+    }
+
+    public void setLocalThrottling(LocalThrottling localThrottling) {
+        this.localThrottling = localThrottling;
+    }
+
     public Map<String, Long> getDefaultThrottleTierLimits() {
         return defaultThrottleTierLimits;
     }
@@ -576,6 +625,44 @@ public class ThrottleProperties {
         }
     }
 
+    /**
+     * Configuration of the local enforcement of subscription and application policies in the gateway, which limits
+     * the requests admitted by each gateway to its share of the policy limit, and the shares it borrows from the other
+     * gateways, before the decision of the traffic manager is received.
+     */
+    public static class LocalThrottling {
+        public static final long DEFAULT_RECONCILE_INTERVAL = 1000;
+        private boolean enabled = false;
+        // Number of gateways sharing the limits of a policy
+        private int gatewayCount = 1;
+        // by default per 1 second
+        private long reconcileInterval = DEFAULT_RECONCILE_INTERVAL;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getGatewayCount() {
+            return gatewayCount;
+        }
+
+        public void setGatewayCount(int gatewayCount) {
+            this.gatewayCount = gatewayCount;
+        }
+
+        public long getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(long reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
     public static class DataPublisherThreadPool {
         private int corePoolSize = 200;
         private int maximumPoolSize = 500;
@@ -23,6 +23,7 @@ import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.exception.Artifac
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * This is a Artifact Retriever type. this interface let users to retriever API artifacts from a storage.
@@ -68,6 +69,26 @@ public interface ArtifactRetriever {
      */
      List<String> retrieveAllArtifacts(String gatewayLabel, String tenantDomain) throws ArtifactSynchronizerException;
 
+    /**
+     * This method is used to retrieve data from the storage one artifact at a time. Retrievers able to stream the
+     * artifacts should override this method, so that the artifacts of all the APIs are not held in memory together.
+     * The consumer may take long to handle an artifact, so retrievers reading from a remote source should keep reading
+     * while the consumer runs, buffering no more than a bounded number of artifacts.
+     *
+     * @param gatewayLabel     - Label subscribed by the gateway
+     * @param tenantDomain     Tenant Domain of the APIs
+     * @param artifactConsumer consumer invoked with each artifact as it is retrieved
+     * @return number of artifacts retrieved
+     * @throws ArtifactSynchronizerException if there are any errors when retrieving the Artifacts
+     */
+    default int retrieveAllArtifacts(String gatewayLabel, String tenantDomain, Consumer<String> artifactConsumer)
+            throws ArtifactSynchronizerException {
+
+        List<String> artifacts = retrieveAllArtifacts(gatewayLabel, tenantDomain);
+        artifacts.forEach(artifactConsumer);
+        return artifacts.size();
+    }
+
     /**
      * Will be called after all publishing is done or if init fails
      */
@@ -23,6 +23,7 @@ import com.google.gson.reflect.TypeToken;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpEntity;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -39,6 +40,7 @@ import org.wso2.carbon.apimgt.impl.utils.APIUtil;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
@@ -47,10 +49,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class DBRetriever implements ArtifactRetriever {
 
     private static final Log log = LogFactory.getLog(DBRetriever.class);
+    // Maximum number of streamed artifacts read ahead of the consumer, which deploys them in batches
+    private static final int STREAMED_ARTIFACT_BUFFER_SIZE = 100;
     protected EventHubConfigurationDto eventHubConfigurationDto = ServiceReferenceHolder.getInstance()
             .getAPIManagerConfigurationService().getAPIManagerConfiguration().getEventHubConfigurationDto();
     protected GatewayArtifactSynchronizerProperties gatewayArtifactSynchronizerProperties =
@@ -144,6 +149,44 @@ public class DBRetriever implements ArtifactRetriever {
         }
     }
 
+    @Override
+    public int retrieveAllArtifacts(String label, String tenantDomain, Consumer<String> artifactConsumer)
+            throws ArtifactSynchronizerException {
+
+        try {
+            String endcodedgatewayLabel = URLEncoder.encode(label, APIConstants.DigestAuthConstants.CHARSET);
+            String path = APIConstants.GatewayArtifactSynchronizer.GATEAY_SYNAPSE_ARTIFACTS
+                    + "?gatewayLabel=" + endcodedgatewayLabel + "&type=Synapse";
+            String endpoint = baseURL + path;
+            JSONArray jsonArray;
+            try (CloseableHttpResponse httpResponse = invokeService(endpoint, tenantDomain, true)) {
+                HttpEntity entity = httpResponse.getEntity();
+                if (httpResponse.getStatusLine().getStatusCode() == 200 && entity != null
+                        && entity.getContentType() != null && entity.getContentType().getValue().startsWith(
+                        APIConstants.GatewayArtifactSynchronizer.STREAMED_ARTIFACTS_CONTENT_TYPE)) {
+                    // The stream keeps being read while the consumer deploys, up to a bounded number of artifacts
+                    try (InputStream content = entity.getContent()) {
+                        return RuntimeArtifactHandOff.transfer(content, STREAMED_ARTIFACT_BUFFER_SIZE,
+                                artifactConsumer);
+                    }
+                }
+                // control planes not supporting streaming respond with the whole list of artifacts
+                jsonArray = retrieveArtifact(httpResponse);
+            }
+            if (jsonArray == null) {
+                return 0;
+            }
+            for (int i = 0; i < jsonArray.length(); i++) {
+                artifactConsumer.accept(jsonArray.getString(i));
+            }
+            return jsonArray.length();
+        } catch (IOException e) {
+            String msg = "Error while retrieving the runtime artifacts";
+            log.error(msg, e);
+            throw new ArtifactSynchronizerException(msg, e);
+        }
+    }
+
     @Override
     public Map<String, String> retrieveAttributes(String apiName, String version, String tenantDomain)
             throws ArtifactSynchronizerException {
@@ -198,7 +241,16 @@ public class DBRetriever implements ArtifactRetriever {
     private CloseableHttpResponse invokeService(String endpoint,String tenantDomain) throws IOException,
             ArtifactSynchronizerException {
 
+        return invokeService(endpoint, tenantDomain, false);
+    }
+
+    private CloseableHttpResponse invokeService(String endpoint, String tenantDomain, boolean streamArtifacts)
+            throws IOException, ArtifactSynchronizerException {
+
         HttpGet method = new HttpGet(endpoint);
+        if (streamArtifacts) {
+            method.setHeader(APIConstants.GatewayArtifactSynchronizer.STREAM_ARTIFACTS_HEADER, Boolean.TRUE.toString());
+        }
         URL url = new URL(endpoint);
         String username = eventHubConfigurationDto.getUsername();
         String password = eventHubConfigurationDto.getPassword();
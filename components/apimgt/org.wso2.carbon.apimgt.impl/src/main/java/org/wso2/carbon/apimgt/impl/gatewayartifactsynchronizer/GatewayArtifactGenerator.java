@@ -29,5 +29,30 @@ public interface GatewayArtifactGenerator {
 
     String getType();
 
+    /**
+     * Whether this generator can generate the artifacts of APIs one at a time, through
+     * {@link #generateGatewayArtifact(APIRuntimeArtifactDto)}, so that they can be streamed to the gateway.
+     *
+     * @return true if artifacts can be generated one at a time
+     */
+    default boolean isStreamingSupported() {
+
+        return false;
+    }
+
+    /**
+     * Generates the gateway artifact of a single API.
+     *
+     * @param apiRuntimeArtifactDto runtime artifact of the API
+     * @return generated gateway artifact or null if no artifact could be generated for the API
+     * @throws APIManagementException if this generator does not support generating artifacts one at a time
+     */
+    default String generateGatewayArtifact(APIRuntimeArtifactDto apiRuntimeArtifactDto)
+            throws APIManagementException {
+
+        throw new APIManagementException("Gateway artifact generator " + getType()
+                + " does not support generating artifacts one at a time");
+    }
+
 
 }
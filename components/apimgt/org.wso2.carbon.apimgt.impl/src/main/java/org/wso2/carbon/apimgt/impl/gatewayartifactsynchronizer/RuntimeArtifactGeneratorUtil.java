@@ -35,6 +35,7 @@ import org.wso2.carbon.apimgt.impl.internal.ServiceReferenceHolder;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -82,6 +83,74 @@ public class RuntimeArtifactGeneratorUtil {
         }
     }
 
+    /**
+     * Generates the runtime artifacts of the APIs deployed in the given gateway labels of a tenant and writes them to
+     * the given output stream one at a time, as the artifacts are read from a single database cursor. Unlike
+     * {@link #generateRuntimeArtifact(String, String, String, String, String, String)}, the artifacts of all the APIs
+     * are never held in memory together.
+     *
+     * @param gatewayArtifactGenerator generator supporting streaming, see
+     *                                 {@link GatewayArtifactGenerator#isStreamingSupported()}
+     * @param gatewayLabel             base64 encoded gateway labels, separated by '|'
+     * @param tenantDomain             tenant domain of the APIs
+     * @param outputStream             stream to write the artifacts to, in the format of
+     *                                 {@link RuntimeArtifactStreamWriter}
+     * @return number of artifacts written
+     * @throws APIManagementException if the artifacts could not be retrieved or written
+     */
+    public static int writeRuntimeArtifacts(GatewayArtifactGenerator gatewayArtifactGenerator, String gatewayLabel,
+                                            String tenantDomain, OutputStream outputStream)
+            throws APIManagementException {
+
+        try {
+            RuntimeArtifactStreamWriter artifactStreamWriter = new RuntimeArtifactStreamWriter(outputStream);
+            GatewayArtifactsMgtDAO.APIRuntimeArtifactHandler artifactHandler = apiRuntimeArtifactDto -> {
+                ArtifactSynchronizerUtil.setArtifactProperties(apiRuntimeArtifactDto);
+                String gatewayArtifact = gatewayArtifactGenerator.generateGatewayArtifact(apiRuntimeArtifactDto);
+                if (gatewayArtifact != null) {
+                    try {
+                        artifactStreamWriter.write(gatewayArtifact);
+                    } catch (IOException e) {
+                        throw new APIManagementException("Error while writing runtime artifact of API "
+                                + apiRuntimeArtifactDto.getApiId(), e);
+                    }
+                }
+            };
+            if (StringUtils.isNotEmpty(gatewayLabel)) {
+                byte[] decodedValue = Base64.decodeBase64(gatewayLabel.getBytes());
+                String[] gatewayLabels = new String(decodedValue).split("\\|");
+                gatewayArtifactsMgtDAO.retrieveGatewayArtifactsByLabel(gatewayLabels, tenantDomain, artifactHandler);
+            } else {
+                gatewayArtifactsMgtDAO.retrieveGatewayArtifacts(tenantDomain, artifactHandler);
+            }
+            artifactStreamWriter.finish();
+            return artifactStreamWriter.getCount();
+        } catch (IOException e) {
+            throw new APIManagementException("Error while writing runtime artifacts", e);
+        }
+    }
+
+    /**
+     * Returns the gateway artifact generator of the given type.
+     *
+     * @param type gateway type
+     * @return gateway artifact generator
+     * @throws APIManagementException if there is no generator for the given type
+     */
+    public static GatewayArtifactGenerator getGatewayArtifactGenerator(String type) throws APIManagementException {
+
+        GatewayArtifactGenerator gatewayArtifactGenerator =
+                ServiceReferenceHolder.getInstance().getGatewayArtifactGenerator(type);
+        if (gatewayArtifactGenerator == null) {
+            Set<String> gatewayArtifactGeneratorTypes =
+                    ServiceReferenceHolder.getInstance().getGatewayArtifactGeneratorTypes();
+            throw new APIManagementException("Couldn't find gateway Type",
+                    ExceptionCodes.from(ExceptionCodes.GATEWAY_TYPE_NOT_FOUND, String.join(",",
+                            gatewayArtifactGeneratorTypes)));
+        }
+        return gatewayArtifactGenerator;
+    }
+
     public static RuntimeArtifactDto generateMetadataArtifact(String tenantDomain, String apiId, String gatewayLabel)
             throws APIManagementException {
 
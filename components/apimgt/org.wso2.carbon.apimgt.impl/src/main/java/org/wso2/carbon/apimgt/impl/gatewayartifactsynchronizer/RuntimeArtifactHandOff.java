@@ -0,0 +1,147 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands the artifacts of a runtime artifact stream over to a consumer running on the calling thread. The stream is
+ * read by a thread of its own, which runs ahead of the consumer by at most a bounded number of artifacts. The control
+ * plane can thus keep writing the stream while the gateway deploys the artifacts read so far, without the gateway
+ * buffering the whole response.
+ */
+public class RuntimeArtifactHandOff {
+
+    private static final Object END_OF_ARTIFACTS = new Object();
+
+    private RuntimeArtifactHandOff() {
+
+    }
+
+    /**
+     * Reads all the artifacts of the given stream, in the format of {@link RuntimeArtifactStreamWriter}, and hands them
+     * to the consumer in order.
+     *
+     * @param inputStream      gzip compressed artifact stream
+     * @param capacity         maximum number of artifacts read ahead of the consumer
+     * @param artifactConsumer consumer invoked on the calling thread with each artifact
+     * @return number of artifacts handed to the consumer
+     * @throws IOException if the stream could not be read, or the calling thread was interrupted
+     */
+    public static int transfer(InputStream inputStream, int capacity, Consumer<String> artifactConsumer)
+            throws IOException {
+
+        return transfer(consumer -> RuntimeArtifactStreamReader.read(inputStream, consumer), capacity,
+                artifactConsumer);
+    }
+
+    static int transfer(ArtifactSource artifactSource, int capacity, Consumer<String> artifactConsumer)
+            throws IOException {
+
+        BlockingQueue<Object> artifacts = new ArrayBlockingQueue<>(capacity);
+        AtomicReference<IOException> readFailure = new AtomicReference<>();
+        Thread readerThread = new Thread(() -> {
+            try {
+                artifactSource.read(artifact -> {
+                    try {
+                        artifacts.put(artifact);
+                    } catch (InterruptedException e) {
+                        // the consumer stopped taking artifacts
+                        throw new HandOffCancelledException();
+                    }
+                });
+            } catch (HandOffCancelledException e) {
+                return;
+            } catch (IOException e) {
+                readFailure.set(e);
+            } catch (RuntimeException e) {
+                readFailure.set(new IOException("Error while reading the runtime artifacts", e));
+            }
+            try {
+                artifacts.put(END_OF_ARTIFACTS);
+            } catch (InterruptedException e) {
+                // the consumer stopped taking artifacts
+            }
+        }, "RuntimeArtifactReader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        int count = 0;
+        boolean completed = false;
+        try {
+            Object artifact;
+            while ((artifact = artifacts.take()) != END_OF_ARTIFACTS) {
+                artifactConsumer.accept((String) artifact);
+                count++;
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted after handing over " + count + " runtime artifacts");
+        } finally {
+            if (!completed) {
+                stopReader(readerThread);
+            }
+        }
+        IOException failure = readFailure.get();
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+
+    /**
+     * Stops the reader once the consumer failed, and waits for it, so that the caller does not close the stream
+     * while it is being read. The reader stops at the latest when its current read from the stream returns.
+     */
+    private static void stopReader(Thread readerThread) {
+
+        boolean interrupted = Thread.interrupted();
+        readerThread.interrupt();
+        while (readerThread.isAlive()) {
+            try {
+                readerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Source of the artifacts handed over, which reads all the artifacts into the given consumer.
+     */
+    @FunctionalInterface
+    interface ArtifactSource {
+
+        int read(Consumer<String> artifactConsumer) throws IOException;
+    }
+
+    private static class HandOffCancelledException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the gateway runtime artifacts written by {@link RuntimeArtifactStreamWriter}, handing each artifact to a
+ * consumer as soon as it is read, so that only one artifact is kept in memory at a time.
+ */
+public class RuntimeArtifactStreamReader {
+
+    private RuntimeArtifactStreamReader() {
+
+    }
+
+    /**
+     * Reads all the artifacts of the given stream.
+     *
+     * @param inputStream      gzip compressed artifact stream
+     * @param artifactConsumer consumer invoked with each artifact, in the order they were written
+     * @return number of artifacts read
+     * @throws IOException if the stream could not be read, is malformed or ends before the end of stream marker
+     */
+    public static int read(InputStream inputStream, Consumer<String> artifactConsumer) throws IOException {
+
+        DataInputStream dataInputStream = new DataInputStream(new GZIPInputStream(inputStream));
+        int count = 0;
+        try {
+            int length;
+            while ((length = dataInputStream.readInt()) != RuntimeArtifactStreamWriter.END_OF_STREAM) {
+                if (length < 0) {
+                    throw new IOException("Invalid artifact length " + length + " in runtime artifact stream");
+                }
+                byte[] content = new byte[length];
+                dataInputStream.readFully(content);
+                artifactConsumer.accept(new String(content, StandardCharsets.UTF_8));
+                count++;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Runtime artifact stream ended after " + count + " artifacts without the end of "
+                    + "stream marker", e);
+        }
+        return count;
+    }
+}
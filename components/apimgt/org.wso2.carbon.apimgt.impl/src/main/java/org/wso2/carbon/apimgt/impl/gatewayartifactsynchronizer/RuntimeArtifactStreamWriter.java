@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes gateway runtime artifacts to a gzip compressed stream, one artifact at a time, so that artifacts can be sent
+ * to the gateway without holding all of them in memory. Each artifact is written as a four byte length followed by
+ * its UTF-8 encoded content, and the stream is terminated by a length of -1 so that the reader can detect a truncated
+ * stream. Use {@link RuntimeArtifactStreamReader} to read the stream.
+ */
+public class RuntimeArtifactStreamWriter {
+
+    static final int END_OF_STREAM = -1;
+
+    private final DataOutputStream dataOutputStream;
+    private final GZIPOutputStream gzipOutputStream;
+    private int count;
+
+    public RuntimeArtifactStreamWriter(OutputStream outputStream) throws IOException {
+
+        this.gzipOutputStream = new GZIPOutputStream(outputStream);
+        this.dataOutputStream = new DataOutputStream(gzipOutputStream);
+    }
+
+    /**
+     * Writes a runtime artifact to the stream.
+     *
+     * @param artifact runtime artifact
+     * @throws IOException if the artifact could not be written
+     */
+    public void write(String artifact) throws IOException {
+
+        byte[] content = artifact.getBytes(StandardCharsets.UTF_8);
+        dataOutputStream.writeInt(content.length);
+        dataOutputStream.write(content);
+        count++;
+    }
+
+    /**
+     * Writes the end of stream marker and completes the compressed stream, without closing the underlying stream.
+     *
+     * @throws IOException if the stream could not be completed
+     */
+    public void finish() throws IOException {
+
+        dataOutputStream.writeInt(END_OF_STREAM);
+        dataOutputStream.flush();
+        gzipOutputStream.finish();
+    }
+
+    /**
+     * Returns the number of artifacts written to the stream.
+     *
+     * @return number of artifacts written
+     */
+    public int getCount() {
+
+        return count;
+    }
+}
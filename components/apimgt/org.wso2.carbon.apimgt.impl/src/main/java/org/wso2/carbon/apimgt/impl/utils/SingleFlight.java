@@ -0,0 +1,119 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.impl.utils;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent calls for the same key, so that only one of them is executed while the others wait for and
+ * share its result.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong coalescedCallCount = new AtomicLong();
+
+    /**
+     * Executes the given call, unless a call for the same key is already in progress, in which case waits for and
+     * returns the result of that call instead.
+     *
+     * @param key  key of the call
+     * @param call call to be executed
+     * @return result of the call
+     * @throws ExecutionException   if the call failed or was cancelled. The cause is the exception thrown by the call
+     * @throws InterruptedException if interrupted while waiting for a call in progress
+     */
+    public V execute(K key, Call<V> call) throws ExecutionException, InterruptedException {
+
+        CompletableFuture<V> result = new CompletableFuture<>();
+        CompletableFuture<V> inFlightCall = inFlightCalls.putIfAbsent(key, result);
+        if (inFlightCall != null) {
+            coalescedCallCount.incrementAndGet();
+            try {
+                return inFlightCall.get();
+            } catch (CancellationException e) {
+                throw new ExecutionException(e);
+            }
+        }
+        callCount.incrementAndGet();
+        try {
+            V value = call.call();
+            result.complete(value);
+            return value;
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            throw new ExecutionException(e);
+        } finally {
+            if (!result.isDone()) {
+                result.cancel(false);
+            }
+            inFlightCalls.remove(key, result);
+        }
+    }
+
+    /**
+     * Returns whether a call for the given key is in progress.
+     *
+     * @param key key of the call
+     * @return true if a call for the key is in progress
+     */
+    public boolean isInFlight(K key) {
+
+        return inFlightCalls.containsKey(key);
+    }
+
+    /**
+     * Returns the number of calls executed.
+     *
+     * @return number of calls
+     */
+    public long getCallCount() {
+
+        return callCount.get();
+    }
+
+    /**
+     * Returns the number of calls served by waiting for a call in progress with the same key.
+     *
+     * @return number of coalesced calls
+     */
+    public long getCoalescedCallCount() {
+
+        return coalescedCallCount.get();
+    }
+
+    /**
+     * Call executed by {@link SingleFlight}.
+     *
+     * @param <V> result type
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+
+        V call() throws Exception;
+    }
+}
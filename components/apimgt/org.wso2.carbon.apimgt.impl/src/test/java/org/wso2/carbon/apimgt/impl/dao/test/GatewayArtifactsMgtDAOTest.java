@@ -58,10 +58,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RunWith(PowerMockRunner.class)
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -206,4 +208,59 @@ public class GatewayArtifactsMgtDAOTest {
         Assert.assertNotNull(artifact);
         Assert.assertEquals(context, artifacts.get(0).getContext());
     }
+
+    @Test
+    public void testRetrieveGatewayArtifactsByLabelWithHandler() throws APIManagementException {
+
+        URL resource = getClass().getClassLoader().getResource("admin-PizzaShackAPI-1.0.0.zip");
+        File file = new File(resource.getPath());
+        for (int i = 0; i < 3; i++) {
+            String uuid = UUID.randomUUID().toString();
+            String name = "streamedapi" + i;
+            String revision = UUID.randomUUID().toString();
+            gatewayArtifactsMgtDAO.addGatewayAPIArtifactAndMetaData(uuid, name, "1.0.0", revision, "carbon.super",
+                    APIConstants.HTTP_PROTOCOL, file);
+            API api = new API(new APIIdentifier("test-provider", name, "1.0.0"));
+            api.setContext("/streamed" + i);
+            api.setContextTemplate("/streamed" + i + "/{version}");
+            api.setUUID(uuid);
+            apiMgtDAO.addAPI(api, -1234, "testOrg");
+            Map<String, String> gatewayVhosts = new HashMap<>();
+            gatewayVhosts.put("streamedlabel", "dev.wso2.com");
+            gatewayArtifactsMgtDAO.addAndRemovePublishedGatewayLabels(uuid, revision,
+                    Collections.asSet("streamedlabel"), gatewayVhosts);
+        }
+        String[] labels = new String[]{"streamedlabel"};
+
+        List<String> handledApiIds = new ArrayList<>();
+        gatewayArtifactsMgtDAO.retrieveGatewayArtifactsByLabel(labels, "carbon.super", apiRuntimeArtifactDto -> {
+            Assert.assertNotNull(apiRuntimeArtifactDto.getArtifact());
+            handledApiIds.add(apiRuntimeArtifactDto.getApiId());
+        });
+        Assert.assertEquals(3, handledApiIds.size());
+        List<APIRuntimeArtifactDto> artifacts =
+                gatewayArtifactsMgtDAO.retrieveGatewayArtifactsByLabel(labels, "carbon.super");
+        Assert.assertEquals(3, artifacts.size());
+        for (APIRuntimeArtifactDto artifact : artifacts) {
+            Assert.assertTrue(handledApiIds.contains(artifact.getApiId()));
+        }
+
+        // a failing handler stops the retrieval of the remaining artifacts
+        AtomicInteger handledCount = new AtomicInteger();
+        try {
+            gatewayArtifactsMgtDAO.retrieveGatewayArtifactsByLabel(labels, "carbon.super", apiRuntimeArtifactDto -> {
+                handledCount.incrementAndGet();
+                throw new APIManagementException("Failed to write the artifact");
+            });
+            Assert.fail("Failure of the handler should be propagated");
+        } catch (APIManagementException e) {
+            Assert.assertEquals(1, handledCount.get());
+        }
+
+        List<APIRuntimeArtifactDto> tenantArtifacts = new ArrayList<>();
+        gatewayArtifactsMgtDAO.retrieveGatewayArtifacts("carbon.super", tenantArtifacts::add);
+        Assert.assertEquals(gatewayArtifactsMgtDAO.retrieveGatewayArtifacts("carbon.super").size(),
+                tenantArtifacts.size());
+        Assert.assertTrue(tenantArtifacts.size() >= 3);
+    }
 }
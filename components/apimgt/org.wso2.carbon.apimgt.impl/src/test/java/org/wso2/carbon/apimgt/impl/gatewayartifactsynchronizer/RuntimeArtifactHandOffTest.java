@@ -0,0 +1,130 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RuntimeArtifactHandOffTest {
+
+    @Test
+    public void testArtifactsAreHandedOverInOrderOnCallingThread() throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RuntimeArtifactStreamWriter artifactStreamWriter = new RuntimeArtifactStreamWriter(outputStream);
+        List<String> artifacts = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            artifacts.add("{\"name\":\"api" + i + "\"}");
+            artifactStreamWriter.write(artifacts.get(i));
+        }
+        artifactStreamWriter.finish();
+
+        Thread callingThread = Thread.currentThread();
+        List<String> handedArtifacts = new ArrayList<>();
+        int count = RuntimeArtifactHandOff.transfer(new ByteArrayInputStream(outputStream.toByteArray()), 10,
+                artifact -> {
+                    Assert.assertSame(callingThread, Thread.currentThread());
+                    handedArtifacts.add(artifact);
+                });
+        Assert.assertEquals(250, count);
+        Assert.assertEquals(artifacts, handedArtifacts);
+    }
+
+    @Test
+    public void testReaderRunsAheadByAtMostTheCapacity() throws Exception {
+
+        int capacity = 5;
+        AtomicInteger readCount = new AtomicInteger();
+        AtomicInteger maxLead = new AtomicInteger();
+        AtomicInteger consumedCount = new AtomicInteger();
+        RuntimeArtifactHandOff.ArtifactSource artifactSource = consumer -> {
+            for (int i = 0; i < 100; i++) {
+                readCount.incrementAndGet();
+                consumer.accept("artifact" + i);
+            }
+            return 100;
+        };
+        int count = RuntimeArtifactHandOff.transfer(artifactSource, capacity, artifact -> {
+            try {
+                // a slow consumer, as while a batch is deployed
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int consumed = consumedCount.incrementAndGet();
+            maxLead.accumulateAndGet(readCount.get() - consumed, Math::max);
+        });
+        Assert.assertEquals(100, count);
+        // the queued artifacts, and the one the reader waits to queue
+        Assert.assertTrue("Reader ran ahead by " + maxLead.get(), maxLead.get() <= capacity + 1);
+        Assert.assertTrue(maxLead.get() > 0);
+    }
+
+    @Test
+    public void testReadFailureIsReportedAfterReadArtifacts() {
+
+        RuntimeArtifactHandOff.ArtifactSource artifactSource = consumer -> {
+            consumer.accept("first");
+            consumer.accept("second");
+            throw new IOException("Runtime artifact stream ended without the end of stream marker");
+        };
+        List<String> handedArtifacts = new ArrayList<>();
+        try {
+            RuntimeArtifactHandOff.transfer(artifactSource, 10, handedArtifacts::add);
+            Assert.fail("Read failure should be reported");
+        } catch (IOException e) {
+            Assert.assertEquals("Runtime artifact stream ended without the end of stream marker", e.getMessage());
+        }
+        Assert.assertEquals(2, handedArtifacts.size());
+    }
+
+    @Test
+    public void testConsumerFailureStopsReader() throws IOException {
+
+        AtomicBoolean readerStopped = new AtomicBoolean();
+        AtomicInteger readCount = new AtomicInteger();
+        RuntimeArtifactHandOff.ArtifactSource artifactSource = consumer -> {
+            try {
+                while (true) {
+                    consumer.accept("artifact" + readCount.incrementAndGet());
+                }
+            } finally {
+                readerStopped.set(true);
+            }
+        };
+        try {
+            RuntimeArtifactHandOff.transfer(artifactSource, 2, artifact -> {
+                throw new IllegalStateException("Deployment failed");
+            });
+            Assert.fail("Consumer failure should be propagated");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Deployment failed", e.getMessage());
+        }
+        // the reader is stopped before the transfer returns, so the caller can close the stream
+        Assert.assertTrue(readerStopped.get());
+        Assert.assertTrue(readCount.get() <= 4);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class RuntimeArtifactStreamTest {
+
+    @Test
+    public void testArtifactsAreReadInOrder() throws IOException {
+
+        List<String> artifacts = Arrays.asList("{\"name\":\"first\"}", "", "{\"name\":\"caf\u00e9\"}");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RuntimeArtifactStreamWriter artifactStreamWriter = new RuntimeArtifactStreamWriter(outputStream);
+        for (String artifact : artifacts) {
+            artifactStreamWriter.write(artifact);
+        }
+        artifactStreamWriter.finish();
+        Assert.assertEquals(3, artifactStreamWriter.getCount());
+
+        List<String> readArtifacts = new ArrayList<>();
+        int count = RuntimeArtifactStreamReader.read(new ByteArrayInputStream(outputStream.toByteArray()),
+                readArtifacts::add);
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(artifacts, readArtifacts);
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new RuntimeArtifactStreamWriter(outputStream).finish();
+        List<String> readArtifacts = new ArrayList<>();
+        Assert.assertEquals(0, RuntimeArtifactStreamReader.read(
+                new ByteArrayInputStream(outputStream.toByteArray()), readArtifacts::add));
+        Assert.assertEquals(Collections.emptyList(), readArtifacts);
+    }
+
+    @Test
+    public void testTruncatedStreamIsDetected() throws IOException {
+
+        // a stream completed without the end of stream marker, as if the server failed mid way
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new GZIPOutputStream(outputStream))) {
+            byte[] artifact = "{\"name\":\"first\"}".getBytes(StandardCharsets.UTF_8);
+            dataOutputStream.writeInt(artifact.length);
+            dataOutputStream.write(artifact);
+        }
+        List<String> readArtifacts = new ArrayList<>();
+        try {
+            RuntimeArtifactStreamReader.read(new ByteArrayInputStream(outputStream.toByteArray()),
+                    readArtifacts::add);
+            Assert.fail("Truncated stream should not be read successfully");
+        } catch (IOException e) {
+            Assert.assertEquals(1, readArtifacts.size());
+        }
+    }
+}
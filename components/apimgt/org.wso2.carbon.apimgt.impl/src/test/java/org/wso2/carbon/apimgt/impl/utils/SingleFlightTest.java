@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.impl.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsOfSameKeyAreCoalesced() throws Exception {
+
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        SingleFlight.Call<String> call = () -> {
+            calls.incrementAndGet();
+            callStarted.countDown();
+            releaseCall.await(10, TimeUnit.SECONDS);
+            return "result";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("key", call)));
+            Assert.assertTrue(callStarted.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(singleFlight.isInFlight("key"));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", call)));
+            }
+            while (singleFlight.getCoalescedCallCount() < 3) {
+                Thread.sleep(10);
+            }
+            releaseCall.countDown();
+            for (Future<String> result : results) {
+                Assert.assertEquals("result", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, singleFlight.getCallCount());
+        Assert.assertFalse(singleFlight.isInFlight("key"));
+    }
+
+    @Test
+    public void testFailureIsReportedAndNextCallIsExecuted() throws Exception {
+
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        IOException failure = new IOException("failed");
+        try {
+            singleFlight.execute("key", () -> {
+                throw failure;
+            });
+            Assert.fail("Failure of the call is not reported");
+        } catch (ExecutionException e) {
+            Assert.assertSame(failure, e.getCause());
+        }
+        Assert.assertEquals("result", singleFlight.execute("key", () -> "result"));
+        Assert.assertEquals(2, singleFlight.getCallCount());
+    }
+}
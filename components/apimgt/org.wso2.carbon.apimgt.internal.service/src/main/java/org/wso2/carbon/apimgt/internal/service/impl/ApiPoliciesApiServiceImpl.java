@@ -43,9 +43,9 @@ public class ApiPoliciesApiServiceImpl implements ApiPoliciesApiService {
         xWSO2Tenant = SubscriptionValidationDataUtil.validateTenantDomain(xWSO2Tenant, messageContext);
         if (StringUtils.isNotEmpty(xWSO2Tenant)) {
             if (APIConstants.CHAR_ASTERIX.equals(xWSO2Tenant) || APIConstants.ORG_ALL_QUERY_PARAM.equals(xWSO2Tenant)) {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromApiPolicyToApiPolicyListDTO(subscriptionValidationDAO.
-                                getAllApiPolicies())).build();
+                                getAllApiPolicies()), messageContext);
             } else if (StringUtils.isNotEmpty(policyName)) {
                 List<APIPolicy> model = new ArrayList<>();
                 APIPolicy apiPolicy = subscriptionValidationDAO.
@@ -57,9 +57,9 @@ public class ApiPoliciesApiServiceImpl implements ApiPoliciesApiService {
                         fromApiPolicyToApiPolicyListDTO(model)).build();
 
             } else {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromApiPolicyToApiPolicyListDTO(subscriptionValidationDAO.
-                                getAllApiPolicies(xWSO2Tenant))).build();
+                                getAllApiPolicies(xWSO2Tenant)), messageContext);
             }
         } else {
             if (StringUtils.isNotEmpty(policyName)) {
@@ -67,9 +67,9 @@ public class ApiPoliciesApiServiceImpl implements ApiPoliciesApiService {
                         "X-WSo2-Tenant header is missing.").build();
             }
         }
-        return Response.ok().entity(SubscriptionValidationDataUtil.
+        return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                 fromApiPolicyToApiPolicyListDTO(subscriptionValidationDAO.
-                        getAllApiPolicies())).build();
+                        getAllApiPolicies()), messageContext);
     }
 
 }
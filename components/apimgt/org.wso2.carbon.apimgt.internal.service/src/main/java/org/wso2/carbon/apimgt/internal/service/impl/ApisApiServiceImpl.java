@@ -18,11 +18,11 @@
 
 package org.wso2.carbon.apimgt.internal.service.impl;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -57,6 +57,7 @@ public class ApisApiServiceImpl implements ApisApiService {
         String organization = RestApiUtil.getOrganization(messageContext);
         organization = SubscriptionValidationDataUtil.validateTenantDomain(organization, messageContext);
         APIListDTO apiListDTO;
+        boolean bulkRetrieval = false;
         if (StringUtils.isNotEmpty(gatewayLabel)) {
             if (StringUtils.isNotEmpty(apiId)) {
                 API api = subscriptionValidationDAO.getApiByUUID(apiId, gatewayLabel, organization, expand);
@@ -69,6 +70,7 @@ public class ApisApiServiceImpl implements ApisApiService {
                         .getAPIByContextAndVersion(context, version, gatewayLabel, expand);
                 apiListDTO = SubscriptionValidationDataUtil.fromAPIToAPIListDTO(api);
             } else {
+                bulkRetrieval = true;
                 if (APIConstants.ORG_ALL_QUERY_PARAM.equals(organization)) {
                     // Retrieve API Detail according to Gateway label.
                     apiListDTO = SubscriptionValidationDataUtil.fromAPIListToAPIListDTO(
@@ -84,18 +86,17 @@ public class ApisApiServiceImpl implements ApisApiService {
                     subscriptionValidationDAO.getAllApis(organization, expand));
         }
         if (APIConstants.APPLICATION_GZIP.equals(accept)) {
-            try {
-                File zippedResponse = GZIPUtils.constructZippedResponse(apiListDTO);
-                return Response.ok().entity(zippedResponse)
-                        .header("Content-Disposition", "attachment").
-                                header("Content-Encoding", "gzip").build();
-            } catch (APIManagementException e) {
-                RestApiUtil.handleInternalServerError(e.getMessage(), e, log);
-            }
+            APIListDTO zippedAPIListDTO = apiListDTO;
+            StreamingOutput zippedResponse =
+                    (outputStream) -> GZIPUtils.writeZippedResponse(zippedAPIListDTO, outputStream);
+            return Response.ok().entity(zippedResponse)
+                    .header("Content-Disposition", "attachment").
+                            header("Content-Encoding", "gzip").build();
+        } else if (bulkRetrieval) {
+            return SubscriptionValidationDataUtil.buildConditionalResponse(apiListDTO, messageContext);
         } else {
             return Response.ok().entity(apiListDTO).build();
         }
-        return null;
     }
 
     public Response deployedAPIRevision(List<DeployedAPIRevisionDTO> deployedAPIRevisionDTOList, MessageContext messageContext) throws APIManagementException {
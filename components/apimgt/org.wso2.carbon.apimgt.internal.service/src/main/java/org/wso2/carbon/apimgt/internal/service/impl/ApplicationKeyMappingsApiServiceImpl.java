@@ -54,18 +54,18 @@ public class ApplicationKeyMappingsApiServiceImpl implements ApplicationKeyMappi
                     fromApplicationKeyMappingToApplicationKeyMappingListDTO(applicationKeyMappings)).build();
         }
         if (StringUtils.isNotEmpty(organization) && !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM))   {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
+            return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                     fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappingsByOrganization(organization))).build();
+                            getAllApplicationKeyMappingsByOrganization(organization)), messageContext);
         } else if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
                 xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
+            return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                     fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappings())).build();
+                            getAllApplicationKeyMappings()), messageContext);
         } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.
+            return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                     fromApplicationKeyMappingToApplicationKeyMappingListDTO(subscriptionValidationDAO.
-                            getAllApplicationKeyMappings(xWSO2Tenant))).build();
+                            getAllApplicationKeyMappings(xWSO2Tenant)), messageContext);
 
         }
         return null;
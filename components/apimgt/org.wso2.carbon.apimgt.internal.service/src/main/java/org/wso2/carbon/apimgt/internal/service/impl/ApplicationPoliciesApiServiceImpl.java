@@ -40,9 +40,9 @@ public class ApplicationPoliciesApiServiceImpl implements ApplicationPoliciesApi
 
         if (StringUtils.isNotEmpty(xWSO2Tenant)) {
             if (APIConstants.CHAR_ASTERIX.equals(xWSO2Tenant) || APIConstants.ORG_ALL_QUERY_PARAM.equals(xWSO2Tenant)) {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromApplicationPolicyToApplicationPolicyListDTO(subscriptionValidationDAO.
-                                getAllApplicationPolicies())).build();
+                                getAllApplicationPolicies()), messageContext);
             } else if (StringUtils.isNotEmpty(policyName)) {
                 List<ApplicationPolicy> model = new ArrayList<>();
                 ApplicationPolicy applicationPolicy = subscriptionValidationDAO.
@@ -54,9 +54,9 @@ public class ApplicationPoliciesApiServiceImpl implements ApplicationPoliciesApi
                         fromApplicationPolicyToApplicationPolicyListDTO(model)).build();
 
             } else {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromApplicationPolicyToApplicationPolicyListDTO(subscriptionValidationDAO.
-                                getAllApplicationPolicies(xWSO2Tenant))).build();
+                                getAllApplicationPolicies(xWSO2Tenant)), messageContext);
             }
         } else {
             if (StringUtils.isNotEmpty(policyName)) {
@@ -64,8 +64,8 @@ public class ApplicationPoliciesApiServiceImpl implements ApplicationPoliciesApi
                         "X-WSo2-Tenant header is missing.").build();
             }
         }
-        return Response.ok().entity(SubscriptionValidationDataUtil.
+        return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                 fromApplicationPolicyToApplicationPolicyListDTO(subscriptionValidationDAO.
-                        getAllApplicationPolicies())).build();
+                        getAllApplicationPolicies()), messageContext);
     }
 }
@@ -49,13 +49,14 @@ public class ApplicationsApiServiceImpl implements ApplicationsApiService {
         }
         if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
                 xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
-                    subscriptionValidationDAO.getAllApplications())).build();
+            return SubscriptionValidationDataUtil.buildConditionalResponse(
+                    SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
+                            subscriptionValidationDAO.getAllApplications()), messageContext);
         }
         if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
-                    subscriptionValidationDAO.getAllApplications(xWSO2Tenant)))
-                    .build();
+            return SubscriptionValidationDataUtil.buildConditionalResponse(
+                    SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
+                            subscriptionValidationDAO.getAllApplications(xWSO2Tenant)), messageContext);
         }
         return Response.ok().entity(SubscriptionValidationDataUtil.fromApplicationToApplicationListDTO(
                 subscriptionValidationDAO.getAllApplications())).build();
@@ -20,11 +20,14 @@
 package org.wso2.carbon.apimgt.internal.service.impl;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.cxf.jaxrs.ext.MessageContext;
 import org.wso2.carbon.apimgt.api.APIManagementException;
 import org.wso2.carbon.apimgt.api.ExceptionCodes;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.dto.RuntimeArtifactDto;
+import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.GatewayArtifactGenerator;
 import org.wso2.carbon.apimgt.impl.gatewayartifactsynchronizer.RuntimeArtifactGeneratorUtil;
 import org.wso2.carbon.apimgt.internal.service.RuntimeArtifactsApiService;
 import org.wso2.carbon.apimgt.internal.service.dto.SynapseArtifactListDTO;
@@ -36,6 +39,7 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.util.List;
 
@@ -44,6 +48,8 @@ import java.util.List;
  */
 public class RuntimeArtifactsApiServiceImpl implements RuntimeArtifactsApiService {
 
+    private static final Log log = LogFactory.getLog(RuntimeArtifactsApiServiceImpl.class);
+
     public Response runtimeArtifactsGet(String xWSO2Tenant, String apiId, String gatewayLabel, String type,
                                         String name, String version, MessageContext messageContext)
             throws APIManagementException {
@@ -58,6 +64,13 @@ public class RuntimeArtifactsApiServiceImpl implements RuntimeArtifactsApiServic
             runtimeArtifactDto = RuntimeArtifactGeneratorUtil.generateAllRuntimeArtifact(apiId,
                     name, version, gatewayLabel, type);
         } else {
+            if (StringUtils.isEmpty(apiId) && isStreamingRequested(messageContext)) {
+                GatewayArtifactGenerator gatewayArtifactGenerator =
+                        RuntimeArtifactGeneratorUtil.getGatewayArtifactGenerator(type);
+                if (gatewayArtifactGenerator.isStreamingSupported()) {
+                    return streamRuntimeArtifacts(gatewayArtifactGenerator, gatewayLabel, xWSO2Tenant);
+                }
+            }
             runtimeArtifactDto = RuntimeArtifactGeneratorUtil.generateRuntimeArtifact(apiId,
                     name, version, gatewayLabel, type, xWSO2Tenant);
         }
@@ -90,4 +103,34 @@ public class RuntimeArtifactsApiServiceImpl implements RuntimeArtifactsApiServic
                     .build();
         }
     }
-}
\ No newline at end of file
+
+    private boolean isStreamingRequested(MessageContext messageContext) {
+
+        return messageContext.getHttpHeaders() != null && Boolean.parseBoolean(messageContext.getHttpHeaders()
+                .getHeaderString(APIConstants.GatewayArtifactSynchronizer.STREAM_ARTIFACTS_HEADER));
+    }
+
+    /**
+     * Streams the runtime artifacts of a tenant, generating each artifact as it is read from the database, so that
+     * neither the artifacts nor a temporary file of them are held by the server.
+     */
+    private Response streamRuntimeArtifacts(GatewayArtifactGenerator gatewayArtifactGenerator, String gatewayLabel,
+                                            String tenantDomain) {
+
+        StreamingOutput streamingOutput = (outputStream) -> {
+            try {
+                int count = RuntimeArtifactGeneratorUtil.writeRuntimeArtifacts(gatewayArtifactGenerator,
+                        gatewayLabel, tenantDomain, outputStream);
+                if (log.isDebugEnabled()) {
+                    log.debug("Streamed " + count + " runtime artifacts of tenant " + tenantDomain);
+                }
+            } catch (APIManagementException e) {
+                // the response is already committed, so the gateway detects the failure from the truncated stream
+                log.error("Error while streaming runtime artifacts of tenant " + tenantDomain, e);
+                throw new IOException("Error while streaming runtime artifacts", e);
+            }
+        };
+        return Response.ok(streamingOutput).header(RestApiConstants.HEADER_CONTENT_TYPE,
+                APIConstants.GatewayArtifactSynchronizer.STREAMED_ARTIFACTS_CONTENT_TYPE).build();
+    }
+}
@@ -32,8 +32,8 @@ public class ScopesApiServiceImpl implements ScopesApiService {
                 return Response.ok().entity(SubscriptionValidationDataUtil.fromScopeListToScopeDtoList(model)).build();
 
             } else {
-                return Response.ok().entity(SubscriptionValidationDataUtil
-                        .fromScopeListToScopeDtoList(scopesDAO.getScopes(tenantId))).build();
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil
+                        .fromScopeListToScopeDtoList(scopesDAO.getScopes(tenantId)), messageContext);
             }
         } else {
             return Response.status(Response.Status.BAD_REQUEST.getStatusCode(),
@@ -39,9 +39,9 @@ public class SubscriptionPoliciesApiServiceImpl implements SubscriptionPoliciesA
         xWSO2Tenant = SubscriptionValidationDataUtil.validateTenantDomain(xWSO2Tenant, messageContext);
         if (StringUtils.isNotEmpty(xWSO2Tenant)) {
             if (APIConstants.CHAR_ASTERIX.equals(xWSO2Tenant) || APIConstants.ORG_ALL_QUERY_PARAM.equals(xWSO2Tenant)) {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromSubscriptionPolicyToSubscriptionPolicyListDTO(subscriptionValidationDAO.
-                                getAllSubscriptionPolicies())).build();
+                                getAllSubscriptionPolicies()), messageContext);
             } else if (StringUtils.isNotEmpty(policyName)) {
                 List<SubscriptionPolicy> model = new ArrayList<>();
                 SubscriptionPolicy subscriptionPolicy = subscriptionValidationDAO.getSubscriptionPolicyByNameForTenant(
@@ -53,9 +53,9 @@ public class SubscriptionPoliciesApiServiceImpl implements SubscriptionPoliciesA
                         fromSubscriptionPolicyToSubscriptionPolicyListDTO(model)).build();
 
             } else {
-                return Response.ok().entity(SubscriptionValidationDataUtil.
+                return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                         fromSubscriptionPolicyToSubscriptionPolicyListDTO(subscriptionValidationDAO.
-                                getAllSubscriptionPolicies(xWSO2Tenant))).build();
+                                getAllSubscriptionPolicies(xWSO2Tenant)), messageContext);
             }
         } else {
             if (StringUtils.isNotEmpty(policyName)) {
@@ -63,9 +63,9 @@ public class SubscriptionPoliciesApiServiceImpl implements SubscriptionPoliciesA
                         "X-WSo2-Tenant header is missing.").build();
             }
         }
-        return Response.ok().entity(SubscriptionValidationDataUtil.
+        return SubscriptionValidationDataUtil.buildConditionalResponse(SubscriptionValidationDataUtil.
                 fromSubscriptionPolicyToSubscriptionPolicyListDTO(subscriptionValidationDAO.
-                        getAllSubscriptionPolicies())).build();
+                        getAllSubscriptionPolicies()), messageContext);
 
     }
 }
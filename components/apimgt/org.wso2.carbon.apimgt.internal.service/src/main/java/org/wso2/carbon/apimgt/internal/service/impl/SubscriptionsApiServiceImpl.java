@@ -62,15 +62,19 @@ public class SubscriptionsApiServiceImpl implements SubscriptionsApiService {
                     SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(subscriptionList)).build();
         } else if (StringUtils.isNotEmpty(organization) &&
                 !organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptionsByOrganization(organization))).build();
+            result = SubscriptionValidationDataUtil.buildConditionalResponse(
+                    SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
+                            subscriptionValidationDAO.getAllSubscriptionsByOrganization(organization)),
+                    messageContext);
         } else if (StringUtils.isNotEmpty(organization) && organization.equalsIgnoreCase(APIConstants.ORG_ALL_QUERY_PARAM) &&
                 xWSO2Tenant.equalsIgnoreCase(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptions())).build();
+            result = SubscriptionValidationDataUtil.buildConditionalResponse(
+                    SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
+                            subscriptionValidationDAO.getAllSubscriptions()), messageContext);
         } else if (StringUtils.isNotEmpty(xWSO2Tenant)) {
-            result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
-                    subscriptionValidationDAO.getAllSubscriptions(xWSO2Tenant))).build();
+            result = SubscriptionValidationDataUtil.buildConditionalResponse(
+                    SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
+                            subscriptionValidationDAO.getAllSubscriptions(xWSO2Tenant)), messageContext);
         } else {
             result = Response.ok().entity(SubscriptionValidationDataUtil.fromSubscriptionToSubscriptionListDTO(
                     subscriptionValidationDAO.getAllSubscriptions())).build();
@@ -18,8 +18,13 @@
 
 package org.wso2.carbon.apimgt.internal.service.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.emory.mathcs.backport.java.util.Arrays;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.cxf.jaxrs.ext.MessageContext;
 import org.wso2.carbon.apimgt.api.dto.ConditionDTO;
 import org.wso2.carbon.apimgt.api.model.Scope;
@@ -71,9 +76,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 public class SubscriptionValidationDataUtil {
 
+    private static final Log log = LogFactory.getLog(SubscriptionValidationDataUtil.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     private static APIDTO fromAPItoDTO(API model) {
 
         APIDTO apidto = null;
@@ -506,4 +517,32 @@ public class SubscriptionValidationDataUtil {
         }
         return globalPolicyListDTO;
     }
+
+    /**
+     * Builds the response of a bulk retrieval of subscription validation data. The response is tagged with an entity
+     * tag computed over the serialized payload, so that a gateway which already holds the same data can revalidate
+     * it with If-None-Match and receive a 304 response without a body instead of the full list.
+     *
+     * @param entity         list DTO to be returned
+     * @param messageContext message context of the request
+     * @return 200 response carrying the serialized entity and its entity tag, or 304 if the entity tag matches
+     */
+    public static Response buildConditionalResponse(Object entity, MessageContext messageContext) {
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entity);
+        } catch (JsonProcessingException e) {
+            log.warn("Error while serializing " + entity.getClass().getSimpleName() + " to compute the entity tag", e);
+            return Response.ok().entity(entity).build();
+        }
+        EntityTag entityTag = new EntityTag(DigestUtils.sha256Hex(payload));
+        if (messageContext != null && messageContext.getRequest() != null) {
+            Response.ResponseBuilder notModifiedResponse = messageContext.getRequest().evaluatePreconditions(entityTag);
+            if (notModifiedResponse != null) {
+                return notModifiedResponse.build();
+            }
+        }
+        return Response.ok(payload, MediaType.APPLICATION_JSON_TYPE).tag(entityTag).build();
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.internal.service.utils;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.wso2.carbon.apimgt.internal.service.dto.ScopeDTO;
+import org.wso2.carbon.apimgt.internal.service.dto.ScopesListDTO;
+
+import java.util.Collections;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+public class SubscriptionValidationDataUtilTest {
+
+    private Request request;
+    private MessageContext messageContext;
+
+    @Before
+    public void setUp() {
+
+        request = Mockito.mock(Request.class);
+        messageContext = Mockito.mock(MessageContext.class);
+        Mockito.when(messageContext.getRequest()).thenReturn(request);
+    }
+
+    @Test
+    public void testEntityTagIsDerivedFromPayload() {
+
+        Response response = SubscriptionValidationDataUtil.buildConditionalResponse(scopes("read"), messageContext);
+        Response sameResponse =
+                SubscriptionValidationDataUtil.buildConditionalResponse(scopes("read"), messageContext);
+        Response otherResponse =
+                SubscriptionValidationDataUtil.buildConditionalResponse(scopes("write"), messageContext);
+
+        Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assert.assertTrue(response.getEntity() instanceof byte[]);
+        EntityTag entityTag = getEntityTag(response);
+        Assert.assertNotNull(entityTag);
+        Assert.assertEquals(entityTag, getEntityTag(sameResponse));
+        Assert.assertNotEquals(entityTag, getEntityTag(otherResponse));
+    }
+
+    @Test
+    public void testNotModifiedWhenEntityTagMatches() {
+
+        EntityTag entityTag =
+                getEntityTag(SubscriptionValidationDataUtil.buildConditionalResponse(scopes("read"), messageContext));
+        // The request matches only the tag of the first response, as it would with that tag as If-None-Match
+        Mockito.when(request.evaluatePreconditions(ArgumentMatchers.eq(entityTag)))
+                .thenReturn(Response.notModified(entityTag));
+
+        Response response = SubscriptionValidationDataUtil.buildConditionalResponse(scopes("read"), messageContext);
+        Assert.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        Assert.assertNull(response.getEntity());
+
+        Response modifiedResponse =
+                SubscriptionValidationDataUtil.buildConditionalResponse(scopes("write"), messageContext);
+        Assert.assertEquals(Response.Status.OK.getStatusCode(), modifiedResponse.getStatus());
+        Assert.assertNotEquals(entityTag, getEntityTag(modifiedResponse));
+    }
+
+    @Test
+    public void testEntityTagWithoutMessageContext() {
+
+        Response response = SubscriptionValidationDataUtil.buildConditionalResponse(scopes("read"), null);
+        Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assert.assertNotNull(getEntityTag(response));
+    }
+
+    private static EntityTag getEntityTag(Response response) {
+
+        return response.getEntityTag();
+    }
+
+    private static ScopesListDTO scopes(String scopeName) {
+
+        ScopeDTO scope = new ScopeDTO().name(scopeName).displayName(scopeName);
+        return new ScopesListDTO().count(1).list(Collections.singletonList(scope));
+    }
+}
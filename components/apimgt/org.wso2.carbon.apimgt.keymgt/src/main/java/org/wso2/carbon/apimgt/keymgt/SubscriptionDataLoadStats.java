@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt;
+
+import org.wso2.carbon.apimgt.keymgt.model.SubscriptionDataStore;
+import org.wso2.carbon.apimgt.keymgt.model.impl.SubscriptionDataStoreImpl;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of {@link SubscriptionDataLoadStatsMBean} backed by the subscription data stores registered in the
+ * {@link SubscriptionDataHolder}. The loads of the stores of unregistered tenants are not counted.
+ */
+public class SubscriptionDataLoadStats implements SubscriptionDataLoadStatsMBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.apimgt.keymgt:type=SubscriptionDataLoadStats";
+
+    @Override
+    public long getLoadCount() {
+
+        return sum(SubscriptionDataStoreImpl::getLoadCount);
+    }
+
+    @Override
+    public long getCoalescedLoadCount() {
+
+        return sum(SubscriptionDataStoreImpl::getCoalescedLoadCount);
+    }
+
+    @Override
+    public long getNotFoundHitCount() {
+
+        return sum(SubscriptionDataStoreImpl::getNotFoundHitCount);
+    }
+
+    private static long sum(ToLongFunction<SubscriptionDataStoreImpl> counter) {
+
+        long total = 0;
+        for (SubscriptionDataStore store : SubscriptionDataHolder.getInstance().subscriptionStore.values()) {
+            if (store instanceof SubscriptionDataStoreImpl) {
+                total += counter.applyAsLong((SubscriptionDataStoreImpl) store);
+            }
+        }
+        return total;
+    }
+}
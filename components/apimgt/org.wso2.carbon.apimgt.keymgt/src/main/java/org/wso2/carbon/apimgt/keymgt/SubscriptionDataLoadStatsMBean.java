@@ -0,0 +1,32 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt;
+
+/**
+ * JMX view of the loads of the entities missing in the subscription data stores of all the tenants. Coalesced loads
+ * are cache misses served by waiting for a concurrent load of the same entity and not found hits are cache misses
+ * answered without a remote call as the entity was recently found not to exist.
+ */
+public interface SubscriptionDataLoadStatsMBean {
+
+    long getLoadCount();
+
+    long getCoalescedLoadCount();
+
+    long getNotFoundHitCount();
+}
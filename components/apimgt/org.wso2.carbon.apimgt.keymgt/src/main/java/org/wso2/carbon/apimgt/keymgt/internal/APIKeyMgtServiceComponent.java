@@ -30,6 +30,7 @@ import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
 import org.wso2.carbon.apimgt.impl.keymgt.KeyManagerDataService;
+import org.wso2.carbon.apimgt.keymgt.SubscriptionDataLoadStats;
 import org.wso2.carbon.apimgt.keymgt.handlers.KeyValidationHandler;
 import org.wso2.carbon.apimgt.keymgt.service.KeyManagerDataServiceImpl;
 import org.wso2.carbon.apimgt.keymgt.util.APIKeyMgtDataHolder;
@@ -37,10 +38,15 @@ import org.wso2.carbon.event.output.adapter.core.OutputEventAdapterService;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.user.core.service.RealmService;
 
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 @Component(
          name = "api.keymgt.component", 
          immediate = true)
@@ -61,6 +67,7 @@ public class APIKeyMgtServiceComponent {
             // Register KeyManagerDataService
             serviceRegistration = ctxt.getBundleContext().registerService(KeyManagerDataService.class.getName(),
                     new KeyManagerDataServiceImpl(), null);
+            registerSubscriptionDataLoadStats();
 
             if (log.isDebugEnabled()) {
                 log.debug("Identity API Key Mgt Bundle is started.");
@@ -75,11 +82,38 @@ public class APIKeyMgtServiceComponent {
         if (serviceRegistration != null) {
             serviceRegistration.unregister();
         }
+        unregisterSubscriptionDataLoadStats();
         if (log.isDebugEnabled()) {
             log.info("Key Manager User Operation Listener is deactivated.");
         }
     }
 
+    private void registerSubscriptionDataLoadStats() {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(SubscriptionDataLoadStats.OBJECT_NAME);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(new SubscriptionDataLoadStats(), objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while registering the MBean " + SubscriptionDataLoadStats.OBJECT_NAME, e);
+        }
+    }
+
+    private void unregisterSubscriptionDataLoadStats() {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(SubscriptionDataLoadStats.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the MBean " + SubscriptionDataLoadStats.OBJECT_NAME, e);
+        }
+    }
+
     @Reference(
              name = "registry.service", 
              service = org.wso2.carbon.registry.core.service.RegistryService.class, 
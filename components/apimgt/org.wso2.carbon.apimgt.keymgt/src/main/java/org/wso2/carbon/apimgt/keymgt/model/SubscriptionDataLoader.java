@@ -33,7 +33,9 @@ import java.util.List;
 /**
  * This interface abstracts Data Loading operations. Interface will be consumed by
  * {@link SubscriptionDataStore} while populating in memory storage. The entries can be
- * fetched directly by the Database or by calling a service.
+ * fetched directly by the Database or by calling a service. A loader that revalidates the data
+ * of a store may return null from the loadAll methods, if the data is not modified since the
+ * store loaded it, in which case the store keeps its current entries.
  */
 public interface SubscriptionDataLoader {
 
@@ -21,17 +21,21 @@ package org.wso2.carbon.apimgt.keymgt.model.entity;
 import java.util.Objects;
 
 /**
- * Cache Key For Application KeyMapping Entries
+ * Cache Key For Application KeyMapping Entries. The key refers to the consumer key and key manager name instances of
+ * its key mapping instead of concatenating them, and computes its hash code once. The hash code fits into the
+ * alignment padding of the object, so it does not make the key any larger.
  */
 public class ApplicationKeyMappingCacheKey {
 
-    private String consumerKey;
-    private String keyManager;
+    private final String consumerKey;
+    private final String keyManager;
+    private final int hashCode;
 
     public ApplicationKeyMappingCacheKey(String consumerKey, String keyManager) {
 
         this.consumerKey = consumerKey;
         this.keyManager = keyManager;
+        this.hashCode = 31 * Objects.hashCode(consumerKey) + Objects.hashCode(keyManager);
     }
 
     @Override
@@ -40,14 +44,14 @@ public class ApplicationKeyMappingCacheKey {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ApplicationKeyMappingCacheKey that = (ApplicationKeyMappingCacheKey) o;
-        return Objects.equals(consumerKey, that.consumerKey) &&
+        return hashCode == that.hashCode && Objects.equals(consumerKey, that.consumerKey) &&
                 Objects.equals(keyManager, that.keyManager);
     }
 
     @Override
     public int hashCode() {
 
-        return Objects.hash(consumerKey, keyManager);
+        return hashCode;
     }
 
     @Override
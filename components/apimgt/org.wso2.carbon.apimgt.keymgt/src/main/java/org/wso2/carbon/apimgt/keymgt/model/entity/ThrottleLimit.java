@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.entity;
+
+import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
+
+/**
+ * Entity for keeping the default limit of a Throttling Policy.
+ */
+public class ThrottleLimit {
+
+    private String quotaType = null;
+    private RequestCountLimit requestCount = null;
+
+    public String getQuotaType() {
+
+        return quotaType;
+    }
+
+    public void setQuotaType(String quotaType) {
+
+        this.quotaType = quotaType;
+    }
+
+    public RequestCountLimit getRequestCount() {
+
+        return requestCount;
+    }
+
+    public void setRequestCount(RequestCountLimit requestCount) {
+
+        this.requestCount = requestCount;
+    }
+
+    /**
+     * Returns whether this is a request count limit with a valid count and time window.
+     *
+     * @return true if the limit is a request count limit
+     */
+    public boolean isRequestCountLimit() {
+
+        return PolicyConstants.REQUEST_COUNT_TYPE.equals(quotaType) && requestCount != null
+                && requestCount.getRequestCount() > 0 && requestCount.getTimeWindowInMillis() > 0;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ThrottleLimit [quotaType=" + quotaType + ", requestCount=" + requestCount + "]";
+    }
+
+    /**
+     * Entity for keeping a request count limit.
+     */
+    public static class RequestCountLimit {
+
+        private String timeUnit = null;
+        private int unitTime;
+        private long requestCount;
+
+        public String getTimeUnit() {
+
+            return timeUnit;
+        }
+
+        public void setTimeUnit(String timeUnit) {
+
+            this.timeUnit = timeUnit;
+        }
+
+        public int getUnitTime() {
+
+            return unitTime;
+        }
+
+        public void setUnitTime(int unitTime) {
+
+            this.unitTime = unitTime;
+        }
+
+        public long getRequestCount() {
+
+            return requestCount;
+        }
+
+        public void setRequestCount(long requestCount) {
+
+            this.requestCount = requestCount;
+        }
+
+        /**
+         * Returns the length of the time window of the limit.
+         *
+         * @return time window in milliseconds, or 0 if the time unit is unknown
+         */
+        public long getTimeWindowInMillis() {
+
+            long timeUnitInMillis;
+            if (timeUnit == null) {
+                return 0;
+            }
+            // Time units are the ones accepted by the time batch windows of the execution plans of the policies
+            switch (timeUnit) {
+                case "sec":
+                case "second":
+                case "seconds":
+                    timeUnitInMillis = 1000L;
+                    break;
+                case "min":
+                case "minute":
+                case "minutes":
+                    timeUnitInMillis = 60000L;
+                    break;
+                case "hour":
+                case "hours":
+                    timeUnitInMillis = 3600000L;
+                    break;
+                case "day":
+                case "days":
+                    timeUnitInMillis = 86400000L;
+                    break;
+                case "week":
+                case "weeks":
+                    timeUnitInMillis = 604800000L;
+                    break;
+                case "month":
+                case "months":
+                    timeUnitInMillis = 2592000000L;
+                    break;
+                case "year":
+                case "years":
+                    timeUnitInMillis = 31536000000L;
+                    break;
+                default:
+                    return 0;
+            }
+            return timeUnitInMillis * unitTime;
+        }
+
+        @Override
+        public String toString() {
+
+            return "RequestCountLimit [timeUnit=" + timeUnit + ", unitTime=" + unitTime + ", requestCount="
+                    + requestCount + "]";
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Concurrent map with primitive long keys, used for the entity maps of {@link SubscriptionDataStoreImpl} whose keys
+ * are packed ids. Entries are kept in open addressed tables of parallel key and value arrays, so that neither a boxed
+ * key nor a map node is held per entry.
+ * <p>
+ * The map is split into segments, each guarded by its own lock. Reads are optimistic and only fall back to the read
+ * lock of the segment if a writer modified it meanwhile. Null values are not supported.
+ *
+ * @param <V> value type
+ */
+final class LongKeyedMap<V> {
+
+    private static final int SEGMENT_COUNT = 16;
+    // Segments are selected by the top bits of the hash, as the slots within a segment use the bottom bits
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    LongKeyedMap() {
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns the value mapped to the given key.
+     *
+     * @param key key to look up
+     * @return mapped value or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+
+        int hash = hash(key);
+        return (V) segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Maps the given key to the given value.
+     *
+     * @param key   key of the entry
+     * @param value value of the entry
+     * @return value previously mapped to the key or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        int hash = hash(key);
+        return (V) segmentFor(hash).put(key, hash, value);
+    }
+
+    /**
+     * Removes the entry of the given key.
+     *
+     * @param key key of the entry
+     * @return removed value or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+
+        int hash = hash(key);
+        return (V) segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Removes all the entries. Segments are cleared one after the other, so a concurrent reader may still see
+     * entries of the segments not cleared yet.
+     */
+    void clear() {
+
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Passes all the entries to the given action, one segment at a time while holding its read lock. The action
+     * must not modify this map.
+     *
+     * @param action action to perform for each entry
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<Long, ? super V> action) {
+
+        for (Segment segment : segments) {
+            segment.forEach((BiConsumer<Long, Object>) action);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+
+        return segments[hash >>> SEGMENT_SHIFT];
+    }
+
+    /**
+     * Returns the longest distance of an entry from its home slot, across all the segments.
+     */
+    int maxProbeLength() {
+
+        int maxProbeLength = 0;
+        for (Segment segment : segments) {
+            maxProbeLength = Math.max(maxProbeLength, segment.maxProbeLength());
+        }
+        return maxProbeLength;
+    }
+
+    private static int hash(long key) {
+
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        // Only replaced or modified while holding the write lock.
+        private Table table = new Table(MIN_SEGMENT_CAPACITY);
+        private int size;
+
+        Object get(long key, int hash) {
+
+            long stamp = lock.tryOptimisticRead();
+            Object value = table.find(key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    value = table.find(key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        Object put(long key, int hash, Object value) {
+
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int slot = current.slotOf(key, hash);
+                Object existingValue = current.values[slot];
+                current.keys[slot] = key;
+                current.values[slot] = value;
+                if (existingValue == null && ++size > current.threshold()) {
+                    table = current.resize();
+                }
+                return existingValue;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Object remove(long key, int hash) {
+
+            long stamp = lock.writeLock();
+            try {
+                Object existingValue = table.delete(key, hash);
+                if (existingValue != null) {
+                    size--;
+                }
+                return existingValue;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(MIN_SEGMENT_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int maxProbeLength() {
+
+            long stamp = lock.readLock();
+            try {
+                return table.maxProbeLength();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void forEach(BiConsumer<Long, Object> action) {
+
+            long stamp = lock.readLock();
+            try {
+                Table current = table;
+                for (int i = 0; i < current.values.length; i++) {
+                    if (current.values[i] != null) {
+                        action.accept(current.keys[i], current.values[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Linear probing table. A slot is free if its value is null, and removals shift the following entries back
+     * instead of leaving tombstones.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        Table(int capacity) {
+
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        int threshold() {
+
+            return values.length - (values.length >>> 2);
+        }
+
+        /**
+         * Looks up the value of the given key. Bounded by the table length, so that an optimistic reader racing
+         * with a writer always returns, to be validated by the caller.
+         */
+        Object find(long key, int hash) {
+
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Returns the slot holding the given key, or the free slot the key should be inserted to.
+         */
+        int slotOf(long key, int hash) {
+
+            int slot = hash & mask;
+            while (values[slot] != null && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        Object delete(long key, int hash) {
+
+            int slot = slotOf(key, hash);
+            Object existingValue = values[slot];
+            if (existingValue == null) {
+                return null;
+            }
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (values[next] == null) {
+                    break;
+                }
+                int home = hash(keys[next]) & mask;
+                // Keep the entry if its home slot lies cyclically within (slot, next], otherwise shift it back
+                boolean reachable = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+                if (!reachable) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    slot = next;
+                }
+            }
+            keys[slot] = 0L;
+            values[slot] = null;
+            return existingValue;
+        }
+
+        int maxProbeLength() {
+
+            int maxProbeLength = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    maxProbeLength = Math.max(maxProbeLength, (i - (hash(keys[i]) & mask)) & mask);
+                }
+            }
+            return maxProbeLength;
+        }
+
+        Table resize() {
+
+            Table resized = new Table(values.length << 1);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    int slot = resized.slotOf(keys[i], hash(keys[i]));
+                    resized.keys[slot] = keys[i];
+                    resized.values[slot] = values[i];
+                }
+            }
+            return resized;
+        }
+    }
+}
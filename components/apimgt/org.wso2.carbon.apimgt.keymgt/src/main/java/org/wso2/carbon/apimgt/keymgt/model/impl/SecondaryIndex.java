@@ -0,0 +1,151 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Secondary index over one of the entity maps of {@link SubscriptionDataStoreImpl}. Maps an attribute of the entity
+ * to the cache keys of the entities having that value, so that lookups by a non key attribute do not need to scan
+ * the whole entity map.
+ * <p>
+ * Updates of an entity are expected to be done while holding a lock which guards its cache key, and a rebuild while
+ * holding the locks of all the keys. Updates of different entities may run concurrently, as each change to an index
+ * entry is applied atomically. Reads are lock free and re-validate each candidate against the entity map, so a reader
+ * racing with a writer never sees a wrong entity.
+ *
+ * @param <I> type of the indexed attribute
+ * @param <K> cache key type of the indexed entity map
+ * @param <V> entity type
+ */
+final class SecondaryIndex<I, K, V> {
+
+    private final Function<V, I> indexKeyFunction;
+    private volatile Map<I, Set<K>> index = new ConcurrentHashMap<>();
+
+    SecondaryIndex(Function<V, I> indexKeyFunction) {
+
+        this.indexKeyFunction = indexKeyFunction;
+    }
+
+    /**
+     * Reflects the replacement of an entity in the entity map in this index.
+     *
+     * @param cacheKey cache key of the entity
+     * @param oldValue value previously mapped to the cache key, or null if there was none
+     * @param newValue value now mapped to the cache key, or null if the entity was removed
+     */
+    void update(K cacheKey, V oldValue, V newValue) {
+
+        update(index, cacheKey, oldValue, newValue);
+    }
+
+    private void update(Map<I, Set<K>> targetIndex, K cacheKey, V oldValue, V newValue) {
+
+        I oldIndexKey = oldValue != null ? indexKeyFunction.apply(oldValue) : null;
+        I newIndexKey = newValue != null ? indexKeyFunction.apply(newValue) : null;
+        if (oldIndexKey != null && !oldIndexKey.equals(newIndexKey)) {
+            targetIndex.computeIfPresent(oldIndexKey, (indexKey, cacheKeys) -> {
+                cacheKeys.remove(cacheKey);
+                return cacheKeys.isEmpty() ? null : cacheKeys;
+            });
+        }
+        if (newIndexKey != null) {
+            targetIndex.compute(newIndexKey, (indexKey, cacheKeys) -> {
+                if (cacheKeys == null) {
+                    cacheKeys = ConcurrentHashMap.newKeySet();
+                }
+                cacheKeys.add(cacheKey);
+                return cacheKeys;
+            });
+        }
+    }
+
+    /**
+     * Re-indexes the given entities and replaces the current content of the index with the result.
+     *
+     * @param entities passes each cache key and entity of the indexed entity map to the given consumer
+     */
+    void rebuild(Consumer<BiConsumer<K, V>> entities) {
+
+        Map<I, Set<K>> newIndex = new ConcurrentHashMap<>();
+        entities.accept((cacheKey, value) -> update(newIndex, cacheKey, null, value));
+        index = newIndex;
+    }
+
+    /**
+     * Returns the first entity of the indexed map whose indexed attribute matches the given value.
+     *
+     * @param indexKey     value of the indexed attribute
+     * @param entityLookup looks up an entity of the indexed map by its cache key
+     * @return matching entity or null if there is none
+     */
+    V getFirst(I indexKey, Function<K, V> entityLookup) {
+
+        for (K cacheKey : getCacheKeys(indexKey)) {
+            V value = entityLookup.apply(cacheKey);
+            if (value != null && Objects.equals(indexKey, indexKeyFunction.apply(value))) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all the entities of the indexed map whose indexed attribute matches the given value.
+     *
+     * @param indexKey     value of the indexed attribute
+     * @param entityLookup looks up an entity of the indexed map by its cache key
+     * @return list of matching entities
+     */
+    List<V> getAll(I indexKey, Function<K, V> entityLookup) {
+
+        List<V> values = new ArrayList<>();
+        for (K cacheKey : getCacheKeys(indexKey)) {
+            V value = entityLookup.apply(cacheKey);
+            if (value != null && Objects.equals(indexKey, indexKeyFunction.apply(value))) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the cache keys of the entities indexed against the given value.
+     *
+     * @param indexKey value of the indexed attribute
+     * @return cache keys of the matching entities
+     */
+    Set<K> getCacheKeys(I indexKey) {
+
+        if (indexKey == null) {
+            return Collections.emptySet();
+        }
+        Set<K> cacheKeys = index.get(indexKey);
+        return cacheKeys != null ? cacheKeys : Collections.emptySet();
+    }
+}
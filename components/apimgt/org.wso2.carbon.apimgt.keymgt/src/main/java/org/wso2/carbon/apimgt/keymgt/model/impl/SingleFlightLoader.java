@@ -0,0 +1,167 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.wso2.carbon.apimgt.impl.utils.SingleFlight;
+import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads entities missing in one of the entity maps of {@link SubscriptionDataStoreImpl} from the control plane.
+ * <p>
+ * Concurrent loads of the same key share a single call to the control plane. Keys which the control plane does not
+ * know are remembered for a limited time, so that repeated requests with unknown keys do not result in a remote call
+ * each. When the number of remembered keys reaches the limit, the key remembered the earliest is forgotten.
+ *
+ * @param <K> cache key type of the entity map
+ * @param <V> entity type
+ */
+final class SingleFlightLoader<K, V> {
+
+    static final long DEFAULT_NOT_FOUND_TTL_MILLIS = 30000;
+    static final int DEFAULT_MAX_NOT_FOUND_KEYS = 10000;
+
+    private final long notFoundTTLMillis;
+    private final int maxNotFoundKeys;
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+    // Expiry times of the keys not found, in the order the keys were found not to exist. As all the keys are
+    // remembered for the same time, this is also the order of the expiry times.
+    private final LinkedHashMap<K, Long> notFoundKeys = new LinkedHashMap<>();
+    private final AtomicLong notFoundHitCount = new AtomicLong();
+
+    SingleFlightLoader() {
+
+        this(DEFAULT_NOT_FOUND_TTL_MILLIS, DEFAULT_MAX_NOT_FOUND_KEYS);
+    }
+
+    SingleFlightLoader(long notFoundTTLMillis, int maxNotFoundKeys) {
+
+        this.notFoundTTLMillis = notFoundTTLMillis;
+        this.maxNotFoundKeys = maxNotFoundKeys;
+    }
+
+    /**
+     * Loads the entity of the given key, unless the key was recently found to be unknown. If a load of the same key
+     * is already in progress, waits for and returns its result instead.
+     *
+     * @param key    cache key of the entity
+     * @param loader loads the entity and adds it to the entity map. Returns null if the entity does not exist
+     * @return loaded entity or null if it does not exist
+     * @throws DataLoadingException if the entity could not be loaded
+     */
+    V load(K key, Loader<V> loader) throws DataLoadingException {
+
+        if (isKnownNotFound(key)) {
+            notFoundHitCount.incrementAndGet();
+            return null;
+        }
+        try {
+            return singleFlight.execute(key, () -> {
+                V value = loader.load();
+                if (value == null) {
+                    addNotFoundKey(key);
+                }
+                return value;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataLoadingException("Interrupted while waiting for the data of " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DataLoadingException) {
+                throw (DataLoadingException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DataLoadingException("Error while loading the data of " + key, cause);
+        }
+    }
+
+    long getLoadCount() {
+
+        return singleFlight.getCallCount();
+    }
+
+    long getCoalescedLoadCount() {
+
+        return singleFlight.getCoalescedCallCount();
+    }
+
+    int getNotFoundKeyCount() {
+
+        synchronized (notFoundKeys) {
+            return notFoundKeys.size();
+        }
+    }
+
+    long getNotFoundHitCount() {
+
+        return notFoundHitCount.get();
+    }
+
+    private boolean isKnownNotFound(K key) {
+
+        synchronized (notFoundKeys) {
+            Long expiryTime = notFoundKeys.get(key);
+            if (expiryTime == null) {
+                return false;
+            }
+            if (expiryTime > System.currentTimeMillis()) {
+                return true;
+            }
+            notFoundKeys.remove(key);
+            return false;
+        }
+    }
+
+    private void addNotFoundKey(K key) {
+
+        long currentTime = System.currentTimeMillis();
+        synchronized (notFoundKeys) {
+            // Remove the key first, so that it moves to the end of the insertion order. Then forget the expired keys
+            // and, if still full, the key remembered the earliest. Each key is removed at most once, so adding a key
+            // takes constant time on average.
+            notFoundKeys.remove(key);
+            Iterator<Long> expiryTimes = notFoundKeys.values().iterator();
+            while (expiryTimes.hasNext()) {
+                long expiryTime = expiryTimes.next();
+                if (expiryTime > currentTime && notFoundKeys.size() < maxNotFoundKeys) {
+                    break;
+                }
+                expiryTimes.remove();
+            }
+            notFoundKeys.put(key, currentTime + notFoundTTLMillis);
+        }
+    }
+
+    /**
+     * Loads an entity from the control plane.
+     *
+     * @param <V> entity type
+     */
+    @FunctionalInterface
+    interface Loader<V> {
+
+        V load() throws DataLoadingException;
+    }
+}
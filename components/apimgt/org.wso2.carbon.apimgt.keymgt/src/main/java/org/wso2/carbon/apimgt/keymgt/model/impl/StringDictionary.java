@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the low cardinality string attributes of the entities held by {@link SubscriptionDataStoreImpl},
+ * such as policy names, states, key types and organizations. Every entity loaded into the store refers to the
+ * canonical instance of these strings, instead of each one holding its own copy deserialized from the internal API.
+ * <p>
+ * The dictionary is bounded. Once it is full, new values are returned as they are without being canonicalized.
+ */
+final class StringDictionary {
+
+    static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    StringDictionary() {
+
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    StringDictionary(int maxSize) {
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the canonical instance of the given value.
+     *
+     * @param value value to canonicalize
+     * @return an equal string shared by all the callers, or the given value if it is null or the dictionary is full
+     */
+    String canonicalize(String value) {
+
+        if (value == null) {
+            return null;
+        }
+        String canonicalValue = values.get(value);
+        if (canonicalValue != null) {
+            return canonicalValue;
+        }
+        if (values.size() >= maxSize) {
+            return value;
+        }
+        canonicalValue = values.putIfAbsent(value, value);
+        return canonicalValue != null ? canonicalValue : value;
+    }
+
+    int size() {
+
+        return values.size();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by the keys of an entity map of {@link SubscriptionDataStoreImpl}. Updates of entities
+ * with different keys mostly take different locks, while updates which replace the whole map take all of them.
+ */
+final class StripedLock {
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * Creates the locks.
+     *
+     * @param stripeCount number of locks, rounded up to a power of two
+     */
+    StripedLock(int stripeCount) {
+
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding the given key.
+     *
+     * @param key key of an entity
+     * @return lock of the key
+     */
+    Lock get(long key) {
+
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return locks[(int) (hash >>> 32) & (locks.length - 1)];
+    }
+
+    /**
+     * Acquires all the locks, always in the same order.
+     */
+    void lockAll() {
+
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Releases all the locks acquired by {@link #lockAll()}.
+     */
+    void unlockAll() {
+
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+}
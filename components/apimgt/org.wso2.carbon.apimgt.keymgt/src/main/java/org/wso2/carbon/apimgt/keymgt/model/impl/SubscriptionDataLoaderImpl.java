@@ -18,9 +18,13 @@
 package org.wso2.carbon.apimgt.keymgt.model.impl;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
@@ -51,12 +55,15 @@ import org.wso2.carbon.apimgt.keymgt.model.entity.SubscriptionPolicyList;
 import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
@@ -67,9 +74,28 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
     public static final int retrievalTimeoutInSeconds = 15;
     public static final int retrievalRetries = 15;
     public static final String UTF8 = "UTF-8";
+    private static final Gson gson = new Gson();
+    /**
+     * Entity tags of the tenant wide lists last handed to the store that owns this map, keyed by resource path. Used
+     * to revalidate the lists with the control plane, so that a store reload does not download and replace the lists
+     * again when nothing changed since its previous load. Null if the lists are always retrieved in full.
+     */
+    private final Map<String, String> entityTags;
 
     public SubscriptionDataLoaderImpl() {
 
+        this(null);
+    }
+
+    /**
+     * Creates a loader that revalidates the tenant wide lists against the given entity tags. The tags must belong to a
+     * single store, since the loader returns null instead of a list that is not modified since the store loaded it.
+     *
+     * @param entityTags entity tags of the lists held by the store, which are updated as the lists are retrieved
+     */
+    public SubscriptionDataLoaderImpl(Map<String, String> entityTags) {
+
+        this.entityTags = entityTags;
         this.getEventHubConfigurationDto = ServiceReferenceHolder.getInstance()
                 .getAPIManagerConfigurationService().getAPIManagerConfiguration()
                 .getEventHubConfigurationDto();
@@ -83,16 +109,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String subscriptionsEP = APIConstants.SubscriptionValidationResources.SUBSCRIPTIONS;
         List<Subscription> subscriptions = new ArrayList<>();
-        String responseString = null;
+        SubscriptionList response;
         try {
-            responseString = invokeService(subscriptionsEP, tenantDomain);
+            response = invokeConditionalService(subscriptionsEP, tenantDomain, SubscriptionList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + subscriptionsEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            subscriptions = (new Gson().fromJson(responseString, SubscriptionList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            subscriptions = new ArrayList<>(response.getList());
         }
         return subscriptions;
     }
@@ -102,16 +131,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String applicationsEP = APIConstants.SubscriptionValidationResources.APPLICATIONS;
         List<Application> applications = new ArrayList<>();
-        String responseString = null;
+        ApplicationList response;
         try {
-            responseString = invokeService(applicationsEP, tenantDomain);
+            response = invokeConditionalService(applicationsEP, tenantDomain, ApplicationList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + applicationsEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            applications = (new Gson().fromJson(responseString, ApplicationList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            applications = new ArrayList<>(response.getList());
         }
         return applications;
     }
@@ -121,16 +153,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String applicationsEP = APIConstants.SubscriptionValidationResources.APPLICATION_KEY_MAPPINGS;
         List<ApplicationKeyMapping> applicationKeyMappings = new ArrayList<>();
-        String responseString = null;
+        ApplicationKeyMappingList response;
         try {
-            responseString = invokeService(applicationsEP, tenantDomain);
+            response = invokeConditionalService(applicationsEP, tenantDomain, ApplicationKeyMappingList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + applicationsEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            applicationKeyMappings = (new Gson().fromJson(responseString, ApplicationKeyMappingList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            applicationKeyMappings = new ArrayList<>(response.getList());
         }
         return applicationKeyMappings;
     }
@@ -141,30 +176,46 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         Set<String> gatewayLabels = gatewayArtifactSynchronizerProperties.getGatewayLabels();
         List<API> apis = new ArrayList<>();
         if (gatewayLabels != null && gatewayLabels.size() > 0) {
+            List<String> notModifiedEPs = new ArrayList<>();
             for (String gatewayLabel : gatewayLabels) {
                 String apisEP =
                         APIConstants.SubscriptionValidationResources.APIS + "?gatewayLabel=" + getEncodedLabel(gatewayLabel);
-                String responseString = null;
-                try {
-                    responseString = invokeService(apisEP, tenantDomain);
-                } catch (IOException e) {
-                    String msg = "Error while executing the http client " + apisEP;
-                    log.error(msg, e);
-                    throw new DataLoadingException(msg, e);
-                }
-                if (responseString != null && !responseString.isEmpty()) {
-                    APIList apiList = new Gson().fromJson(responseString, APIList.class);
+                APIList apiList = loadApis(apisEP, tenantDomain, true);
+                if (apiList == null) {
+                    notModifiedEPs.add(apisEP);
+                } else if (apiList.getList() != null) {
                     apis.addAll(apiList.getList());
                 }
-                if (log.isDebugEnabled()) {
-                    log.debug("apis :" + apis.get(0).toString());
+            }
+            if (notModifiedEPs.size() == gatewayLabels.size()) {
+                return null;
+            }
+            // The store replaces the APIs of all labels at once, so the unchanged labels are retrieved again
+            for (String apisEP : notModifiedEPs) {
+                APIList apiList = loadApis(apisEP, tenantDomain, false);
+                if (apiList != null && apiList.getList() != null) {
+                    apis.addAll(apiList.getList());
                 }
             }
+            if (log.isDebugEnabled() && !apis.isEmpty()) {
+                log.debug("apis :" + apis.get(0).toString());
+            }
         }
 
         return apis;
     }
 
+    private APIList loadApis(String apisEP, String tenantDomain, boolean revalidate) throws DataLoadingException {
+
+        try {
+            return invokeConditionalService(apisEP, tenantDomain, APIList.class, revalidate);
+        } catch (IOException e) {
+            String msg = "Error while executing the http client " + apisEP;
+            log.error(msg, e);
+            throw new DataLoadingException(msg, e);
+        }
+    }
+
     @Override
     public List<API> loadAllTenantApiMetadata() throws DataLoadingException {
 
@@ -174,16 +225,15 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             for (String gatewayLabel : gatewayLabels) {
                 String apisEP =
                         APIConstants.SubscriptionValidationResources.APIS + "?gatewayLabel=" + getEncodedLabel(gatewayLabel);
-                String responseString;
+                APIList apiList;
                 try {
-                    responseString = invokeService(apisEP, APIConstants.ORG_ALL_QUERY_PARAM);
+                    apiList = invokeService(apisEP, APIConstants.ORG_ALL_QUERY_PARAM, APIList.class);
                 } catch (IOException e) {
                     String msg = "Error while executing the http client " + apisEP;
                     log.error(msg, e);
                     throw new DataLoadingException(msg, e);
                 }
-                if (responseString != null && !responseString.isEmpty()) {
-                    APIList apiList = new Gson().fromJson(responseString, APIList.class);
+                if (apiList != null && apiList.getList() != null) {
                     apis.addAll(apiList.getList());
                 }
                 if (log.isDebugEnabled()) {
@@ -200,16 +250,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String subscriptionPoliciesEP = APIConstants.SubscriptionValidationResources.SUBSCRIPTION_POLICIES;
         List<SubscriptionPolicy> subscriptionPolicies = new ArrayList<>();
-        String responseString = null;
+        SubscriptionPolicyList response;
         try {
-            responseString = invokeService(subscriptionPoliciesEP, tenantDomain);
+            response = invokeConditionalService(subscriptionPoliciesEP, tenantDomain, SubscriptionPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + subscriptionPoliciesEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            subscriptionPolicies = (new Gson().fromJson(responseString, SubscriptionPolicyList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            subscriptionPolicies = new ArrayList<>(response.getList());
         }
         return subscriptionPolicies;
     }
@@ -219,16 +272,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String apiPoliciesEP = APIConstants.SubscriptionValidationResources.API_POLICIES;
         List<ApiPolicy> apiPolicies = new ArrayList<>();
-        String responseString = null;
+        APIPolicyList response;
         try {
-            responseString = invokeService(apiPoliciesEP, tenantDomain);
+            response = invokeConditionalService(apiPoliciesEP, tenantDomain, APIPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + apiPoliciesEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            apiPolicies = (new Gson().fromJson(responseString, APIPolicyList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            apiPolicies = new ArrayList<>(response.getList());
         }
         return apiPolicies;
     }
@@ -238,16 +294,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String applicationsEP = APIConstants.SubscriptionValidationResources.APPLICATION_POLICIES;
         List<ApplicationPolicy> applicationPolicies = new ArrayList<>();
-        String responseString = null;
+        ApplicationPolicyList response;
         try {
-            responseString = invokeService(applicationsEP, tenantDomain);
+            response = invokeConditionalService(applicationsEP, tenantDomain, ApplicationPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + applicationsEP;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            applicationPolicies = (new Gson().fromJson(responseString, ApplicationPolicyList.class)).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            applicationPolicies = new ArrayList<>(response.getList());
         }
         return applicationPolicies;
     }
@@ -258,19 +317,16 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         String endPoint =
                 APIConstants.SubscriptionValidationResources.SUBSCRIPTIONS + "?apiId=" + apiId + "&appId=" + appId;
         Subscription subscription = null;
-        String responseString;
+        SubscriptionList list;
         try {
-            responseString = invokeService(endPoint, null);
+            list = invokeService(endPoint, null, SubscriptionList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            SubscriptionList list = new Gson().fromJson(responseString, SubscriptionList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                subscription = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            subscription = list.getList().get(0);
         }
         return subscription;
     }
@@ -280,19 +336,16 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
 
         String endPoint = APIConstants.SubscriptionValidationResources.APPLICATIONS + "?appId=" + appId;
         Application application = null;
-        String responseString;
+        ApplicationList list;
         try {
-            responseString = invokeService(endPoint, null);
+            list = invokeService(endPoint, null, ApplicationList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            ApplicationList list = new Gson().fromJson(responseString, ApplicationList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                application = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            application = list.getList().get(0);
         }
         return application;
     }
@@ -302,24 +355,21 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             throws DataLoadingException {
 
         ApplicationKeyMapping application = null;
-        String responseString;
         String endPoint = null;
+        ApplicationKeyMappingList list;
         try {
             keymanager = URLEncoder.encode(keymanager, APIConstants.DigestAuthConstants.CHARSET);
             keymanager = keymanager.replace("\\+", "%20");
             endPoint = APIConstants.SubscriptionValidationResources.APPLICATION_KEY_MAPPINGS + "?consumerKey="
                     + consumerKey + "&keymanager=" + keymanager;
-            responseString = invokeService(endPoint, tenantDomain);
+            list = invokeService(endPoint, tenantDomain, ApplicationKeyMappingList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            ApplicationKeyMappingList list = new Gson().fromJson(responseString, ApplicationKeyMappingList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                application = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            application = list.getList().get(0);
         }
         return application;
     }
@@ -333,19 +383,16 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
                 String apisEP = APIConstants.SubscriptionValidationResources.APIS + "?context=" + context +
                         "&version=" + version + "&gatewayLabel=" + getEncodedLabel(gatewayLabel);
                 API api = null;
-                String responseString;
+                APIList list;
                 try {
-                    responseString = invokeService(apisEP, null);
+                    list = invokeService(apisEP, null, APIList.class);
                 } catch (IOException e) {
                     String msg = "Error while executing the http client " + apisEP;
                     log.error(msg, e);
                     throw new DataLoadingException(msg, e);
                 }
-                if (responseString != null && !responseString.isEmpty()) {
-                    APIList list = new Gson().fromJson(responseString, APIList.class);
-                    if (list.getList() != null && !list.getList().isEmpty()) {
-                        api = list.getList().get(0);
-                    }
+                if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+                    api = list.getList().get(0);
                 }
                 if (api != null) {
                     return api;
@@ -364,19 +411,16 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         if (log.isDebugEnabled()) {
             log.debug("getSubscriptionPolicy for " + policyName + " for tenant " + tenantDomain);
         }
-        String responseString;
+        SubscriptionPolicyList list;
         try {
-            responseString = invokeService(endPoint, tenantDomain);
+            list = invokeService(endPoint, tenantDomain, SubscriptionPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            SubscriptionPolicyList list = new Gson().fromJson(responseString, SubscriptionPolicyList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                subscriptionPolicy = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            subscriptionPolicy = list.getList().get(0);
         }
         return subscriptionPolicy;
     }
@@ -390,19 +434,16 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         if (log.isDebugEnabled()) {
             log.debug("getApplicationPolicy for " + policyName + " for tenant " + tenantDomain);
         }
-        String responseString;
+        ApplicationPolicyList list;
         try {
-            responseString = invokeService(endPoint, tenantDomain);
+            list = invokeService(endPoint, tenantDomain, ApplicationPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            ApplicationPolicyList list = new Gson().fromJson(responseString, ApplicationPolicyList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                applicationPolicy = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            applicationPolicy = list.getList().get(0);
         }
         return applicationPolicy;
     }
@@ -413,22 +454,19 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
         String endPoint = APIConstants.SubscriptionValidationResources.API_POLICIES + "?policyName=" +
                 policyName;
         ApiPolicy apiPolicy = new ApiPolicy();
-        String responseString;
         if (log.isDebugEnabled()) {
             log.debug("getAPIPolicy for " + policyName + " for tenant " + tenantDomain);
         }
+        APIPolicyList list;
         try {
-            responseString = invokeService(endPoint, tenantDomain);
+            list = invokeService(endPoint, tenantDomain, APIPolicyList.class);
         } catch (IOException e) {
             String msg = "Error while executing the http client " + endPoint;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            APIPolicyList list = new Gson().fromJson(responseString, APIPolicyList.class);
-            if (list.getList() != null && !list.getList().isEmpty()) {
-                apiPolicy = list.getList().get(0);
-            }
+        if (list != null && list.getList() != null && !list.getList().isEmpty()) {
+            apiPolicy = list.getList().get(0);
         }
         return apiPolicy;
     }
@@ -437,22 +475,102 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
     public List<Scope> loadAllScopes(String tenantDomain) throws DataLoadingException {
         String scopesEp = APIConstants.SubscriptionValidationResources.SCOPES;
         List<Scope> scopes = new ArrayList<>();
-        String responseString;
+        ScopesList response;
         try {
-            responseString = invokeService(scopesEp, tenantDomain);
+            response = invokeConditionalService(scopesEp, tenantDomain, ScopesList.class);
         } catch (IOException e) {
             String msg = "Error while executing the HTTP client " + scopesEp;
             log.error(msg, e);
             throw new DataLoadingException(msg, e);
         }
-        if (responseString != null && !responseString.isEmpty()) {
-            scopes = new Gson().fromJson(responseString, ScopesList.class).getList();
+        if (response == null) {
+            return null;
+        }
+        if (response.getList() != null) {
+            scopes = new ArrayList<>(response.getList());
         }
         return scopes;
 
     }
 
-    private String invokeService(String path, String tenantDomain) throws DataLoadingException, IOException {
+    private <T> T invokeConditionalService(String path, String tenantDomain, Class<T> responseType)
+            throws DataLoadingException, IOException {
+
+        return invokeConditionalService(path, tenantDomain, responseType, true);
+    }
+
+    /**
+     * Retrieves the given resource and remembers its entity tag. If revalidation is requested and the resource was
+     * retrieved before, the request is made conditional on the remembered tag, and nothing is transferred or parsed
+     * when the control plane responds with 304.
+     *
+     * @param path         resource path relative to the internal REST API
+     * @param tenantDomain tenant domain of the retrieved data
+     * @param responseType type to which the response is parsed
+     * @param revalidate   whether the request is conditional on the remembered entity tag
+     * @return parsed response, or null if the resource is not modified or the response had no content
+     */
+    private <T> T invokeConditionalService(String path, String tenantDomain, Class<T> responseType,
+                                           boolean revalidate) throws DataLoadingException, IOException {
+
+        if (entityTags == null) {
+            return invokeService(path, tenantDomain, responseType);
+        }
+        String entityTag = revalidate ? entityTags.get(path) : null;
+        HttpResponse httpResponse = executeWithRetry(path, tenantDomain, entityTag);
+        if (entityTag != null && HttpStatus.SC_NOT_MODIFIED == httpResponse.getStatusLine().getStatusCode()) {
+            EntityUtils.consumeQuietly(httpResponse.getEntity());
+            if (log.isDebugEnabled()) {
+                log.debug(path + " of tenant " + tenantDomain + " is not modified since the last retrieval");
+            }
+            return null;
+        }
+        Header entityTagHeader = httpResponse.getFirstHeader(HttpHeaders.ETAG);
+        T response = readResponse(httpResponse, responseType);
+        if (entityTagHeader != null && response != null) {
+            entityTags.put(path, entityTagHeader.getValue());
+        } else {
+            entityTags.remove(path);
+        }
+        return response;
+    }
+
+    private <T> T invokeService(String path, String tenantDomain, Class<T> responseType)
+            throws DataLoadingException, IOException {
+
+        return readResponse(executeWithRetry(path, tenantDomain, null), responseType);
+    }
+
+    /**
+     * Parses the response body straight from the entity stream, without buffering the whole body as a string.
+     */
+    private <T> T readResponse(HttpResponse httpResponse, Class<T> responseType) throws IOException {
+
+        HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)) {
+            return parseResponse(reader, responseType);
+        }
+    }
+
+    private <T> T parseResponse(Reader reader, Class<T> responseType) throws IOException {
+
+        T response;
+        try {
+            response = gson.fromJson(reader, responseType);
+        } catch (JsonParseException e) {
+            throw new IOException("Error while parsing the response to " + responseType.getSimpleName(), e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Response : " + gson.toJson(response));
+        }
+        return response;
+    }
+
+    private HttpResponse executeWithRetry(String path, String tenantDomain, String entityTag)
+            throws DataLoadingException, IOException {
 
         String serviceURLStr = getEventHubConfigurationDto.getServiceUrl().concat(APIConstants.INTERNAL_WEB_APP_EP);
         HttpGet method = new HttpGet(serviceURLStr + path);
@@ -467,6 +585,9 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             if (tenantDomain != null) {
                 method.setHeader(APIConstants.HEADER_TENANT, tenantDomain);
             }
+            if (entityTag != null) {
+                method.setHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+            }
             HttpClient httpClient = APIUtil.getHttpClient(servicePort, serviceProtocol);
 
             HttpResponse httpResponse = null;
@@ -475,10 +596,11 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
             do {
                 try {
                     httpResponse = httpClient.execute(method);
-                    if (HttpStatus.SC_OK != httpResponse.getStatusLine().getStatusCode()) {
+                    if (!isSuccessful(httpResponse, entityTag)) {
                         log.error("Could not retrieve subscriptions for tenantDomain: " + tenantDomain
                                 + ". Received response with status code "
                                 + httpResponse.getStatusLine().getStatusCode());
+                        EntityUtils.consumeQuietly(httpResponse.getEntity());
                         throw new DataLoadingException("Error while retrieving subscription");
                     }
                     retry = false;
@@ -499,16 +621,18 @@ public class SubscriptionDataLoaderImpl implements SubscriptionDataLoader {
                     }
                 }
             } while (retry);
-            if (HttpStatus.SC_OK != httpResponse.getStatusLine().getStatusCode()) {
+            if (!isSuccessful(httpResponse, entityTag)) {
                 log.error("Could not retrieve subscriptions for tenantDomain : " + tenantDomain);
                 throw new DataLoadingException("Error while retrieving subscription from " + path);
             }
-            String responseString = EntityUtils.toString(httpResponse.getEntity(), UTF8);
-            if (log.isDebugEnabled()) {
-                log.debug("Response : " + responseString);
-            }
-            return responseString;
+            return httpResponse;
+
+    }
+
+    private boolean isSuccessful(HttpResponse httpResponse, String entityTag) {
 
+        int statusCode = httpResponse.getStatusLine().getStatusCode();
+        return HttpStatus.SC_OK == statusCode || (entityTag != null && HttpStatus.SC_NOT_MODIFIED == statusCode);
     }
 
     private byte[] getServiceCredentials(EventHubConfigurationDto eventHubConfigurationDto) {
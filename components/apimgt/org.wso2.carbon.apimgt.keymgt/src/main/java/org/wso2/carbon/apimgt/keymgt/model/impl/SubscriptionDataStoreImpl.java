@@ -50,6 +50,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -57,6 +60,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
     public static final String DELEM_PERIOD = ":";
     public static final int LOADING_POOL_SIZE = 7;
+    private static final int SUBSCRIPTION_LOCK_STRIPES = 64;
     private static final Log log = LogFactory.getLog(SubscriptionDataStoreImpl.class);
     private final EventHubConfigurationDto eventHubConfiguration;
     private boolean scopesInitialized;
@@ -69,8 +73,41 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     private Map<String, ApiPolicy> apiPolicyMap;
     private Map<String, SubscriptionPolicy> subscriptionPolicyMap;
     private Map<String, ApplicationPolicy> appPolicyMap;
-    private Map<String, Subscription> subscriptionMap;
+    // Keyed by the application id and the API id packed into a long, without boxing. See getSubscriptionKey.
+    private LongKeyedMap<Subscription> subscriptionMap;
     private Map<String, Scope> scopesMap;
+    // Secondary indexes for looking up entities by non key attributes. Updated while holding the lock of the
+    // entity map they index, or for subscriptions the lock of the subscription key. The subscription indexes hold
+    // boxed keys, one instance per subscription shared by all of them, since their values are hash sets of cache keys.
+    private final StripedLock subscriptionLocks = new StripedLock(SUBSCRIPTION_LOCK_STRIPES);
+    private final Object applicationLock = new Object();
+    private final Object applicationKeyMappingLock = new Object();
+    private final SecondaryIndex<String, Long, Subscription> subscriptionByUUIDIndex =
+            new SecondaryIndex<>(Subscription::getSubscriptionUUId);
+    private final SecondaryIndex<String, Long, Subscription> subscriptionByAPIAndAppUUIDIndex =
+            new SecondaryIndex<>(subscription -> getSubscriptionUUIDKey(subscription.getApiUUID(),
+                    subscription.getApplicationUUID()));
+    private final SecondaryIndex<Integer, Long, Subscription> subscriptionsByAPIIdIndex =
+            new SecondaryIndex<>(Subscription::getApiId);
+    private final SecondaryIndex<String, Long, Subscription> subscriptionsByAppUUIDIndex =
+            new SecondaryIndex<>(Subscription::getApplicationUUID);
+    private final SecondaryIndex<String, Integer, Application> applicationByUUIDIndex =
+            new SecondaryIndex<>(Application::getUUID);
+    private final SecondaryIndex<String, Integer, Application> applicationsByNameIndex =
+            new SecondaryIndex<>(Application::getName);
+    private final SecondaryIndex<Integer, ApplicationKeyMappingCacheKey, ApplicationKeyMapping>
+            keyMappingsByAppIdIndex = new SecondaryIndex<>(ApplicationKeyMapping::getApplicationId);
+    // Loaders of the entities missing in the maps. Share concurrent loads of the same entity and remember the
+    // entities which do not exist for a short time. Keys are only boxed while a load is in flight or remembered.
+    private final SingleFlightLoader<Integer, Application> applicationLoader = new SingleFlightLoader<>();
+    private final SingleFlightLoader<ApplicationKeyMappingCacheKey, ApplicationKeyMapping> keyMappingLoader =
+            new SingleFlightLoader<>();
+    private final SingleFlightLoader<String, API> apiLoader = new SingleFlightLoader<>();
+    private final SingleFlightLoader<Long, Subscription> subscriptionLoader = new SingleFlightLoader<>();
+    // Canonical instances of the low cardinality string attributes of the entities in the maps.
+    private final StringDictionary stringDictionary = new StringDictionary();
+    // Entity tags of the lists loaded into this store, used to skip the reloads of the lists that are not modified.
+    private final Map<String, String> entityTags = new ConcurrentHashMap<>();
     private boolean apisInitialized;
     private boolean apiPoliciesInitialized;
     private String tenantDomain;
@@ -93,7 +130,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         this.subscriptionPolicyMap = new ConcurrentHashMap<>();
         this.appPolicyMap = new ConcurrentHashMap<>();
         this.apiPolicyMap = new ConcurrentHashMap<>();
-        this.subscriptionMap = new ConcurrentHashMap<>();
+        this.subscriptionMap = new LongKeyedMap<>();
         this.scopesMap = new ConcurrentHashMap<>();
         this.apiNameVersionMap = new ConcurrentHashMap<>();
     }
@@ -106,27 +143,13 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Application getApplicationById(int appId) {
 
-        String synchronizeKey = "SubscriptionDataStoreImpl-Application-" + appId;
         Application application = applicationMap.get(appId);
         if (application == null) {
-            synchronized (synchronizeKey.intern()) {
-                application = applicationMap.get(appId);
-                if (application != null) {
-                    return application;
-                }
-            }
             try {
-                application = new SubscriptionDataLoaderImpl().getApplicationById(appId);
+                application = applicationLoader.load(appId, () -> loadApplication(appId));
             } catch (DataLoadingException e) {
                 log.error("Error while Retrieving Application Metadata From Internal API.", e);
             }
-            if (application != null && application.getId() != null && application.getId() != 0) {
-                // load to the memory
-                log.debug("Loading Application to the in-memory datastore. applicationId = " + application.getId());
-                addOrUpdateApplication(application);
-            } else {
-                log.debug("Application not found. applicationId = " + appId);
-            }
         }
 
         if (log.isDebugEnabled()) {
@@ -140,31 +163,36 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         return application;
     }
 
+    private Application loadApplication(int appId) throws DataLoadingException {
+
+        Application application = applicationMap.get(appId);
+        if (application != null) {
+            return application;
+        }
+        application = new SubscriptionDataLoaderImpl().getApplicationById(appId);
+        if (application != null && application.getId() != null && application.getId() != 0) {
+            // load to the memory
+            log.debug("Loading Application to the in-memory datastore. applicationId = " + application.getId());
+            addOrUpdateApplication(application);
+            return application;
+        }
+        log.debug("Application not found. applicationId = " + appId);
+        return null;
+    }
+
     @Override
     public ApplicationKeyMapping getKeyMappingByKeyAndKeyManager(String key, String keyManager) {
 
         ApplicationKeyMappingCacheKey applicationKeyMappingCacheKey = new ApplicationKeyMappingCacheKey(key,
                 keyManager);
-        String synchronizeKey = "SubscriptionDataStoreImpl-KeyMapping-" + applicationKeyMappingCacheKey;
 
         ApplicationKeyMapping applicationKeyMapping = applicationKeyMappingMap.get(applicationKeyMappingCacheKey);
         if (applicationKeyMapping == null) {
-            synchronized (synchronizeKey.intern()) {
-                applicationKeyMapping = applicationKeyMappingMap.get(applicationKeyMappingCacheKey);
-                if (applicationKeyMapping != null) {
-                    return applicationKeyMapping;
-                }
-                try {
-                    applicationKeyMapping = new SubscriptionDataLoaderImpl()
-                            .getKeyMapping(key, keyManager, tenantDomain);
-                } catch (DataLoadingException e) {
-                    log.error("Error while Loading KeyMapping Information from Internal API.", e);
-                }
-                if (applicationKeyMapping != null && !StringUtils.isEmpty(applicationKeyMapping.getConsumerKey())) {
-                    // load to the memory
-                    log.debug("Loading Keymapping to the in-memory datastore.");
-                    addOrUpdateApplicationKeyMapping(applicationKeyMapping);
-                }
+            try {
+                applicationKeyMapping = keyMappingLoader.load(applicationKeyMappingCacheKey,
+                        () -> loadKeyMapping(applicationKeyMappingCacheKey, key, keyManager));
+            } catch (DataLoadingException e) {
+                log.error("Error while Loading KeyMapping Information from Internal API.", e);
             }
         }
 
@@ -179,28 +207,33 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         return applicationKeyMapping;
     }
 
+    private ApplicationKeyMapping loadKeyMapping(ApplicationKeyMappingCacheKey applicationKeyMappingCacheKey,
+                                                 String key, String keyManager) throws DataLoadingException {
+
+        ApplicationKeyMapping applicationKeyMapping = applicationKeyMappingMap.get(applicationKeyMappingCacheKey);
+        if (applicationKeyMapping != null) {
+            return applicationKeyMapping;
+        }
+        applicationKeyMapping = new SubscriptionDataLoaderImpl().getKeyMapping(key, keyManager, tenantDomain);
+        if (applicationKeyMapping != null && !StringUtils.isEmpty(applicationKeyMapping.getConsumerKey())) {
+            // load to the memory
+            log.debug("Loading Keymapping to the in-memory datastore.");
+            addOrUpdateApplicationKeyMapping(applicationKeyMapping);
+            return applicationKeyMapping;
+        }
+        return null;
+    }
+
     @Override
     public API getApiByContextAndVersion(String context, String version) {
 
         String key = context + DELEM_PERIOD + version;
-        String synchronizeKey = "SubscriptionDataStoreImpl-API-" + key;
         API api = apiMap.get(key);
         if (api == null) {
-            synchronized (synchronizeKey.intern()) {
-                api = apiMap.get(key);
-                if (api != null) {
-                    return api;
-                }
-                try {
-                    api = new SubscriptionDataLoaderImpl().getApi(context, version);
-                } catch (DataLoadingException e) {
-                    log.error("Error while Retrieving Data From Internal Rest API", e);
-                }
-                if (api != null && api.getApiId() != 0) {
-                    // load to the memory
-                    log.debug("Loading API to the in-memory datastore.");
-                    addOrUpdateAPI(api);
-                }
+            try {
+                api = apiLoader.load(key, () -> loadApi(key, context, version));
+            } catch (DataLoadingException e) {
+                log.error("Error while Retrieving Data From Internal Rest API", e);
             }
         }
         if (log.isDebugEnabled()) {
@@ -216,6 +249,22 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         return api;
     }
 
+    private API loadApi(String key, String context, String version) throws DataLoadingException {
+
+        API api = apiMap.get(key);
+        if (api != null) {
+            return api;
+        }
+        api = new SubscriptionDataLoaderImpl().getApi(context, version);
+        if (api != null && api.getApiId() != 0) {
+            // load to the memory
+            log.debug("Loading API to the in-memory datastore.");
+            addOrUpdateAPI(api);
+            return api;
+        }
+        return null;
+    }
+
     @Override
     public API getApiByNameAndVersion(String name, String version) {
 
@@ -248,26 +297,14 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Subscription getSubscriptionById(int appId, int apiId) {
 
-        String subscriptionCacheKey = SubscriptionDataStoreUtil.getSubscriptionCacheKey(appId, apiId);
-        String synchronizeKey = "SubscriptionDataStoreImpl-Subscription-" + subscriptionCacheKey;
-        Subscription subscription = subscriptionMap.get(subscriptionCacheKey);
+        long subscriptionKey = SubscriptionDataStoreUtil.getSubscriptionKey(appId, apiId);
+        Subscription subscription = subscriptionMap.get(subscriptionKey);
         if (subscription == null) {
-            synchronized (synchronizeKey.intern()) {
-                subscription = subscriptionMap.get(subscriptionCacheKey);
-                if (subscription != null) {
-                    return subscription;
-                }
-                try {
-                    subscription = new SubscriptionDataLoaderImpl().getSubscriptionById(Integer.toString(apiId),
-                            Integer.toString(appId));
-                } catch (DataLoadingException e) {
-                    log.error("Error while Retrieving Subscription Data From Internal API", e);
-                }
-                if (subscription != null && !StringUtils.isEmpty(subscription.getSubscriptionId())) {
-                    // load to the memory
-                    log.debug("Loading Subscription to the in-memory datastore.");
-                    subscriptionMap.put(subscription.getCacheKey(), subscription);
-                }
+            try {
+                subscription = subscriptionLoader.load(subscriptionKey,
+                        () -> loadSubscription(subscriptionKey, appId, apiId));
+            } catch (DataLoadingException e) {
+                log.error("Error while Retrieving Subscription Data From Internal API", e);
             }
         }
         if (log.isDebugEnabled()) {
@@ -283,6 +320,64 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         return subscription;
     }
 
+    private Subscription loadSubscription(long subscriptionKey, int appId, int apiId)
+            throws DataLoadingException {
+
+        Subscription subscription = subscriptionMap.get(subscriptionKey);
+        if (subscription != null) {
+            return subscription;
+        }
+        subscription = new SubscriptionDataLoaderImpl().getSubscriptionById(Integer.toString(apiId),
+                Integer.toString(appId));
+        if (subscription != null && !StringUtils.isEmpty(subscription.getSubscriptionId())) {
+            // load to the memory
+            log.debug("Loading Subscription to the in-memory datastore.");
+            Lock subscriptionLock = subscriptionLocks.get(getSubscriptionKey(subscription));
+            subscriptionLock.lock();
+            try {
+                putSubscription(subscription);
+            } finally {
+                subscriptionLock.unlock();
+            }
+            return subscription;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entities loaded from the control plane on a cache miss.
+     *
+     * @return number of loads
+     */
+    public long getLoadCount() {
+
+        return applicationLoader.getLoadCount() + keyMappingLoader.getLoadCount() + apiLoader.getLoadCount()
+                + subscriptionLoader.getLoadCount();
+    }
+
+    /**
+     * Returns the number of cache misses served by waiting for a concurrent load of the same entity.
+     *
+     * @return number of coalesced loads
+     */
+    public long getCoalescedLoadCount() {
+
+        return applicationLoader.getCoalescedLoadCount() + keyMappingLoader.getCoalescedLoadCount()
+                + apiLoader.getCoalescedLoadCount() + subscriptionLoader.getCoalescedLoadCount();
+    }
+
+    /**
+     * Returns the number of cache misses answered without a remote call because the entity was recently found not
+     * to exist.
+     *
+     * @return number of negative cache hits
+     */
+    public long getNotFoundHitCount() {
+
+        return applicationLoader.getNotFoundHitCount() + keyMappingLoader.getNotFoundHitCount()
+                + apiLoader.getNotFoundHitCount() + subscriptionLoader.getNotFoundHitCount();
+    }
+
     @Override
     public ApiPolicy getApiPolicyByName(String policyName, int tenantId) {
 
@@ -297,9 +392,13 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                 () -> {
                     try {
                         log.debug("Calling loadAllApis. ");
-                        List<API> apiList = new SubscriptionDataLoaderImpl().loadAllApis(tenantDomain);
+                        List<API> apiList = new SubscriptionDataLoaderImpl(entityTags).loadAllApis(tenantDomain);
+                        if (apiList == null) {
+                            return null;
+                        }
                         apiByUUIDMap.clear();
                         for (API api : apiList) {
+                            canonicalize(api);
                             apiByUUIDMap.put(api.getUuid(), api);
                             String key = api.getApiName().concat(":").concat(api.getApiVersion());
                             apiNameVersionMap.put(key, api);
@@ -314,11 +413,11 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         executorService.schedule(apiTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
 
-        Runnable subscriptionLoadingTask = new PopulateTask<>(subscriptionMap,
+        Runnable subscriptionLoadingTask = PopulateTask.forEntities(this::replaceSubscriptions,
                 () -> {
                     try {
                         log.debug("Calling loadAllSubscriptions.");
-                        return new SubscriptionDataLoaderImpl().loadAllSubscriptions(tenantDomain);
+                        return new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(tenantDomain);
                     } catch (APIManagementException e) {
                         log.error("Exception while loading Subscriptions " + e);
                     }
@@ -327,11 +426,11 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
         executorService.schedule(subscriptionLoadingTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
 
-        Runnable applicationLoadingTask = new PopulateTask<>(applicationMap,
+        Runnable applicationLoadingTask = new PopulateTask<>(this::replaceApplications,
                 () -> {
                     try {
                         log.debug("Calling loadAllApplications.");
-                        return new SubscriptionDataLoaderImpl().loadAllApplications(tenantDomain);
+                        return new SubscriptionDataLoaderImpl(entityTags).loadAllApplications(tenantDomain);
                     } catch (APIManagementException e) {
                         log.error("Exception while loading Applications " + e);
                     }
@@ -341,11 +440,11 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         executorService.schedule(applicationLoadingTask, eventHubConfiguration.getInitDelay(), TimeUnit.MILLISECONDS);
 
         Runnable keyMappingsTask =
-                new PopulateTask<>(applicationKeyMappingMap,
+                PopulateTask.forEntities(this::replaceApplicationKeyMappings,
                         () -> {
                             try {
                                 log.debug("Calling loadAllKeyMappings.");
-                                return new SubscriptionDataLoaderImpl().loadAllKeyMappings(tenantDomain);
+                                return new SubscriptionDataLoaderImpl(entityTags).loadAllKeyMappings(tenantDomain);
                             } catch (APIManagementException e) {
                                 log.error("Exception while loading ApplicationKeyMapping " + e);
                             }
@@ -360,7 +459,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                             try {
                                 log.debug("Calling loadAllSubscriptionPolicies.");
                                 List<ApiPolicy> apiPolicyList =
-                                        new SubscriptionDataLoaderImpl().loadAllAPIPolicies(tenantDomain);
+                                        new SubscriptionDataLoaderImpl(entityTags).loadAllAPIPolicies(tenantDomain);
                                 apiPoliciesInitialized = true;
                                 return apiPolicyList;
                             } catch (APIManagementException e) {
@@ -376,7 +475,8 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                         () -> {
                             try {
                                 log.debug("Calling loadAllSubscriptionPolicies.");
-                                return new SubscriptionDataLoaderImpl().loadAllSubscriptionPolicies(tenantDomain);
+                                return new SubscriptionDataLoaderImpl(entityTags)
+                                        .loadAllSubscriptionPolicies(tenantDomain);
                             } catch (APIManagementException e) {
                                 log.error("Exception while loading Subscription Policies " + e);
                             }
@@ -390,7 +490,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                         () -> {
                             try {
                                 log.debug("Calling loadAllAppPolicies.");
-                                return new SubscriptionDataLoaderImpl().loadAllAppPolicies(tenantDomain);
+                                return new SubscriptionDataLoaderImpl(entityTags).loadAllAppPolicies(tenantDomain);
                             } catch (APIManagementException e) {
                                 log.error("Exception while loading Application Policies " + e);
                             }
@@ -404,7 +504,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                             try {
                                 log.debug("Calling loadAllScopes.");
                                 List<Scope> scopeList =
-                                        new SubscriptionDataLoaderImpl().loadAllScopes(tenantDomain);
+                                        new SubscriptionDataLoaderImpl(entityTags).loadAllScopes(tenantDomain);
                                 scopesInitialized = true;
                                 return scopeList;
                             } catch (APIManagementException e) {
@@ -428,12 +528,14 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
     @Override
     public void addOrUpdateSubscription(Subscription subscription) {
-        String synchronizeKey = "SubscriptionDataStoreImpl-API-" + subscription.getCacheKey();
 
-        synchronized (synchronizeKey.intern()) {
-            Subscription retrievedSubscription = subscriptionMap.get(subscription.getCacheKey());
+        long subscriptionKey = getSubscriptionKey(subscription);
+        Lock subscriptionLock = subscriptionLocks.get(subscriptionKey);
+        subscriptionLock.lock();
+        try {
+            Subscription retrievedSubscription = subscriptionMap.get(subscriptionKey);
             if (retrievedSubscription == null) {
-                subscriptionMap.put(subscription.getCacheKey(), subscription);
+                putSubscription(subscription);
             } else {
                 if (log.isDebugEnabled()) {
                     log.debug("Retrieved Subscription from Map :" + retrievedSubscription.toString());
@@ -444,7 +546,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                     }
                 } else {
                     if (!APIConstants.SubscriptionStatus.ON_HOLD.equals(subscription.getSubscriptionState())) {
-                        subscriptionMap.put(subscription.getCacheKey(), subscription);
+                        putSubscription(subscription);
                     } else {
                         if (log.isDebugEnabled()) {
                             log.debug("Drop the Event " + subscription.toString() + " since the event was marked as " +
@@ -454,22 +556,25 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
                 }
             }
             if (log.isDebugEnabled()) {
-                Subscription updatedSubscription = subscriptionMap.get(subscription.getCacheKey());
+                Subscription updatedSubscription = subscriptionMap.get(subscriptionKey);
                 log.debug("Updated Subscription From map :" + updatedSubscription.toString());
             }
 
+        } finally {
+            subscriptionLock.unlock();
         }
     }
 
     @Override
     public void removeSubscription(Subscription subscription) {
 
-        subscriptionMap.remove(subscription.getCacheKey());
+        removeSubscriptionWithLock(getSubscriptionKey(subscription));
     }
 
     @Override
     public void addOrUpdateAPI(API api) {
 
+        canonicalize(api);
         String key = api.getApiName().concat(":").concat(api.getApiVersion());
         apiByUUIDMap.put(api.getUuid(), api);
         apiNameVersionMap.put(key, api);
@@ -482,6 +587,7 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         try {
             API newAPI = new SubscriptionDataLoaderImpl().getApi(api.getContext(), api.getApiVersion());
             if (newAPI != null) {
+                canonicalize(newAPI);
                 apiMap.put(api.getCacheKey(), newAPI);
                 String key = newAPI.getApiName().concat(":").concat(newAPI.getApiVersion());
                 apiNameVersionMap.put(key, newAPI);
@@ -505,14 +611,22 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public void addOrUpdateApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
 
-        applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
-        applicationKeyMappingMap.put(applicationKeyMapping.getCacheKey(), applicationKeyMapping);
+        canonicalize(applicationKeyMapping);
+        ApplicationKeyMappingCacheKey cacheKey = applicationKeyMapping.getCacheKey();
+        synchronized (applicationKeyMappingLock) {
+            ApplicationKeyMapping existingKeyMapping = applicationKeyMappingMap.put(cacheKey, applicationKeyMapping);
+            keyMappingsByAppIdIndex.update(cacheKey, existingKeyMapping, applicationKeyMapping);
+        }
     }
 
     @Override
     public void removeApplicationKeyMapping(ApplicationKeyMapping applicationKeyMapping) {
 
-        applicationKeyMappingMap.remove(applicationKeyMapping.getCacheKey());
+        ApplicationKeyMappingCacheKey cacheKey = applicationKeyMapping.getCacheKey();
+        synchronized (applicationKeyMappingLock) {
+            ApplicationKeyMapping existingKeyMapping = applicationKeyMappingMap.remove(cacheKey);
+            keyMappingsByAppIdIndex.update(cacheKey, existingKeyMapping, null);
+        }
     }
 
     @Override
@@ -544,16 +658,26 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public void addOrUpdateApplication(Application application) {
 
-        applicationMap.remove(application.getId());
-        applicationMap.put(application.getId(), application);
+        canonicalize(application);
+        synchronized (applicationLock) {
+            Application existingApplication = applicationMap.put(application.getId(), application);
+            applicationByUUIDIndex.update(application.getId(), existingApplication, application);
+            applicationsByNameIndex.update(application.getId(), existingApplication, application);
+        }
     }
 
     @Override
     public void removeApplication(Application application) {
 
-        applicationMap.remove(application.getId());
-        subscriptionMap.values().removeIf(subscription ->
-                subscription != null && application.getUUID().equals(subscription.getApplicationUUID()));
+        synchronized (applicationLock) {
+            Application existingApplication = applicationMap.remove(application.getId());
+            applicationByUUIDIndex.update(application.getId(), existingApplication, null);
+            applicationsByNameIndex.update(application.getId(), existingApplication, null);
+        }
+        for (Long subscriptionKey :
+                new ArrayList<>(subscriptionsByAppUUIDIndex.getCacheKeys(application.getUUID()))) {
+            removeSubscriptionWithLock(subscriptionKey);
+        }
     }
 
     @Override
@@ -598,53 +722,25 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Subscription getSubscriptionBySubscriptionUUID(String subscriptionUUID) {
 
-        for (Subscription subscription : subscriptionMap.values()) {
-            if (subscriptionUUID.equals(subscription.getSubscriptionUUId())) {
-                return subscription;
-            }
-        }
-        return null;
+        return subscriptionByUUIDIndex.getFirst(subscriptionUUID, subscriptionMap::get);
     }
 
     @Override
     public List<Application> getApplicationsByName(String name) {
 
-        List<Application> applicationList = new ArrayList<>();
-        if (applicationMap != null) {
-            for (Application application : applicationMap.values()) {
-                if (application.getName().equals(name)) {
-                    applicationList.add(application);
-                }
-            }
-        }
-        return applicationList;
+        return applicationsByNameIndex.getAll(name, applicationMap::get);
     }
 
     @Override
     public Application getApplicationByUUID(String uuid) {
 
-        if (applicationMap != null) {
-            for (Application application : applicationMap.values()) {
-                if (application.getUUID().equals(uuid)) {
-                    return application;
-                }
-            }
-        }
-        return null;
+        return applicationByUUIDIndex.getFirst(uuid, applicationMap::get);
     }
 
     @Override
     public List<Subscription> getSubscriptionsByAPIId(int apiId) {
 
-        List<Subscription> subscriptionList = new ArrayList<>();
-        if (subscriptionMap != null) {
-            for (Subscription subscription : subscriptionMap.values()) {
-                if (subscription.getApiId() == apiId) {
-                    subscriptionList.add(subscription);
-                }
-            }
-        }
-        return subscriptionList;
+        return subscriptionsByAPIIdIndex.getAll(apiId, subscriptionMap::get);
     }
 
     @Override
@@ -656,28 +752,14 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
     @Override
     public Subscription getSubscriptionByUUID(String apiUUID, String appUUID) {
 
-        if (subscriptionMap != null) {
-            for (Subscription subscription : subscriptionMap.values()) {
-                if (subscription.getApiUUID().equals(apiUUID) && subscription.getApplicationUUID().equals(appUUID)) {
-                    return subscription;
-                }
-            }
-        }
-        return null;
+        return subscriptionByAPIAndAppUUIDIndex.getFirst(getSubscriptionUUIDKey(apiUUID, appUUID),
+                subscriptionMap::get);
     }
 
     @Override
     public List<ApplicationKeyMapping> getKeyMappingByApplicationId(int applicationId) {
 
-        List<ApplicationKeyMapping> applicationKeyMappings = new ArrayList<>();
-        if (applicationKeyMappingMap != null) {
-            for (ApplicationKeyMapping applicationKeyMapping : applicationKeyMappingMap.values()) {
-                if (applicationKeyMapping.getApplicationId() == applicationId) {
-                    applicationKeyMappings.add(applicationKeyMapping);
-                }
-            }
-        }
-        return applicationKeyMappings;
+        return keyMappingsByAppIdIndex.getAll(applicationId, applicationKeyMappingMap::get);
     }
 
     @Override
@@ -749,6 +831,164 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
         }
     }
 
+    /**
+     * Puts the subscription to the subscription map and updates the subscription indexes. Callers must hold the
+     * lock of the subscription key.
+     *
+     * @param subscription subscription to add
+     */
+    private void putSubscription(Subscription subscription) {
+
+        canonicalize(subscription);
+        long subscriptionKey = getSubscriptionKey(subscription);
+        Subscription existingSubscription = subscriptionMap.put(subscriptionKey, subscription);
+        updateSubscriptionIndexes(subscriptionKey, existingSubscription, subscription);
+    }
+
+    /**
+     * Removes the subscription from the subscription map and the subscription indexes, holding the lock of the
+     * subscription key.
+     *
+     * @param subscriptionKey key of the subscription to remove
+     */
+    private void removeSubscriptionWithLock(long subscriptionKey) {
+
+        Lock subscriptionLock = subscriptionLocks.get(subscriptionKey);
+        subscriptionLock.lock();
+        try {
+            Subscription existingSubscription = subscriptionMap.remove(subscriptionKey);
+            updateSubscriptionIndexes(subscriptionKey, existingSubscription, null);
+        } finally {
+            subscriptionLock.unlock();
+        }
+    }
+
+    private void updateSubscriptionIndexes(Long subscriptionKey, Subscription oldSubscription,
+                                           Subscription newSubscription) {
+
+        subscriptionByUUIDIndex.update(subscriptionKey, oldSubscription, newSubscription);
+        subscriptionByAPIAndAppUUIDIndex.update(subscriptionKey, oldSubscription, newSubscription);
+        subscriptionsByAPIIdIndex.update(subscriptionKey, oldSubscription, newSubscription);
+        subscriptionsByAppUUIDIndex.update(subscriptionKey, oldSubscription, newSubscription);
+    }
+
+    /**
+     * Replaces the subscriptions of the store with the given list, loading them straight into the subscription map
+     * without an intermediate map keyed by their string cache keys.
+     *
+     * @param subscriptions subscriptions retrieved from the internal API
+     */
+    private void replaceSubscriptions(List<Subscription> subscriptions) {
+
+        Long[] subscriptionKeys = new Long[subscriptions.size()];
+        for (int i = 0; i < subscriptionKeys.length; i++) {
+            Subscription subscription = subscriptions.get(i);
+            canonicalize(subscription);
+            subscriptionKeys[i] = getSubscriptionKey(subscription);
+        }
+        // Passes the boxed key of each loaded subscription to all the indexes, skipping the duplicates replaced by a
+        // later entry of the list
+        Consumer<BiConsumer<Long, Subscription>> loadedSubscriptions = indexer -> {
+            for (int i = 0; i < subscriptionKeys.length; i++) {
+                Subscription subscription = subscriptions.get(i);
+                if (subscriptionMap.get(subscriptionKeys[i]) == subscription) {
+                    indexer.accept(subscriptionKeys[i], subscription);
+                }
+            }
+        };
+        // The indexes are replaced as a whole, so no subscription may be updated meanwhile
+        subscriptionLocks.lockAll();
+        try {
+            subscriptionMap.clear();
+            for (int i = 0; i < subscriptionKeys.length; i++) {
+                subscriptionMap.put(subscriptionKeys[i], subscriptions.get(i));
+            }
+            subscriptionByUUIDIndex.rebuild(loadedSubscriptions);
+            subscriptionByAPIAndAppUUIDIndex.rebuild(loadedSubscriptions);
+            subscriptionsByAPIIdIndex.rebuild(loadedSubscriptions);
+            subscriptionsByAppUUIDIndex.rebuild(loadedSubscriptions);
+        } finally {
+            subscriptionLocks.unlockAll();
+        }
+    }
+
+    private void replaceApplications(Map<Integer, Application> applications) {
+
+        for (Application application : applications.values()) {
+            canonicalize(application);
+        }
+        synchronized (applicationLock) {
+            applicationMap.clear();
+            applicationMap.putAll(applications);
+            applicationByUUIDIndex.rebuild(applicationMap::forEach);
+            applicationsByNameIndex.rebuild(applicationMap::forEach);
+        }
+    }
+
+    /**
+     * Replaces the key mappings of the store with the given list. The cache keys are created after canonicalizing
+     * the key mappings, so that they refer to the canonical key manager names.
+     *
+     * @param applicationKeyMappings key mappings retrieved from the internal API
+     */
+    private void replaceApplicationKeyMappings(List<ApplicationKeyMapping> applicationKeyMappings) {
+
+        Map<ApplicationKeyMappingCacheKey, ApplicationKeyMapping> loadedKeyMappings =
+                new HashMap<>(applicationKeyMappings.size() * 4 / 3 + 1);
+        for (ApplicationKeyMapping applicationKeyMapping : applicationKeyMappings) {
+            canonicalize(applicationKeyMapping);
+            loadedKeyMappings.put(applicationKeyMapping.getCacheKey(), applicationKeyMapping);
+        }
+        synchronized (applicationKeyMappingLock) {
+            applicationKeyMappingMap.clear();
+            applicationKeyMappingMap.putAll(loadedKeyMappings);
+            keyMappingsByAppIdIndex.rebuild(applicationKeyMappingMap::forEach);
+        }
+    }
+
+    private static long getSubscriptionKey(Subscription subscription) {
+
+        Integer appId = subscription.getAppId();
+        Integer apiId = subscription.getApiId();
+        return SubscriptionDataStoreUtil.getSubscriptionKey(appId != null ? appId : 0, apiId != null ? apiId : 0);
+    }
+
+    private void canonicalize(Subscription subscription) {
+
+        subscription.setPolicyId(stringDictionary.canonicalize(subscription.getPolicyId()));
+        subscription.setSubscriptionState(stringDictionary.canonicalize(subscription.getSubscriptionState()));
+    }
+
+    private void canonicalize(Application application) {
+
+        application.setPolicy(stringDictionary.canonicalize(application.getPolicy()));
+        application.setTokenType(stringDictionary.canonicalize(application.getTokenType()));
+        application.setOrganization(stringDictionary.canonicalize(application.getOrganization()));
+    }
+
+    private void canonicalize(ApplicationKeyMapping applicationKeyMapping) {
+
+        applicationKeyMapping.setKeyType(stringDictionary.canonicalize(applicationKeyMapping.getKeyType()));
+        applicationKeyMapping.setKeyManager(stringDictionary.canonicalize(applicationKeyMapping.getKeyManager()));
+        applicationKeyMapping.setWfState(stringDictionary.canonicalize(applicationKeyMapping.getWfState()));
+    }
+
+    private void canonicalize(API api) {
+
+        api.setPolicy(stringDictionary.canonicalize(api.getPolicy()));
+        api.setApiType(stringDictionary.canonicalize(api.getApiType()));
+        api.setStatus(stringDictionary.canonicalize(api.getStatus()));
+        api.setOrganization(stringDictionary.canonicalize(api.getOrganization()));
+    }
+
+    private static String getSubscriptionUUIDKey(String apiUUID, String appUUID) {
+
+        if (apiUUID == null || appUUID == null) {
+            return null;
+        }
+        return apiUUID + DELEM_PERIOD + appUUID;
+    }
+
     public boolean isAPIResourceValidationEnabled() {
 
         APIManagerConfiguration config =
@@ -768,31 +1008,54 @@ public class SubscriptionDataStoreImpl implements SubscriptionDataStore {
 
     private static class PopulateTask<K, V extends CacheableEntity<K>> implements Runnable {
 
-        private Map<K, V> entityMap;
+        private Consumer<List<V>> entityLoader;
         private Supplier<List<V>> supplier;
 
         PopulateTask(Map<K, V> entityMap, Supplier<List<V>> supplier) {
 
-            this.entityMap = entityMap;
-            this.supplier = supplier;
+            this(loadedEntities -> {
+                entityMap.clear();
+                entityMap.putAll(loadedEntities);
+            }, supplier);
         }
 
-        public void run() {
-
-            List<V> list = supplier.get();
-            HashMap<K, V> tempMap = new HashMap<>();
+        PopulateTask(Consumer<Map<K, V>> entityMapUpdater, Supplier<List<V>> supplier) {
 
-            if (list != null) {
+            this(supplier, list -> {
+                HashMap<K, V> tempMap = new HashMap<>();
                 for (V v : list) {
                     tempMap.put(v.getCacheKey(), v);
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Adding entry Key : %s Value : %s", v.getCacheKey(), v));
                     }
+                }
+                entityMapUpdater.accept(tempMap);
+            });
+        }
 
-                    if (!tempMap.isEmpty()) {
-                        entityMap.clear();
-                        entityMap.putAll(tempMap);
-                    }
+        private PopulateTask(Supplier<List<V>> supplier, Consumer<List<V>> entityLoader) {
+
+            this.entityLoader = entityLoader;
+            this.supplier = supplier;
+        }
+
+        /**
+         * Creates a task which hands the retrieved entities over as they are, for the entity maps which are not keyed
+         * by the cache keys of the entities.
+         */
+        static <K, V extends CacheableEntity<K>> PopulateTask<K, V> forEntities(Consumer<List<V>> entityLoader,
+                                                                              Supplier<List<V>> supplier) {
+
+            return new PopulateTask<>(supplier, entityLoader);
+        }
+
+        public void run() {
+
+            List<V> list = supplier.get();
+
+            if (list != null) {
+                if (!list.isEmpty()) {
+                    entityLoader.accept(list);
                 }
 
             } else {
@@ -32,6 +32,19 @@ public class SubscriptionDataStoreUtil {
         return appId + DELEM_PERIOD + apiId;
     }
 
+    /**
+     * Packs the application id and the API id of a subscription into a single long, which is used as the key of the
+     * in-memory subscription map instead of the concatenated string cache key.
+     *
+     * @param appId application id
+     * @param apiId API id
+     * @return application id in the high 32 bits and API id in the low 32 bits
+     */
+    public static long getSubscriptionKey(int appId, int apiId) {
+
+        return ((long) appId << 32) | (apiId & 0xFFFFFFFFL);
+    }
+
     public static String getPolicyCacheKey(String tierName, int tenantId) {
 
         return tierName + DELEM_PERIOD + tenantId;
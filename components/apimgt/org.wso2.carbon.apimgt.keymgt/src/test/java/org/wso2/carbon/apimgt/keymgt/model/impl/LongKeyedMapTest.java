@@ -0,0 +1,101 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongKeyedMapTest {
+
+    @Test
+    public void testPutGetAndRemove() {
+
+        LongKeyedMap<String> map = new LongKeyedMap<>();
+        Assert.assertNull(map.put(1L, "one"));
+        Assert.assertNull(map.put(-1L, "minus one"));
+        Assert.assertEquals("one", map.put(1L, "uno"));
+
+        Assert.assertEquals("uno", map.get(1L));
+        Assert.assertEquals("minus one", map.get(-1L));
+        Assert.assertNull(map.get(2L));
+        Assert.assertEquals(2, map.size());
+
+        Assert.assertEquals("uno", map.remove(1L));
+        Assert.assertNull(map.remove(1L));
+        Assert.assertNull(map.get(1L));
+        Assert.assertEquals(1, map.size());
+
+        map.clear();
+        Assert.assertNull(map.get(-1L));
+        Assert.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMapAcrossResizesAndRemovals() {
+
+        LongKeyedMap<Long> map = new LongKeyedMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // Keys of a small range, so that removals hit entries in the middle of probe sequences
+            long key = ((long) random.nextInt(200) << 32) | random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        Assert.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testLargeMapKeepsProbesShort() {
+
+        LongKeyedMap<Long> map = new LongKeyedMap<>();
+        // Packed ids as the subscription map uses them, growing each segment table past 2^16 slots
+        int count = 0;
+        for (long appId = 1; appId <= 2100; appId++) {
+            for (long apiId = 1; apiId <= 1000; apiId++) {
+                long key = (appId << 32) | apiId;
+                Assert.assertNull(map.put(key, key));
+                count++;
+            }
+        }
+        Assert.assertEquals(count, map.size());
+        Assert.assertTrue(count > 2000000);
+        for (long appId = 1; appId <= 2100; appId += 7) {
+            for (long apiId = 1; apiId <= 1000; apiId += 3) {
+                long key = (appId << 32) | apiId;
+                Assert.assertEquals(Long.valueOf(key), map.get(key));
+            }
+        }
+        Assert.assertNull(map.get((2101L << 32) | 1));
+        // All the bits of the slot index are used within the segments, so that probe sequences stay short
+        Assert.assertTrue("Longest probe sequence " + map.maxProbeLength(), map.maxProbeLength() < 256);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SecondaryIndexTest {
+
+    @Test
+    public void testLookupAfterAddUpdateAndRemove() {
+
+        Map<String, Subscription> subscriptionMap = new ConcurrentHashMap<>();
+        SecondaryIndex<Integer, String, Subscription> byApiId = new SecondaryIndex<>(Subscription::getApiId);
+
+        Subscription subscription1 = createSubscription(1, 10);
+        Subscription subscription2 = createSubscription(2, 10);
+        put(subscriptionMap, byApiId, subscription1);
+        put(subscriptionMap, byApiId, subscription2);
+        Assert.assertEquals(2, byApiId.getAll(10, subscriptionMap::get).size());
+
+        // Moving a subscription to another API must drop it from the old index entry.
+        Subscription updatedSubscription = createSubscription(2, 10);
+        updatedSubscription.setApiId(20);
+        String cacheKey = subscription2.getCacheKey();
+        byApiId.update(cacheKey, subscriptionMap.put(cacheKey, updatedSubscription), updatedSubscription);
+        List<Subscription> subscriptions = byApiId.getAll(10, subscriptionMap::get);
+        Assert.assertEquals(1, subscriptions.size());
+        Assert.assertSame(subscription1, subscriptions.get(0));
+        Assert.assertSame(updatedSubscription, byApiId.getFirst(20, subscriptionMap::get));
+
+        cacheKey = subscription1.getCacheKey();
+        byApiId.update(cacheKey, subscriptionMap.remove(cacheKey), null);
+        Assert.assertTrue(byApiId.getAll(10, subscriptionMap::get).isEmpty());
+        Assert.assertTrue(byApiId.getCacheKeys(10).isEmpty());
+        Assert.assertNull(byApiId.getFirst(null, subscriptionMap::get));
+    }
+
+    @Test
+    public void testRebuild() {
+
+        Map<String, Subscription> subscriptionMap = new ConcurrentHashMap<>();
+        SecondaryIndex<Integer, String, Subscription> byApiId = new SecondaryIndex<>(Subscription::getApiId);
+        put(subscriptionMap, byApiId, createSubscription(1, 10));
+
+        subscriptionMap.clear();
+        Subscription subscription = createSubscription(3, 30);
+        subscriptionMap.put(subscription.getCacheKey(), subscription);
+        byApiId.rebuild(subscriptionMap::forEach);
+
+        Assert.assertTrue(byApiId.getCacheKeys(10).isEmpty());
+        Assert.assertSame(subscription, byApiId.getFirst(30, subscriptionMap::get));
+    }
+
+    private static void put(Map<String, Subscription> subscriptionMap,
+                            SecondaryIndex<Integer, String, Subscription> index, Subscription subscription) {
+
+        String cacheKey = subscription.getCacheKey();
+        index.update(cacheKey, subscriptionMap.put(cacheKey, subscription), subscription);
+    }
+
+    private static Subscription createSubscription(int appId, int apiId) {
+
+        Subscription subscription = new Subscription();
+        subscription.setAppId(appId);
+        subscription.setApiId(apiId);
+        return subscription;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.keymgt.model.exception.DataLoadingException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightLoaderTest {
+
+    @Test
+    public void testConcurrentLoadsOfSameKeyAreCoalesced() throws Exception {
+
+        SingleFlightLoader<String, String> loader = new SingleFlightLoader<>();
+        AtomicInteger remoteCalls = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        SingleFlightLoader.Loader<String> remoteLoader = () -> {
+            remoteCalls.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                releaseLoad.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "application";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> loader.load("key", remoteLoader)));
+            Assert.assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> loader.load("key", remoteLoader)));
+            }
+            while (loader.getCoalescedLoadCount() < 4) {
+                Thread.sleep(10);
+            }
+            releaseLoad.countDown();
+            for (Future<String> result : results) {
+                Assert.assertEquals("application", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, remoteCalls.get());
+        Assert.assertEquals(1, loader.getLoadCount());
+    }
+
+    @Test
+    public void testUnknownKeysAreRememberedUntilExpiry() throws Exception {
+
+        SingleFlightLoader<String, String> loader = new SingleFlightLoader<>(100, 10);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        SingleFlightLoader.Loader<String> remoteLoader = () -> {
+            remoteCalls.incrementAndGet();
+            return null;
+        };
+
+        Assert.assertNull(loader.load("unknownKey", remoteLoader));
+        Assert.assertNull(loader.load("unknownKey", remoteLoader));
+        Assert.assertEquals(1, remoteCalls.get());
+        Assert.assertEquals(1, loader.getNotFoundHitCount());
+
+        Thread.sleep(150);
+        Assert.assertNull(loader.load("unknownKey", remoteLoader));
+        Assert.assertEquals(2, remoteCalls.get());
+    }
+
+    @Test
+    public void testFailedLoadsAreNotRemembered() throws Exception {
+
+        SingleFlightLoader<String, String> loader = new SingleFlightLoader<>();
+        try {
+            loader.load("key", () -> {
+                throw new DataLoadingException("Control plane unavailable");
+            });
+            Assert.fail("Load should have failed");
+        } catch (DataLoadingException e) {
+            Assert.assertEquals("Control plane unavailable", e.getMessage());
+        }
+        Assert.assertEquals("application", loader.load("key", () -> "application"));
+        Assert.assertEquals(0, loader.getNotFoundHitCount());
+    }
+
+    @Test
+    public void testOldestRememberedKeyIsForgottenWhenFull() throws Exception {
+
+        SingleFlightLoader<String, String> loader = new SingleFlightLoader<>(60000, 2);
+        AtomicInteger remoteCalls = new AtomicInteger();
+        SingleFlightLoader.Loader<String> remoteLoader = () -> {
+            remoteCalls.incrementAndGet();
+            return null;
+        };
+
+        loader.load("key1", remoteLoader);
+        loader.load("key2", remoteLoader);
+        loader.load("key3", remoteLoader);
+        Assert.assertEquals(2, loader.getNotFoundKeyCount());
+        loader.load("key2", remoteLoader);
+        loader.load("key3", remoteLoader);
+        Assert.assertEquals(3, remoteCalls.get());
+        loader.load("key1", remoteLoader);
+        Assert.assertEquals(4, remoteCalls.get());
+        Assert.assertEquals(2, loader.getNotFoundKeyCount());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.apimgt.keymgt.model.util.SubscriptionDataStoreUtil;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class StringDictionaryTest {
+
+    @Test
+    public void testEqualValuesAreCanonicalized() {
+
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("Unlimited");
+        String second = new String("Unlimited");
+
+        Assert.assertSame(first, dictionary.canonicalize(first));
+        Assert.assertSame(first, dictionary.canonicalize(second));
+        Assert.assertNull(dictionary.canonicalize(null));
+        Assert.assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    public void testValuesAreNotCanonicalizedWhenFull() {
+
+        StringDictionary dictionary = new StringDictionary(2);
+        dictionary.canonicalize("Gold");
+        dictionary.canonicalize("Silver");
+        String bronze = new String("Bronze");
+
+        Assert.assertSame(bronze, dictionary.canonicalize(bronze));
+        Assert.assertEquals(2, dictionary.size());
+        Assert.assertSame("Gold", dictionary.canonicalize(new String("Gold")));
+    }
+
+    @Test
+    public void testSubscriptionKeysAreUnique() {
+
+        Set<Long> keys = new HashSet<>();
+        int[] ids = {0, 1, 2, 12, 21, 123, Integer.MAX_VALUE, -1};
+        for (int appId : ids) {
+            for (int apiId : ids) {
+                Assert.assertTrue(keys.add(SubscriptionDataStoreUtil.getSubscriptionKey(appId, apiId)));
+            }
+        }
+        Assert.assertEquals(SubscriptionDataStoreUtil.getSubscriptionKey(1, 2),
+                SubscriptionDataStoreUtil.getSubscriptionKey(1, 2));
+    }
+}
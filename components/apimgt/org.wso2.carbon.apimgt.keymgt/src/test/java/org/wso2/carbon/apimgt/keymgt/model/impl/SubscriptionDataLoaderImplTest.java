@@ -0,0 +1,217 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.keymgt.model.impl;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
+import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
+import org.wso2.carbon.apimgt.impl.dto.EventHubConfigurationDto;
+import org.wso2.carbon.apimgt.impl.dto.GatewayArtifactSynchronizerProperties;
+import org.wso2.carbon.apimgt.impl.utils.APIUtil;
+import org.wso2.carbon.apimgt.keymgt.internal.ServiceReferenceHolder;
+import org.wso2.carbon.apimgt.keymgt.model.entity.API;
+import org.wso2.carbon.apimgt.keymgt.model.entity.Subscription;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({APIUtil.class})
+public class SubscriptionDataLoaderImplTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String SUBSCRIPTIONS = "{\"count\":1,\"list\":[{\"subscriptionId\":\"1\","
+            + "\"apiUUID\":\"api-uuid\",\"applicationUUID\":\"app-uuid\",\"subscriptionState\":\"UNBLOCKED\"}]}";
+    private HttpClient httpClient;
+
+    @Before
+    public void setup() throws Exception {
+
+        EventHubConfigurationDto eventHubConfigurationDto = new EventHubConfigurationDto();
+        eventHubConfigurationDto.setServiceUrl("https://localhost:9443");
+        eventHubConfigurationDto.setUsername("admin");
+        eventHubConfigurationDto.setPassword("admin".toCharArray());
+        APIManagerConfiguration apiManagerConfiguration = Mockito.mock(APIManagerConfiguration.class);
+        Mockito.when(apiManagerConfiguration.getEventHubConfigurationDto()).thenReturn(eventHubConfigurationDto);
+        GatewayArtifactSynchronizerProperties synchronizerProperties = new GatewayArtifactSynchronizerProperties();
+        synchronizerProperties.setGatewayLabels(new LinkedHashSet<>(Arrays.asList("Default", "Internal")));
+        Mockito.when(apiManagerConfiguration.getGatewayArtifactSynchronizerProperties())
+                .thenReturn(synchronizerProperties);
+        APIManagerConfigurationService apiManagerConfigurationService =
+                Mockito.mock(APIManagerConfigurationService.class);
+        Mockito.when(apiManagerConfigurationService.getAPIManagerConfiguration()).thenReturn(apiManagerConfiguration);
+        ServiceReferenceHolder.getInstance().setAPIManagerConfigurationService(apiManagerConfigurationService);
+
+        httpClient = Mockito.mock(HttpClient.class);
+        PowerMockito.mockStatic(APIUtil.class);
+        PowerMockito.when(APIUtil.getHttpClient(anyInt(), anyString())).thenReturn(httpClient);
+    }
+
+    @Test
+    public void testNotModifiedListIsNotReloaded() throws Exception {
+
+        Map<String, String> entityTags = new HashMap<>();
+        Mockito.when(httpClient.execute(any(HttpUriRequest.class)))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v1\"", SUBSCRIPTIONS))
+                .thenReturn(response(HttpStatus.SC_NOT_MODIFIED, "\"v1\"", null));
+
+        List<Subscription> subscriptions =
+                new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN);
+        Assert.assertEquals(1, subscriptions.size());
+        Assert.assertEquals("api-uuid", subscriptions.get(0).getApiUUID());
+        Assert.assertNull(new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN));
+
+        List<HttpUriRequest> requests = captureRequests(2);
+        Assert.assertNull(requests.get(0).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals("\"v1\"", requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        Assert.assertEquals(1, entityTags.size());
+    }
+
+    @Test
+    public void testModifiedListReplacesEntityTag() throws Exception {
+
+        Map<String, String> entityTags = new HashMap<>();
+        Mockito.when(httpClient.execute(any(HttpUriRequest.class)))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v1\"", SUBSCRIPTIONS))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v2\"", "{\"count\":0,\"list\":[]}"))
+                .thenReturn(response(HttpStatus.SC_NOT_MODIFIED, "\"v2\"", null));
+
+        new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN);
+        List<Subscription> subscriptions =
+                new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN);
+        Assert.assertNotNull(subscriptions);
+        Assert.assertTrue(subscriptions.isEmpty());
+        Assert.assertNull(new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN));
+
+        List<HttpUriRequest> requests = captureRequests(3);
+        Assert.assertEquals("\"v1\"", requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        Assert.assertEquals("\"v2\"", requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+    }
+
+    @Test
+    public void testListWithoutEntityTagIsRetrievedInFull() throws Exception {
+
+        Map<String, String> entityTags = new HashMap<>();
+        Mockito.when(httpClient.execute(any(HttpUriRequest.class)))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v1\"", SUBSCRIPTIONS))
+                .thenReturn(response(HttpStatus.SC_OK, null, SUBSCRIPTIONS))
+                .thenReturn(response(HttpStatus.SC_OK, null, SUBSCRIPTIONS));
+
+        for (int i = 0; i < 3; i++) {
+            List<Subscription> subscriptions =
+                    new SubscriptionDataLoaderImpl(entityTags).loadAllSubscriptions(TENANT_DOMAIN);
+            Assert.assertEquals(1, subscriptions.size());
+        }
+
+        List<HttpUriRequest> requests = captureRequests(3);
+        Assert.assertEquals("\"v1\"", requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        // The tag is forgotten once a response comes without one
+        Assert.assertNull(requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertTrue(entityTags.isEmpty());
+    }
+
+    @Test
+    public void testLoaderWithoutEntityTagsDoesNotRevalidate() throws Exception {
+
+        Mockito.when(httpClient.execute(any(HttpUriRequest.class)))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v1\"", SUBSCRIPTIONS))
+                .thenReturn(response(HttpStatus.SC_OK, "\"v1\"", SUBSCRIPTIONS));
+
+        Assert.assertEquals(1, new SubscriptionDataLoaderImpl().loadAllSubscriptions(TENANT_DOMAIN).size());
+        Assert.assertEquals(1, new SubscriptionDataLoaderImpl().loadAllSubscriptions(TENANT_DOMAIN).size());
+
+        for (HttpUriRequest request : captureRequests(2)) {
+            Assert.assertNull(request.getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        }
+    }
+
+    @Test
+    public void testUnchangedLabelIsReloadedWhenAnotherLabelChanges() throws Exception {
+
+        Map<String, String> entityTags = new HashMap<>();
+        Mockito.when(httpClient.execute(any(HttpUriRequest.class)))
+                .thenReturn(response(HttpStatus.SC_OK, "\"d1\"", apis("default-api")))
+                .thenReturn(response(HttpStatus.SC_OK, "\"i1\"", apis("internal-api")))
+                .thenReturn(response(HttpStatus.SC_NOT_MODIFIED, "\"d1\"", null))
+                .thenReturn(response(HttpStatus.SC_NOT_MODIFIED, "\"i1\"", null))
+                .thenReturn(response(HttpStatus.SC_NOT_MODIFIED, "\"d1\"", null))
+                .thenReturn(response(HttpStatus.SC_OK, "\"i2\"", apis("new-internal-api")))
+                .thenReturn(response(HttpStatus.SC_OK, "\"d1\"", apis("default-api")));
+
+        Assert.assertEquals(2, new SubscriptionDataLoaderImpl(entityTags).loadAllApis(TENANT_DOMAIN).size());
+        // Nothing is replaced while none of the labels changed
+        Assert.assertNull(new SubscriptionDataLoaderImpl(entityTags).loadAllApis(TENANT_DOMAIN));
+        // The store replaces all APIs at once, so the unchanged label is retrieved again along with the changed one
+        List<API> apis = new SubscriptionDataLoaderImpl(entityTags).loadAllApis(TENANT_DOMAIN);
+        Assert.assertEquals(2, apis.size());
+        Assert.assertEquals("new-internal-api", apis.get(0).getUuid());
+        Assert.assertEquals("default-api", apis.get(1).getUuid());
+
+        List<HttpUriRequest> requests = captureRequests(7);
+        Assert.assertNull(requests.get(6).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals(2, entityTags.size());
+    }
+
+    private List<HttpUriRequest> captureRequests(int count) throws Exception {
+
+        ArgumentCaptor<HttpUriRequest> captor = ArgumentCaptor.forClass(HttpUriRequest.class);
+        Mockito.verify(httpClient, Mockito.times(count)).execute(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static String apis(String uuid) {
+
+        return "{\"count\":1,\"list\":[{\"uuid\":\"" + uuid + "\",\"name\":\"" + uuid + "\",\"version\":\"1.0.0\"}]}";
+    }
+
+    private static HttpResponse response(int statusCode, String entityTag, String body) {
+
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+        if (entityTag != null) {
+            response.setHeader(HttpHeaders.ETAG, entityTag);
+        }
+        if (body != null) {
+            response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package org.wso2.carbon.apimgt.rest.api.gateway;
+
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.LatencyStatsListDTO;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.ErrorDTO;
+import org.wso2.carbon.apimgt.rest.api.gateway.LatencyStatsApiService;
+import org.wso2.carbon.apimgt.rest.api.gateway.impl.LatencyStatsApiServiceImpl;
+import org.wso2.carbon.apimgt.api.APIManagementException;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import javax.inject.Inject;
+
+import io.swagger.annotations.*;
+import java.io.InputStream;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.jaxrs.ext.multipart.Attachment;
+import org.apache.cxf.jaxrs.ext.multipart.Multipart;
+
+import java.util.Map;
+import java.util.List;
+import javax.validation.constraints.*;
+@Path("/latency-stats")
+
+@Api(description = "the latency-stats API")
+@Consumes({ "application/json" })
+@Produces({ "application/json" })
+
+
+public class LatencyStatsApi  {
+
+  @Context MessageContext securityContext;
+
+LatencyStatsApiService delegate = new LatencyStatsApiServiceImpl();
+
+
+    @GET
+    
+    @Consumes({ "application/json" })
+    @Produces({ "application/json" })
+    @ApiOperation(value = "Get the latency statistics of the request processing phases of the APIs.", notes = "This operation is used to get the latencies recorded for the security, throttling, mediation and backend phases of the sampled requests. Latencies are given in microseconds. If the API UUID is not provided, the latencies of all the APIs are returned. ", response = LatencyStatsListDTO.class, tags={ "Get Latency Stats" })
+    @ApiResponses(value = { 
+        @ApiResponse(code = 200, message = "OK. Latency statistics successfully retrieved. ", response = LatencyStatsListDTO.class),
+        @ApiResponse(code = 404, message = "Not Found. The specified resource does not exist.", response = ErrorDTO.class) })
+    public Response latencyStatsGet( @ApiParam(value = "UUID of the API ")  @QueryParam("apiUUID") String apiUUID) throws APIManagementException{
+        return delegate.latencyStatsGet(apiUUID, securityContext);
+    }
+}
@@ -0,0 +1,101 @@
+package org.wso2.carbon.apimgt.rest.api.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.ArrayList;
+import java.util.List;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.PhaseLatencyStatsDTO;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+import org.wso2.carbon.apimgt.rest.api.common.annotations.Scope;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+
+
+public class APILatencyStatsDTO   {
+  
+    private String apiUUID = null;
+    private List<PhaseLatencyStatsDTO> phases = new ArrayList<>();
+
+  /**
+   * UUID of API.
+   **/
+  public APILatencyStatsDTO apiUUID(String apiUUID) {
+    this.apiUUID = apiUUID;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "d290f1ee-6c54-4b01-90e6-d701748f0851", value = "UUID of API.")
+  @JsonProperty("apiUUID")
+  public String getApiUUID() {
+    return apiUUID;
+  }
+  public void setApiUUID(String apiUUID) {
+    this.apiUUID = apiUUID;
+  }
+
+  /**
+   **/
+  public APILatencyStatsDTO phases(List<PhaseLatencyStatsDTO> phases) {
+    this.phases = phases;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "")
+  @JsonProperty("phases")
+  public List<PhaseLatencyStatsDTO> getPhases() {
+    return phases;
+  }
+  public void setPhases(List<PhaseLatencyStatsDTO> phases) {
+    this.phases = phases;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    APILatencyStatsDTO apILatencyStats = (APILatencyStatsDTO) o;
+    return Objects.equals(apiUUID, apILatencyStats.apiUUID) &&
+        Objects.equals(phases, apILatencyStats.phases);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(apiUUID, phases);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class APILatencyStatsDTO {\n");
+    
+    sb.append("    apiUUID: ").append(toIndentedString(apiUUID)).append("\n");
+    sb.append("    phases: ").append(toIndentedString(phases)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
+
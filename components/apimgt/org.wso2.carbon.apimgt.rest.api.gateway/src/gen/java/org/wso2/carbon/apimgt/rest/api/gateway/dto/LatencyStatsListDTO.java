@@ -0,0 +1,122 @@
+package org.wso2.carbon.apimgt.rest.api.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.ArrayList;
+import java.util.List;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.APILatencyStatsDTO;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+import org.wso2.carbon.apimgt.rest.api.common.annotations.Scope;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+
+
+public class LatencyStatsListDTO   {
+  
+    private Double sampleRate = null;
+    private Integer count = null;
+    private List<APILatencyStatsDTO> list = new ArrayList<>();
+
+  /**
+   * Fraction of the requests whose latencies are recorded. 
+   **/
+  public LatencyStatsListDTO sampleRate(Double sampleRate) {
+    this.sampleRate = sampleRate;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "0.1", value = "Fraction of the requests whose latencies are recorded. ")
+  @JsonProperty("sampleRate")
+  public Double getSampleRate() {
+    return sampleRate;
+  }
+  public void setSampleRate(Double sampleRate) {
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Number of APIs returned. 
+   **/
+  public LatencyStatsListDTO count(Integer count) {
+    this.count = count;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "1", value = "Number of APIs returned. ")
+  @JsonProperty("count")
+  public Integer getCount() {
+    return count;
+  }
+  public void setCount(Integer count) {
+    this.count = count;
+  }
+
+  /**
+   **/
+  public LatencyStatsListDTO list(List<APILatencyStatsDTO> list) {
+    this.list = list;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "")
+  @JsonProperty("list")
+  public List<APILatencyStatsDTO> getList() {
+    return list;
+  }
+  public void setList(List<APILatencyStatsDTO> list) {
+    this.list = list;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LatencyStatsListDTO latencyStatsList = (LatencyStatsListDTO) o;
+    return Objects.equals(sampleRate, latencyStatsList.sampleRate) &&
+        Objects.equals(count, latencyStatsList.count) &&
+        Objects.equals(list, latencyStatsList.list);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(sampleRate, count, list);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class LatencyStatsListDTO {\n");
+    
+    sb.append("    sampleRate: ").append(toIndentedString(sampleRate)).append("\n");
+    sb.append("    count: ").append(toIndentedString(count)).append("\n");
+    sb.append("    list: ").append(toIndentedString(list)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
+
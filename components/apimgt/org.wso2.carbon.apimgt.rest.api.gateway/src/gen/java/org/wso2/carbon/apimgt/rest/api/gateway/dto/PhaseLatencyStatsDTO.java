@@ -0,0 +1,204 @@
+package org.wso2.carbon.apimgt.rest.api.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+import org.wso2.carbon.apimgt.rest.api.common.annotations.Scope;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+
+
+public class PhaseLatencyStatsDTO   {
+  
+    private String phase = null;
+    private Long count = null;
+    private Double mean = null;
+    private Long max = null;
+    private Long p50 = null;
+    private Long p90 = null;
+    private Long p99 = null;
+
+  /**
+   * Request processing phase.
+   **/
+  public PhaseLatencyStatsDTO phase(String phase) {
+    this.phase = phase;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "SECURITY", value = "Request processing phase.")
+  @JsonProperty("phase")
+  public String getPhase() {
+    return phase;
+  }
+  public void setPhase(String phase) {
+    this.phase = phase;
+  }
+
+  /**
+   * Number of recorded requests.
+   **/
+  public PhaseLatencyStatsDTO count(Long count) {
+    this.count = count;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "1000", value = "Number of recorded requests.")
+  @JsonProperty("count")
+  public Long getCount() {
+    return count;
+  }
+  public void setCount(Long count) {
+    this.count = count;
+  }
+
+  /**
+   * Mean latency in microseconds.
+   **/
+  public PhaseLatencyStatsDTO mean(Double mean) {
+    this.mean = mean;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "850.5", value = "Mean latency in microseconds.")
+  @JsonProperty("mean")
+  public Double getMean() {
+    return mean;
+  }
+  public void setMean(Double mean) {
+    this.mean = mean;
+  }
+
+  /**
+   * Maximum latency in microseconds.
+   **/
+  public PhaseLatencyStatsDTO max(Long max) {
+    this.max = max;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "12000", value = "Maximum latency in microseconds.")
+  @JsonProperty("max")
+  public Long getMax() {
+    return max;
+  }
+  public void setMax(Long max) {
+    this.max = max;
+  }
+
+  /**
+   * 50th percentile latency in microseconds.
+   **/
+  public PhaseLatencyStatsDTO p50(Long p50) {
+    this.p50 = p50;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "780", value = "50th percentile latency in microseconds.")
+  @JsonProperty("p50")
+  public Long getP50() {
+    return p50;
+  }
+  public void setP50(Long p50) {
+    this.p50 = p50;
+  }
+
+  /**
+   * 90th percentile latency in microseconds.
+   **/
+  public PhaseLatencyStatsDTO p90(Long p90) {
+    this.p90 = p90;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "1500", value = "90th percentile latency in microseconds.")
+  @JsonProperty("p90")
+  public Long getP90() {
+    return p90;
+  }
+  public void setP90(Long p90) {
+    this.p90 = p90;
+  }
+
+  /**
+   * 99th percentile latency in microseconds.
+   **/
+  public PhaseLatencyStatsDTO p99(Long p99) {
+    this.p99 = p99;
+    return this;
+  }
+
+  
+  @ApiModelProperty(example = "4000", value = "99th percentile latency in microseconds.")
+  @JsonProperty("p99")
+  public Long getP99() {
+    return p99;
+  }
+  public void setP99(Long p99) {
+    this.p99 = p99;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    PhaseLatencyStatsDTO phaseLatencyStats = (PhaseLatencyStatsDTO) o;
+    return Objects.equals(phase, phaseLatencyStats.phase) &&
+        Objects.equals(count, phaseLatencyStats.count) &&
+        Objects.equals(mean, phaseLatencyStats.mean) &&
+        Objects.equals(max, phaseLatencyStats.max) &&
+        Objects.equals(p50, phaseLatencyStats.p50) &&
+        Objects.equals(p90, phaseLatencyStats.p90) &&
+        Objects.equals(p99, phaseLatencyStats.p99);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(phase, count, mean, max, p50, p90, p99);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class PhaseLatencyStatsDTO {\n");
+    
+    sb.append("    phase: ").append(toIndentedString(phase)).append("\n");
+    sb.append("    count: ").append(toIndentedString(count)).append("\n");
+    sb.append("    mean: ").append(toIndentedString(mean)).append("\n");
+    sb.append("    max: ").append(toIndentedString(max)).append("\n");
+    sb.append("    p50: ").append(toIndentedString(p50)).append("\n");
+    sb.append("    p90: ").append(toIndentedString(p90)).append("\n");
+    sb.append("    p99: ").append(toIndentedString(p99)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
+
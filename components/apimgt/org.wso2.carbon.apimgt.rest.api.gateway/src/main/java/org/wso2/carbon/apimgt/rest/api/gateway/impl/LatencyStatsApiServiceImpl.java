@@ -0,0 +1,78 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.rest.api.gateway.impl;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyHistogram;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyPhase;
+import org.wso2.carbon.apimgt.gateway.latency.LatencyStatsCollector;
+import org.wso2.carbon.apimgt.rest.api.gateway.LatencyStatsApiService;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.APILatencyStatsDTO;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.LatencyStatsListDTO;
+import org.wso2.carbon.apimgt.rest.api.gateway.dto.PhaseLatencyStatsDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.core.Response;
+
+public class LatencyStatsApiServiceImpl implements LatencyStatsApiService {
+
+    public Response latencyStatsGet(String apiUUID, MessageContext messageContext) {
+
+        LatencyStatsCollector latencyStatsCollector = LatencyStatsCollector.getInstance();
+        List<String> apiUUIDs;
+        if (StringUtils.isNotEmpty(apiUUID)) {
+            if (latencyStatsCollector.getSnapshot(apiUUID, LatencyPhase.TOTAL) == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            apiUUIDs = Collections.singletonList(apiUUID);
+        } else {
+            apiUUIDs = latencyStatsCollector.getAPIUUIDs();
+        }
+        List<APILatencyStatsDTO> apiLatencyStatsList = new ArrayList<>();
+        for (String uuid : apiUUIDs) {
+            List<PhaseLatencyStatsDTO> phases = new ArrayList<>();
+            for (LatencyPhase phase : LatencyPhase.values()) {
+                LatencyHistogram.Snapshot snapshot = latencyStatsCollector.getSnapshot(uuid, phase);
+                if (snapshot != null && snapshot.getCount() > 0) {
+                    phases.add(toPhaseLatencyStatsDTO(phase, snapshot));
+                }
+            }
+            apiLatencyStatsList.add(new APILatencyStatsDTO().apiUUID(uuid).phases(phases));
+        }
+        LatencyStatsListDTO latencyStatsListDTO = new LatencyStatsListDTO()
+                .sampleRate(latencyStatsCollector.getSampleRate())
+                .count(apiLatencyStatsList.size())
+                .list(apiLatencyStatsList);
+        return Response.ok().entity(latencyStatsListDTO).build();
+    }
+
+    private static PhaseLatencyStatsDTO toPhaseLatencyStatsDTO(LatencyPhase phase, LatencyHistogram.Snapshot snapshot) {
+
+        return new PhaseLatencyStatsDTO()
+                .phase(phase.name())
+                .count(snapshot.getCount())
+                .mean(snapshot.getMean())
+                .max(snapshot.getMax())
+                .p50(snapshot.getValueAtPercentile(50))
+                .p90(snapshot.getValueAtPercentile(90))
+                .p99(snapshot.getValueAtPercentile(99));
+    }
+}
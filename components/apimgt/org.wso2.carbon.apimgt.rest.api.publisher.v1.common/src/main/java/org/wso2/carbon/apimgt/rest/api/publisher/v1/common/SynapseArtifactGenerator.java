@@ -68,89 +68,104 @@ public class SynapseArtifactGenerator implements GatewayArtifactGenerator {
         RuntimeArtifactDto runtimeArtifactDto = new RuntimeArtifactDto();
         List<String> synapseArtifacts = new ArrayList<>();
         for (APIRuntimeArtifactDto runTimeArtifact : apiRuntimeArtifactDtoList) {
-            if (runTimeArtifact.isFile()) {
-                String tenantDomain = runTimeArtifact.getTenantDomain();
-                String label = runTimeArtifact.getLabel();
-                Environment environment = APIUtil.getEnvironments(tenantDomain).get(label);
-                GatewayAPIDTO gatewayAPIDTO = null;
-                if (environment != null) {
-                    try (InputStream artifact = (InputStream) runTimeArtifact.getArtifact()) {
-                        File baseDirectory = CommonUtil.createTempDirectory(null);
-                        try {
-                            String extractedFolderPath =
-                                    ImportUtils.getArchivePathOfExtractedDirectory(baseDirectory.getAbsolutePath(),
-                                            artifact);
-                            if (APIConstants.API_PRODUCT.equals(runTimeArtifact.getType())) {
-                                APIProductDTO apiProductDTO = ImportUtils.retrieveAPIProductDto(extractedFolderPath);
-                                apiProductDTO.setId(runTimeArtifact.getApiId());
-                                APIProduct apiProduct = APIMappingUtil.fromDTOtoAPIProduct(apiProductDTO,
-                                        apiProductDTO.getProvider());
-                                APIDefinitionValidationResponse apiDefinitionValidationResponse =
-                                        ImportUtils.retrieveValidatedSwaggerDefinitionFromArchive(extractedFolderPath);
-                                apiProduct.setDefinition(apiDefinitionValidationResponse.getContent());
-                                gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(apiProduct, environment,
-                                        tenantDomain, extractedFolderPath);
-                            } else {
-                                APIDTO apidto = ImportUtils.retrievedAPIDto(extractedFolderPath);
-                                API api = APIMappingUtil.fromDTOtoAPI(apidto, apidto.getProvider());
-                                api.setUUID(apidto.getId());
-                                if (APIConstants.APITransportType.GRAPHQL.toString().equals(api.getType())) {
-                                    APIDefinition parser = new OAS3Parser();
-                                    SwaggerData swaggerData = new SwaggerData(api);
-                                    String apiDefinition = parser.generateAPIDefinition(swaggerData);
-                                    api.setSwaggerDefinition(apiDefinition);
-                                    GraphqlComplexityInfo graphqlComplexityInfo = APIUtil.getComplexityDetails(api);
-                                    String graphqlSchema =
-                                            ImportUtils.retrieveValidatedGraphqlSchemaFromArchive(extractedFolderPath);
-                                    api.setGraphQLSchema(graphqlSchema);
-                                    GraphQLSchemaDefinition graphQLSchemaDefinition = new GraphQLSchemaDefinition();
-                                    graphqlSchema = graphQLSchemaDefinition
-                                            .buildSchemaWithAdditionalInfo(api, graphqlComplexityInfo);
-                                    api.setGraphQLSchema(graphqlSchema);
-                                    gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(api, environment,
-                                            tenantDomain, apidto, extractedFolderPath);
-                                } else if (api.getType() != null &&
-                                        (APIConstants.APITransportType.HTTP.toString().equals(api.getType())
-                                                || APIConstants.API_TYPE_SOAP.equals(api.getType())
-                                                || APIConstants.API_TYPE_SOAPTOREST.equals(api.getType())
-                                                || APIConstants.APITransportType.WEBHOOK.toString()
-                                                        .equals(api.getType()))) {
-                                    APIDefinitionValidationResponse apiDefinitionValidationResponse = ImportUtils
-                                            .retrieveValidatedSwaggerDefinitionFromArchive(extractedFolderPath);
-                                    api.setSwaggerDefinition(apiDefinitionValidationResponse.getContent());
-                                    gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(api, environment,
-                                            tenantDomain, apidto, extractedFolderPath, apiDefinitionValidationResponse);
-                                } else if (api.getType() != null &&
-                                        (APIConstants.APITransportType.WS.toString().equals(api.getType()) ||
-                                                APIConstants.APITransportType.SSE.toString().equals(api.getType()) ||
-                                                APIConstants.APITransportType.WEBSUB.toString()
-                                                        .equals(api.getType()))) {
-                                    APIDefinitionValidationResponse asyncApiDefinition =
-                                            ImportUtils.retrieveValidatedAsyncApiDefinitionFromArchive(
-                                                    extractedFolderPath);
-                                    api.setAsyncApiDefinition(asyncApiDefinition.getContent());
-                                    gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDtoForStreamingAPI(api,
-                                            environment, tenantDomain, apidto, extractedFolderPath);
-                                }
-                            }
-                            if (gatewayAPIDTO != null) {
-                                String content = new Gson().toJson(gatewayAPIDTO);
-                                synapseArtifacts.add(content);
+            String synapseArtifact = generateGatewayArtifact(runTimeArtifact);
+            if (synapseArtifact != null) {
+                synapseArtifacts.add(synapseArtifact);
+            }
+        }
+        runtimeArtifactDto.setFile(false);
+        runtimeArtifactDto.setArtifact(synapseArtifacts);
+        return runtimeArtifactDto;
+    }
+
+    @Override
+    public boolean isStreamingSupported() {
+
+        return true;
+    }
+
+    @Override
+    public String generateGatewayArtifact(APIRuntimeArtifactDto runTimeArtifact) throws APIManagementException {
+
+        if (runTimeArtifact.isFile()) {
+            String tenantDomain = runTimeArtifact.getTenantDomain();
+            String label = runTimeArtifact.getLabel();
+            Environment environment = APIUtil.getEnvironments(tenantDomain).get(label);
+            GatewayAPIDTO gatewayAPIDTO = null;
+            if (environment != null) {
+                try (InputStream artifact = (InputStream) runTimeArtifact.getArtifact()) {
+                    File baseDirectory = CommonUtil.createTempDirectory(null);
+                    try {
+                        String extractedFolderPath =
+                                ImportUtils.getArchivePathOfExtractedDirectory(baseDirectory.getAbsolutePath(),
+                                        artifact);
+                        if (APIConstants.API_PRODUCT.equals(runTimeArtifact.getType())) {
+                            APIProductDTO apiProductDTO = ImportUtils.retrieveAPIProductDto(extractedFolderPath);
+                            apiProductDTO.setId(runTimeArtifact.getApiId());
+                            APIProduct apiProduct = APIMappingUtil.fromDTOtoAPIProduct(apiProductDTO,
+                                    apiProductDTO.getProvider());
+                            APIDefinitionValidationResponse apiDefinitionValidationResponse =
+                                    ImportUtils.retrieveValidatedSwaggerDefinitionFromArchive(extractedFolderPath);
+                            apiProduct.setDefinition(apiDefinitionValidationResponse.getContent());
+                            gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(apiProduct, environment,
+                                    tenantDomain, extractedFolderPath);
+                        } else {
+                            APIDTO apidto = ImportUtils.retrievedAPIDto(extractedFolderPath);
+                            API api = APIMappingUtil.fromDTOtoAPI(apidto, apidto.getProvider());
+                            api.setUUID(apidto.getId());
+                            if (APIConstants.APITransportType.GRAPHQL.toString().equals(api.getType())) {
+                                APIDefinition parser = new OAS3Parser();
+                                SwaggerData swaggerData = new SwaggerData(api);
+                                String apiDefinition = parser.generateAPIDefinition(swaggerData);
+                                api.setSwaggerDefinition(apiDefinition);
+                                GraphqlComplexityInfo graphqlComplexityInfo = APIUtil.getComplexityDetails(api);
+                                String graphqlSchema =
+                                        ImportUtils.retrieveValidatedGraphqlSchemaFromArchive(extractedFolderPath);
+                                api.setGraphQLSchema(graphqlSchema);
+                                GraphQLSchemaDefinition graphQLSchemaDefinition = new GraphQLSchemaDefinition();
+                                graphqlSchema = graphQLSchemaDefinition
+                                        .buildSchemaWithAdditionalInfo(api, graphqlComplexityInfo);
+                                api.setGraphQLSchema(graphqlSchema);
+                                gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(api, environment,
+                                        tenantDomain, apidto, extractedFolderPath);
+                            } else if (api.getType() != null &&
+                                    (APIConstants.APITransportType.HTTP.toString().equals(api.getType())
+                                            || APIConstants.API_TYPE_SOAP.equals(api.getType())
+                                            || APIConstants.API_TYPE_SOAPTOREST.equals(api.getType())
+                                            || APIConstants.APITransportType.WEBHOOK.toString()
+                                                    .equals(api.getType()))) {
+                                APIDefinitionValidationResponse apiDefinitionValidationResponse = ImportUtils
+                                        .retrieveValidatedSwaggerDefinitionFromArchive(extractedFolderPath);
+                                api.setSwaggerDefinition(apiDefinitionValidationResponse.getContent());
+                                gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDto(api, environment,
+                                        tenantDomain, apidto, extractedFolderPath, apiDefinitionValidationResponse);
+                            } else if (api.getType() != null &&
+                                    (APIConstants.APITransportType.WS.toString().equals(api.getType()) ||
+                                            APIConstants.APITransportType.SSE.toString().equals(api.getType()) ||
+                                            APIConstants.APITransportType.WEBSUB.toString()
+                                                    .equals(api.getType()))) {
+                                APIDefinitionValidationResponse asyncApiDefinition =
+                                        ImportUtils.retrieveValidatedAsyncApiDefinitionFromArchive(
+                                                extractedFolderPath);
+                                api.setAsyncApiDefinition(asyncApiDefinition.getContent());
+                                gatewayAPIDTO = TemplateBuilderUtil.retrieveGatewayAPIDtoForStreamingAPI(api,
+                                        environment, tenantDomain, apidto, extractedFolderPath);
                             }
-                        } finally {
-                            FileUtils.deleteQuietly(baseDirectory);
                         }
-                    } catch (Exception e) {
-                        // only do error since we need to continue for other apis
-
-                        log.error("Error while creating Synapse configurations", e);
+                        if (gatewayAPIDTO != null) {
+                            return new Gson().toJson(gatewayAPIDTO);
+                        }
+                    } finally {
+                        FileUtils.deleteQuietly(baseDirectory);
                     }
+                } catch (Exception e) {
+                    // only do error since we need to continue for other apis
+
+                    log.error("Error while creating Synapse configurations", e);
                 }
             }
         }
-        runtimeArtifactDto.setFile(false);
-        runtimeArtifactDto.setArtifact(synapseArtifacts);
-        return runtimeArtifactDto;
+        return null;
     }
 
     @Override
@@ -77,6 +77,7 @@ import org.wso2.carbon.core.util.CryptoUtil;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.*;
 import java.net.*;
 import java.util.*;
@@ -141,14 +142,12 @@ public class ApisApiServiceImpl implements ApisApiService {
             APIMappingUtil.setPaginationParams(apiListDTO, query, offset, limit, length);
 
             if (APIConstants.APPLICATION_GZIP.equals(accept)) {
-                try {
-                    File zippedResponse = GZIPUtils.constructZippedResponse(apiListDTO);
-                    return Response.ok().entity(zippedResponse)
-                            .header("Content-Disposition", "attachment").
-                                    header("Content-Encoding", "gzip").build();
-                } catch (APIManagementException e) {
-                    RestApiUtil.handleInternalServerError(e.getMessage(), e, log);
-                }
+                Object zippedAPIListDTO = apiListDTO;
+                StreamingOutput zippedResponse =
+                        (outputStream) -> GZIPUtils.writeZippedResponse(zippedAPIListDTO, outputStream);
+                return Response.ok().entity(zippedResponse)
+                        .header("Content-Disposition", "attachment").
+                                header("Content-Encoding", "gzip").build();
             } else {
                 return Response.ok().entity(apiListDTO).build();
             }
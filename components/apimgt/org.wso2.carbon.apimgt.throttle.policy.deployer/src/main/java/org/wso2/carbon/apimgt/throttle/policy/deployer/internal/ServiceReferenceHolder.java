@@ -20,6 +20,7 @@ package org.wso2.carbon.apimgt.throttle.policy.deployer.internal;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
 import org.wso2.carbon.apimgt.impl.APIManagerConfigurationService;
 import org.wso2.carbon.event.processor.core.EventProcessorService;
+import org.wso2.carbon.event.stream.core.EventStreamService;
 
 /**
  * Class for keeping service references.
@@ -34,6 +35,7 @@ public class ServiceReferenceHolder {
 
     private APIManagerConfiguration apimConfiguration;
     private EventProcessorService eventProcessorService;
+    private EventStreamService eventStreamService;
 
     public static ServiceReferenceHolder getInstance() {
         return instance;
@@ -61,4 +63,12 @@ public class ServiceReferenceHolder {
     public void setEventProcessorService(EventProcessorService eventProcessorService) {
         this.eventProcessorService = eventProcessorService;
     }
+
+    public EventStreamService getEventStreamService() {
+        return eventStreamService;
+    }
+
+    public void setEventStreamService(EventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
 }
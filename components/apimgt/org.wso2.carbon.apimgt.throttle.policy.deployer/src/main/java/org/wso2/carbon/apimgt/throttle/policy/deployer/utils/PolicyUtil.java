@@ -41,15 +41,19 @@ import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.SubscriptionPolicyLis
 import org.wso2.carbon.apimgt.throttle.policy.deployer.exception.ThrottlePolicyDeployerException;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.internal.ServiceReferenceHolder;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.event.processor.core.EventProcessorService;
 import org.wso2.carbon.event.processor.core.ExecutionPlanConfiguration;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanConfigurationException;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanDependencyValidationException;
+import org.wso2.carbon.event.stream.core.EventStreamService;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An Utility class for policy deploy operations.
@@ -58,6 +62,10 @@ public class PolicyUtil {
 
     private static final Log log = LogFactory.getLog(PolicyUtil.class);
     private static final String migrationEnabled = System.getProperty(APIConstants.MIGRATE);
+    // Policies evaluated by the consolidated execution plans, keyed by policy level and then by the name the
+    // policy would have as an execution plan of its own.
+    private static final Map<String, Map<String, Policy>> consolidatedPolicies = new ConcurrentHashMap<>();
+    private static final Object consolidatedPolicyLock = new Object();
 
     /**
      * Deploy the given throttle policy in the Traffic Manager.
@@ -67,6 +75,10 @@ public class PolicyUtil {
      */
     public static void deployPolicy(Policy policy, PolicyEvent policyEvent) {
 
+        String consolidatedPolicyLevel = getConsolidatedPolicyLevel(policy);
+        if (consolidatedPolicyLevel != null && deployConsolidatedPolicy(consolidatedPolicyLevel, policy)) {
+            return;
+        }
         EventProcessorService eventProcessorService =
                 ServiceReferenceHolder.getInstance().getEventProcessorService();
         ThrottlePolicyTemplateBuilder policyTemplateBuilder = new ThrottlePolicyTemplateBuilder();
@@ -123,22 +135,7 @@ public class PolicyUtil {
             // Undeploy removed policies
             undeployPolicies(policiesToUndeploy);
 
-            for (Map.Entry<String, String> pair : policiesToDeploy.entrySet()) {
-                String policyPlanName = pair.getKey();
-                String flowString = pair.getValue();
-                String executionPlan = null;
-                try {
-                    executionPlan = eventProcessorService.getActiveExecutionPlan(policyPlanName);
-                } catch (ExecutionPlanConfigurationException e) {
-                    // Deploy new policies
-                    eventProcessorService.deployExecutionPlan(flowString);
-                }
-                if (executionPlan != null) {
-                    // Update existing policies
-                    eventProcessorService.editActiveExecutionPlan(flowString, policyPlanName);
-                }
-            }
-
+            deployExecutionPlans(eventProcessorService, policiesToDeploy);
         } catch (APITemplateException e) {
             log.error("Error in creating execution plan", e);
         } catch (ExecutionPlanConfigurationException | ExecutionPlanDependencyValidationException e) {
@@ -161,21 +158,25 @@ public class PolicyUtil {
             if (migrationEnabled == null) {
                 subscriptionPolicies = policyRetriever.getAllSubscriptionPolicies();
             }
+            List<Policy> subscriptionPoliciesToDeploy = new ArrayList<>();
             for (SubscriptionPolicy subscriptionPolicy : subscriptionPolicies.getList()) {
                 if (!(APIConstants.UNLIMITED_TIER.equalsIgnoreCase(subscriptionPolicy.getName())
                         || APIConstants.DEFAULT_SUB_POLICY_ASYNC_UNLIMITED.
                         equalsIgnoreCase(subscriptionPolicy.getName())
                         || APIConstants.DEFAULT_SUB_POLICY_ASYNC_WH_UNLIMITED.
                         equalsIgnoreCase(subscriptionPolicy.getName()))) {
-                    deployPolicy(subscriptionPolicy, null);
+                    subscriptionPoliciesToDeploy.add(subscriptionPolicy);
                 }
             }
+            deployPolicies(PolicyConstants.POLICY_LEVEL_SUB, subscriptionPoliciesToDeploy);
             ApplicationPolicyList applicationPolicies = policyRetriever.getAllApplicationPolicies();
+            List<Policy> applicationPoliciesToDeploy = new ArrayList<>();
             for (ApplicationPolicy applicationPolicy : applicationPolicies.getList()) {
                 if (!APIConstants.UNLIMITED_TIER.equalsIgnoreCase(applicationPolicy.getName())) {
-                    deployPolicy(applicationPolicy, null);
+                    applicationPoliciesToDeploy.add(applicationPolicy);
                 }
             }
+            deployPolicies(PolicyConstants.POLICY_LEVEL_APP, applicationPoliciesToDeploy);
             ApiPolicyList apiPolicies = policyRetriever.getAllApiPolicies();
             for (ApiPolicy apiPolicy : apiPolicies.getList()) {
                 if (!APIConstants.UNLIMITED_TIER.equalsIgnoreCase(apiPolicy.getName())) {
@@ -191,6 +192,358 @@ public class PolicyUtil {
         }
     }
 
+    /**
+     * Deploy the given subscription or application level policies. When consolidated policy deployment is enabled,
+     * the policies sharing the same limit type and time window are deployed as a single execution plan.
+     *
+     * @param policyLevel level of the policies, either 'sub' or 'app'
+     * @param policies    policies to deploy
+     */
+    private static void deployPolicies(String policyLevel, List<Policy> policies) {
+
+        List<Policy> remainingPolicies = policies;
+        if (isConsolidatedPolicyDeploymentEnabled()) {
+            remainingPolicies = deployConsolidatedPolicies(policyLevel, policies);
+        }
+        for (Policy policy : remainingPolicies) {
+            deployPolicy(policy, null);
+        }
+    }
+
+    /**
+     * Deploy the consolidated execution plans of all the given policies of a level, replacing the policies known
+     * for that level.
+     *
+     * @param policyLevel level of the policies, either 'sub' or 'app'
+     * @param policies    policies to deploy
+     * @return the policies which cannot be consolidated and need an execution plan of their own
+     */
+    private static List<Policy> deployConsolidatedPolicies(String policyLevel, List<Policy> policies) {
+
+        List<Policy> remainingPolicies = new ArrayList<>();
+        synchronized (consolidatedPolicyLock) {
+            Map<String, Policy> levelPolicies = new ConcurrentHashMap<>();
+            for (Policy policy : policies) {
+                if (ThrottlePolicyTemplateBuilder.isConsolidationSupported(policy)) {
+                    levelPolicies.put(getPolicyFileName(policyLevel, policy.getTenantDomain(), policy.getName()),
+                            policy);
+                } else {
+                    remainingPolicies.add(policy);
+                }
+            }
+            consolidatedPolicies.put(policyLevel, levelPolicies);
+            try {
+                Map<String, String> policiesToDeploy = new ThrottlePolicyTemplateBuilder()
+                        .getConsolidatedThrottlePolicies(policyLevel, new ArrayList<>(levelPolicies.values()));
+                deployExecutionPlansInTenantFlow(policiesToDeploy);
+                // The plans start with an empty limit table, which is filled through the policy limit stream
+                for (String planName : policiesToDeploy.keySet()) {
+                    publishPlanLimits(policyLevel, planName);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Deployed " + levelPolicies.size() + " " + policyLevel + " level policies as "
+                            + policiesToDeploy.size() + " consolidated execution plans");
+                }
+            } catch (APITemplateException e) {
+                log.error("Error in creating consolidated execution plans for " + policyLevel + " level", e);
+            }
+        }
+        return remainingPolicies;
+    }
+
+    /**
+     * Add or update a policy evaluated by a consolidated execution plan. The limit of the policy is updated in the
+     * table of the plan through the policy limit stream, so the plan is only deployed when it does not exist yet
+     * and its counters are kept intact.
+     *
+     * @param policyLevel level of the policy, either 'sub' or 'app'
+     * @param policy      policy to deploy
+     * @return true if the policy is evaluated by a consolidated execution plan, false if it needs an execution plan
+     * of its own
+     */
+    private static boolean deployConsolidatedPolicy(String policyLevel, Policy policy) {
+
+        String policyFile = getPolicyFileName(policyLevel, policy.getTenantDomain(), policy.getName());
+        boolean consolidationSupported = ThrottlePolicyTemplateBuilder.isConsolidationSupported(policy);
+        synchronized (consolidatedPolicyLock) {
+            Map<String, Policy> levelPolicies =
+                    consolidatedPolicies.computeIfAbsent(policyLevel, k -> new ConcurrentHashMap<>());
+            Policy existingPolicy = consolidationSupported ? levelPolicies.put(policyFile, policy)
+                    : levelPolicies.remove(policyFile);
+            String planName = consolidationSupported
+                    ? ThrottlePolicyTemplateBuilder.getConsolidatedPlanName(policyLevel, policy) : null;
+            if (existingPolicy != null) {
+                String existingPlanName =
+                        ThrottlePolicyTemplateBuilder.getConsolidatedPlanName(policyLevel, existingPolicy);
+                if (!existingPlanName.equals(planName)) {
+                    // The time window or the quota type of the policy changed, so it moves to another plan
+                    removeFromConsolidatedPlan(policyLevel, existingPlanName, existingPolicy);
+                }
+            }
+            if (consolidationSupported) {
+                if (deployConsolidatedPlanIfAbsent(policyLevel, planName, policy)) {
+                    publishPlanLimits(policyLevel, planName);
+                } else {
+                    publishPolicyLimit(planName, policy, false);
+                }
+            }
+        }
+        if (consolidationSupported) {
+            // Remove the execution plan deployed for the policy before it was consolidated, if any
+            undeployPolicies(Collections.singletonList(policyFile));
+        }
+        return consolidationSupported;
+    }
+
+    /**
+     * Remove a policy evaluated by a consolidated execution plan.
+     *
+     * @param policyLevel level of the policy, either 'sub' or 'app'
+     * @param policyFile  name the policy would have as an execution plan of its own
+     */
+    private static void undeployConsolidatedPolicy(String policyLevel, String policyFile) {
+
+        synchronized (consolidatedPolicyLock) {
+            Map<String, Policy> levelPolicies = consolidatedPolicies.get(policyLevel);
+            Policy existingPolicy = levelPolicies != null ? levelPolicies.remove(policyFile) : null;
+            if (existingPolicy != null) {
+                removeFromConsolidatedPlan(policyLevel,
+                        ThrottlePolicyTemplateBuilder.getConsolidatedPlanName(policyLevel, existingPolicy),
+                        existingPolicy);
+            }
+        }
+    }
+
+    /**
+     * Remove the limit of a policy from the table of the given consolidated execution plan, or undeploy the plan
+     * when no other policy of the level is evaluated by it. Callers must hold the consolidated policy lock and
+     * must have already removed the policy from the known policies of the level.
+     *
+     * @param policyLevel level of the policy, either 'sub' or 'app'
+     * @param planName    name of the consolidated execution plan which evaluated the policy
+     * @param policy      removed policy
+     */
+    private static void removeFromConsolidatedPlan(String policyLevel, String planName, Policy policy) {
+
+        Map<String, Policy> levelPolicies = consolidatedPolicies.get(policyLevel);
+        if (levelPolicies != null) {
+            for (Policy levelPolicy : levelPolicies.values()) {
+                if (planName.equals(ThrottlePolicyTemplateBuilder.getConsolidatedPlanName(policyLevel, levelPolicy))) {
+                    publishPolicyLimit(planName, policy, true);
+                    return;
+                }
+            }
+        }
+        undeployPolicies(Collections.singletonList(planName));
+    }
+
+    /**
+     * Deploy the consolidated execution plan which evaluates the given policy if it is not deployed yet. Callers
+     * must hold the consolidated policy lock.
+     *
+     * @param policyLevel level of the policy, either 'sub' or 'app'
+     * @param planName    name of the consolidated execution plan
+     * @param policy      policy evaluated by the plan
+     * @return true if the plan was deployed by this call, false if it was already deployed or failed to deploy
+     */
+    private static boolean deployConsolidatedPlanIfAbsent(String policyLevel, String planName, Policy policy) {
+
+        if (isExecutionPlanDeployed(planName)) {
+            return false;
+        }
+        try {
+            deployExecutionPlansInTenantFlow(new ThrottlePolicyTemplateBuilder()
+                    .getConsolidatedThrottlePolicies(policyLevel, Collections.singletonList(policy)));
+        } catch (APITemplateException e) {
+            log.error("Error in creating consolidated execution plan " + planName, e);
+            return false;
+        }
+        return isExecutionPlanDeployed(planName);
+    }
+
+    /**
+     * Publish the limits of all the known policies of a level evaluated by the given consolidated execution plan. A
+     * deployed or redeployed plan starts with an empty limit table, so this is done whenever the plan is deployed.
+     * Callers must hold the consolidated policy lock.
+     *
+     * @param policyLevel level of the policies, either 'sub' or 'app'
+     * @param planName    name of the consolidated execution plan
+     */
+    private static void publishPlanLimits(String policyLevel, String planName) {
+
+        Map<String, Policy> levelPolicies = consolidatedPolicies.get(policyLevel);
+        if (levelPolicies == null) {
+            return;
+        }
+        boolean planDeployed = isExecutionPlanDeployed(planName);
+        for (Policy policy : levelPolicies.values()) {
+            if (planName.equals(ThrottlePolicyTemplateBuilder.getConsolidatedPlanName(policyLevel, policy))) {
+                if (planDeployed) {
+                    publishPolicyLimitEvent(planName, policy, false);
+                } else {
+                    logMissingPolicyLimit(planName, policy, "the execution plan is not deployed");
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish the limit of a policy to the policy limit stream, which inserts, updates or deletes the policy in the
+     * limit table of the given consolidated execution plan. The limit is only published if the plan is deployed, as
+     * the event is lost otherwise.
+     *
+     * @param planName  name of the consolidated execution plan which evaluates the policy
+     * @param policy    policy evaluated by the plan
+     * @param isDeleted true if the policy is to be removed from the plan
+     */
+    private static void publishPolicyLimit(String planName, Policy policy, boolean isDeleted) {
+
+        if (isExecutionPlanDeployed(planName)) {
+            publishPolicyLimitEvent(planName, policy, isDeleted);
+        } else if (!isDeleted) {
+            logMissingPolicyLimit(planName, policy, "the execution plan is not deployed");
+        }
+    }
+
+    private static void publishPolicyLimitEvent(String planName, Policy policy, boolean isDeleted) {
+
+        EventStreamService eventStreamService = ServiceReferenceHolder.getInstance().getEventStreamService();
+        if (eventStreamService == null) {
+            if (!isDeleted) {
+                logMissingPolicyLimit(planName, policy, "the event stream service is not available");
+            }
+            return;
+        }
+        Object[] payload = new Object[]{planName, policy.getTenantDomain(), policy.getName(),
+                ThrottlePolicyTemplateBuilder.getConsolidatedPolicyLimit(policy), isDeleted};
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                    .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
+            eventStreamService.publish(
+                    new Event(APIConstants.POLICY_LIMIT_STREAM_ID, System.currentTimeMillis(), null, null, payload));
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug((isDeleted ? "Removed" : "Updated") + " the limit of policy " + policy.getName() + " of "
+                    + policy.getTenantDomain() + " in " + planName);
+        }
+    }
+
+    private static void logMissingPolicyLimit(String planName, Policy policy, String reason) {
+
+        log.error("Limit of policy " + policy.getName() + " of " + policy.getTenantDomain() + " is not added to "
+                + "consolidated execution plan " + planName + " as " + reason + ". Requests of the policy are not "
+                + "throttled until the policy is deployed again.");
+    }
+
+    private static boolean isExecutionPlanDeployed(String planName) {
+
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                    .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
+            return ServiceReferenceHolder.getInstance().getEventProcessorService()
+                    .getActiveExecutionPlan(planName) != null;
+        } catch (ExecutionPlanConfigurationException e) {
+            return false;
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private static void deployExecutionPlansInTenantFlow(Map<String, String> policiesToDeploy) {
+
+        if (policiesToDeploy.isEmpty()) {
+            return;
+        }
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                    .setTenantDomain(APIConstants.SUPER_TENANT_DOMAIN, true);
+            deployExecutionPlans(ServiceReferenceHolder.getInstance().getEventProcessorService(), policiesToDeploy);
+        } catch (ExecutionPlanConfigurationException | ExecutionPlanDependencyValidationException e) {
+            log.error("Error in deploying execution plan", e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Deploy the given execution plans, or update them if they are already deployed.
+     *
+     * @param eventProcessorService event processor service
+     * @param policiesToDeploy      execution plans keyed by the execution plan name
+     */
+    private static void deployExecutionPlans(EventProcessorService eventProcessorService,
+                                             Map<String, String> policiesToDeploy)
+            throws ExecutionPlanConfigurationException, ExecutionPlanDependencyValidationException {
+
+        for (Map.Entry<String, String> pair : policiesToDeploy.entrySet()) {
+            String policyPlanName = pair.getKey();
+            String flowString = pair.getValue();
+            String executionPlan = null;
+            try {
+                executionPlan = eventProcessorService.getActiveExecutionPlan(policyPlanName);
+            } catch (ExecutionPlanConfigurationException e) {
+                // Deploy new policies
+                eventProcessorService.deployExecutionPlan(flowString);
+            }
+            if (executionPlan != null) {
+                // Update existing policies
+                eventProcessorService.editActiveExecutionPlan(flowString, policyPlanName);
+            }
+        }
+    }
+
+    /**
+     * Returns the level under which the given policy is deployed as a consolidated execution plan.
+     *
+     * @param policy policy to deploy
+     * @return 'sub' or 'app' if consolidated policy deployment is enabled for the policy, null otherwise
+     */
+    private static String getConsolidatedPolicyLevel(Policy policy) {
+
+        if (!isConsolidatedPolicyDeploymentEnabled()) {
+            return null;
+        }
+        if (Policy.PolicyType.SUBSCRIPTION.equals(policy.getType()) && policy instanceof SubscriptionPolicy) {
+            return PolicyConstants.POLICY_LEVEL_SUB;
+        } else if (Policy.PolicyType.APPLICATION.equals(policy.getType()) && policy instanceof ApplicationPolicy) {
+            return PolicyConstants.POLICY_LEVEL_APP;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether policies are to be deployed as consolidated execution plans. The limits of the consolidated
+     * policies are published through the event stream service, so policies keep an execution plan of their own
+     * while the service is not available.
+     *
+     * @return true if consolidated policy deployment is enabled and the event stream service is available
+     */
+    private static boolean isConsolidatedPolicyDeploymentEnabled() {
+
+        APIManagerConfiguration apiManagerConfiguration =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration();
+        if (apiManagerConfiguration == null || apiManagerConfiguration.getThrottleProperties() == null
+                || !apiManagerConfiguration.getThrottleProperties().isEnableConsolidatedPolicyDeployment()) {
+            return false;
+        }
+        if (ServiceReferenceHolder.getInstance().getEventStreamService() == null) {
+            log.error("Consolidated policy deployment is enabled, but the event stream service is not available. "
+                    + "Policies are deployed as execution plans of their own.");
+            return false;
+        }
+        return true;
+    }
+
+    private static String getPolicyFileName(String policyLevel, String tenantDomain, String policyName) {
+
+        return String.join(APIConstants.DELEM_UNDERSCORE, tenantDomain, policyLevel, policyName);
+    }
+
     /**
      * Undeploy all the throttle policies in the Traffic Manager except the excluded ones.
      */
@@ -238,6 +591,9 @@ public class PolicyUtil {
         List<String> policyFileNames = new ArrayList<>();
         String policyFile = policyEvent.getTenantDomain() + "_" + PolicyConstants.POLICY_LEVEL_SUB + "_" +
                 policyEvent.getPolicyName();
+        if (isConsolidatedPolicyDeploymentEnabled()) {
+            undeployConsolidatedPolicy(PolicyConstants.POLICY_LEVEL_SUB, policyFile);
+        }
         policyFileNames.add(policyFile);
         undeployPolicies(policyFileNames);
     }
@@ -252,6 +608,9 @@ public class PolicyUtil {
         List<String> policyFileNames = new ArrayList<>();
         String policyFile = policyEvent.getTenantDomain() + "_" + PolicyConstants.POLICY_LEVEL_APP + "_" +
                 policyEvent.getPolicyName();
+        if (isConsolidatedPolicyDeploymentEnabled()) {
+            undeployConsolidatedPolicy(PolicyConstants.POLICY_LEVEL_APP, policyFile);
+        }
         policyFileNames.add(policyFile);
         undeployPolicies(policyFileNames);
     }
@@ -42,18 +42,23 @@ import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.ApiPolicy;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.ApplicationPolicy;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.Condition;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.GlobalPolicy;
+import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.Limit;
+import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.Policy;
+import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.QuotaPolicy;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.SubscriptionPolicy;
 import org.wso2.carbon.utils.CarbonUtils;
 
 import java.io.File;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * This Class used to generate execution plans using policy templates
@@ -67,6 +72,8 @@ public class ThrottlePolicyTemplateBuilder {
     private static final String POLICY_VELOCITY_APP = "throttle_policy_template_app";
     private static final String POLICY_VELOCITY_SUB = "throttle_policy_template_sub";
     private static final String POLICY_VELOCITY_ASYNC_SUB = "throttle_policy_template_async_sub";
+    private static final String POLICY_VELOCITY_CONSOLIDATED = "throttle_policy_template_consolidated";
+    private static final String CONSOLIDATED_PLAN_PREFIX = "consolidated";
     private final String policyTemplateLocation = "repository" + File.separator + "resources" + File.separator
             + "policy_templates" + File.separator;
 
@@ -475,6 +482,123 @@ public class ThrottlePolicyTemplateBuilder {
         return writer.toString();
     }
 
+    /**
+     * Generate consolidated execution plans for subscription or application level policies. Policies having the
+     * same quota type and time window share a single execution plan, which looks up the limit of each policy from
+     * a table instead of running a plan per policy. The table is filled and updated through the policy limit stream,
+     * so the generated plans only depend on the quota type and the time window, not on the policies themselves.
+     *
+     * @param policyLevel level of the policies, either 'sub' or 'app'
+     * @param policies    policies of the given level. Policies which cannot be consolidated are ignored
+     * @return a Map of execution plans keyed by the execution plan name
+     * @throws APITemplateException if failed to generate policy
+     */
+    public Map<String, String> getConsolidatedThrottlePolicies(String policyLevel, List<? extends Policy> policies)
+            throws APITemplateException {
+
+        Map<String, List<Policy>> policiesByPlan = new TreeMap<>();
+        for (Policy policy : policies) {
+            if (isConsolidationSupported(policy)) {
+                policiesByPlan.computeIfAbsent(getConsolidatedPlanName(policyLevel, policy), k -> new ArrayList<>())
+                        .add(policy);
+            }
+        }
+        Map<String, String> policyArray = new HashMap<>();
+        if (policiesByPlan.isEmpty()) {
+            return policyArray;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Generating " + policiesByPlan.size() + " consolidated policies for " + policyLevel
+                    + " level");
+        }
+        try {
+            VelocityEngine velocityengine = new VelocityEngine();
+            APIUtil.initializeVelocityContext(velocityengine);
+
+            velocityengine.setProperty(RuntimeConstants.FILE_RESOURCE_LOADER_PATH, CarbonUtils.getCarbonHome());
+            velocityengine.init();
+            Template template = velocityengine.getTemplate(getTemplatePathForConsolidated());
+
+            for (Map.Entry<String, List<Policy>> entry : policiesByPlan.entrySet()) {
+                Policy firstPolicy = entry.getValue().get(0);
+                Limit limit = firstPolicy.getDefaultLimit().getLimit();
+                VelocityContext context = new VelocityContext();
+                setConstantContext(context);
+                context.put("planName", entry.getKey());
+                context.put("policyLevel", policyLevel);
+                context.put("quotaType", firstPolicy.getDefaultLimit().getQuotaType());
+                context.put("unitTime", limit.getUnitTime());
+                context.put("timeUnit", limit.getTimeUnit());
+                if (PolicyConstants.POLICY_LEVEL_APP.equals(policyLevel)) {
+                    context.put("tenantAttribute", "appTenant");
+                    context.put("tierAttribute", "appTier");
+                    context.put("keyAttribute", "appKey");
+                } else {
+                    context.put("tenantAttribute", "apiTenant");
+                    context.put("tierAttribute", "subscriptionTier");
+                    context.put("keyAttribute", "subscriptionKey");
+                }
+                StringWriter writer = new StringWriter();
+                template.merge(context, writer);
+                if (log.isDebugEnabled()) {
+                    log.debug("Policy : " + writer.toString());
+                }
+                policyArray.put(entry.getKey(), writer.toString());
+            }
+        } catch (VelocityException e) {
+            log.error("Velocity Error", e);
+            throw new APITemplateException("Velocity Error", e);
+        }
+        return policyArray;
+    }
+
+    /**
+     * Returns the name of the consolidated execution plan which evaluates the given policy.
+     *
+     * @param policyLevel level of the policy, either 'sub' or 'app'
+     * @param policy      policy to be evaluated
+     * @return execution plan name
+     */
+    public static String getConsolidatedPlanName(String policyLevel, Policy policy) {
+
+        Limit limit = policy.getDefaultLimit().getLimit();
+        return String.join(APIConstants.DELEM_UNDERSCORE, CONSOLIDATED_PLAN_PREFIX, policyLevel,
+                policy.getDefaultLimit().getQuotaType(), String.valueOf(limit.getUnitTime()), limit.getTimeUnit());
+    }
+
+    /**
+     * Returns the limit of the given policy as stored in the table of its consolidated execution plan, which is the
+     * request count for request count limits and the data amount in bytes for bandwidth limits.
+     *
+     * @param policy policy evaluated by a consolidated execution plan
+     * @return policy limit
+     */
+    public static long getConsolidatedPolicyLimit(Policy policy) {
+
+        QuotaPolicy quotaPolicy = policy.getDefaultLimit();
+        if (PolicyConstants.BANDWIDTH_TYPE.equals(quotaPolicy.getQuotaType())) {
+            return quotaPolicy.getBandwidth().getStandardDataAmount();
+        }
+        return quotaPolicy.getRequestCount().getRequestCount();
+    }
+
+    /**
+     * Checks whether the given policy can be evaluated by a consolidated execution plan. Only request count and
+     * bandwidth limits are consolidated; other policies keep an execution plan of their own.
+     *
+     * @param policy policy to check
+     * @return true if the policy can be consolidated
+     */
+    public static boolean isConsolidationSupported(Policy policy) {
+
+        QuotaPolicy quotaPolicy = policy.getDefaultLimit();
+        if (quotaPolicy == null || quotaPolicy.getLimit() == null) {
+            return false;
+        }
+        return PolicyConstants.REQUEST_COUNT_TYPE.equals(quotaPolicy.getQuotaType())
+                || PolicyConstants.BANDWIDTH_TYPE.equals(quotaPolicy.getQuotaType());
+    }
+
     private String getTemplatePathForAPI() {
         return policyTemplateLocation + ThrottlePolicyTemplateBuilder.POLICY_VELOCITY_RESOURCE + ".xml";
     }
@@ -498,4 +622,8 @@ public class ThrottlePolicyTemplateBuilder {
     private String getTemplatePathForAsyncSubscription() {
         return policyTemplateLocation + ThrottlePolicyTemplateBuilder.POLICY_VELOCITY_ASYNC_SUB + ".xml";
     }
+
+    private String getTemplatePathForConsolidated() {
+        return policyTemplateLocation + ThrottlePolicyTemplateBuilder.POLICY_VELOCITY_CONSOLIDATED + ".xml";
+    }
 }
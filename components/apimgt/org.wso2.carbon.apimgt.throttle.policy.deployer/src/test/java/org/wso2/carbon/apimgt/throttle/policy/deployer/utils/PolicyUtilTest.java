@@ -25,6 +25,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 import org.wso2.carbon.apimgt.api.model.policy.PolicyConstants;
 import org.wso2.carbon.apimgt.impl.APIConstants;
 import org.wso2.carbon.apimgt.impl.APIManagerConfiguration;
@@ -45,22 +46,30 @@ import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.SubscriptionPolicyLis
 import org.wso2.carbon.apimgt.throttle.policy.deployer.exception.ThrottlePolicyDeployerException;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.internal.ServiceReferenceHolder;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.databridge.commons.Event;
 import org.wso2.carbon.event.processor.core.EventProcessorService;
 import org.wso2.carbon.event.processor.core.ExecutionPlanConfiguration;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanConfigurationException;
 import org.wso2.carbon.event.processor.core.exception.ExecutionPlanDependencyValidationException;
+import org.wso2.carbon.event.stream.core.EventStreamService;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RunWith(PowerMockRunner.class)
 @SuppressStaticInitializationFor("org.wso2.carbon.context.PrivilegedCarbonContext")
 @PrepareForTest({ServiceReferenceHolder.class, PrivilegedCarbonContext.class, PolicyUtil.class})
 public class PolicyUtilTest {
+    private static final Pattern PLAN_NAME_PATTERN = Pattern.compile("@Plan:name\\('([^']+)'\\)");
     private EventProcessorService eventProcessorService;
+    private EventStreamService eventStreamService;
     private PolicyRetriever policyRetriever;
 
     @Before
@@ -75,6 +84,8 @@ public class PolicyUtilTest {
         PowerMockito.mockStatic(ServiceReferenceHolder.class);
         ServiceReferenceHolder serviceReferenceHolder = Mockito.mock(ServiceReferenceHolder.class);
         Mockito.when(serviceReferenceHolder.getEventProcessorService()).thenReturn(eventProcessorService);
+        eventStreamService = Mockito.mock(EventStreamService.class);
+        Mockito.when(serviceReferenceHolder.getEventStreamService()).thenReturn(eventStreamService);
 
         APIManagerConfiguration apiManagerConfiguration = Mockito.mock(APIManagerConfiguration.class);
         ThrottleProperties throttleProperties = Mockito.mock(ThrottleProperties.class);
@@ -88,6 +99,40 @@ public class PolicyUtilTest {
 
         policyRetriever = Mockito.mock(PolicyRetriever.class);
         PowerMockito.whenNew(PolicyRetriever.class).withNoArguments().thenReturn(policyRetriever);
+        ((Map<?, ?>) Whitebox.getInternalState(PolicyUtil.class, "consolidatedPolicies")).clear();
+    }
+
+    /**
+     * Keeps track of the execution plans deployed through the mocked event processor service.
+     *
+     * @return names of the deployed execution plans
+     */
+    private Set<String> mockDeployedExecutionPlans() throws ExecutionPlanConfigurationException,
+            ExecutionPlanDependencyValidationException {
+
+        Set<String> deployedPlans = new HashSet<>();
+        ExecutionPlanConfigurationException executionPlanConfigurationException =
+                Mockito.mock(ExecutionPlanConfigurationException.class);
+        Mockito.when(eventProcessorService.getActiveExecutionPlan(Mockito.anyString())).thenAnswer(invocation -> {
+            if (!deployedPlans.contains(invocation.<String>getArgument(0))) {
+                throw executionPlanConfigurationException;
+            }
+            return "EXECUTION_PLAN";
+        });
+        Mockito.doAnswer(invocation -> {
+            Matcher matcher = PLAN_NAME_PATTERN.matcher(invocation.<String>getArgument(0));
+            if (matcher.find()) {
+                deployedPlans.add(matcher.group(1));
+            }
+            return null;
+        }).when(eventProcessorService).deployExecutionPlan(Mockito.anyString());
+        return deployedPlans;
+    }
+
+    private boolean isPolicyLimitEvent(Event event, String planName, String policyName) {
+
+        return APIConstants.POLICY_LIMIT_STREAM_ID.equals(event.getStreamId())
+                && planName.equals(event.getPayloadData()[0]) && policyName.equals(event.getPayloadData()[2]);
     }
 
     @Test
@@ -376,4 +421,139 @@ public class PolicyUtilTest {
         Mockito.verify(eventProcessorService, Mockito.times(5)).deployExecutionPlan(Mockito.anyString());
     }
 
+    @Test
+    public void testDeployAllPolicies_Consolidated() throws ExecutionPlanConfigurationException,
+            ThrottlePolicyDeployerException, ExecutionPlanDependencyValidationException {
+
+        ThrottleProperties throttleProperties =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties();
+        Mockito.when(throttleProperties.isEnableConsolidatedPolicyDeployment()).thenReturn(true);
+        mockDeployedExecutionPlans();
+        Mockito.when(eventProcessorService.getAllActiveExecutionConfigurations()).thenReturn(new HashMap<>());
+
+        SubscriptionPolicyList subscriptionPolicyList = new SubscriptionPolicyList();
+        List<SubscriptionPolicy> subscriptionPolicies = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            SubscriptionPolicy subscriptionPolicy = TestUtil.getPolicySubLevel();
+            subscriptionPolicy.setName("policy" + i);
+            subscriptionPolicies.add(subscriptionPolicy);
+        }
+        subscriptionPolicyList.setList(subscriptionPolicies);
+        Mockito.when(policyRetriever.getAllSubscriptionPolicies()).thenReturn(subscriptionPolicyList);
+
+        ApplicationPolicyList applicationPolicyList = new ApplicationPolicyList();
+        List<ApplicationPolicy> applicationPolicies = new ArrayList<>();
+        applicationPolicies.add(TestUtil.getPolicyAppLevel());
+        applicationPolicyList.setList(applicationPolicies);
+        Mockito.when(policyRetriever.getAllApplicationPolicies()).thenReturn(applicationPolicyList);
+
+        ApiPolicyList apiPolicyList = new ApiPolicyList();
+        apiPolicyList.setList(new ArrayList<>());
+        Mockito.when(policyRetriever.getAllApiPolicies()).thenReturn(apiPolicyList);
+
+        GlobalPolicyList globalPolicyList = new GlobalPolicyList();
+        globalPolicyList.setList(new ArrayList<>());
+        Mockito.when(policyRetriever.getAllGlobalPolicies()).thenReturn(globalPolicyList);
+
+        PolicyUtil.deployAllPolicies();
+
+        // One execution plan for the three subscription policies and one for the application policy
+        Mockito.verify(eventProcessorService, Mockito.times(2)).deployExecutionPlan(Mockito.anyString());
+        Mockito.verify(eventProcessorService).deployExecutionPlan(
+                Mockito.contains("@Plan:name('consolidated_sub_requestCount_1_min')"));
+        Mockito.verify(eventProcessorService).deployExecutionPlan(
+                Mockito.contains("@Plan:name('consolidated_app_requestCount_1_min')"));
+        // The limit of each policy is published to the deployed plans
+        Mockito.verify(eventStreamService, Mockito.times(4)).publish(Mockito.any(Event.class));
+    }
+
+    @Test
+    public void testUpdatePolicy_Consolidated() throws ExecutionPlanConfigurationException,
+            ExecutionPlanDependencyValidationException {
+
+        ThrottleProperties throttleProperties =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties();
+        Mockito.when(throttleProperties.isEnableConsolidatedPolicyDeployment()).thenReturn(true);
+        Mockito.when(eventProcessorService.getActiveExecutionPlan(Mockito.anyString())).thenReturn("EXECUTION_PLAN");
+
+        SubscriptionPolicy policy = TestUtil.getPolicySubLevel();
+        PolicyUtil.deployPolicy(policy, null);
+
+        // The plan is already deployed, so only the limit of the policy is updated
+        Mockito.verify(eventProcessorService, Mockito.never()).deployExecutionPlan(Mockito.anyString());
+        Mockito.verify(eventProcessorService, Mockito.never())
+                .editActiveExecutionPlan(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(eventStreamService).publish(Mockito.argThat((Event event) ->
+                APIConstants.POLICY_LIMIT_STREAM_ID.equals(event.getStreamId())
+                        && "consolidated_sub_requestCount_1_min".equals(event.getPayloadData()[0])
+                        && Boolean.FALSE.equals(event.getPayloadData()[4])));
+    }
+
+    @Test
+    public void testDeployPolicy_ConsolidatedPlanRedeployed() throws ExecutionPlanConfigurationException,
+            ExecutionPlanDependencyValidationException {
+
+        ThrottleProperties throttleProperties =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties();
+        Mockito.when(throttleProperties.isEnableConsolidatedPolicyDeployment()).thenReturn(true);
+        Set<String> deployedPlans = mockDeployedExecutionPlans();
+        String planName = "consolidated_sub_requestCount_1_min";
+
+        SubscriptionPolicy policy1 = TestUtil.getPolicySubLevel();
+        policy1.setName("policy1");
+        PolicyUtil.deployPolicy(policy1, null);
+        Mockito.verify(eventStreamService).publish(
+                Mockito.argThat((Event event) -> isPolicyLimitEvent(event, planName, "policy1")));
+
+        // The plan is lost, so it is deployed again with the limits of all its policies
+        deployedPlans.clear();
+        SubscriptionPolicy policy2 = TestUtil.getPolicySubLevel();
+        policy2.setName("policy2");
+        PolicyUtil.deployPolicy(policy2, null);
+        Mockito.verify(eventProcessorService, Mockito.times(2)).deployExecutionPlan(Mockito.anyString());
+        Mockito.verify(eventStreamService, Mockito.times(2)).publish(
+                Mockito.argThat((Event event) -> isPolicyLimitEvent(event, planName, "policy1")));
+        Mockito.verify(eventStreamService).publish(
+                Mockito.argThat((Event event) -> isPolicyLimitEvent(event, planName, "policy2")));
+    }
+
+    @Test
+    public void testDeployPolicy_ConsolidatedPlanNotDeployed() throws ExecutionPlanConfigurationException,
+            ExecutionPlanDependencyValidationException {
+
+        ThrottleProperties throttleProperties =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties();
+        Mockito.when(throttleProperties.isEnableConsolidatedPolicyDeployment()).thenReturn(true);
+        ExecutionPlanConfigurationException executionPlanConfigurationException =
+                Mockito.mock(ExecutionPlanConfigurationException.class);
+        Mockito.when(eventProcessorService.getActiveExecutionPlan(Mockito.anyString()))
+                .thenThrow(executionPlanConfigurationException);
+
+        PolicyUtil.deployPolicy(TestUtil.getPolicySubLevel(), null);
+
+        // The limit is not published to a plan which failed to deploy, as the event would be lost
+        Mockito.verify(eventProcessorService).deployExecutionPlan(
+                Mockito.contains("@Plan:name('consolidated_sub_requestCount_1_min')"));
+        Mockito.verify(eventStreamService, Mockito.never()).publish(Mockito.any(Event.class));
+    }
+
+    @Test
+    public void testDeployPolicy_ConsolidatedWithoutEventStreamService() throws ExecutionPlanConfigurationException,
+            ExecutionPlanDependencyValidationException {
+
+        ThrottleProperties throttleProperties =
+                ServiceReferenceHolder.getInstance().getAPIMConfiguration().getThrottleProperties();
+        Mockito.when(throttleProperties.isEnableConsolidatedPolicyDeployment()).thenReturn(true);
+        Mockito.when(ServiceReferenceHolder.getInstance().getEventStreamService()).thenReturn(null);
+        mockDeployedExecutionPlans();
+
+        SubscriptionPolicy policy = TestUtil.getPolicySubLevel();
+        PolicyUtil.deployPolicy(policy, null);
+
+        // The policy keeps an execution plan of its own
+        Mockito.verify(eventProcessorService).deployExecutionPlan(Mockito.anyString());
+        Mockito.verify(eventProcessorService, Mockito.never()).deployExecutionPlan(
+                Mockito.contains("consolidated_sub"));
+    }
+
 }
@@ -34,6 +34,8 @@ import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.GlobalPolicy;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.dto.SubscriptionPolicy;
 import org.wso2.carbon.apimgt.throttle.policy.deployer.internal.ServiceReferenceHolder;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @RunWith(PowerMockRunner.class)
@@ -88,4 +90,30 @@ public class ThrottlingPolicyTemplateBuilderTest {
         String policyString = templateBuilder.getThrottlePolicyForSubscriptionLevel(policy);
         Assert.assertNotNull(policyString);
     }
+
+    @Test
+    public void testGetConsolidatedThrottlePolicies() throws Exception {
+        List<SubscriptionPolicy> policies = new ArrayList<>();
+        SubscriptionPolicy policy1 = TestUtil.getPolicySubLevel();
+        policies.add(policy1);
+        SubscriptionPolicy policy2 = TestUtil.getPolicySubLevel();
+        policy2.setName("policy2");
+        policies.add(policy2);
+        SubscriptionPolicy policy3 = TestUtil.getPolicySubLevel();
+        policy3.setName("policy3");
+        policy3.getDefaultLimit().getRequestCount().setTimeUnit("hour");
+        policies.add(policy3);
+
+        Map<String, String> policyStringArray = templateBuilder.getConsolidatedThrottlePolicies("sub", policies);
+        Assert.assertEquals(2, policyStringArray.size());
+        String minutePolicyString = policyStringArray.get("consolidated_sub_requestCount_1_min");
+        Assert.assertNotNull(minutePolicyString);
+        // Policy limits are updated through the policy limit stream instead of being part of the plan
+        Assert.assertTrue(minutePolicyString.contains("@Import('org.wso2.throttle.policy.limit.stream:1.0.0')"));
+        Assert.assertTrue(minutePolicyString.contains("planName == 'consolidated_sub_requestCount_1_min'"));
+        Assert.assertFalse(minutePolicyString.contains("policy1"));
+        Assert.assertFalse(minutePolicyString.contains("policy2"));
+        Assert.assertTrue(policyStringArray.get("consolidated_sub_requestCount_1_hour")
+                .contains("planName == 'consolidated_sub_requestCount_1_hour'"));
+    }
 }
@@ -32,9 +32,9 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.ExecutionPlanValidationException;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is a custom extension, written for a certain throttler.
@@ -46,48 +46,71 @@ import java.util.Map;
  * <p/>
  * This is useful when the throttler needs to alert only when the throttling decision is changed, in contrast to alerting about every decision taken.
  * <p/>
+ * The decision of a key is forgotten a minute after the throttle window which produced it expires, unless a request
+ * of a later window updates it, after which the next request of the key is treated as the first one. The minute
+ * covers the expired events emitted by the window itself. When the expiry time is not passed, decisions are
+ * forgotten after they have not been updated for an hour.
+ * <p/>
  * Usage:
  * throttler:emitOnStateChange(key, isThrottled)
+ * throttler:emitOnStateChange(key, isThrottled, expiryTimeStamp)
  * <p/>
  * Parameters:
  * key: The key coming in the request, based on which throttling decision was made.
  * isThrottled: The throttling decision made.
+ * expiryTimeStamp: Optional. The time at which the throttle window of the decision expires.
  * <p/>
  * Example on usage:
- * from DecisionStream#throttler:emitOnStateChange(key, isThrottled)
+ * from DecisionStream#throttler:emitOnStateChange(key, isThrottled, expiryTimeStamp)
  * select *
  * insert into AlertStream;
  */
 public class EmitOnStateChange extends StreamProcessor {
+    private static final long DEFAULT_STATE_RETENTION_TIME = TimeUnit.HOURS.toMillis(1);
+    private static final long EXPIRED_STATE_RETENTION_TIME = TimeUnit.MINUTES.toMillis(1);
     private VariableExpressionExecutor keyExpressionExecutor;
     private VariableExpressionExecutor isThrottledExpressionExecutor;
-    private Map<String, Boolean> throttleStateMap = new HashMap<String, Boolean>();
+    private ExpressionExecutor expiryTimeExpressionExecutor;
+    private ExecutionPlanContext executionPlanContext;
+    private ThrottleStateMap throttleStateMap = new ThrottleStateMap();
 
     @Override
     protected void process(ComplexEventChunk<StreamEvent> streamEventChunk, Processor nextProcessor,
                            StreamEventCloner streamEventCloner, ComplexEventPopulater complexEventPopulater) {
+        long currentTime = executionPlanContext.getTimestampGenerator().currentTime();
+        throttleStateMap.removeExpired(currentTime);
         while (streamEventChunk.hasNext()) {
             StreamEvent event = streamEventChunk.next();
             Boolean currentThrottleState = (Boolean) isThrottledExpressionExecutor.execute(event);
             String key = (String) keyExpressionExecutor.execute(event);
-            Boolean lastThrottleState = throttleStateMap.get(key);
+            Boolean lastThrottleState = throttleStateMap.get(key, currentTime);
             if (lastThrottleState == currentThrottleState && !currentThrottleState) {
                 streamEventChunk.remove();
             } else {
-                throttleStateMap.put(key, currentThrottleState);
+                throttleStateMap.put(key, currentThrottleState, getExpiryTime(event, currentTime));
             }
         }
         nextProcessor.process(streamEventChunk);
     }
 
+    private long getExpiryTime(StreamEvent event, long currentTime) {
+        if (expiryTimeExpressionExecutor != null) {
+            Long expiryTime = (Long) expiryTimeExpressionExecutor.execute(event);
+            if (expiryTime != null) {
+                return expiryTime + EXPIRED_STATE_RETENTION_TIME;
+            }
+        }
+        return currentTime + DEFAULT_STATE_RETENTION_TIME;
+    }
+
     @Override
     protected List<Attribute> init(AbstractDefinition inputDefinition,
                                    ExpressionExecutor[] attributeExpressionExecutors,
                                    ExecutionPlanContext executionPlanContext) {
-        if (attributeExpressionExecutors.length != 2) {
+        if (attributeExpressionExecutors.length != 2 && attributeExpressionExecutors.length != 3) {
             throw new ExecutionPlanValidationException("Invalid no of arguments passed to throttler:emitOnStateChange" +
-                                                       "(key,isThrottled), required 2, but found "
-                                                       + attributeExpressionExecutors.length);
+                                                       "(key,isThrottled[,expiryTimeStamp]), required 2 or 3, but " +
+                                                       "found " + attributeExpressionExecutors.length);
         }
         if (attributeExpressionExecutors[0].getReturnType() != Attribute.Type.STRING) {
             throw new ExecutionPlanValidationException("Invalid parameter type found for the argument of " +
@@ -101,8 +124,19 @@ public class EmitOnStateChange extends StreamProcessor {
                                                        "required " + Attribute.Type.BOOL + ", but found " +
                                                        attributeExpressionExecutors[1].getReturnType());
         }
+        if (attributeExpressionExecutors.length == 3) {
+            if (attributeExpressionExecutors[2].getReturnType() != Attribute.Type.LONG) {
+                throw new ExecutionPlanValidationException("Invalid parameter type found for the argument of " +
+                                                           "throttler:emitOnStateChange(key,isThrottled," +
+                                                           "expiryTimeStamp), required " + Attribute.Type.LONG +
+                                                           ", but found " +
+                                                           attributeExpressionExecutors[2].getReturnType());
+            }
+            expiryTimeExpressionExecutor = attributeExpressionExecutors[2];
+        }
         keyExpressionExecutor = (VariableExpressionExecutor) attributeExpressionExecutors[0];
         isThrottledExpressionExecutor = (VariableExpressionExecutor) attributeExpressionExecutors[1];
+        this.executionPlanContext = executionPlanContext;
         return new ArrayList<Attribute>();    //this does not introduce any additional output attributes, hence returning an empty list.
     }
 
@@ -118,11 +152,21 @@ public class EmitOnStateChange extends StreamProcessor {
 
     @Override
     public Object[] currentState() {
+        throttleStateMap.removeExpired(executionPlanContext.getTimestampGenerator().currentTime());
         return new Object[]{throttleStateMap};
     }
 
     @Override
     public void restoreState(Object[] state) {
-        throttleStateMap = (HashMap<String, Boolean>) state[0];
+        if (state[0] instanceof ThrottleStateMap) {
+            throttleStateMap = (ThrottleStateMap) state[0];
+        } else if (state[0] instanceof Map) {
+            // Snapshot taken before the decisions had an expiry time
+            long expiryTime = executionPlanContext.getTimestampGenerator().currentTime() + DEFAULT_STATE_RETENTION_TIME;
+            throttleStateMap = new ThrottleStateMap();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) state[0]).entrySet()) {
+                throttleStateMap.put((String) entry.getKey(), Boolean.TRUE.equals(entry.getValue()), expiryTime);
+            }
+        }
     }
 }
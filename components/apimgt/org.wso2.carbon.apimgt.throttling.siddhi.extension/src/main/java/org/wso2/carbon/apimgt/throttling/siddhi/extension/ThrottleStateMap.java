@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.throttling.siddhi.extension;
+
+import java.io.Serializable;
+
+/**
+ * Throttle state of the keys seen by {@link EmitOnStateChange}. Each key maps to the last throttle decision taken
+ * for it and the time at which that decision expires, which is the end of the throttle window that produced it.
+ * Expired keys are dropped, so the map only holds the keys of the current windows instead of every key ever seen.
+ * <p>
+ * Keys are kept in an open addressing table with parallel primitive arrays for the decisions and the expiry times,
+ * so that no wrapper object is allocated per key. The map is not thread safe; Siddhi invokes the processor holding
+ * it from one thread at a time.
+ */
+final class ThrottleStateMap implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private boolean[] throttleStates;
+    private long[] expiryTimes;
+    private int size;
+    private long nextExpiryTime = Long.MAX_VALUE;
+
+    ThrottleStateMap() {
+
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the last throttle decision recorded for the key.
+     *
+     * @param key         throttle key
+     * @param currentTime current time in milliseconds
+     * @return the last decision, or null if there is none or it has expired
+     */
+    Boolean get(String key, long currentTime) {
+
+        int index = indexOf(key);
+        if (index < 0 || expiryTimes[index] <= currentTime) {
+            return null;
+        }
+        return throttleStates[index];
+    }
+
+    /**
+     * Records the throttle decision taken for the key.
+     *
+     * @param key        throttle key
+     * @param throttled  throttle decision
+     * @param expiryTime time in milliseconds after which the decision is dropped. An earlier expiry time than the
+     *                   one already recorded for the key does not shorten it
+     */
+    void put(String key, boolean throttled, long expiryTime) {
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            throttleStates[index] = throttled;
+            expiryTimes[index] = Math.max(expiryTimes[index], expiryTime);
+            return;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length * 2, Long.MIN_VALUE);
+        }
+        insert(key, throttled, expiryTime);
+    }
+
+    /**
+     * Drops the decisions which have expired, if any of them is due.
+     *
+     * @param currentTime current time in milliseconds
+     * @return number of keys dropped
+     */
+    int removeExpired(long currentTime) {
+
+        if (currentTime < nextExpiryTime) {
+            return 0;
+        }
+        int liveKeys = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && expiryTimes[i] > currentTime) {
+                liveKeys++;
+            }
+        }
+        int removedKeys = size - liveKeys;
+        rehash(capacityFor(liveKeys), currentTime);
+        return removedKeys;
+    }
+
+    int size() {
+
+        return size;
+    }
+
+    private int indexOf(String key) {
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != null) {
+            if (keys[index].equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(String key, boolean throttled, long expiryTime) {
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != null) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        throttleStates[index] = throttled;
+        expiryTimes[index] = expiryTime;
+        nextExpiryTime = Math.min(nextExpiryTime, expiryTime);
+        size++;
+    }
+
+    /**
+     * Moves the entries expiring after the given time to a table of the given capacity.
+     */
+    private void rehash(int capacity, long currentTime) {
+
+        String[] oldKeys = keys;
+        boolean[] oldThrottleStates = throttleStates;
+        long[] oldExpiryTimes = expiryTimes;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null && oldExpiryTimes[i] > currentTime) {
+                insert(oldKeys[i], oldThrottleStates[i], oldExpiryTimes[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+
+        keys = new String[capacity];
+        throttleStates = new boolean[capacity];
+        expiryTimes = new long[capacity];
+        size = 0;
+        nextExpiryTime = Long.MAX_VALUE;
+    }
+
+    private static int capacityFor(int entries) {
+
+        int capacity = MIN_CAPACITY;
+        while (entries * 4 > capacity * 3) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(String key) {
+
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2023, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.wso2.carbon.apimgt.throttling.siddhi.extension;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class ThrottleStateMapTestCase {
+
+    @Test
+    public void testDecisionsExpireWithTheirWindow() {
+
+        ThrottleStateMap stateMap = new ThrottleStateMap();
+        stateMap.put("key1", true, 1000);
+        stateMap.put("key2", false, 2000);
+
+        Assert.assertEquals(Boolean.TRUE, stateMap.get("key1", 500));
+        Assert.assertEquals(Boolean.FALSE, stateMap.get("key2", 500));
+        Assert.assertNull(stateMap.get("key3", 500));
+        Assert.assertNull(stateMap.get("key1", 1000));
+
+        Assert.assertEquals(0, stateMap.removeExpired(999));
+        Assert.assertEquals(1, stateMap.removeExpired(1000));
+        Assert.assertEquals(1, stateMap.size());
+        Assert.assertEquals(Boolean.FALSE, stateMap.get("key2", 1500));
+    }
+
+    @Test
+    public void testEarlierExpiryDoesNotShortenDecision() {
+
+        ThrottleStateMap stateMap = new ThrottleStateMap();
+        stateMap.put("key1", true, 2000);
+        stateMap.put("key1", false, 1000);
+
+        Assert.assertEquals(0, stateMap.removeExpired(1500));
+        Assert.assertEquals(Boolean.FALSE, stateMap.get("key1", 1500));
+    }
+
+    @Test
+    public void testMapGrowsAndShrinks() {
+
+        ThrottleStateMap stateMap = new ThrottleStateMap();
+        for (int i = 0; i < 10000; i++) {
+            stateMap.put("key" + i, i % 2 == 0, i < 9000 ? 1000 : 5000);
+        }
+        Assert.assertEquals(10000, stateMap.size());
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertEquals(i % 2 == 0, stateMap.get("key" + i, 0));
+        }
+
+        Assert.assertEquals(9000, stateMap.removeExpired(1000));
+        Assert.assertEquals(1000, stateMap.size());
+        Assert.assertNull(stateMap.get("key0", 1000));
+        Assert.assertEquals(Boolean.FALSE, stateMap.get("key9999", 1000));
+    }
+
+    @Test
+    public void testStateSurvivesSerialization() throws Exception {
+
+        ThrottleStateMap stateMap = new ThrottleStateMap();
+        stateMap.put("key1", true, 1000);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(stateMap);
+        }
+        ThrottleStateMap restoredStateMap;
+        try (ObjectInputStream objectInputStream =
+                     new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            restoredStateMap = (ThrottleStateMap) objectInputStream.readObject();
+        }
+
+        Assert.assertEquals(Boolean.TRUE, restoredStateMap.get("key1", 500));
+        Assert.assertEquals(1, restoredStateMap.size());
+    }
+}